@@ -470,4 +470,11 @@ public interface Application {
    * @return the views
    */
   public List<View> getViews();
+
+  /**
+   * Returns the scheduler which executes the background tasks of the application and of its views.
+   *
+   * @return the task scheduler
+   */
+  public TaskScheduler getTaskScheduler();
 }
@@ -0,0 +1,92 @@
+/*
+ * @(#)TaskScheduler.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.api.app;
+
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Executes background tasks of an {@link Application} and its {@link View}s on a bounded number of
+ * worker threads.
+ *
+ * <p>Tasks are dequeued by {@link Priority}, and in submission order within the same priority. Each
+ * task can be associated with an owner, typically a view, so that all tasks of the owner can be
+ * canceled when the owner is disposed.
+ *
+ * <p>Tasks which need to report progress, or which need to deliver their results on the AWT Event
+ * Dispatcher Thread, can be passed in as {@code javax.swing.SwingWorker}s. The scheduler runs the
+ * worker, and the worker reports progress through its {@code progress} property and invokes its
+ * {@code done} method as usual.
+ */
+public interface TaskScheduler {
+
+  /** The name of the bound property {@code queueSize}. */
+  public static final String QUEUE_SIZE_PROPERTY = "queueSize";
+
+  /** The name of the bound property {@code activeCount}. */
+  public static final String ACTIVE_COUNT_PROPERTY = "activeCount";
+
+  /** The priority of a task. Tasks with a lower ordinal are dequeued first. */
+  public enum Priority {
+    /** A task on which the user is actively waiting. */
+    INTERACTIVE,
+    /** Loading a document into a view. */
+    LOAD,
+    /** Saving, exporting or printing a document. */
+    EXPORT,
+    /** Speculative work, which may be useful later. */
+    PREFETCH
+  }
+
+  /**
+   * Schedules a task for execution.
+   *
+   * @param owner the owner of the task, for example a {@link View}, or null
+   * @param priority the priority of the task
+   * @param task the task
+   * @return a future which can be used to cancel the task
+   */
+  public Future<?> execute(Object owner, Priority priority, Runnable task);
+
+  /**
+   * Creates an executor which schedules its tasks one after the other with this scheduler. This is
+   * used to keep the sequential semantics of {@link View#execute}. Shutting the executor down lets
+   * its queued tasks complete.
+   *
+   * @param owner the owner of the tasks, for example a {@link View}, or null
+   * @param priority the priority of the tasks
+   * @return a serial executor
+   */
+  public ExecutorService createSerialExecutor(Object owner, Priority priority);
+
+  /**
+   * Cancels all tasks of the specified owner. Queued tasks will not be executed. Running tasks are
+   * marked as canceled, but are not interrupted. Tasks with priority {@link Priority#EXPORT} are
+   * not canceled, so that documents which are being saved are not lost.
+   */
+  public void cancel(Object owner);
+
+  /** Returns the maximal number of tasks which are executed in parallel. */
+  public int getParallelism();
+
+  /** Returns the number of tasks which are waiting for execution. This is a bound property. */
+  public int getQueueSize();
+
+  /** Returns the number of tasks which are being executed. This is a bound property. */
+  public int getActiveCount();
+
+  /**
+   * Adds a property change listener. Property change events are fired on the AWT Event Dispatcher
+   * Thread.
+   */
+  public void addPropertyChangeListener(PropertyChangeListener l);
+
+  /** Removes a property change listener. */
+  public void removePropertyChangeListener(PropertyChangeListener l);
+}
@@ -26,6 +26,7 @@ import javax.swing.*;
 import org.jhotdraw.api.app.Application;
 import org.jhotdraw.api.app.ApplicationModel;
 import org.jhotdraw.api.app.Disposable;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.app.action.file.ClearRecentFilesMenuAction;
@@ -34,6 +35,7 @@ import org.jhotdraw.app.action.file.LoadFileAction;
 import org.jhotdraw.app.action.file.LoadRecentFileAction;
 import org.jhotdraw.app.action.file.OpenRecentFileAction;
 import org.jhotdraw.beans.AbstractBean;
+import org.jhotdraw.gui.DefaultTaskScheduler;
 import org.jhotdraw.util.*;
 import org.jhotdraw.util.prefs.PreferencesUtil;
 
@@ -77,6 +79,7 @@ public abstract class AbstractApplication extends AbstractBean implements Applic
   private URIChooser saveChooser;
   private URIChooser importChooser;
   private URIChooser exportChooser;
+  private TaskScheduler taskScheduler;
 
   public AbstractApplication() {}
 
@@ -111,18 +114,20 @@ public abstract class AbstractApplication extends AbstractBean implements Applic
       // ApplicationOpenFileAction picks it up on Mac OS X.
       setActiveView(v);
 
-      new SwingWorker() {
-        @Override
-        protected Object doInBackground() throws Exception {
-          v.clear();
-          return null;
-        }
+      SwingWorker<?, ?> worker =
+          new SwingWorker<Object, Object>() {
+            @Override
+            protected Object doInBackground() throws Exception {
+              v.clear();
+              return null;
+            }
 
-        @Override
-        protected void done() {
-          v.setEnabled(true);
-        }
-      }.execute();
+            @Override
+            protected void done() {
+              v.setEnabled(true);
+            }
+          };
+      getTaskScheduler().execute(v, TaskScheduler.Priority.INTERACTIVE, worker);
     } else {
       for (final URI uri : uris) {
         final View v = createView();
@@ -132,26 +137,31 @@ public abstract class AbstractApplication extends AbstractBean implements Applic
         // Set the start view immediately active, so that
         // ApplicationOpenFileAction picks it up on Mac OS X.
         setActiveView(v);
-        new SwingWorker() {
-          @Override
-          protected Object doInBackground() throws Exception {
-            v.read(uri, null);
-            return null;
-          }
-
-          @Override
-          protected void done() {
-            try {
-              get();
-              v.setURI(uri);
-            } catch (InterruptedException | ExecutionException ex) {
-              Logger.getLogger(AbstractApplication.class.getName()).log(Level.SEVERE, null, ex);
-              v.clear();
-            }
+        SwingWorker<?, ?> worker =
+            new SwingWorker<Object, Object>() {
+              @Override
+              protected Object doInBackground() throws Exception {
+                v.read(uri, null);
+                return null;
+              }
 
-            v.setEnabled(true);
-          }
-        }.execute();
+              @Override
+              protected void done() {
+                if (isCancelled()) {
+                  return;
+                }
+                try {
+                  get();
+                  v.setURI(uri);
+                } catch (InterruptedException | ExecutionException ex) {
+                  Logger.getLogger(AbstractApplication.class.getName()).log(Level.SEVERE, null, ex);
+                  v.clear();
+                }
+
+                v.setEnabled(true);
+              }
+            };
+        getTaskScheduler().execute(v, TaskScheduler.Priority.LOAD, worker);
       }
     }
   }
@@ -269,11 +279,31 @@ public abstract class AbstractApplication extends AbstractBean implements Applic
 
   @Override
   public void dispose(View view) {
+    getTaskScheduler().cancel(view);
     remove(view);
     model.destroyView(this, view);
     view.dispose();
   }
 
+  /**
+   * Returns the task scheduler of the application. If no scheduler has been set, the shared
+   * instance of {@link DefaultTaskScheduler} is used.
+   */
+  @Override
+  public TaskScheduler getTaskScheduler() {
+    if (taskScheduler == null) {
+      taskScheduler = DefaultTaskScheduler.getInstance();
+    }
+    return taskScheduler;
+  }
+
+  /** Sets the task scheduler of the application. */
+  public void setTaskScheduler(TaskScheduler newValue) {
+    TaskScheduler oldValue = taskScheduler;
+    taskScheduler = newValue;
+    firePropertyChange("taskScheduler", oldValue, newValue);
+  }
+
   @Override
   public Collection<View> views() {
     if (unmodifiableViews == null) {
@@ -14,7 +14,9 @@ import java.util.prefs.*;
 import javax.swing.*;
 import org.jhotdraw.api.app.Application;
 import org.jhotdraw.api.app.Disposable;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
+import org.jhotdraw.gui.DefaultTaskScheduler;
 import org.jhotdraw.util.prefs.PreferencesUtil;
 
 /** This abstract class can be extended to implement a {@link View}. */
@@ -25,7 +27,8 @@ public abstract class AbstractView extends JPanel implements View {
 
   /**
    * The executor used to perform background tasks for the View in a controlled manner. This
-   * executor ensures that all background tasks are executed sequentually.
+   * executor ensures that all background tasks are executed sequentually. The tasks are scheduled
+   * with the {@link TaskScheduler} of the application.
    */
   protected ExecutorService executor;
 
@@ -169,7 +172,11 @@ public abstract class AbstractView extends JPanel implements View {
   @Override
   public void execute(Runnable worker) {
     if (executor == null) {
-      executor = Executors.newSingleThreadExecutor();
+      TaskScheduler taskScheduler =
+          (application == null)
+              ? DefaultTaskScheduler.getInstance()
+              : application.getTaskScheduler();
+      executor = taskScheduler.createSerialExecutor(this, TaskScheduler.Priority.INTERACTIVE);
     }
     executor.execute(worker);
   }
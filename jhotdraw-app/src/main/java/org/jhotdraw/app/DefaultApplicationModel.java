@@ -65,24 +65,32 @@ public class DefaultApplicationModel extends AbstractApplicationModel {
   @Override
   public void initView(Application a, View v) {}
 
-  /** Returns an {@code ActionMap} with a default set of actions (See class comments). */
+  /**
+   * Returns an {@code ActionMap} with a default set of actions (See class comments).
+   *
+   * <p>The actions which do not depend on a view are only put into the action map of the
+   * application, which is the parent of the action maps of the views. The actions of a view are
+   * created when they are requested for the first time.
+   */
   @Override
   public ActionMap createActionMap(Application a, View v) {
-    ActionMap m = new ActionMap();
-    m.put(NewFileAction.ID, new NewFileAction(a));
-    m.put(OpenFileAction.ID, new OpenFileAction(a));
-    m.put(SaveFileAction.ID, new SaveFileAction(a, v));
-    m.put(SaveFileAsAction.ID, new SaveFileAsAction(a, v));
-    m.put(CloseFileAction.ID, new CloseFileAction(a, v));
-    m.put(UndoAction.ID, new UndoAction(a, v));
-    m.put(RedoAction.ID, new RedoAction(a, v));
-    m.put(CutAction.ID, new CutAction());
-    m.put(CopyAction.ID, new CopyAction());
-    m.put(PasteAction.ID, new PasteAction());
-    m.put(DeleteAction.ID, new DeleteAction());
-    m.put(DuplicateAction.ID, new DuplicateAction());
-    m.put(SelectAllAction.ID, new SelectAllAction());
-    m.put(ClearSelectionAction.ID, new ClearSelectionAction());
+    LazyActionMap m = new LazyActionMap();
+    if (v == null) {
+      m.putLazy(NewFileAction.ID, () -> new NewFileAction(a));
+      m.putLazy(OpenFileAction.ID, () -> new OpenFileAction(a));
+      m.putLazy(CutAction.ID, CutAction::new);
+      m.putLazy(CopyAction.ID, CopyAction::new);
+      m.putLazy(PasteAction.ID, PasteAction::new);
+      m.putLazy(DeleteAction.ID, DeleteAction::new);
+      m.putLazy(DuplicateAction.ID, DuplicateAction::new);
+      m.putLazy(SelectAllAction.ID, SelectAllAction::new);
+      m.putLazy(ClearSelectionAction.ID, ClearSelectionAction::new);
+    }
+    m.putLazy(SaveFileAction.ID, () -> new SaveFileAction(a, v));
+    m.putLazy(SaveFileAsAction.ID, () -> new SaveFileAsAction(a, v));
+    m.putLazy(CloseFileAction.ID, () -> new CloseFileAction(a, v));
+    m.putLazy(UndoAction.ID, () -> new UndoAction(a, v));
+    m.putLazy(RedoAction.ID, () -> new RedoAction(a, v));
     return m;
   }
 
@@ -0,0 +1,106 @@
+/*
+ * @(#)LazyActionMap.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.app;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.function.Supplier;
+import javax.swing.Action;
+import javax.swing.ActionMap;
+
+/**
+ * An {@code ActionMap} which creates its actions when they are requested for the first time.
+ *
+ * <p>Actions which are put into the map directly replace the factories for the same key.
+ */
+public class LazyActionMap extends ActionMap {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The factories of the actions which have not been created yet. */
+  private transient LinkedHashMap<Object, Supplier<? extends Action>> factories =
+      new LinkedHashMap<>();
+
+  /** Puts a factory which creates the action for the specified key on first use. */
+  public void putLazy(Object key, Supplier<? extends Action> factory) {
+    super.remove(key);
+    factories.put(key, factory);
+  }
+
+  @Override
+  public Action get(Object key) {
+    Supplier<? extends Action> factory = factories.remove(key);
+    if (factory != null) {
+      Action action = factory.get();
+      super.put(key, action);
+      return action;
+    }
+    return super.get(key);
+  }
+
+  @Override
+  public void put(Object key, Action action) {
+    factories.remove(key);
+    super.put(key, action);
+  }
+
+  @Override
+  public void remove(Object key) {
+    factories.remove(key);
+    super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    factories.clear();
+    super.clear();
+  }
+
+  @Override
+  public Object[] keys() {
+    if (factories.isEmpty()) {
+      return super.keys();
+    }
+    LinkedHashSet<Object> keys = new LinkedHashSet<>(factories.keySet());
+    Object[] created = super.keys();
+    if (created != null) {
+      for (Object key : created) {
+        keys.add(key);
+      }
+    }
+    return keys.toArray();
+  }
+
+  @Override
+  public int size() {
+    return super.size() + factories.size();
+  }
+
+  @Override
+  public Object[] allKeys() {
+    if (factories.isEmpty()) {
+      return super.allKeys();
+    }
+    LinkedHashSet<Object> keys = new LinkedHashSet<>(factories.keySet());
+    Object[] other = super.allKeys();
+    if (other != null) {
+      for (Object key : other) {
+        keys.add(key);
+      }
+    }
+    return keys.toArray();
+  }
+
+  /** The factories are not serialized. Actions which have not been created are lost. */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    factories = new LinkedHashMap<>();
+  }
+}
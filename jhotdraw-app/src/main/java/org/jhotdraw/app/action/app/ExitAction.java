@@ -22,6 +22,7 @@ import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import org.jhotdraw.action.AbstractApplicationAction;
 import org.jhotdraw.api.app.Application;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.gui.JSheet;
@@ -303,77 +304,81 @@ public class ExitAction extends AbstractApplicationAction {
 
   protected void saveToFile(final URI uri, final URIChooser chooser) {
     final View v = unsavedView;
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        v.write(uri, chooser);
-        return null;
-      }
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            v.write(uri, chooser);
+            return null;
+          }
 
-      @Override
-      protected void done() {
-        try {
-          get();
-          v.setURI(uri);
-          doExit();
-        } catch (InterruptedException | ExecutionException ex) {
-          Logger.getLogger(ExitAction.class.getName()).log(Level.SEVERE, null, ex);
-          ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
-          JSheet.showMessageSheet(
-              v.getComponent(),
-              "<html>"
-                  + UIManager.getString("OptionPane.css")
-                  + "<b>"
-                  + labels.format("file.save.couldntSave.message", URIUtil.getName(uri))
-                  + "</b><p>"
-                  + ex,
-              JOptionPane.ERROR_MESSAGE);
-        }
-        v.setEnabled(true);
-        if (oldFocusOwner != null) {
-          oldFocusOwner.requestFocus();
-        }
-        getApplication().setEnabled(true);
-      }
-    }.execute();
+          @Override
+          protected void done() {
+            try {
+              get();
+              v.setURI(uri);
+              doExit();
+            } catch (InterruptedException | ExecutionException ex) {
+              Logger.getLogger(ExitAction.class.getName()).log(Level.SEVERE, null, ex);
+              ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
+              JSheet.showMessageSheet(
+                  v.getComponent(),
+                  "<html>"
+                      + UIManager.getString("OptionPane.css")
+                      + "<b>"
+                      + labels.format("file.save.couldntSave.message", URIUtil.getName(uri))
+                      + "</b><p>"
+                      + ex,
+                  JOptionPane.ERROR_MESSAGE);
+            }
+            v.setEnabled(true);
+            if (oldFocusOwner != null) {
+              oldFocusOwner.requestFocus();
+            }
+            getApplication().setEnabled(true);
+          }
+        };
+    getApplication().getTaskScheduler().execute(v, TaskScheduler.Priority.EXPORT, worker);
   }
 
   protected void saveToFileAndReviewNext(final URI uri, final URIChooser chooser) {
     final View v = unsavedView;
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        v.write(uri, chooser);
-        return null;
-      }
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            v.write(uri, chooser);
+            return null;
+          }
 
-      @Override
-      protected void done() {
-        try {
-          get();
-          v.setURI(uri);
-          getApplication().dispose(unsavedView);
-          reviewNext();
-        } catch (InterruptedException | ExecutionException ex) {
-          Logger.getLogger(ExitAction.class.getName()).log(Level.SEVERE, null, ex);
-          ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
-          JSheet.showMessageSheet(
-              v.getComponent(),
-              "<html>"
-                  + UIManager.getString("OptionPane.css")
-                  + "<b>"
-                  + labels.format("file.save.couldntSave.message", uri)
-                  + "</b><p>"
-                  + ex,
-              JOptionPane.ERROR_MESSAGE);
-          v.setEnabled(true);
-          if (oldFocusOwner != null) {
-            oldFocusOwner.requestFocus();
+          @Override
+          protected void done() {
+            try {
+              get();
+              v.setURI(uri);
+              getApplication().dispose(unsavedView);
+              reviewNext();
+            } catch (InterruptedException | ExecutionException ex) {
+              Logger.getLogger(ExitAction.class.getName()).log(Level.SEVERE, null, ex);
+              ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
+              JSheet.showMessageSheet(
+                  v.getComponent(),
+                  "<html>"
+                      + UIManager.getString("OptionPane.css")
+                      + "<b>"
+                      + labels.format("file.save.couldntSave.message", uri)
+                      + "</b><p>"
+                      + ex,
+                  JOptionPane.ERROR_MESSAGE);
+              v.setEnabled(true);
+              if (oldFocusOwner != null) {
+                oldFocusOwner.requestFocus();
+              }
+              getApplication().setEnabled(true);
+            }
           }
-          getApplication().setEnabled(true);
-        }
-      }
-    }.execute();
+        };
+    getApplication().getTaskScheduler().execute(v, TaskScheduler.Priority.EXPORT, worker);
   }
 
   protected void doExit() {
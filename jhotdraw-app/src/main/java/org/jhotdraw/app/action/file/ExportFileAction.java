@@ -24,6 +24,7 @@ import javax.swing.UIManager;
 import org.jhotdraw.action.AbstractViewAction;
 import org.jhotdraw.api.app.Application;
 import org.jhotdraw.api.app.ApplicationModel;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.gui.JFileURIChooser;
@@ -174,39 +175,44 @@ public class ExportFileAction extends AbstractViewAction {
   }
 
   protected void exportView(final View view, final URI uri, final URIChooser chooser) {
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        view.write(uri, chooser);
-        return null;
-      }
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            view.write(uri, chooser);
+            return null;
+          }
 
-      @Override
-      protected void done() {
-        try {
-          get();
-        } catch (InterruptedException | ExecutionException ex) {
-          Logger.getLogger(ExportFileAction.class.getName()).log(Level.SEVERE, null, ex);
-          System.out.flush();
-          ex.printStackTrace();
-          // FIXME localize this error messsage
-          JSheet.showMessageSheet(
-              view.getComponent(),
-              "<html>"
-                  + UIManager.getString("OptionPane.css")
-                  + "<b>Couldn't export to the file \""
-                  + URIUtil.getName(uri)
-                  + "\".<p>"
-                  + "Reason: "
-                  + ex,
-              JOptionPane.ERROR_MESSAGE);
-        }
-        view.setEnabled(true);
-        SwingUtilities.getWindowAncestor(view.getComponent()).toFront();
-        if (oldFocusOwner != null) {
-          oldFocusOwner.requestFocus();
-        }
-      }
-    }.execute();
+          @Override
+          protected void done() {
+            if (isCancelled()) {
+              return;
+            }
+            try {
+              get();
+            } catch (InterruptedException | ExecutionException ex) {
+              Logger.getLogger(ExportFileAction.class.getName()).log(Level.SEVERE, null, ex);
+              System.out.flush();
+              ex.printStackTrace();
+              // FIXME localize this error messsage
+              JSheet.showMessageSheet(
+                  view.getComponent(),
+                  "<html>"
+                      + UIManager.getString("OptionPane.css")
+                      + "<b>Couldn't export to the file \""
+                      + URIUtil.getName(uri)
+                      + "\".<p>"
+                      + "Reason: "
+                      + ex,
+                  JOptionPane.ERROR_MESSAGE);
+            }
+            view.setEnabled(true);
+            SwingUtilities.getWindowAncestor(view.getComponent()).toFront();
+            if (oldFocusOwner != null) {
+              oldFocusOwner.requestFocus();
+            }
+          }
+        };
+    getApplication().getTaskScheduler().execute(view, TaskScheduler.Priority.EXPORT, worker);
   }
 }
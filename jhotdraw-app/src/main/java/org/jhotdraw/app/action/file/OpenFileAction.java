@@ -31,6 +31,7 @@ import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import org.jhotdraw.action.AbstractApplicationAction;
 import org.jhotdraw.api.app.Application;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.gui.JSheet;
@@ -143,63 +144,68 @@ public class OpenFileAction extends AbstractApplicationAction {
     view.setMultipleOpenId(multipleOpenId);
     view.setEnabled(false);
     // Open the file
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        boolean exists = true;
-        try {
-          exists = new File(uri).exists();
-        } catch (IllegalArgumentException e) {
-          // allowed empty
-        }
-        if (exists) {
-          view.read(uri, chooser);
-        } else {
-          ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
-          throw new IOException(
-              labels.getFormatted("file.open.fileDoesNotExist.message", URIUtil.getName(uri)));
-        }
-        return null;
-      }
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            boolean exists = true;
+            try {
+              exists = new File(uri).exists();
+            } catch (IllegalArgumentException e) {
+              // allowed empty
+            }
+            if (exists) {
+              view.read(uri, chooser);
+            } else {
+              ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
+              throw new IOException(
+                  labels.getFormatted("file.open.fileDoesNotExist.message", URIUtil.getName(uri)));
+            }
+            return null;
+          }
 
-      @Override
-      protected void done() {
-        try {
-          get();
-          final Application app = getApplication();
-          view.setURI(uri);
-          view.setEnabled(true);
-          Frame w = (Frame) SwingUtilities.getWindowAncestor(view.getComponent());
-          if (w != null) {
-            w.setExtendedState(w.getExtendedState() & ~Frame.ICONIFIED);
-            w.toFront();
+          @Override
+          protected void done() {
+            if (isCancelled()) {
+              return;
+            }
+            try {
+              get();
+              final Application app = getApplication();
+              view.setURI(uri);
+              view.setEnabled(true);
+              Frame w = (Frame) SwingUtilities.getWindowAncestor(view.getComponent());
+              if (w != null) {
+                w.setExtendedState(w.getExtendedState() & ~Frame.ICONIFIED);
+                w.toFront();
+              }
+              view.getComponent().requestFocus();
+              app.addRecentURI(uri);
+              app.setEnabled(true);
+            } catch (InterruptedException | ExecutionException ex) {
+              Logger.getLogger(OpenFileAction.class.getName()).log(Level.SEVERE, null, ex);
+              failed(ex);
+            }
           }
-          view.getComponent().requestFocus();
-          app.addRecentURI(uri);
-          app.setEnabled(true);
-        } catch (InterruptedException | ExecutionException ex) {
-          Logger.getLogger(OpenFileAction.class.getName()).log(Level.SEVERE, null, ex);
-          failed(ex);
-        }
-      }
 
-      protected void failed(Throwable value) {
-        value.printStackTrace();
-        view.setEnabled(true);
-        app.setEnabled(true);
-        String message = value.getMessage() != null ? value.getMessage() : value.toString();
-        ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
-        JSheet.showMessageSheet(
-            view.getComponent(),
-            "<html>"
-                + UIManager.getString("OptionPane.css")
-                + "<b>"
-                + labels.getFormatted("file.open.couldntOpen.message", URIUtil.getName(uri))
-                + "</b><p>"
-                + ((message == null) ? "" : message),
-            JOptionPane.ERROR_MESSAGE);
-      }
-    }.execute();
+          protected void failed(Throwable value) {
+            value.printStackTrace();
+            view.setEnabled(true);
+            app.setEnabled(true);
+            String message = value.getMessage() != null ? value.getMessage() : value.toString();
+            ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
+            JSheet.showMessageSheet(
+                view.getComponent(),
+                "<html>"
+                    + UIManager.getString("OptionPane.css")
+                    + "<b>"
+                    + labels.getFormatted("file.open.couldntOpen.message", URIUtil.getName(uri))
+                    + "</b><p>"
+                    + ((message == null) ? "" : message),
+                JOptionPane.ERROR_MESSAGE);
+          }
+        };
+    getApplication().getTaskScheduler().execute(view, TaskScheduler.Priority.LOAD, worker);
   }
 
   /**
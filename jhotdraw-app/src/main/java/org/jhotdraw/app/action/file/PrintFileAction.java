@@ -30,6 +30,7 @@ import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import org.jhotdraw.action.AbstractViewAction;
 import org.jhotdraw.api.app.Application;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.app.PrintableView;
 import org.jhotdraw.gui.JSheet;
@@ -159,58 +160,62 @@ public class PrintFileAction extends AbstractViewAction {
     pageAttr.setPrinterResolution((int) resolution);
     final PrintJob pj = frame.getToolkit().getPrintJob(frame, "Job Title", jobAttr, pageAttr);
     getActiveView().setEnabled(false);
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        // Compute page format from settings of the print job
-        Paper paper = new Paper();
-        paper.setSize(
-            pj.getPageDimension().width / resolution * 72d,
-            pj.getPageDimension().height / resolution * 72d);
-        paper.setImageableArea(64d, 32d, paper.getWidth() - 96d, paper.getHeight() - 64);
-        PageFormat pageFormat = new PageFormat();
-        pageFormat.setPaper(paper);
-        // Print the job
-        try {
-          for (int i = 0, n = pageable.getNumberOfPages(); i < n; i++) {
-            PageFormat pf = pageable.getPageFormat(i);
-            pf = pageFormat;
-            Graphics g = pj.getGraphics();
-            if (g instanceof Graphics2D) {
-              pageable.getPrintable(i).print(g, pf, i);
-            } else {
-              BufferedImage buf =
-                  new BufferedImage(
-                      (int) (pf.getImageableWidth() * resolution / 72d),
-                      (int) (pf.getImageableHeight() * resolution / 72d),
-                      BufferedImage.TYPE_INT_RGB);
-              Graphics2D bufG = buf.createGraphics();
-              bufG.setBackground(Color.WHITE);
-              bufG.fillRect(0, 0, buf.getWidth(), buf.getHeight());
-              bufG.scale(resolution / 72d, resolution / 72d);
-              bufG.translate(-pf.getImageableX(), -pf.getImageableY());
-              pageable.getPrintable(i).print(bufG, pf, i);
-              bufG.dispose();
-              g.drawImage(
-                  buf,
-                  (int) (pf.getImageableX() * resolution / 72d),
-                  (int) (pf.getImageableY() * resolution / 72d),
-                  null);
-              buf.flush();
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            // Compute page format from settings of the print job
+            Paper paper = new Paper();
+            paper.setSize(
+                pj.getPageDimension().width / resolution * 72d,
+                pj.getPageDimension().height / resolution * 72d);
+            paper.setImageableArea(64d, 32d, paper.getWidth() - 96d, paper.getHeight() - 64);
+            PageFormat pageFormat = new PageFormat();
+            pageFormat.setPaper(paper);
+            // Print the job
+            try {
+              for (int i = 0, n = pageable.getNumberOfPages(); i < n; i++) {
+                PageFormat pf = pageable.getPageFormat(i);
+                pf = pageFormat;
+                Graphics g = pj.getGraphics();
+                if (g instanceof Graphics2D) {
+                  pageable.getPrintable(i).print(g, pf, i);
+                } else {
+                  BufferedImage buf =
+                      new BufferedImage(
+                          (int) (pf.getImageableWidth() * resolution / 72d),
+                          (int) (pf.getImageableHeight() * resolution / 72d),
+                          BufferedImage.TYPE_INT_RGB);
+                  Graphics2D bufG = buf.createGraphics();
+                  bufG.setBackground(Color.WHITE);
+                  bufG.fillRect(0, 0, buf.getWidth(), buf.getHeight());
+                  bufG.scale(resolution / 72d, resolution / 72d);
+                  bufG.translate(-pf.getImageableX(), -pf.getImageableY());
+                  pageable.getPrintable(i).print(bufG, pf, i);
+                  bufG.dispose();
+                  g.drawImage(
+                      buf,
+                      (int) (pf.getImageableX() * resolution / 72d),
+                      (int) (pf.getImageableY() * resolution / 72d),
+                      null);
+                  buf.flush();
+                }
+                g.dispose();
+              }
+            } finally {
+              pj.end();
             }
-            g.dispose();
+            return null;
           }
-        } finally {
-          pj.end();
-        }
-        return null;
-      }
 
-      @Override
-      protected void done() {
-        getActiveView().setEnabled(true);
-      }
-    }.execute();
+          @Override
+          protected void done() {
+            getActiveView().setEnabled(true);
+          }
+        };
+    getApplication()
+        .getTaskScheduler()
+        .execute(getActiveView(), TaskScheduler.Priority.EXPORT, worker);
   }
 
   /**
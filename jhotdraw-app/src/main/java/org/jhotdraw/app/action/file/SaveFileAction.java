@@ -21,6 +21,7 @@ import javax.swing.UIManager;
 import org.jhotdraw.action.AbstractViewAction;
 import org.jhotdraw.api.app.Application;
 import org.jhotdraw.api.app.ApplicationModel;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.gui.JSheet;
@@ -126,56 +127,61 @@ public class SaveFileAction extends AbstractViewAction {
   }
 
   protected void saveViewToURI(final View view, final URI file, final URIChooser chooser) {
-    new SwingWorker() {
-      @Override
-      protected Object doInBackground() throws Exception {
-        view.write(file, chooser);
-        return null;
-      }
+    SwingWorker<?, ?> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() throws Exception {
+            view.write(file, chooser);
+            return null;
+          }
 
-      @Override
-      protected void done() {
-        try {
-          get();
-          view.setURI(file);
-          view.markChangesAsSaved();
-          int multiOpenId = 1;
-          for (View p : view.getApplication().views()) {
-            if (p != view && p.getURI() != null && p.getURI().equals(file)) {
-              multiOpenId = Math.max(multiOpenId, p.getMultipleOpenId() + 1);
+          @Override
+          protected void done() {
+            if (isCancelled()) {
+              return;
+            }
+            try {
+              get();
+              view.setURI(file);
+              view.markChangesAsSaved();
+              int multiOpenId = 1;
+              for (View p : view.getApplication().views()) {
+                if (p != view && p.getURI() != null && p.getURI().equals(file)) {
+                  multiOpenId = Math.max(multiOpenId, p.getMultipleOpenId() + 1);
+                }
+              }
+              getApplication().addRecentURI(file);
+              view.setMultipleOpenId(multiOpenId);
+            } catch (InterruptedException | ExecutionException ex) {
+              Logger.getLogger(SaveFileAction.class.getName()).log(Level.SEVERE, null, ex);
+              failed(ex);
             }
+            finished();
           }
-          getApplication().addRecentURI(file);
-          view.setMultipleOpenId(multiOpenId);
-        } catch (InterruptedException | ExecutionException ex) {
-          Logger.getLogger(SaveFileAction.class.getName()).log(Level.SEVERE, null, ex);
-          failed(ex);
-        }
-        finished();
-      }
 
-      protected void failed(Throwable value) {
-        value.printStackTrace();
-        String message = value.getMessage() != null ? value.getMessage() : value.toString();
-        ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
-        JSheet.showMessageSheet(
-            getActiveView().getComponent(),
-            "<html>"
-                + UIManager.getString("OptionPane.css")
-                + "<b>"
-                + labels.getFormatted("file.save.couldntSave.message", URIUtil.getName(file))
-                + "</b><p>"
-                + ((message == null) ? "" : message),
-            JOptionPane.ERROR_MESSAGE);
-      }
+          protected void failed(Throwable value) {
+            value.printStackTrace();
+            String message = value.getMessage() != null ? value.getMessage() : value.toString();
+            ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.app.Labels");
+            JSheet.showMessageSheet(
+                getActiveView().getComponent(),
+                "<html>"
+                    + UIManager.getString("OptionPane.css")
+                    + "<b>"
+                    + labels.getFormatted("file.save.couldntSave.message", URIUtil.getName(file))
+                    + "</b><p>"
+                    + ((message == null) ? "" : message),
+                JOptionPane.ERROR_MESSAGE);
+          }
 
-      protected void finished() {
-        view.setEnabled(true);
-        SwingUtilities.getWindowAncestor(view.getComponent()).toFront();
-        if (oldFocusOwner != null) {
-          oldFocusOwner.requestFocus();
-        }
-      }
-    }.execute();
+          protected void finished() {
+            view.setEnabled(true);
+            SwingUtilities.getWindowAncestor(view.getComponent()).toFront();
+            if (oldFocusOwner != null) {
+              oldFocusOwner.requestFocus();
+            }
+          }
+        };
+    getApplication().getTaskScheduler().execute(view, TaskScheduler.Priority.EXPORT, worker);
   }
 }
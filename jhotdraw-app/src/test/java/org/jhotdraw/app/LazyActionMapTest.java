@@ -0,0 +1,91 @@
+/*
+ * @(#)LazyActionMapTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.event.ActionEvent;
+import java.util.function.Supplier;
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.ActionMap;
+import org.junit.jupiter.api.Test;
+
+public class LazyActionMapTest {
+
+  private final LazyActionMap map = new LazyActionMap();
+  private int createCount;
+
+  private static Action createAction() {
+    return new AbstractAction() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public void actionPerformed(ActionEvent e) {}
+    };
+  }
+
+  private Supplier<Action> countingFactory() {
+    return () -> {
+      createCount++;
+      return createAction();
+    };
+  }
+
+  @Test
+  public void testPendingFactoriesAreCounted() {
+    ActionMap parent = new ActionMap();
+    parent.put("parent", createAction());
+    map.setParent(parent);
+    map.putLazy("lazy", countingFactory());
+    map.put("created", createAction());
+
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.keys()).containsExactlyInAnyOrder("lazy", "created");
+    assertThat(map.allKeys()).containsExactlyInAnyOrder("lazy", "created", "parent");
+    assertThat(createCount).isZero();
+  }
+
+  @Test
+  public void testActionIsCreatedOnce() {
+    map.putLazy("lazy", countingFactory());
+    Action action = map.get("lazy");
+    assertThat(action).isNotNull();
+    assertThat(map.get("lazy")).isSameAs(action);
+    assertThat(createCount).isEqualTo(1);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.keys()).containsExactly("lazy");
+  }
+
+  @Test
+  public void testPutReplacesFactory() {
+    map.putLazy("key", countingFactory());
+    Action action = createAction();
+    map.put("key", action);
+    assertThat(map.get("key")).isSameAs(action);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(createCount).isZero();
+
+    map.putLazy("key", countingFactory());
+    assertThat(map.get("key")).isNotSameAs(action);
+    assertThat(createCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testRemoveAndClearDropFactories() {
+    map.putLazy("first", countingFactory());
+    map.putLazy("second", countingFactory());
+    map.remove("first");
+    assertThat(map.get("first")).isNull();
+    assertThat(map.keys()).containsExactly("second");
+    map.clear();
+    assertThat(map.size()).isZero();
+    assertThat(map.get("second")).isNull();
+    assertThat(createCount).isZero();
+  }
+}
@@ -9,14 +9,20 @@ package org.jhotdraw.draw;
 
 import java.awt.font.FontRenderContext;
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
-import javax.swing.JPanel;
 import javax.swing.event.EventListenerList;
 import javax.swing.event.UndoableEditEvent;
 import javax.swing.event.UndoableEditListener;
@@ -26,29 +32,39 @@ import org.jhotdraw.draw.event.DrawingListener;
 import org.jhotdraw.draw.event.FigureEvent;
 import org.jhotdraw.draw.event.FigureListenerAdapter;
 import org.jhotdraw.draw.figure.AttributesFigure;
+import org.jhotdraw.draw.figure.ConnectionFigure;
 import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.FigureParent;
 import org.jhotdraw.draw.io.InputFormat;
 import org.jhotdraw.draw.io.OutputFormat;
 
 public abstract class AbstractDrawing implements Drawing {
 
-  private static final Object LOCK = new JPanel().getTreeLock();
-
   /** Caches the bounds to improve the performance of method {@link #getBounds}. */
   protected transient Rectangle2D.Double cachedBounds;
 
   protected transient Rectangle2D.Double cachedDrawingArea;
+
+  /** The factor for which {@link #cachedDrawingArea} has been computed. */
+  protected transient double cachedDrawingAreaFactor;
   protected int changingDepth = 0;
   protected final List<Figure> CHILDREN = new ArrayList<>();
   protected final List<Figure> UNMODIFIABLE_CHILDREN = Collections.unmodifiableList(CHILDREN);
 
   protected EventHandler eventHandler = new EventHandler();
+
+  /** Maps children to the connection figures which are attached to them. */
+  protected ConnectionIndex connectionIndex = new ConnectionIndex();
+
   protected EventListenerList listenerList = new EventListenerList();
   private AttributesFigure attributes = new AttributesFigure(this::fireDrawingAttributeChanged);
   private transient FontRenderContext fontRenderContext;
   private List<InputFormat> inputFormats = new ArrayList<>();
   private List<OutputFormat> outputFormats = new ArrayList<>();
 
+  /** Guards the children of this drawing. */
+  private DrawingLock lock = new DrawingLock();
+
   public AbstractDrawing() {
     eventHandler = createEventHandler();
   }
@@ -99,8 +115,18 @@ public abstract class AbstractDrawing implements Drawing {
 
   @Override
   public void basicAdd(int index, Figure figure) {
-    CHILDREN.add(index, figure);
-    figure.addFigureListener(eventHandler);
+    Lock writeLock = lockForWriting();
+    try {
+      CHILDREN.add(index, figure);
+    } finally {
+      unlock(writeLock);
+    }
+    if (!figure.attachParent(eventHandler)) {
+      figure.addFigureListener(eventHandler);
+    }
+    if (figure instanceof ConnectionFigure) {
+      connectionIndex.update((ConnectionFigure) figure);
+    }
   }
 
   @Override
@@ -153,6 +179,13 @@ public abstract class AbstractDrawing implements Drawing {
     }
     that.attributes = AttributesFigure.from(attributes, that::fireDrawingAttributeChanged);
     that.listenerList = new EventListenerList();
+    that.connectionIndex = new ConnectionIndex();
+    that.lock = new DrawingLock();
+    for (Figure f : that.CHILDREN) {
+      if (f instanceof ConnectionFigure) {
+        that.connectionIndex.update((ConnectionFigure) f);
+      }
+    }
 
     that.inputFormats = (this.inputFormats == null) ? null : new ArrayList<>(this.inputFormats);
     that.outputFormats = (this.outputFormats == null) ? null : new ArrayList<>(this.outputFormats);
@@ -202,7 +235,9 @@ public abstract class AbstractDrawing implements Drawing {
 
   @Override
   public Rectangle2D.Double getDrawingArea(double factor) {
-    if (cachedDrawingArea == null) {
+    if (cachedDrawingArea == null || cachedDrawingAreaFactor != factor) {
+      cachedDrawingArea = null;
+      cachedDrawingAreaFactor = factor;
       if (getChildCount() == 0) {
         cachedDrawingArea = new Rectangle2D.Double();
       } else {
@@ -242,10 +277,16 @@ public abstract class AbstractDrawing implements Drawing {
     this.inputFormats = new ArrayList<>(formats);
   }
 
-  /** The drawing view synchronizes on the lock when drawing a drawing. */
+  /** Returns the read/write lock of this drawing. */
+  @Deprecated
   @Override
   public Object getLock() {
-    return LOCK;
+    return lock;
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return lock;
   }
 
   @Override
@@ -287,6 +328,33 @@ public abstract class AbstractDrawing implements Drawing {
     }
   }
 
+  @Override
+  public Collection<ConnectionFigure> findConnections(Figure figure) {
+    return connectionIndex.getConnections(figure);
+  }
+
+  @Override
+  public void connectionChanged(ConnectionFigure connection) {
+    if (connectionIndex.contains(connection)) {
+      connectionIndex.update(connection);
+    }
+  }
+
+  @Override
+  public void requestConnectionUpdate(ConnectionFigure connection) {
+    connectionIndex.requestUpdate(connection);
+  }
+
+  @Override
+  public void beginConnectionUpdate() {
+    connectionIndex.beginUpdate();
+  }
+
+  @Override
+  public void endConnectionUpdate() {
+    connectionIndex.endUpdate();
+  }
+
   @Override
   public void removeDrawingListener(DrawingListener listener) {
     listenerList.remove(DrawingListener.class, listener);
@@ -322,12 +390,182 @@ public abstract class AbstractDrawing implements Drawing {
   }
 
   protected Figure basicRemoveChild(int index) {
-    Figure figure = CHILDREN.remove(index);
-    figure.removeFigureListener(eventHandler);
+    Figure figure;
+    Lock writeLock = lockForWriting();
+    try {
+      figure = CHILDREN.remove(index);
+    } finally {
+      unlock(writeLock);
+    }
+    if (!figure.detachParent(eventHandler)) {
+      figure.removeFigureListener(eventHandler);
+    }
+    if (figure instanceof ConnectionFigure) {
+      connectionIndex.remove((ConnectionFigure) figure);
+    }
     invalidate();
     return figure;
   }
 
+  /**
+   * Acquires the write lock of this drawing, and performs the changes which have been deferred by
+   * {@link #runWithWriteLock}.
+   *
+   * <p>A read lock can not be upgraded, and other threads may be iterating the children while the
+   * current thread holds the read lock. Adding, removing or reordering children while the drawing
+   * is being read is therefore an error. Changes of the figures are handled by {@link
+   * #runWithWriteLock}.
+   *
+   * @return the acquired lock, which must be released with {@link #unlock}
+   * @throws IllegalStateException if the current thread holds the read lock, but not the write lock
+   */
+  protected Lock lockForWriting() {
+    if (!canLockForWriting()) {
+      throw new IllegalStateException("The drawing can not be changed while it is being read.");
+    }
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    lock.runDeferredChanges();
+    return writeLock;
+  }
+
+  /**
+   * Performs a change of the internal state of this drawing, such as an index of the children,
+   * under the write lock.
+   *
+   * <p>A figure may change while it is being drawn, that is while the current thread or another
+   * thread holds the read lock. In this case the change is deferred, so that the current thread
+   * does not have to wait. It is performed as soon as no thread holds the lock anymore, and before
+   * any other change of the drawing. Until then, queries may return results which do not reflect
+   * the change.
+   */
+  protected void runWithWriteLock(Runnable change) {
+    Lock writeLock = lock.writeLock();
+    if (canLockForWriting() && writeLock.tryLock()) {
+      try {
+        lock.runDeferredChanges();
+        change.run();
+      } finally {
+        writeLock.unlock();
+      }
+    } else {
+      lock.defer(change);
+      // The lock may have been released before the change was deferred
+      lock.tryRunDeferredChanges();
+    }
+  }
+
+  /**
+   * Returns false, if the current thread holds the read lock, but not the write lock. {@link
+   * #lockForWriting} fails in this case.
+   */
+  protected final boolean canLockForWriting() {
+    return lock.getReadHoldCount() == 0 || lock.isWriteLockedByCurrentThread();
+  }
+
+  /** Returns true, if the current thread holds the read lock of this drawing. */
+  protected final boolean isReadLockedByCurrentThread() {
+    return lock.getReadHoldCount() > 0;
+  }
+
+  /** Releases a lock which has been acquired with {@link #lockForWriting}. */
+  protected static void unlock(Lock acquiredLock) {
+    if (acquiredLock != null) {
+      acquiredLock.unlock();
+    }
+  }
+
+  /** A read/write lock which performs deferred changes, when the lock has been released. */
+  private static class DrawingLock extends ReentrantReadWriteLock {
+
+    private static final long serialVersionUID = 1L;
+    private transient Queue<Runnable> deferredChanges = new ConcurrentLinkedQueue<>();
+    private transient ReadLock readLock = new DeferringReadLock(this);
+    private transient WriteLock writeLock = new DeferringWriteLock(this);
+
+    @Override
+    public ReadLock readLock() {
+      return readLock;
+    }
+
+    @Override
+    public WriteLock writeLock() {
+      return writeLock;
+    }
+
+    void defer(Runnable change) {
+      deferredChanges.add(change);
+    }
+
+    /** Performs the deferred changes. The current thread must hold the write lock. */
+    void runDeferredChanges() {
+      for (Runnable change = deferredChanges.poll();
+          change != null;
+          change = deferredChanges.poll()) {
+        change.run();
+      }
+    }
+
+    /**
+     * Performs the deferred changes, if no thread holds the lock. Otherwise, the changes are
+     * performed by the thread which releases the lock or writes next.
+     */
+    private void tryRunDeferredChanges() {
+      if (!deferredChanges.isEmpty() && writeLock().tryLock()) {
+        try {
+          runDeferredChanges();
+        } finally {
+          writeLock().unlock();
+        }
+      }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      deferredChanges = new ConcurrentLinkedQueue<>();
+      readLock = new DeferringReadLock(this);
+      writeLock = new DeferringWriteLock(this);
+    }
+  }
+
+  private static class DeferringReadLock extends ReentrantReadWriteLock.ReadLock {
+
+    private static final long serialVersionUID = 1L;
+    private final DrawingLock owner;
+
+    DeferringReadLock(DrawingLock owner) {
+      super(owner);
+      this.owner = owner;
+    }
+
+    @Override
+    public void unlock() {
+      super.unlock();
+      if (owner.getReadHoldCount() == 0) {
+        owner.tryRunDeferredChanges();
+      }
+    }
+  }
+
+  private static class DeferringWriteLock extends ReentrantReadWriteLock.WriteLock {
+
+    private static final long serialVersionUID = 1L;
+    private final DrawingLock owner;
+
+    DeferringWriteLock(DrawingLock owner) {
+      super(owner);
+      this.owner = owner;
+    }
+
+    @Override
+    public void unlock() {
+      super.unlock();
+      if (!owner.isWriteLockedByCurrentThread()) {
+        owner.tryRunDeferredChanges();
+      }
+    }
+  }
+
   protected EventHandler createEventHandler() {
     return new EventHandler();
   }
@@ -345,6 +583,17 @@ public abstract class AbstractDrawing implements Drawing {
         () -> new DrawingEvent(this, changedArea));
   }
 
+  /**
+   * Fires a drawingChanged event for a child figure. Unlike {@link
+   * #fireDrawingChanged(Rectangle2D.Double)}, the event tells the listeners which figure has
+   * changed.
+   */
+  protected void fireDrawingChanged(Figure child, Rectangle2D.Double changedArea) {
+    fireDrawingEvent(
+        (listener, event) -> listener.drawingChanged(event),
+        () -> new DrawingEvent(this, child, changedArea));
+  }
+
   protected void fireDrawingEvent(
       BiConsumer<DrawingListener, DrawingEvent> listenerConsumer,
       Supplier<DrawingEvent> eventSupplier) {
@@ -396,34 +645,69 @@ public abstract class AbstractDrawing implements Drawing {
     invalidate();
   }
 
+  /**
+   * Handles all figure events fired by Figures contained in the Drawing. Children which support a
+   * {@link FigureParent} notify the handler directly; other children notify it as a figure
+   * listener. Subclasses override the {@code child...} methods.
+   */
   protected class EventHandler extends FigureListenerAdapter
-      implements UndoableEditListener, Serializable {
+      implements FigureParent, UndoableEditListener, Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public void figureRequestRemove(FigureEvent e) {
-      remove(e.getFigure());
+    public void childRequestRemove(Figure child) {
+      remove(child);
     }
 
     @Override
-    public void figureChanged(FigureEvent e) {
+    public void childChanged(Figure child, Rectangle2D.Double invalidatedArea) {
       if (!isChanging()) {
-        Rectangle2D.Double invalidatedArea = getDrawingArea();
-        invalidatedArea.add(e.getInvalidatedArea());
+        Rectangle2D.Double area = getDrawingArea();
+        area.add(invalidatedArea);
         // We call invalidate/validate here, because we must layout
         // the figure again.
         invalidate();
         validate();
         // Forward the figureChanged event to listeners on AbstractCompositeFigure.
-        invalidatedArea.add(getDrawingArea());
-        fireDrawingChanged(invalidatedArea);
+        area.add(getDrawingArea());
+        fireDrawingChanged(child, area);
       }
     }
 
+    @Override
+    public void childAreaInvalidated(Figure child, Rectangle2D.Double invalidatedArea) {
+      fireDrawingChanged(child, invalidatedArea);
+    }
+
+    @Override
+    public void childAttributeChanged(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void childAdded(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void childRemoved(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void figureRequestRemove(FigureEvent e) {
+      childRequestRemove(e.getFigure());
+    }
+
+    @Override
+    public void figureChanged(FigureEvent e) {
+      childChanged(e.getFigure(), e.getInvalidatedArea());
+    }
+
     @Override
     public void areaInvalidated(FigureEvent e) {
-      fireDrawingChanged(e.getInvalidatedArea());
+      childAreaInvalidated(e.getFigure(), e.getInvalidatedArea());
     }
 
     @Override
@@ -433,17 +717,17 @@ public abstract class AbstractDrawing implements Drawing {
 
     @Override
     public void attributeChanged(FigureEvent e) {
-      invalidate();
+      childAttributeChanged(e.getFigure());
     }
 
     @Override
     public void figureAdded(FigureEvent e) {
-      invalidate();
+      childAdded(e.getFigure());
     }
 
     @Override
     public void figureRemoved(FigureEvent e) {
-      invalidate();
+      childRemoved(e.getFigure());
     }
   }
 }
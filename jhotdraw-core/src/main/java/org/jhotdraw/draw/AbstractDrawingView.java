@@ -77,6 +77,8 @@ import org.jhotdraw.draw.event.FigureSelectionEvent;
 import org.jhotdraw.draw.event.FigureSelectionListener;
 import org.jhotdraw.draw.event.HandleEvent;
 import org.jhotdraw.draw.event.HandleListener;
+import org.jhotdraw.draw.event.RenderEvent;
+import org.jhotdraw.draw.event.RenderListener;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.handle.Handle;
 import org.jhotdraw.util.ResourceBundleUtil;
@@ -338,16 +340,38 @@ public abstract class AbstractDrawingView implements DrawingView, EditableCompon
     if (!isPaintEnabled()) {
       return;
     }
+    RenderStatistics stats =
+        RenderStatistics.beginFrame(listenerList.getListenerCount(RenderListener.class) > 0);
     Graphics2D g = (Graphics2D) gr;
-    setViewRenderingHints(g);
-    if (isPaintBackground()) {
-      drawBackground(g);
+    try {
+      setViewRenderingHints(g);
+      if (isPaintBackground()) {
+        drawBackground(g);
+      }
+      drawCanvas(g);
+      drawConstrainer(g);
+      long start = (stats == null) ? 0 : System.nanoTime();
+      if (stats != null) {
+        stats.setBufferState(RenderStatistics.BufferState.UNBUFFERED, g.getClipBounds());
+      }
+      drawDrawing(g);
+      if (stats != null) {
+        stats.addDrawingNanos(System.nanoTime() - start);
+        start = System.nanoTime();
+      }
+      drawHandles(g);
+      if (stats != null) {
+        stats.addHandlesNanos(System.nanoTime() - start);
+      }
+      drawTool(g);
+    } finally {
+      if (stats != null) {
+        stats.endFrame();
+      }
+    }
+    if (stats != null) {
+      fireFrameRendered(stats);
     }
-    drawCanvas(g);
-    drawConstrainer(g);
-    drawDrawing(g);
-    drawHandles(g);
-    drawTool(g);
   }
 
   /**
@@ -794,6 +818,36 @@ public abstract class AbstractDrawingView implements DrawingView, EditableCompon
     listenerList.remove(FigureSelectionListener.class, fsl);
   }
 
+  @Override
+  public void addRenderListener(RenderListener l) {
+    listenerList.add(RenderListener.class, l);
+  }
+
+  @Override
+  public void removeRenderListener(RenderListener l) {
+    listenerList.remove(RenderListener.class, l);
+  }
+
+  @Override
+  public void beginInteraction(Collection<Figure> figures) {}
+
+  @Override
+  public void endInteraction() {}
+
+  /** Notify all render listeners that a frame has been rendered. */
+  protected void fireFrameRendered(RenderStatistics stats) {
+    RenderEvent event = null;
+    Object[] listeners = listenerList.getListenerList();
+    for (int i = listeners.length - 2; i >= 0; i -= 2) {
+      if (listeners[i] == RenderListener.class) {
+        if (event == null) {
+          event = new RenderEvent(this, stats);
+        }
+        ((RenderListener) listeners[i + 1]).frameRendered(event);
+      }
+    }
+  }
+
   /**
    * Notify all listenerList that have registered interest for notification on this event type. Also
    * notify listeners who listen for {@link EditableComponent#SELECTION_EMPTY_PROPERTY}.
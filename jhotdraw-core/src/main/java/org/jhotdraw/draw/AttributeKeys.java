@@ -16,7 +16,6 @@ import org.jhotdraw.draw.figure.AbstractAttributedFigure;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.liner.Liner;
 import org.jhotdraw.geom.Dimension2DDouble;
-import org.jhotdraw.geom.DoubleStroke;
 import org.jhotdraw.geom.Insets2D;
 import org.jhotdraw.util.ResourceBundleUtil;
 
@@ -508,9 +507,24 @@ public class AttributeKeys {
     }
   }
 
+  /**
+   * Returns the stroke for drawing the specified figure. Strokes are shared through {@link
+   * StrokeCache#getInstance}, and the figure keeps its stroke until its attributes change.
+   */
   public static Stroke getStroke(Figure f, double factor) {
-    double strokeWidth = f.attr().get(STROKE_WIDTH) / getGlobalValueFactor(f, factor);
-    float miterLimit = (float) getStrokeTotalMiterLimit(f, factor);
+    return f.attr()
+        .getCachedStroke(
+            getGlobalValueFactor(f, factor), valueFactor -> createStroke(f, valueFactor));
+  }
+
+  /** Creates the stroke of a figure from its attributes. */
+  private static Stroke createStroke(Figure f, double valueFactor) {
+    double strokeWidth = f.attr().get(STROKE_WIDTH) / valueFactor;
+    float miterLimit =
+        (float)
+            (f.attr().get(IS_STROKE_MITER_LIMIT_FACTOR)
+                ? f.attr().get(STROKE_MITER_LIMIT) * strokeWidth
+                : f.attr().get(STROKE_MITER_LIMIT));
     double dashFactor = f.attr().get(IS_STROKE_DASH_FACTOR) ? strokeWidth : 1d;
     double dashPhase = f.attr().get(STROKE_DASH_PHASE);
     double[] ddashes = f.attr().get(STROKE_DASHES);
@@ -540,23 +554,25 @@ public class AttributeKeys {
     switch (f.attr().get(STROKE_TYPE)) {
       case BASIC:
       default:
-        return new BasicStroke(
-            (float) strokeWidth,
-            f.attr().get(STROKE_CAP),
-            f.attr().get(STROKE_JOIN),
-            Math.max(1, miterLimit),
-            dashes,
-            Math.max(0, (float) (dashPhase * dashFactor)));
+        return StrokeCache.getInstance()
+            .getBasicStroke(
+                (float) strokeWidth,
+                f.attr().get(STROKE_CAP),
+                f.attr().get(STROKE_JOIN),
+                Math.max(1, miterLimit),
+                dashes,
+                Math.max(0, (float) (dashPhase * dashFactor)));
         // not reached
       case DOUBLE:
-        return new DoubleStroke(
-            (float) (f.attr().get(STROKE_INNER_WIDTH_FACTOR) * strokeWidth),
-            (float) strokeWidth,
-            f.attr().get(STROKE_CAP),
-            f.attr().get(STROKE_JOIN),
-            Math.max(1, miterLimit),
-            dashes,
-            Math.max(0, (float) (dashPhase * dashFactor)));
+        return StrokeCache.getInstance()
+            .getDoubleStroke(
+                (float) (f.attr().get(STROKE_INNER_WIDTH_FACTOR) * strokeWidth),
+                (float) strokeWidth,
+                f.attr().get(STROKE_CAP),
+                f.attr().get(STROKE_JOIN),
+                Math.max(1, miterLimit),
+                dashes,
+                Math.max(0, (float) (dashPhase * dashFactor)));
         // not reached
     }
   }
@@ -575,23 +591,25 @@ public class AttributeKeys {
     switch (f.attr().get(STROKE_TYPE)) {
       case BASIC:
       default:
-        return new BasicStroke(
-            (float) strokeWidth,
-            f.attr().get(STROKE_CAP),
-            f.attr().get(STROKE_JOIN),
-            miterLimit,
-            null,
-            Math.max(0, (float) (f.attr().get(STROKE_DASH_PHASE) * dashFactor)));
+        return StrokeCache.getInstance()
+            .getBasicStroke(
+                (float) strokeWidth,
+                f.attr().get(STROKE_CAP),
+                f.attr().get(STROKE_JOIN),
+                miterLimit,
+                null,
+                Math.max(0, (float) (f.attr().get(STROKE_DASH_PHASE) * dashFactor)));
         // not reached
       case DOUBLE:
-        return new DoubleStroke(
-            (float) (f.attr().get(STROKE_INNER_WIDTH_FACTOR) * strokeWidth),
-            (float) strokeWidth,
-            f.attr().get(STROKE_CAP),
-            f.attr().get(STROKE_JOIN),
-            miterLimit,
-            null,
-            Math.max(0, (float) (f.attr().get(STROKE_DASH_PHASE).floatValue() * dashFactor)));
+        return StrokeCache.getInstance()
+            .getDoubleStroke(
+                (float) (f.attr().get(STROKE_INNER_WIDTH_FACTOR) * strokeWidth),
+                (float) strokeWidth,
+                f.attr().get(STROKE_CAP),
+                f.attr().get(STROKE_JOIN),
+                miterLimit,
+                null,
+                Math.max(0, (float) (f.attr().get(STROKE_DASH_PHASE).floatValue() * dashFactor)));
         // not reached
     }
   }
@@ -0,0 +1,203 @@
+/*
+ * @(#)BandRenderer.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+
+/**
+ * Renders an area of a {@link DefaultDrawingView} in horizontal bands on a pool of worker threads.
+ *
+ * <p>Each band is rendered into its own image by {@link Drawing#draw}, which holds the read lock of
+ * the drawing on the worker thread. The event dispatch thread does not wait for the workers. When a
+ * band is done, the view repaints it, and the band is composited into the drawing buffer by the
+ * next paint. Only one area is rendered at a time. Areas which become dirty while it is being
+ * rendered are rendered afterwards, so that a band of an older state of the drawing can not
+ * overwrite them. The drawing must support this, see {@link Drawing#isConcurrentlyDrawable}.
+ */
+final class BandRenderer {
+
+  /** The minimal height of a band in pixels. */
+  private static final int MIN_BAND_HEIGHT = 32;
+
+  private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+  private static final ExecutorService EXECUTOR =
+      Executors.newFixedThreadPool(THREAD_COUNT, new WorkerFactory());
+
+  private final DefaultDrawingView view;
+
+  /** The area which is being rendered in view coordinates, null if no area is being rendered. */
+  private Rectangle area;
+
+  private Drawing drawing;
+  private AffineTransform tx;
+
+  /** The number of bands which are still being rendered. */
+  private int pendingBandCount;
+
+  /** The bands which are done, but have not been composited yet. */
+  private final List<Band> finishedBands = new ArrayList<>();
+
+  BandRenderer(DefaultDrawingView view) {
+    this.view = view;
+  }
+
+  /** Returns true, if rendering in bands is worthwhile on this machine. */
+  static boolean isAvailable() {
+    return THREAD_COUNT > 1;
+  }
+
+  /**
+   * Returns the area which is being rendered in view coordinates, or null if all bands have been
+   * composited. Must be called on the event dispatch thread.
+   */
+  Rectangle getRenderingArea() {
+    return area;
+  }
+
+  /**
+   * Returns true, if bands are waiting to be composited, or if the rendered area has to be released
+   * by {@link #composite}. Must be called on the event dispatch thread.
+   */
+  boolean needsCompositing() {
+    return !finishedBands.isEmpty() || (area != null && pendingBandCount == 0);
+  }
+
+  /**
+   * Starts rendering the specified area of a drawing, and returns immediately. The view is
+   * repainted, whenever a band is done. Must be called on the event dispatch thread, and only if
+   * {@link #getRenderingArea} returns null.
+   *
+   * @param drawing the drawing
+   * @param area the area in view coordinates
+   * @param tx the drawing to view transform
+   */
+  void render(Drawing drawing, Rectangle area, AffineTransform tx) {
+    if (this.area != null) {
+      throw new IllegalStateException("Already rendering " + this.area);
+    }
+    this.area = new Rectangle(area);
+    this.drawing = drawing;
+    this.tx = new AffineTransform(tx);
+    boolean isCollecting = RenderStatistics.current() != null;
+    int bandCount = Math.max(1, Math.min(THREAD_COUNT * 2, area.height / MIN_BAND_HEIGHT));
+    int bandHeight = (area.height + bandCount - 1) / bandCount;
+    List<Rectangle> bands = new ArrayList<>();
+    for (int y = area.y; y < area.y + area.height; y += bandHeight) {
+      bands.add(
+          new Rectangle(area.x, y, area.width, Math.min(bandHeight, area.y + area.height - y)));
+    }
+    pendingBandCount = bands.size();
+    AffineTransform bandTx = this.tx;
+    for (Rectangle band : bands) {
+      EXECUTOR.execute(
+          () -> {
+            Band result = null;
+            try {
+              result = renderBand(drawing, band, bandTx, isCollecting);
+            } catch (RuntimeException | Error e) {
+              Logger.getLogger(BandRenderer.class.getName())
+                  .log(Level.WARNING, "Could not render band " + band, e);
+            }
+            Band done = result;
+            SwingUtilities.invokeLater(() -> bandDone(band, done));
+          });
+    }
+  }
+
+  /** Hands a band over to the event dispatch thread. The band is null, if it has failed. */
+  private void bandDone(Rectangle band, Band result) {
+    if (result != null) {
+      finishedBands.add(result);
+    }
+    pendingBandCount--;
+    view.bandDone(band, result != null, pendingBandCount == 0);
+  }
+
+  /**
+   * Copies the bands which are done into the drawing buffer. Bands which have been rendered with
+   * another drawing or transform are discarded; the view has become dirty in this case anyway. Must
+   * be called on the event dispatch thread.
+   *
+   * @param gBuf the graphics of the drawing buffer in view coordinates
+   * @param drawing the current drawing
+   * @param tx the current drawing to view transform
+   */
+  void composite(Graphics2D gBuf, Drawing drawing, AffineTransform tx) {
+    if (!finishedBands.isEmpty() && drawing == this.drawing && tx.equals(this.tx)) {
+      RenderStatistics stats = RenderStatistics.current();
+      Composite savedComposite = gBuf.getComposite();
+      gBuf.setComposite(AlphaComposite.Src);
+      for (Band band : finishedBands) {
+        gBuf.drawImage(band.image(), band.bounds().x, band.bounds().y, null);
+        if (stats != null) {
+          stats.merge(band.statistics());
+        }
+      }
+      gBuf.setComposite(savedComposite);
+    }
+    finishedBands.clear();
+    if (pendingBandCount == 0) {
+      area = null;
+      this.drawing = null;
+      this.tx = null;
+    }
+  }
+
+  /** Renders a band on a worker thread. */
+  private Band renderBand(
+      Drawing drawing, Rectangle band, AffineTransform tx, boolean isCollecting) {
+    BufferedImage image =
+        new BufferedImage(band.width, band.height, BufferedImage.TYPE_INT_ARGB_PRE);
+    RenderStatistics stats = isCollecting ? RenderStatistics.beginBand() : null;
+    Graphics2D g = image.createGraphics();
+    try {
+      view.setViewRenderingHints(g);
+      g.translate(-band.x, -band.y);
+      g.clipRect(band.x, band.y, band.width, band.height);
+      g.transform(tx);
+      drawing.draw(g);
+    } finally {
+      g.dispose();
+      if (isCollecting) {
+        RenderStatistics.endBand();
+      }
+    }
+    return new Band(band, image, stats);
+  }
+
+  /** A rendered band, and the statistics of the figures which have been drawn into it. */
+  private record Band(Rectangle bounds, BufferedImage image, RenderStatistics statistics) {}
+
+  /** Creates daemon worker threads, so that the pool does not block the VM exit. */
+  private static class WorkerFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "BandRenderer-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
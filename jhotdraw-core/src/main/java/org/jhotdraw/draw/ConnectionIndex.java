@@ -0,0 +1,147 @@
+/*
+ * @(#)ConnectionIndex.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jhotdraw.draw.figure.ConnectionFigure;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * Maps figures to the {@link ConnectionFigure}s which are attached to them, and batches connection
+ * updates.
+ *
+ * <p>The index is maintained by a {@link Drawing}. A connection figure is indexed under its start
+ * figure and under its end figure, as they were at the time of the last call to {@link
+ * #update(ConnectionFigure)}.
+ *
+ * <p>Between {@link #beginUpdate} and the matching {@link #endUpdate} calls to {@link
+ * #requestUpdate(ConnectionFigure)} are collected. When the outermost batch ends, each requested
+ * connection is updated exactly once, no matter how many of its connected figures have changed.
+ */
+public class ConnectionIndex {
+
+  private final Map<Figure, Set<ConnectionFigure>> figureToConnections = new HashMap<>();
+
+  /** Holds the start and end figure under which a connection figure has been indexed. */
+  private final Map<ConnectionFigure, Figure[]> connectionToFigures = new HashMap<>();
+
+  private final Set<ConnectionFigure> pendingUpdates = new LinkedHashSet<>();
+  private int updateDepth;
+
+  /**
+   * Adds the connection figure to the index, or re-indexes it, if its connectors have changed since
+   * it was last indexed.
+   */
+  public void update(ConnectionFigure connection) {
+    Figure start = connection.getStartFigure();
+    Figure end = connection.getEndFigure();
+    Figure[] indexed = connectionToFigures.get(connection);
+    if (indexed != null && indexed[0] == start && indexed[1] == end) {
+      return;
+    }
+    remove(connection);
+    connectionToFigures.put(connection, new Figure[] {start, end});
+    if (start != null) {
+      figureToConnections.computeIfAbsent(start, k -> new LinkedHashSet<>()).add(connection);
+    }
+    if (end != null) {
+      figureToConnections.computeIfAbsent(end, k -> new LinkedHashSet<>()).add(connection);
+    }
+  }
+
+  /** Removes the connection figure from the index. */
+  public void remove(ConnectionFigure connection) {
+    Figure[] indexed = connectionToFigures.remove(connection);
+    if (indexed != null) {
+      for (Figure f : indexed) {
+        if (f != null) {
+          Set<ConnectionFigure> connections = figureToConnections.get(f);
+          if (connections != null) {
+            connections.remove(connection);
+            if (connections.isEmpty()) {
+              figureToConnections.remove(f);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns true, if the connection figure is in the index. */
+  public boolean contains(ConnectionFigure connection) {
+    return connectionToFigures.containsKey(connection);
+  }
+
+  /**
+   * Returns the connection figures which are attached to the specified figure. The returned set is
+   * a snapshot, it is not updated when the index changes.
+   */
+  public Set<ConnectionFigure> getConnections(Figure figure) {
+    Set<ConnectionFigure> connections = figureToConnections.get(figure);
+    return (connections == null)
+        ? Collections.emptySet()
+        : Collections.unmodifiableSet(new LinkedHashSet<>(connections));
+  }
+
+  /** Removes all connection figures from the index. */
+  public void clear() {
+    figureToConnections.clear();
+    connectionToFigures.clear();
+  }
+
+  /** Starts a batch of connection updates. Batches may be nested. */
+  public void beginUpdate() {
+    updateDepth++;
+  }
+
+  /**
+   * Ends a batch of connection updates. When the outermost batch ends, all connections which have
+   * been requested for an update during the batch are updated once.
+   */
+  public void endUpdate() {
+    if (updateDepth < 1) {
+      throw new IllegalStateException("endUpdate was called without a prior call to beginUpdate.");
+    }
+    if (--updateDepth == 0) {
+      flush();
+    }
+  }
+
+  /** Returns true, if a batch of connection updates is in progress. */
+  public boolean isUpdating() {
+    return updateDepth > 0;
+  }
+
+  /**
+   * Updates the specified connection immediately, or defers the update to the end of the current
+   * batch.
+   */
+  public void requestUpdate(ConnectionFigure connection) {
+    if (updateDepth > 0) {
+      pendingUpdates.add(connection);
+    } else {
+      connection.updateConnection();
+    }
+  }
+
+  private void flush() {
+    while (!pendingUpdates.isEmpty()) {
+      List<ConnectionFigure> updates = new ArrayList<>(pendingUpdates);
+      pendingUpdates.clear();
+      for (ConnectionFigure c : updates) {
+        c.updateConnection();
+      }
+    }
+  }
+}
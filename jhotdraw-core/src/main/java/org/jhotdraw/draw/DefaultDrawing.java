@@ -21,6 +21,7 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.geom.Geom;
 import org.jhotdraw.util.ReversedList;
@@ -36,7 +37,7 @@ import org.jhotdraw.util.ReversedList;
 public class DefaultDrawing extends AbstractDrawing {
 
   private static final long serialVersionUID = 1L;
-  private boolean needsSorting = false;
+  private volatile boolean needsSorting = false;
 
   public DefaultDrawing() {}
 
@@ -46,36 +47,51 @@ public class DefaultDrawing extends AbstractDrawing {
     invalidateSortOrder();
   }
 
+  /** The children are drawn under the read lock, and sorted under the write lock. */
+  @Override
+  public boolean isConcurrentlyDrawable() {
+    return true;
+  }
+
   @Override
   public void draw(Graphics2D g) {
-    synchronized (getLock()) {
-      ensureSorted();
-      List<Figure> toDraw = new ArrayList<>(getChildren().size());
+    ensureSorted();
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      List<Figure> children = getSortedChildren();
+      List<Figure> toDraw = new ArrayList<>(children.size());
       Rectangle clipRect = g.getClipBounds();
       double scale = AttributeKeys.getScaleFactorFromGraphics(g);
-      for (Figure f : getChildren()) {
-        if (f.getDrawingArea(scale).intersects(clipRect)) {
+      for (Figure f : children) {
+        if (clipRect == null || f.getDrawingArea(scale).intersects(clipRect)) {
           toDraw.add(f);
         }
       }
+      RenderStatistics stats = RenderStatistics.current();
+      if (stats != null) {
+        stats.addFiguresQueried(getChildren().size());
+        stats.addFiguresCulled(getChildren().size() - toDraw.size());
+      }
       draw(g, toDraw);
+    } finally {
+      readLock.unlock();
     }
   }
 
   public void draw(Graphics2D g, Collection<Figure> children) {
     Rectangle2D clipBounds = g.getClipBounds();
     double scale = AttributeKeys.getScaleFactorFromGraphics(g);
-    if (clipBounds != null) {
-      for (Figure f : children) {
-        if (f.isVisible() && f.getDrawingArea(scale).intersects(clipBounds)) {
-          f.draw(g);
-        }
-      }
-    } else {
-      for (Figure f : children) {
-        if (f.isVisible()) {
+    RenderStatistics stats = RenderStatistics.current();
+    for (Figure f : children) {
+      if (f.isVisible() && (clipBounds == null || f.getDrawingArea(scale).intersects(clipBounds))) {
+        if (stats == null) {
           f.draw(g);
+        } else {
+          stats.draw(f, g);
         }
+      } else if (stats != null) {
+        stats.addFiguresCulled(1);
       }
     }
   }
@@ -112,12 +128,19 @@ public class DefaultDrawing extends AbstractDrawing {
 
   @Override
   public Figure findFigure(Point2D.Double p, double scaleDenominator) {
-    for (Figure f : getFiguresFrontToBack()) {
-      if (f.isVisible() && f.contains(p, scaleDenominator)) {
-        return f;
+    List<Figure> figures = getFiguresFrontToBack();
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      for (Figure f : figures) {
+        if (f.isVisible() && f.contains(p, scaleDenominator)) {
+          return f;
+        }
       }
+      return null;
+    } finally {
+      readLock.unlock();
     }
-    return null;
   }
 
   @Override
@@ -191,10 +214,16 @@ public class DefaultDrawing extends AbstractDrawing {
   public List<Figure> findFigures(Rectangle2D.Double bounds) {
     List<Figure> intersection = new ArrayList<>();
     double scale = AttributeKeys.scaleFromContext(this);
-    for (Figure f : getChildren()) {
-      if (f.isVisible() && f.getBounds(scale).intersects(bounds)) {
-        intersection.add(f);
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      for (Figure f : getChildren()) {
+        if (f.isVisible() && f.getBounds(scale).intersects(bounds)) {
+          intersection.add(f);
+        }
       }
+    } finally {
+      readLock.unlock();
     }
     return intersection;
   }
@@ -203,18 +232,24 @@ public class DefaultDrawing extends AbstractDrawing {
   public List<Figure> findFiguresWithin(Rectangle2D.Double bounds) {
     List<Figure> contained = new ArrayList<>();
     double scale = AttributeKeys.scaleFromContext(this);
-    for (Figure f : getChildren()) {
-      Rectangle2D.Double r = f.getBounds(scale);
-      if (f.attr().get(TRANSFORM) != null) {
-        Rectangle2D rt = f.attr().get(TRANSFORM).createTransformedShape(r).getBounds2D();
-        r =
-            (rt instanceof Rectangle2D.Double)
-                ? (Rectangle2D.Double) rt
-                : new Rectangle2D.Double(rt.getX(), rt.getY(), rt.getWidth(), rt.getHeight());
-      }
-      if (f.isVisible() && Geom.contains(bounds, r)) {
-        contained.add(f);
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      for (Figure f : getChildren()) {
+        Rectangle2D.Double r = f.getBounds(scale);
+        if (f.attr().get(TRANSFORM) != null) {
+          Rectangle2D rt = f.attr().get(TRANSFORM).createTransformedShape(r).getBounds2D();
+          r =
+              (rt instanceof Rectangle2D.Double)
+                  ? (Rectangle2D.Double) rt
+                  : new Rectangle2D.Double(rt.getX(), rt.getY(), rt.getWidth(), rt.getHeight());
+        }
+        if (f.isVisible() && Geom.contains(bounds, r)) {
+          contained.add(f);
+        }
       }
+    } finally {
+      readLock.unlock();
     }
     return contained;
   }
@@ -228,8 +263,7 @@ public class DefaultDrawing extends AbstractDrawing {
   /** Returns an iterator to iterate in Z-order front to back over the children. */
   @Override
   public List<Figure> getFiguresFrontToBack() {
-    ensureSorted();
-    return new ReversedList<>(getChildren());
+    return new ReversedList<>(getSortedChildren());
   }
 
   /** Invalidates the sort order. */
@@ -237,12 +271,34 @@ public class DefaultDrawing extends AbstractDrawing {
     needsSorting = true;
   }
 
-  /** Ensures that the children are sorted in z-order sequence from back to front. */
+  /**
+   * Ensures that the children are sorted in z-order sequence from back to front. Does nothing, if
+   * the current thread holds the read lock, because the children can not be sorted in place then.
+   */
   private void ensureSorted() {
+    if (needsSorting && canLockForWriting()) {
+      Lock writeLock = lockForWriting();
+      try {
+        // Another thread which draws the drawing may have sorted the children meanwhile
+        if (needsSorting) {
+          Collections.sort(CHILDREN, Comparator.comparing(Figure::getLayer));
+          needsSorting = false;
+        }
+      } finally {
+        unlock(writeLock);
+      }
+    }
+  }
+
+  /** Returns the children in z-order sequence from back to front. */
+  private List<Figure> getSortedChildren() {
+    ensureSorted();
     if (needsSorting) {
-      Collections.sort(CHILDREN, Comparator.comparing(Figure::getLayer));
-      needsSorting = false;
+      List<Figure> sorted = new ArrayList<>(CHILDREN);
+      Collections.sort(sorted, Comparator.comparing(Figure::getLayer));
+      return sorted;
     }
+    return UNMODIFIABLE_CHILDREN;
   }
 
   @Override
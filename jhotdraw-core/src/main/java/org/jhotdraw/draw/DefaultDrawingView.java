@@ -13,6 +13,7 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Insets;
@@ -39,6 +40,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
@@ -57,9 +59,13 @@ import org.jhotdraw.draw.event.FigureSelectionEvent;
 import org.jhotdraw.draw.event.FigureSelectionListener;
 import org.jhotdraw.draw.event.HandleEvent;
 import org.jhotdraw.draw.event.HandleListener;
+import org.jhotdraw.draw.event.RenderEvent;
+import org.jhotdraw.draw.event.RenderListener;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.handle.Handle;
+import org.jhotdraw.draw.handle.SelectionBoundsHandle;
 import org.jhotdraw.draw.io.DefaultDrawingViewTransferHandler;
+import org.jhotdraw.geom.QuadTree;
 import org.jhotdraw.util.ResourceBundleUtil;
 import org.jhotdraw.util.ReversedList;
 
@@ -87,7 +93,26 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   private final Set<Figure> UNMODIFIABLE_SELECTED_FIGURES =
       Collections.unmodifiableSet(SELECTED_FIGURES);
 
-  private java.util.List<Handle> selectionHandles = new ArrayList<>();
+  /**
+   * The handles of the selected figures. Handles are created lazily, when a figure is drawn or hit
+   * tested for the first time.
+   */
+  private final Map<Figure, java.util.List<Handle>> selectionHandles = new HashMap<>();
+
+  /** Spatial index over the drawing areas of the selected figures; null if invalid. */
+  private transient QuadTree<Figure> selectionIndex;
+
+  /** Replaces the handles of the selected figures if the selection is larger than the threshold. */
+  private SelectionBoundsHandle aggregateHandle;
+
+  public static final String HANDLE_AGGREGATION_THRESHOLD_PROPERTY = "handleAggregationThreshold";
+
+  /**
+   * Margin in view coordinates by which handles may reach beyond the drawing area of their owner.
+   */
+  private static final int HANDLE_MARGIN = 24;
+
+  private int handleAggregationThreshold = 1000;
   private boolean isConstrainerVisible = false;
   private Constrainer visibleConstrainer = new GridConstrainer(8, 8);
   private Constrainer invisibleConstrainer = new GridConstrainer();
@@ -108,6 +133,16 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
         public void figureHandlesChanged(FigureEvent e) {
           invalidateHandles();
         }
+
+        @Override
+        public void figureChanged(FigureEvent e) {
+          selectionIndex = null;
+          if (aggregateHandle != null) {
+            repaint(aggregateHandle.getDrawingArea());
+            aggregateHandle.invalidate();
+            repaint(aggregateHandle.getDrawingArea());
+          }
+        }
       };
   private transient Rectangle2D.Double cachedDrawingArea;
   public static final String DRAWING_DOUBLE_BUFFERED_PROPERTY = "drawingDoubleBuffered";
@@ -115,6 +150,27 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   /** Whether the drawing is double buffered */
   private boolean isDrawingDoubleBuffered = true;
 
+  public static final String INTERACTION_BUFFERED_PROPERTY = "interactionBuffered";
+
+  /** Whether the figures which are not changed by a tool interaction are cached in layers. */
+  private boolean isInteractionBuffered = true;
+
+  /** Holds the cached layers during a tool interaction, null otherwise. */
+  private transient InteractionLayers interactionLayers;
+
+  public static final String PARALLEL_RENDERING_PROPERTY = "parallelRendering";
+
+  /** The minimal dirty area in square pixels, which is rendered in bands. */
+  private static final int MIN_PARALLEL_AREA = 256 * 256;
+
+  /** Renders large dirty areas of the drawing buffer on worker threads, null if disabled. */
+  private transient BandRenderer bandRenderer;
+
+  public static final String RENDER_STATISTICS_VISIBLE_PROPERTY = "renderStatisticsVisible";
+
+  /** Whether the render statistics are drawn on top of the drawing. */
+  private boolean isRenderStatisticsVisible;
+
   /** The drawingBuffer holds a rendered image of the drawing (in view coordinates). */
   private VolatileImage drawingBufferV;
 
@@ -149,7 +205,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   public void repaintHandles() {
     validateHandles();
     Rectangle r = null;
-    for (Handle h : getSelectionHandles()) {
+    for (Handle h : getCreatedSelectionHandles()) {
       if (r == null) {
         r = h.getDrawingArea();
       } else {
@@ -219,12 +275,29 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
 
     @Override
     public void drawingChanged(DrawingEvent e) {
+      if (interactionLayers != null) {
+        Figure f = e.getFigure();
+        if (f == null) {
+          // the drawing has changed as a whole, or figures have been reordered
+          interactionLayers.invalidateStructure();
+        } else if (!interactionLayers.isActive(f)) {
+          // the previous area of the figure has been invalidated by willChange
+          Rectangle r =
+              drawingToView(
+                  f.getDrawingArea(AttributeKeys.getScaleFactor(getDrawingToViewTransform())));
+          r.grow(2, 2);
+          interactionLayers.invalidate(r);
+        }
+      }
       repaintDrawingArea(e.getInvalidatedArea());
       invalidateDimension();
     }
 
     @Override
     public void figureAdded(DrawingEvent evt) {
+      if (interactionLayers != null) {
+        interactionLayers.invalidateStructure();
+      }
       if (drawing.getChildCount() == 1 && getEmptyDrawingMessage() != null) {
         repaint();
       } else {
@@ -237,6 +310,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
 
     @Override
     public void figureRemoved(DrawingEvent evt) {
+      if (interactionLayers != null) {
+        interactionLayers.invalidateStructure();
+      }
       if (drawing.getChildCount() == 0 && getEmptyDrawingMessage() != null) {
         repaint();
       } else {
@@ -281,7 +357,10 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
 
     @Override
     public void handleRequestRemove(HandleEvent e) {
-      selectionHandles.remove(e.getHandle());
+      java.util.List<Handle> handles = selectionHandles.get(e.getHandle().getOwner());
+      if (handles != null) {
+        handles.remove(e.getHandle());
+      }
       e.getHandle().dispose();
       invalidateHandles();
       repaint(e.getInvalidatedArea());
@@ -290,6 +369,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     @Override
     public void drawingAttributeChanged(DrawingEvent e) {
       if (e.getSource() == drawing) {
+        if (interactionLayers != null) {
+          interactionLayers.invalidateStructure();
+        }
         AttributeKey<?> a = e.getAttribute();
         if (a.equals(CANVAS_HEIGHT) || a.equals(CANVAS_WIDTH)) {
           validateViewTranslation();
@@ -381,22 +463,243 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
    */
   @Override
   public void paintComponent(Graphics gr) {
+    RenderStatistics stats =
+        RenderStatistics.beginFrame(
+            isRenderStatisticsVisible || listenerList.getListenerCount(RenderListener.class) > 0);
     Graphics2D g = (Graphics2D) gr;
-    setViewRenderingHints(g);
-    drawBackground(g);
-    drawCanvas(g);
-    drawConstrainer(g);
-    if (isDrawingDoubleBuffered()) {
-      if (IS_WINDOWS) {
-        drawDrawingNonvolatileBuffered(g);
+    try {
+      setViewRenderingHints(g);
+      drawBackground(g);
+      drawCanvas(g);
+      drawConstrainer(g);
+      long start = (stats == null) ? 0 : System.nanoTime();
+      if (interactionLayers != null && drawing != null && interactionLayers.draw(g, this)) {
+        if (stats != null) {
+          stats.setBufferState(RenderStatistics.BufferState.LAYERED, g.getClipBounds());
+        }
+      } else if (isDrawingDoubleBuffered()) {
+        if (IS_WINDOWS) {
+          drawDrawingNonvolatileBuffered(g);
+        } else {
+          drawDrawingVolatileBuffered(g);
+        }
       } else {
-        drawDrawingVolatileBuffered(g);
+        if (stats != null) {
+          stats.setBufferState(RenderStatistics.BufferState.UNBUFFERED, g.getClipBounds());
+        }
+        drawDrawing(g);
+      }
+      if (stats != null) {
+        stats.addDrawingNanos(System.nanoTime() - start);
+        start = System.nanoTime();
+      }
+      drawHandles(g);
+      if (stats != null) {
+        stats.addHandlesNanos(System.nanoTime() - start);
+      }
+      drawTool(g);
+    } finally {
+      if (stats != null) {
+        stats.endFrame();
+      }
+    }
+    if (stats != null) {
+      if (isRenderStatisticsVisible) {
+        drawRenderStatistics(g, stats);
+      }
+      fireFrameRendered(stats);
+    }
+  }
+
+  /** Reports the state of the drawing buffer to the statistics of the current frame. */
+  private void recordBufferState() {
+    RenderStatistics stats = RenderStatistics.current();
+    if (stats != null) {
+      RenderStatistics.BufferState state;
+      if (dirtyArea.isEmpty()) {
+        state = RenderStatistics.BufferState.HIT;
+      } else if (dirtyArea.contains(bufferedArea)) {
+        state = RenderStatistics.BufferState.MISS;
+      } else {
+        state = RenderStatistics.BufferState.PARTIAL;
+      }
+      stats.setBufferState(state, dirtyArea);
+    }
+  }
+
+  /** Draws the statistics of the current frame on top of the visible area of the view. */
+  protected void drawRenderStatistics(Graphics2D g, RenderStatistics stats) {
+    java.util.List<String> lines = new ArrayList<>();
+    lines.add(
+        String.format(
+            "frame %.2f ms, drawing %.2f ms, handles %.2f ms",
+            stats.getFrameNanos() / 1e6,
+            stats.getDrawingNanos() / 1e6,
+            stats.getHandlesNanos() / 1e6));
+    lines.add(
+        String.format("buffer %s, dirty %d px", stats.getBufferState(), stats.getDirtyPixels()));
+    lines.add(
+        String.format(
+            "figures %d queried, %d culled, %d drawn",
+            stats.getFiguresQueried(), stats.getFiguresCulled(), stats.getFiguresDrawn()));
+    stats.getFigureClassNanos().entrySet().stream()
+        .sorted(Map.Entry.<Class<?>, Long>comparingByValue().reversed())
+        .limit(3)
+        .forEach(
+            e ->
+                lines.add(
+                    String.format("%s %.2f ms", e.getKey().getSimpleName(), e.getValue() / 1e6)));
+    FontMetrics fm = g.getFontMetrics();
+    int width = 0;
+    for (String line : lines) {
+      width = Math.max(width, fm.stringWidth(line));
+    }
+    Rectangle vr = getVisibleRect();
+    int x = vr.x + 4;
+    int y = vr.y + 4;
+    g.setColor(new Color(0, 0, 0, 160));
+    g.fillRect(x, y, width + 8, lines.size() * fm.getHeight() + 8);
+    g.setColor(Color.WHITE);
+    for (String line : lines) {
+      y += fm.getHeight();
+      g.drawString(line, x + 4, y);
+    }
+  }
+
+  /**
+   * Returns true, if the view draws the {@link RenderStatistics} of each frame on top of the
+   * drawing.
+   */
+  public boolean isRenderStatisticsVisible() {
+    return isRenderStatisticsVisible;
+  }
+
+  /**
+   * Sets whether the view draws the {@link RenderStatistics} of each frame on top of the drawing.
+   */
+  public void setRenderStatisticsVisible(boolean newValue) {
+    boolean oldValue = isRenderStatisticsVisible;
+    isRenderStatisticsVisible = newValue;
+    firePropertyChange(RENDER_STATISTICS_VISIBLE_PROPERTY, oldValue, newValue);
+    repaint();
+  }
+
+  /**
+   * Sets whether the figures which are not changed by a tool interaction are cached. If this is
+   * true, the view renders the figures behind and in front of the changed figures only once per
+   * interaction, and each frame only draws the changed figures over the cached layers.
+   */
+  public void setInteractionBuffered(boolean newValue) {
+    boolean oldValue = isInteractionBuffered;
+    isInteractionBuffered = newValue;
+    if (!newValue) {
+      endInteraction();
+    }
+    firePropertyChange(INTERACTION_BUFFERED_PROPERTY, oldValue, newValue);
+  }
+
+  public boolean isInteractionBuffered() {
+    return isInteractionBuffered;
+  }
+
+  @Override
+  public void beginInteraction(Collection<Figure> figures) {
+    endInteraction();
+    if (isInteractionBuffered && drawing != null && !figures.isEmpty()) {
+      interactionLayers = new InteractionLayers(figures);
+    }
+  }
+
+  @Override
+  public void endInteraction() {
+    if (interactionLayers != null) {
+      interactionLayers.dispose();
+      interactionLayers = null;
+      // The drawing buffer has collected the dirty areas during the interaction.
+      repaint();
+    }
+  }
+
+  /**
+   * Sets whether large dirty areas of the drawing buffer are rendered in horizontal bands on a pool
+   * of worker threads. The event dispatch thread does not wait for the bands; each band is copied
+   * into the drawing buffer by the first paint after it is done.
+   *
+   * <p>The property has no effect if the drawing is not double buffered, if only one processor is
+   * available, or if the drawing can not be drawn concurrently, see {@link
+   * Drawing#isConcurrentlyDrawable}.
+   */
+  public void setParallelRendering(boolean newValue) {
+    boolean oldValue = isParallelRendering();
+    if (newValue != oldValue) {
+      bandRenderer = (newValue && BandRenderer.isAvailable()) ? new BandRenderer(this) : null;
+      dirtyArea.add(bufferedArea);
+      repaint();
+    }
+    firePropertyChange(PARALLEL_RENDERING_PROPERTY, oldValue, newValue);
+  }
+
+  public boolean isParallelRendering() {
+    return bandRenderer != null;
+  }
+
+  /**
+   * Copies the bands which are done into the drawing buffer, and renders the dirty area of the
+   * drawing buffer. A large dirty area is rendered in bands. While bands are being rendered, a
+   * dirty area which overlaps them or which is large stays dirty until the last band is done.
+   *
+   * @param gBuf the graphics of the drawing buffer in view coordinates
+   * @return false, if the dirty area stays dirty
+   */
+  private boolean renderDirtyArea(Graphics2D gBuf) {
+    if (bandRenderer != null) {
+      bandRenderer.composite(gBuf, drawing, getDrawingToViewTransform());
+    }
+    if (dirtyArea.isEmpty()) {
+      return true;
+    }
+    gBuf.clip(dirtyArea);
+    if (bandRenderer != null && drawing != null) {
+      boolean isLarge = (long) dirtyArea.width * dirtyArea.height >= MIN_PARALLEL_AREA;
+      Rectangle renderingArea = bandRenderer.getRenderingArea();
+      if (renderingArea != null) {
+        if (isLarge || renderingArea.intersects(dirtyArea)) {
+          return false;
+        }
+      } else if (isLarge && drawing.isConcurrentlyDrawable() && drawing.getChildCount() > 0) {
+        drawing.setFontRenderContext(gBuf.getFontRenderContext());
+        bandRenderer.render(drawing, dirtyArea, getDrawingToViewTransform());
+        // The old contents of the area stay visible until the bands are done
+        return true;
       }
-    } else {
-      drawDrawing(g);
     }
-    drawHandles(g);
-    drawTool(g);
+    // Clear the dirty area
+    gBuf.setBackground(new Color(0x0, true));
+    gBuf.clearRect(dirtyArea.x, dirtyArea.y, dirtyArea.width, dirtyArea.height);
+    gBuf.setComposite(AlphaComposite.SrcOver);
+    // Repaint the dirty area
+    drawDrawing(gBuf);
+    return true;
+  }
+
+  /**
+   * Called by the band renderer on the event dispatch thread, when a band is done. A band which
+   * could not be rendered stays dirty. When the last band is done, the areas which have become
+   * dirty in the meantime are repainted as well. The band is in view coordinates.
+   */
+  void bandDone(Rectangle band, boolean isRendered, boolean isLastBand) {
+    if (!isRendered) {
+      dirtyArea.add(band);
+    }
+    repaint(band);
+    if (isLastBand && !dirtyArea.isEmpty()) {
+      repaint(dirtyArea);
+    }
+  }
+
+  /** Returns true, if the drawing buffer has to be updated. */
+  private boolean isDrawingBufferDirty() {
+    return !dirtyArea.isEmpty() || (bandRenderer != null && bandRenderer.needsCompositing());
   }
 
   /** Draws the drawing double buffered using a volatile image. */
@@ -482,7 +785,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
         drawDrawing(g);
         break;
       }
-      if (!dirtyArea.isEmpty()) {
+      recordBufferState();
+      boolean isRendered = true;
+      if (isDrawingBufferDirty()) {
         // An area of the drawing buffer is dirty; repaint it
         Graphics2D gBuf = drawingBufferV.createGraphics();
         setViewRenderingHints(gBuf);
@@ -499,15 +804,8 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
               shift.y);
           shift.x = shift.y = 0;
         }
-        // Clip the dirty area
         gBuf.translate(-bufferedArea.x, -bufferedArea.y);
-        gBuf.clip(dirtyArea);
-        // Clear the dirty area
-        gBuf.setBackground(new Color(0x0, true));
-        gBuf.clearRect(dirtyArea.x, dirtyArea.y, dirtyArea.width, dirtyArea.height);
-        gBuf.setComposite(AlphaComposite.SrcOver);
-        // Repaint the dirty area
-        drawDrawing(gBuf);
+        isRendered = renderDirtyArea(gBuf);
         gBuf.dispose();
       }
       if (!drawingBufferV.contentsLost()) {
@@ -516,7 +814,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
       if (drawingBufferV.contentsLost()) {
         dirtyArea.setBounds(bufferedArea);
       } else {
-        dirtyArea.setSize(-1, -1);
+        if (isRendered) {
+          dirtyArea.setSize(-1, -1);
+        }
         break;
       }
     }
@@ -598,7 +898,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
       drawDrawing(g);
       return;
     }
-    if (!dirtyArea.isEmpty()) {
+    recordBufferState();
+    boolean isRendered = true;
+    if (isDrawingBufferDirty()) {
       // An area of the drawing buffer is dirty; repaint it
       Graphics2D gBuf = drawingBufferNV.createGraphics();
       setViewRenderingHints(gBuf);
@@ -615,19 +917,14 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
             shift.y);
         shift.x = shift.y = 0;
       }
-      // Clip the dirty area
       gBuf.translate(-bufferedArea.x, -bufferedArea.y);
-      gBuf.clip(dirtyArea);
-      // Clear the dirty area
-      gBuf.setBackground(new Color(0x0, true));
-      gBuf.clearRect(dirtyArea.x, dirtyArea.y, dirtyArea.width, dirtyArea.height);
-      gBuf.setComposite(AlphaComposite.SrcOver);
-      // Repaint the dirty area
-      drawDrawing(gBuf);
+      isRendered = renderDirtyArea(gBuf);
       gBuf.dispose();
     }
     g.drawImage(drawingBufferNV, bufferedArea.x, bufferedArea.y, null);
-    dirtyArea.setSize(-1, -1);
+    if (isRendered) {
+      dirtyArea.setSize(-1, -1);
+    }
   }
 
   /**
@@ -720,7 +1017,9 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
 
   protected void drawDrawing(Graphics2D gr) {
     if (drawing != null) {
-      if (drawing.getChildCount() == 0 && emptyDrawingLabel != null) {
+      if (drawing.getChildCount() == 0
+          && emptyDrawingLabel != null
+          && drawing.getDrawingArea().isEmpty()) {
         emptyDrawingLabel.setBounds(0, 0, getWidth(), getHeight());
         emptyDrawingLabel.paint(gr);
       } else {
@@ -739,8 +1038,16 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   protected void drawHandles(java.awt.Graphics2D g) {
     if (editor != null && editor.getActiveView() == this) {
       validateHandles();
-      for (Handle h : getSelectionHandles()) {
-        h.draw(g);
+      if (aggregateHandle != null) {
+        aggregateHandle.draw(g);
+      } else {
+        Rectangle r = getVisibleRect();
+        r.grow(HANDLE_MARGIN, HANDLE_MARGIN);
+        for (Figure figure : findSelectedFigures(r)) {
+          for (Handle h : getSelectionHandles(figure)) {
+            h.draw(g);
+          }
+        }
       }
       for (Handle h : getSecondaryHandles()) {
         h.draw(g);
@@ -765,6 +1072,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     if (this.drawing != null) {
       this.drawing.addDrawingListener(eventHandler);
     }
+    endInteraction();
     dirtyArea.add(bufferedArea);
     firePropertyChange(DRAWING_PROPERTY, oldValue, newValue);
     // Revalidate without flickering
@@ -807,6 +1115,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
 
   @Override
   public void removeNotify() {
+    endInteraction();
     super.removeNotify();
     if (drawingBufferNV != null) {
       drawingBufferNV.flush();
@@ -825,19 +1134,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     if (SELECTED_FIGURES.add(figure)) {
       figure.addFigureListener(handleInvalidator);
       Set<Figure> newSelection = new HashSet<>(SELECTED_FIGURES);
-      Rectangle invalidatedArea = null;
-      if (handlesAreValid && getEditor() != null) {
-        for (Handle h : figure.createHandles(detailLevel)) {
-          h.setView(this);
-          selectionHandles.add(h);
-          h.addHandleListener(eventHandler);
-          if (invalidatedArea == null) {
-            invalidatedArea = h.getDrawingArea();
-          } else {
-            invalidatedArea.add(h.getDrawingArea());
-          }
-        }
-      }
+      Rectangle invalidatedArea = selectionChanged(Collections.singleton(figure));
       fireSelectionChanged(oldSelection, newSelection);
       if (invalidatedArea != null) {
         repaint(invalidatedArea);
@@ -850,28 +1147,16 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   public void addToSelection(Collection<Figure> figures) {
     Set<Figure> oldSelection = new HashSet<>(SELECTED_FIGURES);
     Set<Figure> newSelection = new HashSet<>(SELECTED_FIGURES);
-    boolean selectionChanged = false;
-    Rectangle invalidatedArea = null;
+    java.util.List<Figure> added = new ArrayList<>();
     for (Figure figure : figures) {
       if (SELECTED_FIGURES.add(figure)) {
-        selectionChanged = true;
+        added.add(figure);
         newSelection.add(figure);
         figure.addFigureListener(handleInvalidator);
-        if (handlesAreValid && getEditor() != null) {
-          for (Handle h : figure.createHandles(detailLevel)) {
-            h.setView(this);
-            selectionHandles.add(h);
-            h.addHandleListener(eventHandler);
-            if (invalidatedArea == null) {
-              invalidatedArea = h.getDrawingArea();
-            } else {
-              invalidatedArea.add(h.getDrawingArea());
-            }
-          }
-        }
       }
     }
-    if (selectionChanged) {
+    if (!added.isEmpty()) {
+      Rectangle invalidatedArea = selectionChanged(added);
       fireSelectionChanged(oldSelection, newSelection);
       if (invalidatedArea != null) {
         repaint(invalidatedArea);
@@ -959,10 +1244,131 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     return SELECTED_FIGURES.size();
   }
 
-  /** Gets the currently active selection handles. */
-  private java.util.List<Handle> getSelectionHandles() {
-    validateHandles();
-    return Collections.unmodifiableList(selectionHandles);
+  /**
+   * Updates the handles after figures have been added to the selection.
+   *
+   * @return the area which must be repainted, or null
+   */
+  private Rectangle selectionChanged(Collection<Figure> added) {
+    if (!handlesAreValid || getEditor() == null) {
+      return null;
+    }
+    if (aggregateHandle == null && SELECTED_FIGURES.size() > handleAggregationThreshold) {
+      // The selection has become too large for individual handles
+      invalidateHandles();
+      return null;
+    }
+    selectionIndex = null;
+    Rectangle invalidatedArea = null;
+    if (aggregateHandle != null) {
+      invalidatedArea = aggregateHandle.getDrawingArea();
+      aggregateHandle.invalidate();
+      invalidatedArea.add(aggregateHandle.getDrawingArea());
+    } else {
+      invalidatedArea = getHandleArea(added);
+    }
+    return invalidatedArea;
+  }
+
+  /** Returns the area in which the handles of the specified figures can be located, or null. */
+  private Rectangle getHandleArea(Collection<Figure> figures) {
+    Rectangle2D.Double area = null;
+    for (Figure figure : figures) {
+      if (area == null) {
+        area = figure.getDrawingArea();
+      } else {
+        area.add(figure.getDrawingArea());
+      }
+    }
+    if (area == null) {
+      return null;
+    }
+    Rectangle r = drawingToView(area);
+    r.grow(HANDLE_MARGIN, HANDLE_MARGIN);
+    return r;
+  }
+
+  /** Returns the handles of a selected figure. Creates the handles if necessary. */
+  private java.util.List<Handle> getSelectionHandles(Figure figure) {
+    java.util.List<Handle> handles = selectionHandles.get(figure);
+    if (handles == null) {
+      handles = new ArrayList<>(figure.createHandles(detailLevel));
+      for (Handle h : handles) {
+        h.setView(this);
+        h.addHandleListener(eventHandler);
+      }
+      selectionHandles.put(figure, handles);
+    }
+    return handles;
+  }
+
+  /** Gets the selection handles which have been created so far. */
+  private java.util.List<Handle> getCreatedSelectionHandles() {
+    java.util.List<Handle> handles = new ArrayList<>();
+    if (aggregateHandle != null) {
+      handles.add(aggregateHandle);
+    }
+    for (java.util.List<Handle> h : selectionHandles.values()) {
+      handles.addAll(h);
+    }
+    return handles;
+  }
+
+  /**
+   * Returns the selected figures, whose drawing area intersects the specified rectangle, in the
+   * order of the selection.
+   */
+  private java.util.List<Figure> findSelectedFigures(Rectangle r) {
+    if (selectionIndex == null) {
+      // Create the tree with the bounds of the selection, so that it does not have to reorganize
+      java.util.List<Rectangle2D.Double> areas = new ArrayList<>(SELECTED_FIGURES.size());
+      Rectangle2D.Double bounds = new Rectangle2D.Double();
+      for (Figure figure : SELECTED_FIGURES) {
+        Rectangle2D.Double area = figure.getDrawingArea();
+        if (areas.isEmpty()) {
+          bounds.setRect(area);
+        } else {
+          bounds.add(area);
+        }
+        areas.add(area);
+      }
+      selectionIndex = new QuadTree<>(bounds);
+      int i = 0;
+      for (Figure figure : SELECTED_FIGURES) {
+        selectionIndex.add(figure, areas.get(i++));
+      }
+    }
+    Collection<Figure> found = selectionIndex.findIntersects(viewToDrawing(r));
+    java.util.List<Figure> result = new ArrayList<>(found.size());
+    if (found.size() == SELECTED_FIGURES.size()) {
+      result.addAll(SELECTED_FIGURES);
+    } else if (!found.isEmpty()) {
+      for (Figure figure : SELECTED_FIGURES) {
+        if (found.contains(figure)) {
+          result.add(figure);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of selected figures above which the view draws a single handle for the
+   * bounds of the selection, instead of the handles of the individual figures.
+   */
+  public int getHandleAggregationThreshold() {
+    return handleAggregationThreshold;
+  }
+
+  /**
+   * Sets the number of selected figures above which the view draws a single handle for the bounds
+   * of the selection, instead of the handles of the individual figures.
+   */
+  public void setHandleAggregationThreshold(int newValue) {
+    int oldValue = handleAggregationThreshold;
+    handleAggregationThreshold = newValue;
+    invalidateHandles();
+    firePropertyChange(HANDLE_AGGREGATION_THRESHOLD_PROPERTY, oldValue, newValue);
   }
 
   /** Gets the currently active secondary handles. */
@@ -976,7 +1382,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     if (handlesAreValid) {
       handlesAreValid = false;
       Rectangle invalidatedArea = null;
-      for (Handle handle : selectionHandles) {
+      for (Handle handle : getCreatedSelectionHandles()) {
         handle.removeHandleListener(eventHandler);
         if (invalidatedArea == null) {
           invalidatedArea = handle.getDrawingArea();
@@ -995,6 +1401,8 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
         handle.dispose();
       }
       selectionHandles.clear();
+      selectionIndex = null;
+      aggregateHandle = null;
       secondaryHandles.clear();
       setActiveHandle(null);
       if (invalidatedArea != null) {
@@ -1010,28 +1418,31 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     if (!handlesAreValid && getEditor() != null) {
       handlesAreValid = true;
       selectionHandles.clear();
-      Rectangle invalidatedArea = null;
-      while (true) {
-        for (Figure figure : getSelectedFigures()) {
-          for (Handle handle : figure.createHandles(detailLevel)) {
-            handle.setView(this);
-            selectionHandles.add(handle);
-            handle.addHandleListener(eventHandler);
-            if (invalidatedArea == null) {
-              invalidatedArea = handle.getDrawingArea();
-            } else {
-              invalidatedArea.add(handle.getDrawingArea());
-            }
+      selectionIndex = null;
+      if (SELECTED_FIGURES.size() > handleAggregationThreshold) {
+        aggregateHandle = new SelectionBoundsHandle(UNMODIFIABLE_SELECTED_FIGURES);
+        aggregateHandle.setView(this);
+        repaint(aggregateHandle.getDrawingArea());
+        return;
+      }
+      // The handles of the other figures are created lazily, we only
+      // look for the first figure which has handles at the desired detail level.
+      if (detailLevel != 0 && !SELECTED_FIGURES.isEmpty()) {
+        boolean hasHandles = false;
+        for (Figure figure : SELECTED_FIGURES) {
+          if (!getSelectionHandles(figure).isEmpty()) {
+            hasHandles = true;
+            break;
           }
         }
-        if (selectionHandles.size() == 0 && detailLevel != 0) {
+        if (!hasHandles) {
           // No handles are available at the desired detail level.
-          // Retry with detail level 0.
+          // Use detail level 0.
+          selectionHandles.clear();
           detailLevel = 0;
-          continue;
         }
-        break;
       }
+      Rectangle invalidatedArea = getHandleArea(SELECTED_FIGURES);
       if (invalidatedArea != null) {
         repaint(invalidatedArea);
       }
@@ -1051,30 +1462,44 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
         return handle;
       }
     }
-    for (Handle handle : new ReversedList<>(getSelectionHandles())) {
-      if (handle.contains(p)) {
-        return handle;
+    if (aggregateHandle == null) {
+      Rectangle r = new Rectangle(p);
+      r.grow(HANDLE_MARGIN, HANDLE_MARGIN);
+      for (Figure figure : new ReversedList<>(findSelectedFigures(r))) {
+        for (Handle handle : new ReversedList<>(getSelectionHandles(figure))) {
+          if (handle.contains(p)) {
+            return handle;
+          }
+        }
       }
     }
     return null;
   }
 
   /**
-   * Gets compatible handles.
+   * Gets compatible handles. The handles of the other selected figures are only created, if the
+   * master handle can be combined with handles of its kind.
    *
    * @return A collection containing the handle and all compatible handles.
    */
   @Override
   public Collection<Handle> getCompatibleHandles(Handle master) {
     validateHandles();
-    HashSet<Figure> owners = new HashSet<>();
     java.util.List<Handle> compatibleHandles = new ArrayList<>();
-    owners.add(master.getOwner());
     compatibleHandles.add(master);
-    for (Handle handle : getSelectionHandles()) {
-      if (!owners.contains(handle.getOwner()) && handle.isCombinableWith(master)) {
-        owners.add(handle.getOwner());
-        compatibleHandles.add(handle);
+    if (aggregateHandle != null
+        || SELECTED_FIGURES.size() < 2
+        || !master.isCombinableWith(master)) {
+      return compatibleHandles;
+    }
+    for (Figure figure : SELECTED_FIGURES) {
+      if (figure != master.getOwner()) {
+        for (Handle handle : getSelectionHandles(figure)) {
+          if (handle.isCombinableWith(master)) {
+            compatibleHandles.add(handle);
+            break;
+          }
+        }
       }
     }
     return compatibleHandles;
@@ -1110,6 +1535,30 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
     listenerList.remove(FigureSelectionListener.class, fsl);
   }
 
+  @Override
+  public void addRenderListener(RenderListener l) {
+    listenerList.add(RenderListener.class, l);
+  }
+
+  @Override
+  public void removeRenderListener(RenderListener l) {
+    listenerList.remove(RenderListener.class, l);
+  }
+
+  /** Notify all render listeners that a frame has been rendered. */
+  protected void fireFrameRendered(RenderStatistics stats) {
+    RenderEvent event = null;
+    Object[] listeners = listenerList.getListenerList();
+    for (int i = listeners.length - 2; i >= 0; i -= 2) {
+      if (listeners[i] == RenderListener.class) {
+        if (event == null) {
+          event = new RenderEvent(this, stats);
+        }
+        ((RenderListener) listeners[i + 1]).frameRendered(event);
+      }
+    }
+  }
+
   /**
    * Notify all listenerList that have registered interest for notification on this event type. Also
    * notify listeners who listen for {@link EditableComponent#SELECTION_EMPTY_PROPERTY}.
@@ -1319,7 +1768,7 @@ public class DefaultDrawingView extends JComponent implements DrawingView, Edita
   }
 
   protected void fireViewTransformChanged() {
-    for (Handle handle : selectionHandles) {
+    for (Handle handle : getCreatedSelectionHandles()) {
       handle.viewTransformChanged();
     }
     for (Handle handle : secondaryHandles) {
@@ -11,11 +11,13 @@ import java.awt.Graphics2D;
 import java.awt.font.*;
 import java.awt.geom.*;
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
 import javax.swing.event.*;
 import javax.swing.undo.*;
 import org.jhotdraw.draw.event.DrawingListener;
 import org.jhotdraw.draw.figure.AttributesFigure;
 import org.jhotdraw.draw.figure.CompositeFigure;
+import org.jhotdraw.draw.figure.ConnectionFigure;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.io.InputFormat;
 import org.jhotdraw.draw.io.OutputFormat;
@@ -241,6 +243,23 @@ public interface Drawing {
    */
   List<Figure> findFigures(Rectangle2D.Double bounds);
 
+  /**
+   * Returns the children whose drawing area intersects the specified area, in z-order from back to
+   * front. This is used to draw a part of the drawing. The caller must hold the read lock.
+   *
+   * <p>This default implementation tests the drawing area of each child.
+   */
+  default List<Figure> findFiguresToDraw(Rectangle2D.Double area, double scale) {
+    List<Figure> found = new ArrayList<>();
+    for (Figure f : getChildren()) {
+      if (f.getDrawingArea(scale).intersects(area)) {
+        found.add(f);
+      }
+    }
+    found.sort(Comparator.comparing(Figure::getLayer));
+    return found;
+  }
+
   /**
    * Returns all figures that lie within the specified bounds. The figures are returned in Z-order
    * from back to front.
@@ -345,9 +364,49 @@ public interface Drawing {
   /**
    * Returns the lock object on which all threads acting on Figures in this drawing synchronize to
    * prevent race conditions.
+   *
+   * @deprecated Use {@link #getReadWriteLock}. Synchronizing on this object does not exclude
+   *     threads which use the read/write lock.
    */
+  @Deprecated
   Object getLock();
 
+  /**
+   * Returns the read/write lock of this drawing. Each drawing has its own lock.
+   *
+   * <p>Drawing and hit-testing the drawing acquire the read lock, so that several threads can
+   * render the drawing at the same time, for example for an export. Adding, removing and reordering
+   * children acquires the write lock.
+   *
+   * <p>Figures may change while the drawing is being read, for example while they are drawn. The
+   * drawing then updates its internal state as soon as the read lock has been released. A thread
+   * which holds the read lock must not add, remove or reorder children; an attempt to do so fails
+   * with an {@code IllegalStateException}.
+   */
+  ReadWriteLock getReadWriteLock();
+
+  /**
+   * Returns true, if several threads may draw this drawing at the same time, while no thread
+   * changes it. Drawing must then neither change the drawing, nor compute caches of the figures in
+   * a way which is not thread safe.
+   *
+   * <p>This default implementation returns false.
+   */
+  default boolean isConcurrentlyDrawable() {
+    return false;
+  }
+
+  /**
+   * Returns true, if the drawing keeps a spatial index of its children, so that the time needed by
+   * {@link #findFigures(Rectangle2D.Double)} depends on the size of the area rather than on the
+   * number of children.
+   *
+   * <p>This default implementation returns false.
+   */
+  default boolean isSpatiallyIndexed() {
+    return false;
+  }
+
   /** Adds an input format to the drawing. */
   void addInputFormat(InputFormat format);
 
@@ -376,6 +435,54 @@ public interface Drawing {
   /** Gets output formats for the Drawing in order of preferred formats. */
   List<OutputFormat> getOutputFormats();
 
+  /**
+   * Returns the connection figures among the children of this drawing, which are attached to the
+   * specified figure.
+   *
+   * <p>This default implementation scans all children. Implementations which maintain a {@link
+   * ConnectionIndex} answer this query without a scan.
+   */
+  default Collection<ConnectionFigure> findConnections(Figure figure) {
+    List<ConnectionFigure> connections = new ArrayList<>();
+    for (Figure f : getChildren()) {
+      if (f instanceof ConnectionFigure) {
+        ConnectionFigure c = (ConnectionFigure) f;
+        if (c.getStartFigure() == figure || c.getEndFigure() == figure) {
+          connections.add(c);
+        }
+      }
+    }
+    return connections;
+  }
+
+  /**
+   * Informs the drawing that the start or end connector of a connection figure has changed. This
+   * method is invoked by connection figures, so that the drawing can keep its connection index in
+   * sync.
+   */
+  default void connectionChanged(ConnectionFigure connection) {}
+
+  /**
+   * Requests that the connection figure updates its connection, because one of its connected
+   * figures has changed.
+   *
+   * <p>This default implementation updates the connection immediately. Implementations which
+   * support batched connection updates defer the update until {@link #endConnectionUpdate} is
+   * invoked, and then update each connection only once.
+   */
+  default void requestConnectionUpdate(ConnectionFigure connection) {
+    connection.updateConnection();
+  }
+
+  /**
+   * Starts a batch of figure changes. Connection updates requested during the batch are deferred
+   * until the matching call to {@link #endConnectionUpdate}.
+   */
+  default void beginConnectionUpdate() {}
+
+  /** Ends a batch of figure changes, and performs the deferred connection updates. */
+  default void endConnectionUpdate() {}
+
   /**
    * Returns a clone of the figure, with clones of all aggregated figures, such as children and
    * decorators. The cloned figure does not clone the list of FigureListeners from its original.
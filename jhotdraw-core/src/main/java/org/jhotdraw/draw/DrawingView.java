@@ -23,6 +23,7 @@ import java.util.Set;
 import javax.swing.JComponent;
 import org.jhotdraw.draw.constrainer.Constrainer;
 import org.jhotdraw.draw.event.FigureSelectionListener;
+import org.jhotdraw.draw.event.RenderListener;
 import org.jhotdraw.draw.figure.CompositeFigure;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.handle.Handle;
@@ -252,6 +253,25 @@ public interface DrawingView {
    */
   public void removeFigureSelectionListener(FigureSelectionListener fsl);
 
+  /**
+   * Add a listener for the frames rendered by this DrawingView. The view only collects {@link
+   * RenderStatistics} while it has render listeners.
+   */
+  public void addRenderListener(RenderListener l);
+
+  /** Remove a listener for the frames rendered by this DrawingView. */
+  public void removeRenderListener(RenderListener l);
+
+  /**
+   * Informs the view that a tool starts to change the specified figures interactively, for example
+   * by dragging them or one of their handles. The view may cache the rendering of all other figures
+   * until {@link #endInteraction} is called.
+   */
+  public void beginInteraction(Collection<Figure> figures);
+
+  /** Informs the view that the interaction started by {@link #beginInteraction} has ended. */
+  public void endInteraction();
+
   /** This is a convenience method for invoking {@code getComponent().requestFocus()}. */
   public void requestFocus();
 
@@ -0,0 +1,38 @@
+/*
+ * @(#)FigureRenderEvent.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event with the time spent drawing the figures of one class during a frame. See
+ * {@link RenderStatistics}.
+ */
+@Name("org.jhotdraw.FigureRender")
+@Label("Figure Render")
+@Category({"JHotDraw", "Rendering"})
+@Description("Time spent drawing the figures of one class during a frame")
+@StackTrace(false)
+final class FigureRenderEvent extends Event {
+
+  @Label("Figure Class")
+  Class<?> figureClass;
+
+  @Label("Count")
+  int count;
+
+  @Label("Draw Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long drawTime;
+}
@@ -0,0 +1,246 @@
+/*
+ * @(#)InteractionLayers.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * Renders a drawing in three layers while a tool changes some of its figures interactively.
+ *
+ * <p>The figures behind the first active figure and the figures in front of the last active figure
+ * are rendered once into a backdrop image and a foreground image. Each frame only draws the images
+ * and the figures in between, which are the active figures and the figures which are interleaved
+ * with them in z-order.
+ *
+ * <p>{@link DefaultDrawingView} invalidates the images when figures outside of the active set
+ * change, and when figures are added, removed or reordered. Only the figures which intersect the
+ * dirty area of the images are queried from the drawing when the images are rendered again.
+ */
+final class InteractionLayers {
+
+  private final Set<Figure> activeFigures =
+      Collections.newSetFromMap(new IdentityHashMap<Figure, Boolean>());
+  private final Set<Figure> backdropFigures =
+      Collections.newSetFromMap(new IdentityHashMap<Figure, Boolean>());
+  private final Set<Figure> liveSet =
+      Collections.newSetFromMap(new IdentityHashMap<Figure, Boolean>());
+
+  /** The active figures and the figures between them in z-order. Null, if the split is invalid. */
+  private List<Figure> liveFigures;
+
+  private BufferedImage backdrop;
+  private BufferedImage foreground;
+
+  /** The area of the view (in view coordinates) which is held by the images. */
+  private final Rectangle bufferedArea = new Rectangle();
+
+  /** The drawing to view transform, with which the images have been rendered. */
+  private AffineTransform bufferedTransform;
+
+  /** The area of the images (in view coordinates) which has not been rendered yet. */
+  private final Rectangle dirtyArea = new Rectangle(0, 0, -1, -1);
+
+  InteractionLayers(Collection<Figure> figures) {
+    activeFigures.addAll(figures);
+  }
+
+  boolean isActive(Figure figure) {
+    return activeFigures.contains(figure);
+  }
+
+  /** Marks an area of the images (in view coordinates) as dirty. */
+  void invalidate(Rectangle area) {
+    dirtyArea.add(area);
+  }
+
+  /** Splits the figures again, and marks the images as dirty. */
+  void invalidateStructure() {
+    liveFigures = null;
+  }
+
+  /**
+   * Draws the drawing into the view.
+   *
+   * @return false, if there is not enough memory for the images. The caller must draw the drawing
+   *     without the layers then.
+   */
+  boolean draw(Graphics2D g, DefaultDrawingView view) {
+    Drawing drawing = view.getDrawing();
+    Rectangle vr = view.getVisibleRect();
+    AffineTransform tx = view.getDrawingToViewTransform();
+    if (vr.isEmpty()) {
+      return true;
+    }
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      if (liveFigures == null) {
+        split(drawing);
+        dirtyArea.setBounds(vr);
+      }
+      if (!vr.equals(bufferedArea) || !tx.equals(bufferedTransform)) {
+        if (backdrop != null
+            && (backdrop.getWidth() != vr.width || backdrop.getHeight() != vr.height)) {
+          dispose();
+        }
+        bufferedArea.setBounds(vr);
+        bufferedTransform = tx;
+        dirtyArea.setBounds(vr);
+      }
+      if (backdrop == null) {
+        try {
+          backdrop = createImage(view, vr);
+          foreground = createImage(view, vr);
+        } catch (OutOfMemoryError e) {
+          dispose();
+          return false;
+        }
+        dirtyArea.setBounds(vr);
+      }
+      Rectangle2D.intersect(dirtyArea, bufferedArea, dirtyArea);
+      if (!dirtyArea.isEmpty()) {
+        List<Figure> backdropDirty = new ArrayList<>();
+        List<Figure> foregroundDirty = new ArrayList<>();
+        List<Figure> dirty =
+            drawing.findFiguresToDraw(
+                view.viewToDrawing(dirtyArea), AttributeKeys.getScaleFactor(tx));
+        for (Figure f : dirty) {
+          if (backdropFigures.contains(f)) {
+            backdropDirty.add(f);
+          } else if (!liveSet.contains(f)) {
+            foregroundDirty.add(f);
+          }
+        }
+        RenderStatistics stats = RenderStatistics.current();
+        if (stats != null) {
+          stats.addFiguresQueried(dirty.size());
+        }
+        render(backdrop, backdropDirty, view);
+        render(foreground, foregroundDirty, view);
+        dirtyArea.setSize(-1, -1);
+      }
+      g.drawImage(backdrop, bufferedArea.x, bufferedArea.y, null);
+      Graphics2D gLive = (Graphics2D) g.create();
+      gLive.transform(tx);
+      drawing.setFontRenderContext(gLive.getFontRenderContext());
+      drawFigures(gLive, liveFigures);
+      gLive.dispose();
+      g.drawImage(foreground, bufferedArea.x, bufferedArea.y, null);
+    } finally {
+      readLock.unlock();
+    }
+    return true;
+  }
+
+  /** Releases the images. */
+  void dispose() {
+    if (backdrop != null) {
+      backdrop.flush();
+      backdrop = null;
+    }
+    if (foreground != null) {
+      foreground.flush();
+      foreground = null;
+    }
+  }
+
+  /**
+   * Splits the children of the drawing into backdrop, live and foreground figures. The drawing
+   * keeps its children in z-order within each layer, so one pass over them finds the range of the
+   * active figures without sorting the drawing.
+   */
+  private void split(Drawing drawing) {
+    List<Figure> children = drawing.getChildren();
+    int first = -1;
+    int last = -1;
+    for (int i = 0; i < children.size(); i++) {
+      if (activeFigures.contains(children.get(i))) {
+        if (first == -1 || isBehind(children, i, first)) {
+          first = i;
+        }
+        if (last == -1 || isBehind(children, last, i)) {
+          last = i;
+        }
+      }
+    }
+    backdropFigures.clear();
+    liveSet.clear();
+    liveFigures = new ArrayList<>();
+    for (int i = 0; i < children.size(); i++) {
+      Figure f = children.get(i);
+      if (first == -1 || isBehind(children, i, first)) {
+        backdropFigures.add(f);
+      } else if (!isBehind(children, last, i)) {
+        liveFigures.add(f);
+        liveSet.add(f);
+      }
+    }
+    liveFigures.sort(Comparator.comparing(Figure::getLayer));
+  }
+
+  /** Returns true, if the child at index i is drawn behind the child at index j. */
+  private static boolean isBehind(List<Figure> children, int i, int j) {
+    int layers = Integer.compare(children.get(i).getLayer(), children.get(j).getLayer());
+    return layers < 0 || layers == 0 && i < j;
+  }
+
+  private static BufferedImage createImage(DefaultDrawingView view, Rectangle vr) {
+    return view.getGraphicsConfiguration() == null
+        ? new BufferedImage(vr.width, vr.height, BufferedImage.TYPE_INT_ARGB_PRE)
+        : view.getGraphicsConfiguration()
+            .createCompatibleImage(vr.width, vr.height, Transparency.TRANSLUCENT);
+  }
+
+  /** Renders the figures into the dirty area of the image. */
+  private void render(BufferedImage image, List<Figure> figures, DefaultDrawingView view) {
+    Graphics2D gBuf = image.createGraphics();
+    view.setViewRenderingHints(gBuf);
+    gBuf.translate(-bufferedArea.x, -bufferedArea.y);
+    gBuf.clip(dirtyArea);
+    gBuf.setComposite(AlphaComposite.Src);
+    gBuf.setBackground(new Color(0x0, true));
+    gBuf.clearRect(dirtyArea.x, dirtyArea.y, dirtyArea.width, dirtyArea.height);
+    gBuf.setComposite(AlphaComposite.SrcOver);
+    gBuf.transform(bufferedTransform);
+    drawFigures(gBuf, figures);
+    gBuf.dispose();
+  }
+
+  private static void drawFigures(Graphics2D g, List<Figure> figures) {
+    Rectangle clipBounds = g.getClipBounds();
+    double scale = AttributeKeys.getScaleFactorFromGraphics(g);
+    RenderStatistics stats = RenderStatistics.current();
+    for (Figure f : figures) {
+      if (f.isVisible() && (clipBounds == null || f.getDrawingArea(scale).intersects(clipBounds))) {
+        if (stats == null) {
+          f.draw(g);
+        } else {
+          stats.draw(f, g);
+        }
+      } else if (stats != null) {
+        stats.addFiguresCulled(1);
+      }
+    }
+  }
+}
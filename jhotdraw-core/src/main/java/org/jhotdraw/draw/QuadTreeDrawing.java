@@ -18,7 +18,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import org.jhotdraw.draw.event.FigureEvent;
+import java.util.concurrent.locks.Lock;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.geom.Geom;
 import org.jhotdraw.geom.QuadTree;
@@ -32,7 +32,7 @@ public class QuadTreeDrawing extends AbstractDrawing {
 
   private static final long serialVersionUID = 1L;
   private QuadTree<Figure> quadTree = new QuadTree<>();
-  private boolean needsSorting = false;
+  private volatile boolean needsSorting = false;
 
   @Override
   public int indexOf(Figure figure) {
@@ -41,27 +41,57 @@ public class QuadTreeDrawing extends AbstractDrawing {
 
   @Override
   public void basicAdd(int index, Figure figure) {
-    super.basicAdd(index, figure);
-    quadTree.add(figure, figure.getDrawingArea());
-    needsSorting = true;
+    Lock writeLock = lockForWriting();
+    try {
+      super.basicAdd(index, figure);
+      quadTree.add(figure, figure.getDrawingArea());
+      needsSorting = true;
+    } finally {
+      unlock(writeLock);
+    }
   }
 
   @Override
   public Figure basicRemoveChild(int index) {
-    Figure figure = getChild(index);
-    quadTree.remove(figure);
-    needsSorting = true;
-    super.basicRemoveChild(index);
-    return figure;
+    Lock writeLock = lockForWriting();
+    try {
+      Figure figure = getChild(index);
+      quadTree.remove(figure);
+      needsSorting = true;
+      super.basicRemoveChild(index);
+      return figure;
+    } finally {
+      unlock(writeLock);
+    }
+  }
+
+  /** The children are drawn under the read lock, and sorted under the write lock. */
+  @Override
+  public boolean isConcurrentlyDrawable() {
+    return true;
+  }
+
+  /** The children are looked up in a quad tree. */
+  @Override
+  public boolean isSpatiallyIndexed() {
+    return true;
   }
 
   @Override
   public void draw(Graphics2D g) {
     Rectangle2D clipBounds = g.getClipBounds();
-    if (clipBounds != null) {
-      draw(g, sort(quadTree.findIntersects(clipBounds)));
-    } else {
-      draw(g, CHILDREN);
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      Collection<Figure> c =
+          (clipBounds != null) ? sort(quadTree.findIntersects(clipBounds)) : getSortedChildren();
+      RenderStatistics stats = RenderStatistics.current();
+      if (stats != null) {
+        stats.addFiguresQueried(c.size());
+      }
+      draw(g, c);
+    } finally {
+      readLock.unlock();
     }
   }
 
@@ -73,16 +103,41 @@ public class QuadTreeDrawing extends AbstractDrawing {
     return sorted;
   }
 
+  /** Queries the quad tree, which holds the drawing areas of the children. */
+  @Override
+  public List<Figure> findFiguresToDraw(Rectangle2D.Double area, double scale) {
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      return sort(quadTree.findIntersects(area));
+    } finally {
+      readLock.unlock();
+    }
+  }
+
   public void draw(Graphics2D g, Collection<Figure> c) {
+    RenderStatistics stats = RenderStatistics.current();
     for (Figure f : c) {
       if (f.isVisible()) {
-        f.draw(g);
+        if (stats == null) {
+          f.draw(g);
+        } else {
+          stats.draw(f, g);
+        }
+      } else if (stats != null) {
+        stats.addFiguresCulled(1);
       }
     }
   }
 
   public List<Figure> getChildren(Rectangle2D.Double bounds) {
-    return new ArrayList<>(quadTree.findInside(bounds));
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      return new ArrayList<>(quadTree.findInside(bounds));
+    } finally {
+      readLock.unlock();
+    }
   }
 
   @Override
@@ -92,20 +147,25 @@ public class QuadTreeDrawing extends AbstractDrawing {
 
   @Override
   public Figure findFigureInside(Point2D.Double p) {
-    Collection<Figure> c = quadTree.findContains(p);
-    for (Figure f : getFiguresFrontToBack(c)) {
-      if (c.contains(f) && f.contains(p)) {
-        return f.findFigureInside(p);
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      Collection<Figure> c = quadTree.findContains(p);
+      for (Figure f : getFiguresFrontToBack(c)) {
+        if (c.contains(f) && f.contains(p)) {
+          return f.findFigureInside(p);
+        }
       }
+      return null;
+    } finally {
+      readLock.unlock();
     }
-    return null;
   }
 
   /** Returns an iterator to iterate in Z-order front to back over the children. */
   @Override
   public List<Figure> getFiguresFrontToBack() {
-    ensureSorted();
-    return new ReversedList<>(CHILDREN);
+    return new ReversedList<>(getSortedChildren());
   }
 
   protected List<Figure> getFiguresFrontToBack(Collection<Figure> smallCollection) {
@@ -116,58 +176,76 @@ public class QuadTreeDrawing extends AbstractDrawing {
 
   @Override
   public Figure findFigure(Point2D.Double p) {
-    Collection<Figure> c = quadTree.findContains(p);
-    switch (c.size()) {
-      case 0:
-        return null;
-      case 1:
-        Figure f = c.iterator().next();
-        return (f.contains(p)) ? f : null;
-      default:
-        for (Figure f2 : getFiguresFrontToBack(c)) {
-          if (f2.contains(p)) {
-            return f2;
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      Collection<Figure> c = quadTree.findContains(p);
+      switch (c.size()) {
+        case 0:
+          return null;
+        case 1:
+          Figure f = c.iterator().next();
+          return (f.contains(p)) ? f : null;
+        default:
+          for (Figure f2 : getFiguresFrontToBack(c)) {
+            if (f2.contains(p)) {
+              return f2;
+            }
           }
-        }
-        return null;
+          return null;
+      }
+    } finally {
+      readLock.unlock();
     }
   }
 
   @Override
   public Figure findFigureExcept(Point2D.Double p, Figure ignore) {
-    Collection<Figure> c = quadTree.findContains(p);
-    switch (c.size()) {
-      case 0:
-        return null;
-      case 1:
-        Figure f = c.iterator().next();
-        return (f == ignore || !f.contains(p)) ? null : f;
-      default:
-        for (Figure f2 : getFiguresFrontToBack(c)) {
-          if (f2 != ignore && f2.contains(p)) {
-            return f2;
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      Collection<Figure> c = quadTree.findContains(p);
+      switch (c.size()) {
+        case 0:
+          return null;
+        case 1:
+          Figure f = c.iterator().next();
+          return (f == ignore || !f.contains(p)) ? null : f;
+        default:
+          for (Figure f2 : getFiguresFrontToBack(c)) {
+            if (f2 != ignore && f2.contains(p)) {
+              return f2;
+            }
           }
-        }
-        return null;
+          return null;
+      }
+    } finally {
+      readLock.unlock();
     }
   }
 
   @Override
   public Figure findFigureExcept(Point2D.Double p, Collection<? extends Figure> ignore) {
-    Collection<Figure> c = quadTree.findContains(p);
-    switch (c.size()) {
-      case 0:
-        return null;
-      case 1:
-        Figure f = c.iterator().next();
-        return (!ignore.contains(f) || !f.contains(p)) ? null : f;
-      default:
-        for (Figure f2 : getFiguresFrontToBack(c)) {
-          if (!ignore.contains(f2) && f2.contains(p)) {
-            return f2;
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      Collection<Figure> c = quadTree.findContains(p);
+      switch (c.size()) {
+        case 0:
+          return null;
+        case 1:
+          Figure f = c.iterator().next();
+          return (ignore.contains(f) || !f.contains(p)) ? null : f;
+        default:
+          for (Figure f2 : getFiguresFrontToBack(c)) {
+            if (!ignore.contains(f2) && f2.contains(p)) {
+              return f2;
+            }
           }
-        }
-        return null;
+          return null;
+      }
+    } finally {
+      readLock.unlock();
     }
   }
 
@@ -205,7 +283,14 @@ public class QuadTreeDrawing extends AbstractDrawing {
 
   @Override
   public List<Figure> findFigures(Rectangle2D.Double r) {
-    List<Figure> c = new ArrayList<>(quadTree.findIntersects(r));
+    List<Figure> c;
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      c = new ArrayList<>(quadTree.findIntersects(r));
+    } finally {
+      readLock.unlock();
+    }
     switch (c.size()) {
       case 0:
         // fall through
@@ -216,50 +301,102 @@ public class QuadTreeDrawing extends AbstractDrawing {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The quad tree holds the drawing areas of the figures, which enclose their bounds. Only the
+   * figures whose drawing area intersects the specified bounds are therefore tested.
+   */
   @Override
   public List<Figure> findFiguresWithin(Rectangle2D.Double bounds) {
     List<Figure> contained = new ArrayList<>();
     double scale = AttributeKeys.scaleFromContext(this);
-    for (Figure f : CHILDREN) {
-      Rectangle2D.Double r = f.getBounds(scale);
-      if (f.attr().get(TRANSFORM) != null) {
-        Rectangle2D rt = f.attr().get(TRANSFORM).createTransformedShape(r).getBounds2D();
-        r =
-            (rt instanceof Rectangle2D.Double)
-                ? (Rectangle2D.Double) rt
-                : new Rectangle2D.Double(rt.getX(), rt.getY(), rt.getWidth(), rt.getHeight());
-      }
-      if (f.isVisible() && Geom.contains(bounds, r)) {
-        contained.add(f);
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      for (Figure f : quadTree.findIntersects(bounds)) {
+        Rectangle2D.Double r = f.getBounds(scale);
+        if (f.attr().get(TRANSFORM) != null) {
+          Rectangle2D rt = f.attr().get(TRANSFORM).createTransformedShape(r).getBounds2D();
+          r =
+              (rt instanceof Rectangle2D.Double)
+                  ? (Rectangle2D.Double) rt
+                  : new Rectangle2D.Double(rt.getX(), rt.getY(), rt.getWidth(), rt.getHeight());
+        }
+        if (f.isVisible() && Geom.contains(bounds, r)) {
+          contained.add(f);
+        }
       }
+    } finally {
+      readLock.unlock();
     }
-    return contained;
+    return contained.size() > 1 ? sort(contained) : contained;
   }
 
   @Override
   public void bringToFront(Figure figure) {
-    if (CHILDREN.remove(figure)) {
-      CHILDREN.add(figure);
-      needsSorting = true;
+    boolean isChild;
+    Lock writeLock = lockForWriting();
+    try {
+      isChild = CHILDREN.remove(figure);
+      if (isChild) {
+        CHILDREN.add(figure);
+        needsSorting = true;
+      }
+    } finally {
+      unlock(writeLock);
+    }
+    if (isChild) {
       fireDrawingChanged(figure.getDrawingArea());
     }
   }
 
   @Override
   public void sendToBack(Figure figure) {
-    if (CHILDREN.remove(figure)) {
-      CHILDREN.add(0, figure);
-      needsSorting = true;
+    boolean isChild;
+    Lock writeLock = lockForWriting();
+    try {
+      isChild = CHILDREN.remove(figure);
+      if (isChild) {
+        CHILDREN.add(0, figure);
+        needsSorting = true;
+      }
+    } finally {
+      unlock(writeLock);
+    }
+    if (isChild) {
       fireDrawingChanged(figure.getDrawingArea());
     }
   }
 
-  /** Ensures that the children are sorted in z-order sequence. */
+  /**
+   * Ensures that the children are sorted in z-order sequence from back to front. Does nothing, if
+   * the current thread holds the read lock, because the children can not be sorted in place then.
+   */
   private void ensureSorted() {
+    if (needsSorting && canLockForWriting()) {
+      Lock writeLock = lockForWriting();
+      try {
+        // Another thread which draws the drawing may have sorted the children meanwhile
+        if (needsSorting) {
+          Collections.sort(CHILDREN, Comparator.comparing(Figure::getLayer));
+          needsSorting = false;
+        }
+      } finally {
+        unlock(writeLock);
+      }
+    }
+  }
+
+  /** Returns the children in z-order sequence from back to front. */
+  private List<Figure> getSortedChildren() {
+    ensureSorted();
     if (needsSorting) {
-      Collections.sort(CHILDREN, Comparator.comparing(Figure::getLayer));
-      needsSorting = false;
+      List<Figure> sorted = new ArrayList<>(CHILDREN);
+      Collections.sort(sorted, Comparator.comparing(Figure::getLayer));
+      return sorted;
     }
+    return UNMODIFIABLE_CHILDREN;
   }
 
   @Override
@@ -267,7 +404,7 @@ public class QuadTreeDrawing extends AbstractDrawing {
     QuadTreeDrawing that = (QuadTreeDrawing) super.clone();
     that.quadTree = new QuadTree<>();
     for (Figure f : getChildren()) {
-      quadTree.add(f, f.getDrawingArea());
+      that.quadTree.add(f, f.getDrawingArea());
     }
     return that;
   }
@@ -312,13 +449,16 @@ public class QuadTreeDrawing extends AbstractDrawing {
     private static final long serialVersionUID = 1L;
 
     @Override
-    public void figureChanged(FigureEvent e) {
+    public void childChanged(Figure child, Rectangle2D.Double invalidatedArea) {
       if (!isChanging()) {
-        quadTree.remove(e.getFigure());
-        quadTree.add(e.getFigure(), e.getFigure().getDrawingArea());
-        needsSorting = true;
+        runWithWriteLock(
+            () -> {
+              quadTree.remove(child);
+              quadTree.add(child, child.getDrawingArea());
+              needsSorting = true;
+            });
         invalidate();
-        fireDrawingChanged(e.getInvalidatedArea());
+        fireDrawingChanged(child, invalidatedArea);
       }
     }
   }
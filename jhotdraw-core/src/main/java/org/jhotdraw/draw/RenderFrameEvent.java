@@ -0,0 +1,49 @@
+/*
+ * @(#)RenderFrameEvent.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Flight recorder event for a frame rendered by a drawing view. See {@link RenderStatistics}. */
+@Name("org.jhotdraw.RenderFrame")
+@Label("Render Frame")
+@Category({"JHotDraw", "Rendering"})
+@Description("A frame rendered by a drawing view")
+@StackTrace(false)
+final class RenderFrameEvent extends Event {
+
+  @Label("Buffer State")
+  String bufferState;
+
+  @Label("Dirty Area")
+  @Description("Number of pixels which had to be drawn")
+  long dirtyPixels;
+
+  @Label("Figures Queried")
+  int figuresQueried;
+
+  @Label("Figures Culled")
+  int figuresCulled;
+
+  @Label("Figures Drawn")
+  int figuresDrawn;
+
+  @Label("Drawing Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long drawingTime;
+
+  @Label("Handles Time")
+  @Timespan(Timespan.NANOSECONDS)
+  long handlesTime;
+}
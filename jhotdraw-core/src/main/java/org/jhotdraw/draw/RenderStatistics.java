@@ -0,0 +1,242 @@
+/*
+ * @(#)RenderStatistics.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * Counters which describe how a single frame of a {@link DrawingView} has been rendered.
+ *
+ * <p>A drawing view starts a frame with {@link #beginFrame} and ends it with {@link #endFrame}.
+ * While the frame is in progress, the statistics are available to the drawing through {@link
+ * #current}, so that {@link Drawing#draw} can report how many figures it has queried, culled and
+ * drawn. Statistics are only collected, if the view has been asked for them, or if a Java Flight
+ * Recorder recording with the {@code org.jhotdraw.RenderFrame} event is running. Otherwise {@link
+ * #current} returns null, and the drawing renders without any bookkeeping.
+ *
+ * <p>Figure counts and times refer to the top level figures of the drawing; the time of a composite
+ * figure includes the time of its children.
+ */
+public final class RenderStatistics {
+
+  /** Describes how the drawing buffer of a view has been used for a frame. */
+  public enum BufferState {
+    /** The view does not buffer the drawing. */
+    UNBUFFERED,
+    /** The buffer was up to date. */
+    HIT,
+    /** A part of the buffer had to be redrawn. */
+    PARTIAL,
+    /** The whole buffer had to be redrawn. */
+    MISS,
+    /** The figures of a tool interaction were drawn over cached layers. */
+    LAYERED
+  }
+
+  private static final ThreadLocal<RenderStatistics> CURRENT = new ThreadLocal<>();
+  private final RenderFrameEvent event;
+  private final long startNanos;
+  private RenderStatistics previous;
+  private long frameNanos;
+  private long drawingNanos;
+  private long handlesNanos;
+  private BufferState bufferState = BufferState.UNBUFFERED;
+  private long dirtyPixels;
+  private int figuresQueried;
+  private int figuresCulled;
+  private int figuresDrawn;
+  private final Map<Class<?>, long[]> figureClasses = new LinkedHashMap<>();
+
+  private RenderStatistics(RenderFrameEvent event) {
+    this.event = event;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts a frame on the current thread.
+   *
+   * @param requested whether the caller needs the statistics
+   * @return the statistics of the frame, or null if neither the caller nor a flight recording needs
+   *     them
+   */
+  public static RenderStatistics beginFrame(boolean requested) {
+    RenderFrameEvent event = new RenderFrameEvent();
+    if (!requested && !event.isEnabled()) {
+      return null;
+    }
+    RenderStatistics stats = new RenderStatistics(event);
+    stats.previous = CURRENT.get();
+    CURRENT.set(stats);
+    event.begin();
+    return stats;
+  }
+
+  /** Ends the frame, and commits the flight recorder events of the frame. */
+  public void endFrame() {
+    frameNanos = System.nanoTime() - startNanos;
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.bufferState = bufferState.name();
+      event.dirtyPixels = dirtyPixels;
+      event.figuresQueried = figuresQueried;
+      event.figuresCulled = figuresCulled;
+      event.figuresDrawn = figuresDrawn;
+      event.drawingTime = drawingNanos;
+      event.handlesTime = handlesNanos;
+      event.commit();
+      for (Map.Entry<Class<?>, long[]> entry : figureClasses.entrySet()) {
+        FigureRenderEvent figureEvent = new FigureRenderEvent();
+        figureEvent.figureClass = entry.getKey();
+        figureEvent.count = (int) entry.getValue()[0];
+        figureEvent.drawTime = entry.getValue()[1];
+        figureEvent.commit();
+      }
+    }
+  }
+
+  /**
+   * Starts to collect the statistics of a band, which a worker thread renders for the frame in
+   * progress on the event dispatch thread. The statistics are added to the frame with {@link
+   * #merge}.
+   */
+  static RenderStatistics beginBand() {
+    RenderStatistics stats = new RenderStatistics(null);
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /** Ends the band on the current worker thread. */
+  static void endBand() {
+    CURRENT.remove();
+  }
+
+  /** Adds the figure counts and times of a band to this frame. */
+  void merge(RenderStatistics band) {
+    figuresQueried += band.figuresQueried;
+    figuresCulled += band.figuresCulled;
+    figuresDrawn += band.figuresDrawn;
+    for (Map.Entry<Class<?>, long[]> entry : band.figureClasses.entrySet()) {
+      long[] counters = figureClasses.computeIfAbsent(entry.getKey(), k -> new long[2]);
+      counters[0] += entry.getValue()[0];
+      counters[1] += entry.getValue()[1];
+    }
+  }
+
+  /** Returns the statistics of the frame which is in progress on the current thread, or null. */
+  public static RenderStatistics current() {
+    return CURRENT.get();
+  }
+
+  /** Draws a figure, and adds it to the drawn figures. */
+  public void draw(Figure f, Graphics2D g) {
+    long start = System.nanoTime();
+    f.draw(g);
+    long[] counters = figureClasses.computeIfAbsent(f.getClass(), k -> new long[2]);
+    counters[0]++;
+    counters[1] += System.nanoTime() - start;
+    figuresDrawn++;
+  }
+
+  /** Adds to the number of figures which the drawing has considered for drawing. */
+  public void addFiguresQueried(int count) {
+    figuresQueried += count;
+  }
+
+  /** Adds to the number of figures which have not been drawn, because they are not visible. */
+  public void addFiguresCulled(int count) {
+    figuresCulled += count;
+  }
+
+  public void addDrawingNanos(long nanos) {
+    drawingNanos += nanos;
+  }
+
+  public void addHandlesNanos(long nanos) {
+    handlesNanos += nanos;
+  }
+
+  /**
+   * Sets the buffer state of the frame.
+   *
+   * @param state the buffer state
+   * @param dirtyArea the area which had to be drawn, null if nothing had to be drawn
+   */
+  public void setBufferState(BufferState state, Rectangle dirtyArea) {
+    bufferState = state;
+    dirtyPixels =
+        (dirtyArea == null || dirtyArea.isEmpty()) ? 0 : (long) dirtyArea.width * dirtyArea.height;
+  }
+
+  public BufferState getBufferState() {
+    return bufferState;
+  }
+
+  /** Returns the number of pixels which had to be drawn. */
+  public long getDirtyPixels() {
+    return dirtyPixels;
+  }
+
+  public int getFiguresQueried() {
+    return figuresQueried;
+  }
+
+  public int getFiguresCulled() {
+    return figuresCulled;
+  }
+
+  public int getFiguresDrawn() {
+    return figuresDrawn;
+  }
+
+  /** Returns the time needed for the whole frame. Valid after the frame has ended. */
+  public long getFrameNanos() {
+    return frameNanos;
+  }
+
+  public long getDrawingNanos() {
+    return drawingNanos;
+  }
+
+  public long getHandlesNanos() {
+    return handlesNanos;
+  }
+
+  /** Returns the time needed for drawing the figures of each class. */
+  public Map<Class<?>, Long> getFigureClassNanos() {
+    Map<Class<?>, Long> nanos = new LinkedHashMap<>();
+    for (Map.Entry<Class<?>, long[]> entry : figureClasses.entrySet()) {
+      nanos.put(entry.getKey(), entry.getValue()[1]);
+    }
+    return Collections.unmodifiableMap(nanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "frame %.2f ms, drawing %.2f ms, handles %.2f ms, buffer %s, dirty %d px, figures %d"
+            + " queried, %d culled, %d drawn",
+        frameNanos / 1e6,
+        drawingNanos / 1e6,
+        handlesNanos / 1e6,
+        bufferState,
+        dirtyPixels,
+        figuresQueried,
+        figuresCulled,
+        figuresDrawn);
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * @(#)StrokeCache.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import java.awt.BasicStroke;
+import java.awt.Stroke;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jhotdraw.geom.DoubleStroke;
+
+/**
+ * Interns {@code BasicStroke} and {@code DoubleStroke} instances.
+ *
+ * <p>Strokes are immutable, and the figures of a drawing typically share a handful of stroke
+ * styles. {@link AttributeKeys#getStroke} and {@link AttributeKeys#getHitStroke} therefore obtain
+ * their strokes from the shared instance of this cache, instead of creating a new stroke on each
+ * paint and on each hit test.
+ *
+ * <p>Strokes are keyed by their effective parameters. Since the widths, dashes and dash phase
+ * passed to this cache have already been resolved for the scale factor of the view, the scale is
+ * part of the key.
+ *
+ * <p>The cache is bounded. When it is full, the least recently used stroke is evicted. This class
+ * is thread safe.
+ */
+public final class StrokeCache {
+
+  private static final StrokeCache INSTANCE = new StrokeCache(1024);
+
+  private final Map<Key, Stroke> strokes;
+  private volatile int maxSize;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Creates a cache which holds at most the specified number of strokes. */
+  public StrokeCache(int maxSize) {
+    setMaxSize(maxSize);
+    strokes =
+        new LinkedHashMap<Key, Stroke>(64, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Stroke> eldest) {
+            return size() > StrokeCache.this.maxSize;
+          }
+        };
+  }
+
+  /** Returns the shared instance which is used by the attribute keys. */
+  public static StrokeCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a {@code BasicStroke} with the specified parameters. The parameters have the same
+   * meaning as in the {@code BasicStroke} constructor.
+   */
+  public Stroke getBasicStroke(
+      float width, int cap, int join, float miterLimit, float[] dashes, float dashPhase) {
+    return get(new Key(false, 0f, width, cap, join, miterLimit, dashes, dashPhase));
+  }
+
+  /**
+   * Returns a {@code BasicStroke} with the specified width and default values for all other
+   * parameters.
+   */
+  public Stroke getBasicStroke(float width) {
+    return getBasicStroke(width, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 10f, null, 0f);
+  }
+
+  /**
+   * Returns a {@code DoubleStroke} with the specified parameters. The parameters have the same
+   * meaning as in the {@code DoubleStroke} constructor.
+   */
+  public Stroke getDoubleStroke(
+      float innerWidth,
+      float outlineWidth,
+      int cap,
+      int join,
+      float miterLimit,
+      float[] dashes,
+      float dashPhase) {
+    return get(new Key(true, innerWidth, outlineWidth, cap, join, miterLimit, dashes, dashPhase));
+  }
+
+  private Stroke get(Key key) {
+    synchronized (strokes) {
+      Stroke stroke = strokes.get(key);
+      if (stroke != null) {
+        hitCount.incrementAndGet();
+        return stroke;
+      }
+    }
+    missCount.incrementAndGet();
+    // Strokes are created outside of the lock, because the constructors
+    // validate their arguments and may throw an exception.
+    Stroke stroke = key.createStroke();
+    synchronized (strokes) {
+      Stroke existing = strokes.putIfAbsent(key.copy(), stroke);
+      return (existing != null) ? existing : stroke;
+    }
+  }
+
+  /** Returns the number of requests which were answered with a cached stroke. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Returns the number of requests for which a new stroke had to be created. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Returns the number of strokes in the cache. */
+  public int size() {
+    synchronized (strokes) {
+      return strokes.size();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Sets the maximal number of strokes in the cache. Excess strokes are evicted with the next
+   * insertion.
+   */
+  public void setMaxSize(int newValue) {
+    if (newValue < 1) {
+      throw new IllegalArgumentException("maxSize must be at least 1: " + newValue);
+    }
+    maxSize = newValue;
+  }
+
+  /** Removes all strokes from the cache and resets the hit and miss counters. */
+  public void clear() {
+    synchronized (strokes) {
+      strokes.clear();
+    }
+    hitCount.set(0);
+    missCount.set(0);
+  }
+
+  /**
+   * The effective parameters of a stroke. A key which is used for a lookup refers to the dashes of
+   * the caller. Only the keys which are inserted into the cache own a copy of them.
+   */
+  private static final class Key {
+
+    private final boolean isDouble;
+    private final float innerWidth;
+    private final float width;
+    private final int cap;
+    private final int join;
+    private final float miterLimit;
+    private final float[] dashes;
+    private final float dashPhase;
+    private final int hash;
+
+    Key(
+        boolean isDouble,
+        float innerWidth,
+        float width,
+        int cap,
+        int join,
+        float miterLimit,
+        float[] dashes,
+        float dashPhase) {
+      this.isDouble = isDouble;
+      this.innerWidth = innerWidth;
+      this.width = width;
+      this.cap = cap;
+      this.join = join;
+      this.miterLimit = miterLimit;
+      this.dashes = dashes;
+      this.dashPhase = dashPhase;
+      int h = Boolean.hashCode(isDouble);
+      h = 31 * h + Float.floatToIntBits(innerWidth);
+      h = 31 * h + Float.floatToIntBits(width);
+      h = 31 * h + cap;
+      h = 31 * h + join;
+      h = 31 * h + Float.floatToIntBits(miterLimit);
+      h = 31 * h + Arrays.hashCode(dashes);
+      h = 31 * h + Float.floatToIntBits(dashPhase);
+      this.hash = h;
+    }
+
+    /** Returns a key which owns a copy of the dashes. */
+    Key copy() {
+      return (dashes == null)
+          ? this
+          : new Key(isDouble, innerWidth, width, cap, join, miterLimit, dashes.clone(), dashPhase);
+    }
+
+    Stroke createStroke() {
+      return isDouble
+          ? new DoubleStroke(innerWidth, width, cap, join, miterLimit, dashes, dashPhase)
+          : new BasicStroke(width, cap, join, miterLimit, dashes, dashPhase);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) obj;
+      return this.hash == that.hash
+          && this.isDouble == that.isDouble
+          && this.cap == that.cap
+          && this.join == that.join
+          && Float.floatToIntBits(this.innerWidth) == Float.floatToIntBits(that.innerWidth)
+          && Float.floatToIntBits(this.width) == Float.floatToIntBits(that.width)
+          && Float.floatToIntBits(this.miterLimit) == Float.floatToIntBits(that.miterLimit)
+          && Float.floatToIntBits(this.dashPhase) == Float.floatToIntBits(that.dashPhase)
+          && Arrays.equals(this.dashes, that.dashes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
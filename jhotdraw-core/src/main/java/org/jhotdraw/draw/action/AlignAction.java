@@ -43,7 +43,12 @@ public abstract class AlignAction extends AbstractSelectedAction {
   public void actionPerformed(java.awt.event.ActionEvent e) {
     CompositeEdit edit = new CompositeEdit(labels.getString("edit.align.text"));
     fireUndoableEditHappened(edit);
-    alignFigures(getView().getSelectedFigures(), getSelectionBounds());
+    getDrawing().beginConnectionUpdate();
+    try {
+      alignFigures(getView().getSelectedFigures(), getSelectionBounds());
+    } finally {
+      getDrawing().endConnectionUpdate();
+    }
     fireUndoableEditHappened(edit);
   }
 
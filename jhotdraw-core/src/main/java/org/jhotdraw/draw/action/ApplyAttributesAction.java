@@ -11,7 +11,6 @@ import static org.jhotdraw.draw.AttributeKeys.*;
 
 import java.util.*;
 import org.jhotdraw.draw.*;
-import org.jhotdraw.draw.event.FigureSelectionEvent;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.undo.CompositeEdit;
 import org.jhotdraw.util.ResourceBundleUtil;
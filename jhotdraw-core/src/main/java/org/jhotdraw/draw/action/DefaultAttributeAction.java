@@ -111,6 +111,5 @@ public class DefaultAttributeAction extends AbstractSelectedAction {
     fireUndoableEditHappened(edit);
   }
 
-  public void selectionChanged(FigureSelectionEvent evt) {
-  }
+  public void selectionChanged(FigureSelectionEvent evt) {}
 }
@@ -23,7 +23,6 @@ public class DrawingColorChooserHandler extends AbstractDrawingViewAction
   protected JPopupMenu popupMenu;
   protected int isUpdating;
 
-
   public DrawingColorChooserHandler(
       DrawingEditor editor,
       AttributeKey<Color> key,
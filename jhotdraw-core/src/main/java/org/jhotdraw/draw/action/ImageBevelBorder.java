@@ -24,7 +24,7 @@ import javax.swing.border.*;
  */
 public class ImageBevelBorder implements Border {
 
-    /** The image to be used for drawing. */
+  /** The image to be used for drawing. */
   private BufferedImage image;
 
   /** The border insets */
@@ -12,7 +12,6 @@ import java.util.HashSet;
 import org.jhotdraw.draw.DrawingEditor;
 import org.jhotdraw.draw.event.TransformEdit;
 import org.jhotdraw.draw.figure.Figure;
-import org.jhotdraw.undo.CompositeEdit;
 import org.jhotdraw.util.ResourceBundleUtil;
 
 /** Moves the selected figures by one unit. */
@@ -34,13 +33,18 @@ public abstract class MoveAction extends AbstractSelectedAction {
     AffineTransform tx = new AffineTransform();
     tx.translate(dx, dy);
     HashSet<Figure> transformedFigures = new HashSet<>();
-    for (Figure f : getView().getSelectedFigures()) {
-      if (f.isTransformable()) {
-        transformedFigures.add(f);
-        f.willChange();
-        f.transform(tx);
-        f.changed();
+    getDrawing().beginConnectionUpdate();
+    try {
+      for (Figure f : getView().getSelectedFigures()) {
+        if (f.isTransformable()) {
+          transformedFigures.add(f);
+          f.willChange();
+          f.transform(tx);
+          f.changed();
+        }
       }
+    } finally {
+      getDrawing().endConnectionUpdate();
     }
     fireUndoableEditHappened(new TransformEdit(transformedFigures, tx));
   }
@@ -7,14 +7,12 @@
  */
 package org.jhotdraw.draw.action;
 
-
 import java.awt.geom.*;
 import java.util.HashSet;
 import org.jhotdraw.draw.*;
 import org.jhotdraw.draw.constrainer.TranslationDirection;
 import org.jhotdraw.draw.event.TransformEdit;
 import org.jhotdraw.draw.figure.Figure;
-import org.jhotdraw.undo.CompositeEdit;
 import org.jhotdraw.util.ResourceBundleUtil;
 
 /** Moves the selected figures by one constrained unit. */
@@ -24,7 +24,6 @@ public class SelectionColorChooserHandler extends AbstractSelectedAction impleme
   protected JPopupMenu popupMenu;
   protected int isUpdating;
 
-
   public SelectionColorChooserHandler(
       DrawingEditor editor,
       AttributeKey<Color> key,
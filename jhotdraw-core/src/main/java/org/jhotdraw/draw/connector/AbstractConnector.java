@@ -30,7 +30,6 @@ public class AbstractConnector implements Connector {
   /** Whether we should connect to the figure or to its decorator. */
   private boolean isConnectToDecorator;
 
-
   /**
    * Constructs a connector that has no owner. It is only used internally to resurrect a connectors
    * from a StorableOutput. It should never be called directly.
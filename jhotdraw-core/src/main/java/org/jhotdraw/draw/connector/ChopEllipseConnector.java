@@ -33,7 +33,6 @@ public class ChopEllipseConnector extends ChopRectangleConnector {
     return f.attr().get(STROKE_COLOR);
   }
 
-
   @Override
   protected Point2D.Double chop(Figure target, Point2D.Double from) {
     target = getConnectorTarget(target);
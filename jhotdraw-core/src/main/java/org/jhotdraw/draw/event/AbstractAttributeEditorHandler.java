@@ -17,6 +17,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.swing.SwingUtilities;
 import javax.swing.undo.AbstractUndoableEdit;
 import javax.swing.undo.CannotRedoException;
 import javax.swing.undo.UndoableEdit;
@@ -63,6 +64,17 @@ public abstract class AbstractAttributeEditorHandler<T> implements Disposable {
    */
   private Set<Figure> figuresOfInterest;
 
+  /**
+   * If this variable is set to true, selection changes and attribute changes are handled once per
+   * cycle of the event dispatch thread.
+   */
+  private boolean isCoalescingEvents;
+
+  /** Forwards the coalesced selection events to the event handler. */
+  private CoalescingEventDispatcher selectionDispatcher;
+
+  private boolean isUpdateScheduled;
+
   protected class EventHandler extends FigureListenerAdapter
       implements FigureSelectionListener, PropertyChangeListener {
 
@@ -108,7 +120,16 @@ public abstract class AbstractAttributeEditorHandler<T> implements Disposable {
     @Override
     public void attributeChanged(FigureEvent e) {
       if (e.getAttribute() == attributeKey) {
-        updateAttributeEditor();
+        if (!isCoalescingEvents) {
+          updateAttributeEditor();
+        } else if (!isUpdateScheduled && updateDepth == 0) {
+          isUpdateScheduled = true;
+          SwingUtilities.invokeLater(
+              () -> {
+                isUpdateScheduled = false;
+                updateAttributeEditor();
+              });
+        }
       }
     }
   }
@@ -261,6 +282,33 @@ public abstract class AbstractAttributeEditorHandler<T> implements Disposable {
     return isUpdateDrawingEditorDefaults;
   }
 
+  /**
+   * Set this to true, if the attribute editor shall be updated only once per cycle of the event
+   * dispatch thread. This avoids that the attribute values of all selected figures are read again
+   * for each figure, when an action changes many figures at once.
+   */
+  public void setCoalescingEvents(boolean newValue) {
+    if (newValue != isCoalescingEvents) {
+      if (activeView != null) {
+        activeView.removeFigureSelectionListener(getSelectionListener());
+      }
+      isCoalescingEvents = newValue;
+      selectionDispatcher = newValue ? new CoalescingEventDispatcher(null, eventHandler) : null;
+      if (activeView != null) {
+        activeView.addFigureSelectionListener(getSelectionListener());
+      }
+    }
+  }
+
+  /** Returns true, if the attribute editor is updated only once per event dispatch cycle. */
+  public boolean isCoalescingEvents() {
+    return isCoalescingEvents;
+  }
+
+  private FigureSelectionListener getSelectionListener() {
+    return isCoalescingEvents ? selectionDispatcher : eventHandler;
+  }
+
   protected DrawingView getActiveView() {
     if (getView() != null) {
       return getView();
@@ -301,7 +349,7 @@ public abstract class AbstractAttributeEditorHandler<T> implements Disposable {
     DrawingView oldValue = activeView;
     if (activeView != null) {
       activeView.removePropertyChangeListener(eventHandler);
-      activeView.removeFigureSelectionListener(eventHandler);
+      activeView.removeFigureSelectionListener(getSelectionListener());
       if (figuresOfInterest != null) {
         for (Figure f : figuresOfInterest) {
           f.removeFigureListener(eventHandler);
@@ -311,7 +359,7 @@ public abstract class AbstractAttributeEditorHandler<T> implements Disposable {
     activeView = newValue;
     if (activeView != null) {
       activeView.addPropertyChangeListener(eventHandler);
-      activeView.addFigureSelectionListener(eventHandler);
+      activeView.addFigureSelectionListener(getSelectionListener());
       figuresOfInterest = getEditedFigures();
       for (Figure f : figuresOfInterest) {
         f.addFigureListener(eventHandler);
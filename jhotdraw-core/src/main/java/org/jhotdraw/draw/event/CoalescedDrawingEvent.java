@@ -0,0 +1,71 @@
+/*
+ * @(#)CoalescedDrawingEvent.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.event;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * A {@link DrawingEvent} which stands for all drawing events that a {@link
+ * CoalescingEventDispatcher} has received for a drawing during one event dispatch cycle.
+ *
+ * <p>{@link #getFigure} returns the first added figure in a {@code figureAdded} notification, and
+ * the first removed figure in a {@code figureRemoved} notification. Listeners which need all
+ * figures use {@link #getAddedFigures} and {@link #getRemovedFigures}.
+ */
+public class CoalescedDrawingEvent extends DrawingEvent {
+
+  private static final long serialVersionUID = 1L;
+  private final Figure figure;
+  private final Set<Figure> addedFigures;
+  private final Set<Figure> removedFigures;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param source the drawing
+   * @param invalidatedArea the union of the invalidated areas
+   * @param figure the figure returned by {@link #getFigure}, or null
+   * @param addedFigures the figures which have been added and not removed again
+   * @param removedFigures the figures which have been removed and not added again
+   */
+  public CoalescedDrawingEvent(
+      Drawing source,
+      Rectangle2D.Double invalidatedArea,
+      Figure figure,
+      Set<Figure> addedFigures,
+      Set<Figure> removedFigures) {
+    super(source, Objects.requireNonNull(invalidatedArea));
+    this.figure = figure;
+    this.addedFigures = Collections.unmodifiableSet(addedFigures);
+    this.removedFigures = Collections.unmodifiableSet(removedFigures);
+  }
+
+  @Override
+  public Figure getFigure() {
+    return figure;
+  }
+
+  /** Returns -1, because the event can stand for many figures. */
+  @Override
+  public int getFigureIndex() {
+    return -1;
+  }
+
+  public Set<Figure> getAddedFigures() {
+    return addedFigures;
+  }
+
+  public Set<Figure> getRemovedFigures() {
+    return removedFigures;
+  }
+}
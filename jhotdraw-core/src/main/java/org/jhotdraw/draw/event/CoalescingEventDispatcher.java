@@ -0,0 +1,196 @@
+/*
+ * @(#)CoalescingEventDispatcher.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.event;
+
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.draw.AttributeKey;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * Collects {@link DrawingEvent}s and {@link FigureSelectionEvent}s during one cycle of the AWT
+ * event dispatch thread, and delivers them as merged notifications at the end of the cycle.
+ *
+ * <p>A single user action, such as pasting, aligning or grouping many figures, fires one event per
+ * figure. A listener which only needs to know that something has changed can register a dispatcher
+ * instead of itself, and is then notified once per cycle:
+ *
+ * <ul>
+ *   <li>{@code figureRemoved} and {@code figureAdded} are called at most once per drawing, with a
+ *       {@link CoalescedDrawingEvent} which holds the net sets of removed and added figures. A
+ *       figure which has been added and removed again within the cycle is in neither set.
+ *   <li>{@code drawingAttributeChanged} is called once per drawing and attribute, with the first
+ *       old value and the last new value.
+ *   <li>{@code drawingChanged} is called at most once per drawing.
+ *   <li>{@code selectionChanged} is called at most once per view, with the selection before the
+ *       first and after the last change.
+ * </ul>
+ *
+ * <p>The merged drawing events of a drawing hold the union of all invalidated areas, which includes
+ * the drawing areas of the added and removed figures. A {@code drawingChanged} event without an
+ * area invalidates the whole drawing.
+ *
+ * <p>The dispatcher does not copy the figure sets of selection events; drawing views pass a new set
+ * with each event. Events are delivered on the event dispatch thread. {@link #flush} delivers the
+ * pending events immediately.
+ */
+public class CoalescingEventDispatcher implements DrawingListener, FigureSelectionListener {
+
+  /** The events of a drawing, which have not been delivered yet. */
+  private static class PendingDrawing {
+
+    private Rectangle2D.Double invalidatedArea;
+    private boolean isChanged;
+    private final Set<Figure> added = new LinkedHashSet<>();
+    private final Set<Figure> removed = new LinkedHashSet<>();
+    private final Map<AttributeKey<?>, Object[]> attributes = new LinkedHashMap<>();
+
+    private void invalidate(Rectangle2D.Double r) {
+      if (invalidatedArea == null) {
+        invalidatedArea = (Rectangle2D.Double) r.clone();
+      } else {
+        invalidatedArea.add(r);
+      }
+    }
+  }
+
+  private final DrawingListener drawingListener;
+  private final FigureSelectionListener selectionListener;
+  private Map<Drawing, PendingDrawing> pendingDrawings = new LinkedHashMap<>();
+  private Map<DrawingView, FigureSelectionEvent[]> pendingSelections = new LinkedHashMap<>();
+  private boolean isScheduled;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param drawingListener receives the merged drawing events, or null
+   * @param selectionListener receives the merged selection events, or null
+   */
+  public CoalescingEventDispatcher(
+      DrawingListener drawingListener, FigureSelectionListener selectionListener) {
+    this.drawingListener = drawingListener;
+    this.selectionListener = selectionListener;
+  }
+
+  @Override
+  public synchronized void figureAdded(DrawingEvent e) {
+    PendingDrawing p = getPending(e.getDrawing());
+    p.invalidate(e.getFigure().getDrawingArea());
+    if (!p.removed.remove(e.getFigure())) {
+      p.added.add(e.getFigure());
+    }
+  }
+
+  @Override
+  public synchronized void figureRemoved(DrawingEvent e) {
+    PendingDrawing p = getPending(e.getDrawing());
+    p.invalidate(e.getFigure().getDrawingArea());
+    if (!p.added.remove(e.getFigure())) {
+      p.removed.add(e.getFigure());
+    }
+  }
+
+  @Override
+  public synchronized void drawingChanged(DrawingEvent e) {
+    PendingDrawing p = getPending(e.getDrawing());
+    p.isChanged = true;
+    Rectangle2D.Double r = e.getInvalidatedArea();
+    p.invalidate(r == null ? e.getDrawing().getDrawingArea() : r);
+  }
+
+  @Override
+  public synchronized void drawingAttributeChanged(DrawingEvent e) {
+    PendingDrawing p = getPending(e.getDrawing());
+    Object[] values = p.attributes.get(e.getAttribute());
+    if (values == null) {
+      p.attributes.put(e.getAttribute(), new Object[] {e.getOldValue(), e.getNewValue()});
+    } else {
+      values[1] = e.getNewValue();
+    }
+  }
+
+  @Override
+  public synchronized void selectionChanged(FigureSelectionEvent e) {
+    FigureSelectionEvent[] events = pendingSelections.get(e.getView());
+    if (events == null) {
+      pendingSelections.put(e.getView(), new FigureSelectionEvent[] {e, e});
+    } else {
+      events[1] = e;
+    }
+    schedule();
+  }
+
+  private PendingDrawing getPending(Drawing drawing) {
+    schedule();
+    return pendingDrawings.computeIfAbsent(drawing, d -> new PendingDrawing());
+  }
+
+  private void schedule() {
+    if (!isScheduled) {
+      isScheduled = true;
+      SwingUtilities.invokeLater(this::flush);
+    }
+  }
+
+  /** Delivers all pending events now. */
+  public void flush() {
+    Map<Drawing, PendingDrawing> drawings;
+    Map<DrawingView, FigureSelectionEvent[]> selections;
+    synchronized (this) {
+      isScheduled = false;
+      if (pendingDrawings.isEmpty() && pendingSelections.isEmpty()) {
+        return;
+      }
+      drawings = pendingDrawings;
+      selections = pendingSelections;
+      pendingDrawings = new LinkedHashMap<>();
+      pendingSelections = new LinkedHashMap<>();
+    }
+    if (drawingListener != null) {
+      for (Map.Entry<Drawing, PendingDrawing> entry : drawings.entrySet()) {
+        fireDrawingEvents(entry.getKey(), entry.getValue());
+      }
+    }
+    if (selectionListener != null) {
+      for (FigureSelectionEvent[] events : selections.values()) {
+        selectionListener.selectionChanged(
+            events[0] == events[1]
+                ? events[0]
+                : new FigureSelectionEvent(
+                    events[0].getView(), events[0].getOldSelection(), events[1].getNewSelection()));
+      }
+    }
+  }
+
+  private void fireDrawingEvents(Drawing drawing, PendingDrawing p) {
+    if (!p.removed.isEmpty()) {
+      drawingListener.figureRemoved(
+          new CoalescedDrawingEvent(
+              drawing, p.invalidatedArea, p.removed.iterator().next(), p.added, p.removed));
+    }
+    if (!p.added.isEmpty()) {
+      drawingListener.figureAdded(
+          new CoalescedDrawingEvent(
+              drawing, p.invalidatedArea, p.added.iterator().next(), p.added, p.removed));
+    }
+    for (Map.Entry<AttributeKey<?>, Object[]> entry : p.attributes.entrySet()) {
+      drawingListener.drawingAttributeChanged(
+          new DrawingEvent(drawing, entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+    }
+    if (p.isChanged) {
+      drawingListener.drawingChanged(
+          new CoalescedDrawingEvent(drawing, p.invalidatedArea, null, p.added, p.removed));
+    }
+  }
+}
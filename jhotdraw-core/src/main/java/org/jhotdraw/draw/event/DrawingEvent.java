@@ -44,6 +44,13 @@ public class DrawingEvent extends EventObject {
     this.invalidatedArea = invalidatedArea;
   }
 
+  /** Constructs an event for a change of the area of a child figure. */
+  public DrawingEvent(Drawing source, Figure figure, Rectangle2D.Double invalidatedArea) {
+    super(source);
+    this.figure = figure;
+    this.invalidatedArea = invalidatedArea;
+  }
+
   public DrawingEvent(Drawing source, int figureIndex, Figure figure) {
     super(source);
     this.figure = figure;
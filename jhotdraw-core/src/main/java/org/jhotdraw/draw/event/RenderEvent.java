@@ -0,0 +1,40 @@
+/*
+ * @(#)RenderEvent.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.event;
+
+import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.RenderStatistics;
+
+/**
+ * An {@code EventObject} sent to {@link RenderListener}s.
+ *
+ * <p><hr> <b>Design Patterns</b>
+ *
+ * <p><em>Observer</em><br>
+ * Rendered frames of {@code DrawingView} are observed by performance monitors.<br>
+ * Subject: {@link org.jhotdraw.draw.DrawingView}; Observer: {@link RenderListener}; Event: {@link
+ * RenderEvent}. <hr>
+ */
+public class RenderEvent extends java.util.EventObject {
+
+  private static final long serialVersionUID = 1L;
+  private final transient RenderStatistics statistics;
+
+  public RenderEvent(DrawingView source, RenderStatistics statistics) {
+    super(source);
+    this.statistics = statistics;
+  }
+
+  public DrawingView getView() {
+    return (DrawingView) source;
+  }
+
+  public RenderStatistics getStatistics() {
+    return statistics;
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * @(#)RenderListener.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.event;
+
+/**
+ * Interface implemented by observers of the frames rendered by a {@link
+ * org.jhotdraw.draw.DrawingView}.
+ *
+ * <p>The listener is called on the thread which painted the view, right after the frame has been
+ * painted, and should return quickly.
+ *
+ * <p><hr> <b>Design Patterns</b>
+ *
+ * <p><em>Observer</em><br>
+ * Rendered frames of {@code DrawingView} are observed by performance monitors.<br>
+ * Subject: {@link org.jhotdraw.draw.DrawingView}; Observer: {@link RenderListener}; Event: {@link
+ * RenderEvent}. <hr>
+ */
+public interface RenderListener extends java.util.EventListener {
+
+  public void frameRendered(RenderEvent evt);
+}
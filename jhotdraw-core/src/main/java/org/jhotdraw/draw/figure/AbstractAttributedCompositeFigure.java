@@ -18,6 +18,7 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -26,6 +27,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import javax.swing.event.UndoableEditEvent;
 import javax.swing.event.UndoableEditListener;
+import org.jhotdraw.draw.AttributeKey;
 import org.jhotdraw.draw.AttributeKeys;
 import org.jhotdraw.draw.Drawing;
 import org.jhotdraw.draw.event.CompositeFigureEvent;
@@ -54,40 +56,84 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
 
   protected List<Figure> children = new ArrayList<>();
 
-  /** Caches the drawing area to improve the performance of method {@link #getDrawingArea}. */
-  protected transient Rectangle2D.Double cachedDrawingArea;
-
-  /** Caches the bounds to improve the performance of method {@link #getBounds}. */
-  protected transient Rectangle2D.Double cachedBounds;
-
   /** Handles figure changes in the children. */
   protected EventHandler eventHandler;
 
+  /** The scale factor with which the children have been laid out, or NaN if they are not. */
+  private transient double validLayoutScale = Double.NaN;
+
+  /** The preferred size computed by the layouter, or null if it has not been computed. */
+  private transient Dimension2DDouble cachedPreferredSize;
+
+  /** The scale factor, start point and end point for which the preferred size was computed. */
+  private transient double[] cachedPreferredSizeKey;
+
+  /** Whether a layout caused by a change of a child is deferred to the end of the EDT cycle. */
+  private boolean isLayoutDeferred;
+
+  /**
+   * Handles figure changes in the children. Children which support a {@link FigureParent} notify
+   * the handler directly; other children notify it as a figure listener.
+   */
   protected class EventHandler extends FigureListenerAdapter
-      implements UndoableEditListener, Serializable {
+      implements FigureParent, UndoableEditListener, Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Override
-    public void figureRequestRemove(FigureEvent e) {
-      remove(e.getFigure());
+    public void childRequestRemove(Figure child) {
+      remove(child);
     }
 
     @Override
-    public void figureChanged(FigureEvent e) {
+    public void childChanged(Figure child, Rectangle2D.Double invalidatedArea) {
       if (!isChanging()) {
-        Rectangle2D.Double invalidatedArea = getDrawingArea();
-        invalidatedArea.add(e.getInvalidatedArea());
+        Rectangle2D.Double area = getDrawingArea();
+        area.add(invalidatedArea);
         // We call invalidate/validate here, because we must layout
         // the figure again.
         invalidate();
+        if (isLayoutDeferred
+            && DeferredLayout.defer(AbstractAttributedCompositeFigure.this, area)) {
+          return;
+        }
         validate();
         // Forward the figureChanged event to listeners on AbstractCompositeFigure.
-        invalidatedArea.add(getDrawingArea());
-        fireFigureChanged(invalidatedArea);
+        area.add(getDrawingArea());
+        fireFigureChanged(area);
       }
     }
 
+    @Override
+    public void childAreaInvalidated(Figure child, Rectangle2D.Double invalidatedArea) {
+      fireAreaInvalidated(invalidatedArea);
+    }
+
+    @Override
+    public void childAttributeChanged(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void childAdded(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void childRemoved(Figure child) {
+      invalidate();
+    }
+
+    @Override
+    public void figureRequestRemove(FigureEvent e) {
+      childRequestRemove(e.getFigure());
+    }
+
+    @Override
+    public void figureChanged(FigureEvent e) {
+      childChanged(e.getFigure(), e.getInvalidatedArea());
+    }
+
     @Override
     public void areaInvalidated(FigureEvent e) {
       fireAreaInvalidated(e);
@@ -100,17 +146,17 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
 
     @Override
     public void attributeChanged(FigureEvent e) {
-      invalidate();
+      childAttributeChanged(e.getFigure());
     }
 
     @Override
     public void figureAdded(FigureEvent e) {
-      invalidate();
+      childAdded(e.getFigure());
     }
 
     @Override
     public void figureRemoved(FigureEvent e) {
-      invalidate();
+      childRemoved(e.getFigure());
     }
   }
 
@@ -412,8 +458,12 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
     changingDepth++;
     for (Figure child : getChildren()) {
       if (child instanceof CompositeFigure) {
-        CompositeFigure cf = (CompositeFigure) child;
-        cf.layout(scale);
+        // Children which have not changed since their last layout are skipped
+        if (!(child instanceof AbstractAttributedCompositeFigure)
+            || !((AbstractAttributedCompositeFigure) child).isLayoutValid(scale)) {
+          CompositeFigure cf = (CompositeFigure) child;
+          cf.layout(scale);
+        }
       }
     }
     changingDepth--;
@@ -424,6 +474,51 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
       setBounds(new Point2D.Double(r.x, r.y), new Point2D.Double(r.x + r.width, r.y + r.height));
       invalidate();
     }
+    setLayoutValid(scale);
+  }
+
+  /**
+   * Returns true, if the children have been laid out with the specified scale factor, and neither
+   * this figure nor one of its children has changed since.
+   */
+  protected final boolean isLayoutValid(double scale) {
+    return validLayoutScale == scale;
+  }
+
+  /** Marks the children as laid out. This method must be invoked at the end of {@link #layout}. */
+  protected final void setLayoutValid(double scale) {
+    validLayoutScale = scale;
+  }
+
+  /** Discards the layout state and the cached preferred size of the figure. */
+  private void invalidateLayout() {
+    validLayoutScale = Double.NaN;
+    cachedPreferredSize = null;
+  }
+
+  /**
+   * If set to true, the layout which is caused by a change of a child is deferred to the end of the
+   * current cycle of the AWT event dispatch thread. All changes of children during the cycle are
+   * then handled with a single layout, and a single figure changed event.
+   *
+   * <p>Layouts are only deferred on the event dispatch thread. The figure and its bounds are
+   * outdated until the layout has been performed.
+   */
+  public void setLayoutDeferred(boolean newValue) {
+    isLayoutDeferred = newValue;
+  }
+
+  public boolean isLayoutDeferred() {
+    return isLayoutDeferred;
+  }
+
+  /** Performs a layout which has been deferred, and fires the figure changed event. */
+  void performDeferredLayout(Rectangle2D.Double invalidatedArea) {
+    if (!isChanging()) {
+      validate();
+      invalidatedArea.add(getDrawingArea());
+      fireFigureChanged(invalidatedArea);
+    }
   }
 
   /**
@@ -443,8 +538,15 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
   @Override
   public Dimension2DDouble getPreferredSize(double scale) {
     if (this.layouter != null) {
-      Rectangle2D.Double r = layouter.calculateLayout(this, getStartPoint(), getEndPoint(), scale);
-      return new Dimension2DDouble(r.width, r.height);
+      Point2D.Double start = getStartPoint();
+      Point2D.Double end = getEndPoint();
+      double[] key = {scale, start.x, start.y, end.x, end.y};
+      if (cachedPreferredSize == null || !Arrays.equals(key, cachedPreferredSizeKey)) {
+        Rectangle2D.Double r = layouter.calculateLayout(this, start, end, scale);
+        cachedPreferredSize = new Dimension2DDouble(r.width, r.height);
+        cachedPreferredSizeKey = key;
+      }
+      return new Dimension2DDouble(cachedPreferredSize.width, cachedPreferredSize.height);
     } else {
       return super.getPreferredSize(scale);
     }
@@ -493,14 +595,19 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
 
   @Override
   public void basicAdd(int index, Figure figure) {
+    invalidateLayout();
     children.add(index, figure);
-    figure.addFigureListener(eventHandler);
+    if (!figure.attachParent(eventHandler)) {
+      figure.addFigureListener(eventHandler);
+    }
   }
 
   @Override
   public Figure basicRemoveChild(int index) {
     Figure figure = children.remove(index);
-    figure.removeFigureListener(eventHandler);
+    if (!figure.detachParent(eventHandler)) {
+      figure.removeFigureListener(eventHandler);
+    }
     invalidate();
     return figure;
   }
@@ -534,7 +641,9 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
       Figure thatChild = thisChild.clone();
       that.children.add(thatChild);
       thatChild.removeFigureListener(this.eventHandler);
-      thatChild.addFigureListener(that.eventHandler);
+      if (!thatChild.attachParent(that.eventHandler)) {
+        thatChild.addFigureListener(that.eventHandler);
+      }
     }
     return that;
   }
@@ -547,8 +656,14 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
 
   @Override
   protected void invalidate() {
-    cachedBounds = null;
-    cachedDrawingArea = null;
+    super.invalidate();
+    invalidateLayout();
+  }
+
+  @Override
+  protected <T> void fireAttributeChanged(AttributeKey<T> attribute, T oldValue, T newValue) {
+    invalidateLayout();
+    super.fireAttributeChanged(attribute, oldValue, newValue);
   }
 
   @Override
@@ -582,43 +697,38 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double factor) {
-    if (cachedDrawingArea == null) {
-      if (getChildCount() == 0) {
-        cachedDrawingArea = new Rectangle2D.Double();
+  public Rectangle2D.Double getDrawingArea(double scale) {
+    return getCachedDrawingArea(scale);
+  }
+
+  @Override
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D.Double r = null;
+    for (Figure f : children) {
+      if (r == null) {
+        r = f.getDrawingArea(scale);
       } else {
-        for (Figure f : children) {
-          if (cachedDrawingArea == null) {
-            cachedDrawingArea = f.getDrawingArea(factor);
-          } else {
-            cachedDrawingArea.add(f.getDrawingArea(factor));
-          }
-        }
+        r.add(f.getDrawingArea(scale));
       }
     }
-    return new Rectangle2D.Double(
-        cachedDrawingArea.x,
-        cachedDrawingArea.y,
-        cachedDrawingArea.width,
-        cachedDrawingArea.height);
+    return (r == null) ? new Rectangle2D.Double() : r;
   }
 
   @Override
   public Rectangle2D.Double getBounds(double scale) {
-    if (cachedBounds == null) {
-      if (getChildCount() == 0) {
-        cachedBounds = new Rectangle2D.Double();
+    return getCachedBounds(scale, this::computeBounds);
+  }
+
+  protected Rectangle2D.Double computeBounds(double scale) {
+    Rectangle2D.Double r = null;
+    for (Figure f : children) {
+      if (r == null) {
+        r = f.getBounds(scale);
       } else {
-        for (Figure f : children) {
-          if (cachedBounds == null) {
-            cachedBounds = f.getBounds(scale);
-          } else {
-            cachedBounds.add(f.getBounds(scale));
-          }
-        }
+        r.add(f.getBounds(scale));
       }
     }
-    return (Rectangle2D.Double) cachedBounds.clone();
+    return (r == null) ? new Rectangle2D.Double() : r;
   }
 
   /** tool method to process a listener and create its event object lazily. */
@@ -665,7 +775,8 @@ public abstract class AbstractAttributedCompositeFigure extends AbstractAttribut
   private AttributesFigure attributes =
       new AttributesFigure(
           this::fireAttributeChanged,
-          AttributesFigure.attrSupplier(() -> AbstractAttributedCompositeFigure.this.getChildren()));
+          AttributesFigure.attrSupplier(
+              () -> AbstractAttributedCompositeFigure.this.getChildren()));
 
   @Override
   public AttributesFigure attr() {
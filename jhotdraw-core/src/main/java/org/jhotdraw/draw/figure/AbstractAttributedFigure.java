@@ -16,14 +16,19 @@ import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.DoubleFunction;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 import javax.swing.Action;
 import javax.swing.event.EventListenerList;
 import javax.swing.undo.UndoableEdit;
@@ -54,6 +59,16 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   private static final long serialVersionUID = 1L;
   protected EventListenerList listenerList = new EventListenerList();
+
+  /**
+   * The figure listeners. The array is replaced on each change, so that events can be fired without
+   * copying it. Null, if the figure has no listeners.
+   */
+  private transient FigureListener[] figureListeners;
+
+  /** The drawing or composite figure which holds this figure, or null. */
+  private FigureParent parent;
+
   private Drawing drawing;
   private boolean isSelectable = true;
   private boolean isRemovable = true;
@@ -63,6 +78,9 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   private AttributesFigure attributes = new AttributesFigure(this::fireAttributeChanged);
 
+  /** Caches the drawing area, and the bounds of subclasses which use {@link #getCachedBounds}. */
+  private transient volatile GeometryCache geometryCache;
+
   @Override
   public AttributesFigure attr() {
     return attributes;
@@ -113,14 +131,83 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
     return getBounds(AttributeKeys.scaleFromContext(this));
   }
 
+  /**
+   * Returns the drawing area computed by {@link #computeDrawingArea}. The value is cached, see
+   * {@link #getCachedDrawingArea}.
+   */
   @Override
   public Rectangle2D.Double getDrawingArea(double scale) {
+    return getCachedDrawingArea(scale);
+  }
+
+  /**
+   * Computes the drawing area of the figure. By default this is the bounds of the figure grown by
+   * the hit growth of the stroke.
+   *
+   * <p>Subclasses override this method instead of {@link #getDrawingArea(double)}, so that the
+   * drawing area is cached. Subclasses which change their geometry outside of {@code willChange}
+   * and {@code changed}, for example in {@code setBounds}, must call {@link #invalidateGeometry}.
+   */
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D.Double r = getBounds(scale);
     double grow = AttributeKeys.getPerpendicularHitGrowth(this, scale) * 1.1 + 1;
     Geom.grow(r, grow, grow);
     return r;
   }
 
+  /**
+   * Returns the bounds computed by {@code computeBounds} for the specified scale factor. The value
+   * is cached for the most recently used scale factors, until the figure is invalidated. A subclass
+   * must always pass the same function, usually a reference to its own {@code computeBounds}
+   * method.
+   *
+   * <p>The cache is invalidated by {@link #invalidate}, and thus by {@link #willChange}, and by
+   * attribute changes. Subclasses which change their geometry outside of {@code willChange} and
+   * {@code changed} must call {@link #invalidate} or {@link #invalidateGeometry}. While the figure
+   * is changing, the bounds are computed but not cached.
+   */
+  protected final Rectangle2D.Double getCachedBounds(
+      double scale, DoubleFunction<Rectangle2D.Double> computeBounds) {
+    if (isChanging()) {
+      return computeBounds.apply(scale);
+    }
+    return geometryCache().getBounds(scale, computeBounds);
+  }
+
+  /**
+   * Returns the drawing area computed by {@link #computeDrawingArea} for the specified scale
+   * factor. The value is cached in the same way as the value of {@link #getCachedBounds}.
+   */
+  protected final Rectangle2D.Double getCachedDrawingArea(double scale) {
+    if (isChanging()) {
+      return computeDrawingArea(scale);
+    }
+    return geometryCache().getDrawingArea(scale, this::computeDrawingArea);
+  }
+
+  /** Returns the geometry cache. Several threads may draw the figure, and create it at once. */
+  private GeometryCache geometryCache() {
+    GeometryCache cache = geometryCache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = geometryCache;
+        if (cache == null) {
+          cache = new GeometryCache();
+          geometryCache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+
+  /** Discards the cached bounds and drawing area of the figure. */
+  protected final void invalidateGeometry() {
+    GeometryCache cache = geometryCache;
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
   /**
    * This method is called by method draw() to draw the fill area of the figure.
    * AbstractAttributedFigure configures the Graphics2D object with the FILL_COLOR attribute before
@@ -152,21 +239,100 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
     }
     that.attributes = AttributesFigure.from(attributes, that::fireAttributeChanged);
     that.listenerList = new EventListenerList();
+    that.figureListeners = null;
+    that.parent = null;
+    that.geometryCache = null;
     that.drawing = null; // Clones need to be explictly added to a drawing
     return that;
   }
 
   @Override
   public void addFigureListener(FigureListener l) {
-    if (Stream.of(listenerList.getListeners(FigureListener.class))
-        .noneMatch(listener -> listener.equals(l))) {
-      listenerList.add(FigureListener.class, l);
+    FigureListener[] listeners = figureListeners;
+    if (listeners == null) {
+      figureListeners = new FigureListener[] {l};
+    } else if (indexOf(listeners, l) == -1) {
+      listeners = Arrays.copyOf(listeners, listeners.length + 1);
+      listeners[listeners.length - 1] = l;
+      figureListeners = listeners;
     }
   }
 
   @Override
   public void removeFigureListener(FigureListener l) {
-    listenerList.remove(FigureListener.class, l);
+    FigureListener[] listeners = figureListeners;
+    int index = (listeners == null) ? -1 : indexOf(listeners, l);
+    if (index != -1) {
+      if (listeners.length == 1) {
+        figureListeners = null;
+      } else {
+        FigureListener[] copy = new FigureListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, copy, 0, index);
+        System.arraycopy(listeners, index + 1, copy, index, copy.length - index);
+        figureListeners = copy;
+      }
+    }
+  }
+
+  /**
+   * Returns true, if the figure has figure listeners. The parent of the figure is not a figure
+   * listener, so this tells whether other objects, such as the selection of a view, refer to it.
+   */
+  public boolean hasFigureListeners() {
+    return figureListeners != null;
+  }
+
+  /** Writes the serializable figure listeners, like {@code EventListenerList} does. */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    FigureListener[] listeners = figureListeners;
+    if (listeners != null) {
+      for (FigureListener l : listeners) {
+        if (l instanceof Serializable) {
+          out.writeObject(l);
+        }
+      }
+    }
+    out.writeObject(null);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    for (Object l = in.readObject(); l != null; l = in.readObject()) {
+      addFigureListener((FigureListener) l);
+    }
+  }
+
+  private static int indexOf(FigureListener[] listeners, FigureListener l) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i].equals(l)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean attachParent(FigureParent newValue) {
+    if (parent == null || parent == newValue) {
+      parent = newValue;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean detachParent(FigureParent oldValue) {
+    if (parent == oldValue && oldValue != null) {
+      parent = null;
+      return true;
+    }
+    return false;
+  }
+
+  /** Returns the drawing or composite figure which has been attached as the parent, or null. */
+  protected FigureParent getParent() {
+    return parent;
   }
 
   @Override
@@ -207,14 +373,12 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
   protected void fireFigureEvent(
       BiConsumer<FigureListener, FigureEvent> listenerConsumer,
       Supplier<FigureEvent> eventSupplier) {
-    FigureEvent event = null;
-    if (listenerList.getListenerCount() == 0) {
+    FigureListener[] listeners = figureListeners;
+    if (listeners == null) {
       return;
     }
-    for (FigureListener listener : listenerList.getListeners(FigureListener.class)) {
-      if (event == null) {
-        event = eventSupplier.get();
-      }
+    FigureEvent event = eventSupplier.get();
+    for (FigureListener listener : listeners) {
       listenerConsumer.accept(listener, event);
     }
   }
@@ -226,6 +390,9 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireAreaInvalidated(Rectangle2D.Double invalidatedArea) {
+    if (parent != null) {
+      parent.childAreaInvalidated(this, invalidatedArea);
+    }
     fireFigureEvent(
         (listener, event) -> listener.areaInvalidated(event),
         () -> new FigureEvent(this, invalidatedArea));
@@ -233,13 +400,17 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireAreaInvalidated(FigureEvent event) {
-    for (FigureListener listener : listenerList.getListeners(FigureListener.class)) {
-      listener.areaInvalidated(event);
+    if (parent != null) {
+      parent.childAreaInvalidated(this, event.getInvalidatedArea());
     }
+    fireFigureEvent((listener, evt) -> listener.areaInvalidated(evt), () -> event);
   }
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireFigureRequestRemove() {
+    if (parent != null) {
+      parent.childRequestRemove(this);
+    }
     fireFigureEvent(
         (listener, event) -> listener.figureRequestRemove(event),
         () -> new FigureEvent(this, getBounds(AttributeKeys.scaleFromContext(this))));
@@ -247,6 +418,9 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireFigureAdded() {
+    if (parent != null) {
+      parent.childAdded(this);
+    }
     fireFigureEvent(
         (listener, event) -> listener.figureAdded(event),
         () -> new FigureEvent(this, getBounds(AttributeKeys.scaleFromContext(this))));
@@ -254,6 +428,9 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireFigureRemoved() {
+    if (parent != null) {
+      parent.childRemoved(this);
+    }
     fireFigureEvent(
         (listener, event) -> listener.figureRemoved(event),
         () -> new FigureEvent(this, getBounds(AttributeKeys.scaleFromContext(this))));
@@ -265,17 +442,27 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected void fireFigureChanged(Rectangle2D.Double changedArea) {
+    if (parent != null) {
+      parent.childChanged(this, changedArea);
+    }
     fireFigureEvent(
         (listener, event) -> listener.figureChanged(event),
         () -> new FigureEvent(this, changedArea));
   }
 
   protected void fireFigureChanged(FigureEvent event) {
+    if (parent != null) {
+      parent.childChanged(this, event.getInvalidatedArea());
+    }
     fireFigureEvent((listener, evt) -> listener.figureChanged(evt), () -> event);
   }
 
   /** Notify all listenerList that have registered interest for notification on this event type. */
   protected <T> void fireAttributeChanged(AttributeKey<T> attribute, T oldValue, T newValue) {
+    invalidateGeometry();
+    if (parent != null) {
+      parent.childAttributeChanged(this);
+    }
     fireFigureEvent(
         (listener, event) -> listener.attributeChanged(event),
         () -> new FigureEvent(this, attribute, oldValue, newValue));
@@ -344,9 +531,11 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
 
   /**
    * Invalidates cached data of the Figure. This method must execute fast, because it can be called
-   * very often.
+   * very often. Subclasses which override this method must call the super implementation.
    */
-  protected void invalidate() {}
+  protected void invalidate() {
+    invalidateGeometry();
+  }
 
   protected boolean isChanging() {
     return changingDepth != 0;
@@ -380,6 +569,7 @@ public abstract class AbstractAttributedFigure implements Figure, Cloneable {
   @Override
   public void changed() {
     if (changingDepth == 1) {
+      invalidateGeometry();
       validate();
       fireFigureChanged(getDrawingArea());
     } else if (changingDepth < 1) {
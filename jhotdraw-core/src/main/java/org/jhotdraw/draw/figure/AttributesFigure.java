@@ -20,6 +20,7 @@ package org.jhotdraw.draw.figure;
 
 import static java.util.stream.Collectors.toList;
 
+import java.awt.Stroke;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,6 +28,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.DoubleFunction;
 import java.util.function.Supplier;
 import org.jhotdraw.draw.AttributeKey;
 import org.jhotdraw.draw.AttributeKeys;
@@ -45,6 +47,9 @@ public final class AttributesFigure {
 
   private Supplier<List<AttributesFigure>> dependent;
 
+  /** The stroke which has been created from the attributes. Discarded when they change. */
+  private volatile CachedStroke cachedStroke;
+
   public AttributesFigure() {
     this(null, null);
   }
@@ -123,6 +128,7 @@ public final class AttributesFigure {
       }
     } else {
       attributes.clear();
+      cachedStroke = null;
       Map<AttributeKey<?>, Object> restoreDataHashMap = (Map<AttributeKey<?>, Object>) restoreData;
       setAttributes(restoreDataHashMap);
     }
@@ -147,6 +153,7 @@ public final class AttributesFigure {
   public <T> AttributesFigure set(final AttributeKey<T> key, final T newValue) {
     if (forbiddenAttributes == null || !forbiddenAttributes.contains(key)) {
       T oldValue = key.put(attributes, newValue);
+      cachedStroke = null;
       fireAttributeChanged(key, oldValue, newValue);
     }
 
@@ -173,6 +180,7 @@ public final class AttributesFigure {
     if (hasAttribute(key)) {
       T oldValue = get(key);
       attributes.remove(key);
+      cachedStroke = null;
       fireAttributeChanged(key, oldValue, key.getDefaultValue());
     }
   }
@@ -193,6 +201,25 @@ public final class AttributesFigure {
     }
   }
 
+  /**
+   * Returns the stroke which has been created from the attributes for the specified value factor.
+   * On a cache miss, the stroke is created with the specified function. The stroke is cached until
+   * an attribute changes.
+   *
+   * @see AttributeKeys#getStroke
+   */
+  public Stroke getCachedStroke(double valueFactor, DoubleFunction<Stroke> createStroke) {
+    CachedStroke cached = cachedStroke;
+    if (cached != null && cached.valueFactor() == valueFactor) {
+      return cached.stroke();
+    }
+    Stroke stroke = createStroke.apply(valueFactor);
+    cachedStroke = new CachedStroke(valueFactor, stroke);
+    return stroke;
+  }
+
+  private record CachedStroke(double valueFactor, Stroke stroke) {}
+
   @FunctionalInterface
   public static interface AttributeListener {
     <T> void attributeChanged(AttributeKey<T> attribute, T oldValue, T newValue);
@@ -207,7 +234,9 @@ public final class AttributesFigure {
   }
 
   public static AttributesFigure from(
-          AttributesFigure source, AttributeListener listener, Supplier<List<AttributesFigure>> dependent) {
+      AttributesFigure source,
+      AttributeListener listener,
+      Supplier<List<AttributesFigure>> dependent) {
     AttributesFigure attr = new AttributesFigure(listener, dependent);
     attr.attributes.putAll(source.attributes);
     if (source.forbiddenAttributes != null) {
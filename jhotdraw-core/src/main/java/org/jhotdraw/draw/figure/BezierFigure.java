@@ -24,9 +24,6 @@ import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import javax.swing.undo.AbstractUndoableEdit;
-import javax.swing.undo.CannotRedoException;
-import javax.swing.undo.CannotUndoException;
 import org.jhotdraw.draw.AttributeKey;
 import org.jhotdraw.draw.AttributeKeys;
 import org.jhotdraw.draw.DrawingView;
@@ -40,7 +37,6 @@ import org.jhotdraw.draw.handle.TransformHandleKit;
 import org.jhotdraw.geom.Geom;
 import org.jhotdraw.geom.GrowStroke;
 import org.jhotdraw.geom.path.BezierPath;
-import org.jhotdraw.util.ResourceBundleUtil;
 
 /**
  * A {@link Figure} which draws an opened or a closed bezier path.
@@ -247,13 +243,21 @@ public class BezierFigure extends AbstractAttributedFigure {
 
   @Override
   public Rectangle2D.Double getBounds(double scale) {
-    Rectangle2D.Double bounds = path.getBounds2D();
-    return bounds;
+    return getCachedBounds(scale, this::computeBounds);
+  }
+
+  protected Rectangle2D.Double computeBounds(double scale) {
+    return path.getBounds2D();
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double factor) {
-    Rectangle2D.Double r = super.getDrawingArea(factor);
+  public Rectangle2D.Double getDrawingArea(double scale) {
+    return getCachedDrawingArea(scale);
+  }
+
+  @Override
+  protected Rectangle2D.Double computeDrawingArea(double factor) {
+    Rectangle2D.Double r = super.computeDrawingArea(factor);
     if (getNodeCount() > 1) {
       if (attr().get(START_DECORATION) != null) {
         Point2D.Double p1 = getPoint(0, 0);
@@ -284,6 +288,7 @@ public class BezierFigure extends AbstractAttributedFigure {
   public void setBezierPath(BezierPath newValue) {
     path = newValue.clone();
     this.setClosed(newValue.isClosed());
+    invalidate();
   }
 
   public Point2D.Double getPointOnPath(double relative, double flatness) {
@@ -546,12 +551,15 @@ public class BezierFigure extends AbstractAttributedFigure {
 
   /** Removes the Node at the specified index. */
   public BezierPath.Node removeNode(int index) {
-    return path.remove(index);
+    BezierPath.Node node = path.remove(index);
+    invalidate();
+    return node;
   }
 
   /** Removes the Point2D.Double at the specified index. */
   protected void removeAllNodes() {
     path.clear();
+    invalidate();
   }
 
   /** Gets the node count. */
@@ -570,6 +578,7 @@ public class BezierFigure extends AbstractAttributedFigure {
   @Override
   public void restoreTransformTo(Object geometry) {
     path.setTo((BezierPath) geometry);
+    invalidate();
   }
 
   @Override
@@ -610,7 +619,11 @@ public class BezierFigure extends AbstractAttributedFigure {
    * @return true if the two segments were joined.
    */
   public int joinSegments(Point2D.Double join, float tolerance) {
-    return path.joinSegments(join, tolerance);
+    int index = path.joinSegments(join, tolerance);
+    if (index != -1) {
+      invalidate();
+    }
+    return index;
   }
 
   /**
@@ -619,7 +632,11 @@ public class BezierFigure extends AbstractAttributedFigure {
    * @return the index of the segment or -1 if no segment was hit.
    */
   public int splitSegment(Point2D.Double split, float tolerance) {
-    return path.splitSegment(split, tolerance);
+    int index = path.splitSegment(split, tolerance);
+    if (index != 0) {
+      invalidate();
+    }
+    return index;
   }
 
   @Override
@@ -648,6 +665,4 @@ public class BezierFigure extends AbstractAttributedFigure {
     }
     return false;
   }
-
-
 }
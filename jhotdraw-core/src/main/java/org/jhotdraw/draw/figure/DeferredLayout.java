@@ -0,0 +1,71 @@
+/*
+ * @(#)DeferredLayout.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.SwingUtilities;
+
+/**
+ * Collects the composite figures whose layout has been deferred during one cycle of the AWT event
+ * dispatch thread, and lays each of them out once at the end of the cycle.
+ *
+ * <p>While the layouts are performed, the figure changed events propagate to the parents of the
+ * figures without being deferred again, so that each change is completed within the cycle.
+ *
+ * @see AbstractAttributedCompositeFigure#setLayoutDeferred
+ */
+final class DeferredLayout {
+
+  /** The figures to be laid out, with the areas they have invalidated. Confined to the EDT. */
+  private static final Map<AbstractAttributedCompositeFigure, Rectangle2D.Double> PENDING =
+      new LinkedHashMap<>();
+
+  private static boolean isPerforming;
+
+  private DeferredLayout() {}
+
+  /**
+   * Defers the layout of a figure.
+   *
+   * @return false, if the layout can not be deferred, because the current thread is not the event
+   *     dispatch thread, or because the deferred layouts are being performed.
+   */
+  static boolean defer(AbstractAttributedCompositeFigure figure, Rectangle2D.Double area) {
+    if (isPerforming || !SwingUtilities.isEventDispatchThread()) {
+      return false;
+    }
+    if (PENDING.isEmpty()) {
+      SwingUtilities.invokeLater(DeferredLayout::perform);
+    }
+    Rectangle2D.Double pendingArea = PENDING.get(figure);
+    if (pendingArea == null) {
+      PENDING.put(figure, area);
+    } else {
+      pendingArea.add(area);
+    }
+    return true;
+  }
+
+  private static void perform() {
+    isPerforming = true;
+    try {
+      while (!PENDING.isEmpty()) {
+        Iterator<Map.Entry<AbstractAttributedCompositeFigure, Rectangle2D.Double>> i =
+            PENDING.entrySet().iterator();
+        Map.Entry<AbstractAttributedCompositeFigure, Rectangle2D.Double> entry = i.next();
+        i.remove();
+        entry.getKey().performDeferredLayout(entry.getValue());
+      }
+    } finally {
+      isPerforming = false;
+    }
+  }
+}
@@ -115,7 +115,7 @@ public class DiamondFigure extends AbstractAttributedFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scaleD) {
+  protected Rectangle2D.Double computeDrawingArea(double scaleD) {
     Rectangle2D.Double r = (Rectangle2D.Double) rectangle.clone();
     if (attr().get(IS_QUADRATIC)) {
       double side = Math.max(r.width, r.height);
@@ -178,6 +178,7 @@ public class DiamondFigure extends AbstractAttributedFigure {
     rectangle.y = Math.min(anchor.y, lead.y);
     rectangle.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     rectangle.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   /**
@@ -200,6 +201,7 @@ public class DiamondFigure extends AbstractAttributedFigure {
     rectangle.y = r.y;
     rectangle.width = r.width;
     rectangle.height = r.height;
+    invalidateGeometry();
   }
 
   @Override
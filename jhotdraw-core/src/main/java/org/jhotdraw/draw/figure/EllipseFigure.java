@@ -56,7 +56,7 @@ public class EllipseFigure extends AbstractAttributedFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D.Double r = (Rectangle2D.Double) ellipse.getBounds2D();
     double grow = AttributeKeys.getPerpendicularHitGrowth(this, scale);
     Geom.grow(r, grow + 1, grow + 1);
@@ -109,6 +109,7 @@ public class EllipseFigure extends AbstractAttributedFigure {
     ellipse.y = Math.min(anchor.y, lead.y);
     ellipse.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     ellipse.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   /**
@@ -138,6 +139,7 @@ public class EllipseFigure extends AbstractAttributedFigure {
     ellipse.y = e.y;
     ellipse.width = e.width;
     ellipse.height = e.height;
+    invalidateGeometry();
   }
 
   @Override
@@ -444,4 +444,26 @@ public interface Figure extends AttributeProvider, Cloneable, Serializable {
   public void addFigureListener(FigureListener l);
 
   public void removeFigureListener(FigureListener l);
+
+  /**
+   * Attaches the drawing or composite figure which holds this figure. The parent is notified of
+   * changes of this figure without being registered as a {@link FigureListener}.
+   *
+   * @return true, if the parent is attached to this figure. False, if this figure does not support
+   *     a parent or already has a different one; the caller must then register as a figure
+   *     listener.
+   */
+  public default boolean attachParent(FigureParent parent) {
+    return false;
+  }
+
+  /**
+   * Detaches the specified parent from this figure.
+   *
+   * @return true, if the parent was attached to this figure. False, if the caller has been
+   *     registered as a figure listener instead.
+   */
+  public default boolean detachParent(FigureParent parent) {
+    return false;
+  }
 }
@@ -0,0 +1,41 @@
+/*
+ * @(#)FigureParent.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Receives the notifications of the child figures of a drawing or a composite figure.
+ *
+ * <p>A figure which supports {@link Figure#attachParent} notifies its parent directly, before it
+ * notifies its {@link org.jhotdraw.draw.event.FigureListener}s. Unlike figure listeners, the parent
+ * is not stored in a listener list, and no event objects are created for it. A container which
+ * holds many children should therefore prefer a parent over a figure listener.
+ *
+ * <p>Figures are serializable; a parent which is attached to a figure must be serializable too.
+ */
+public interface FigureParent {
+
+  /** Sent when the drawing area used by the child needs to be repainted. */
+  public void childAreaInvalidated(Figure child, Rectangle2D.Double invalidatedArea);
+
+  /** Sent when the geometry of the child has changed. */
+  public void childChanged(Figure child, Rectangle2D.Double invalidatedArea);
+
+  /** Sent when an attribute of the child has changed. */
+  public void childAttributeChanged(Figure child);
+
+  /** Sent when the child was added to a drawing. */
+  public void childAdded(Figure child);
+
+  /** Sent when the child was removed from a drawing. */
+  public void childRemoved(Figure child);
+
+  /** Sent when the child requests to be removed. */
+  public void childRequestRemove(Figure child);
+}
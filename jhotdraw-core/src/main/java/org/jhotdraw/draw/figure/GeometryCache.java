@@ -0,0 +1,98 @@
+/*
+ * @(#)GeometryCache.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import java.awt.geom.Rectangle2D;
+import java.util.function.DoubleFunction;
+
+/**
+ * Caches the bounds and the drawing area of a figure for the most recently used scale factors.
+ *
+ * <p>A figure is usually drawn and hit tested at one or two scale factors at a time, for example in
+ * an editor view and in a thumbnail view. The cache therefore holds a small fixed number of
+ * entries, and replaces the least recently used entry on a miss.
+ *
+ * <p>The cache is synchronized, because a view may draw the figures on several threads at once.
+ */
+final class GeometryCache {
+
+  private static final int SIZE = 2;
+  private final boolean[] used = new boolean[SIZE];
+  private final double[] scales = new double[SIZE];
+  private final Rectangle2D.Double[] bounds = new Rectangle2D.Double[SIZE];
+  private final Rectangle2D.Double[] drawingAreas = new Rectangle2D.Double[SIZE];
+
+  /** Returns a copy of the cached bounds, computing them on a cache miss. */
+  Rectangle2D.Double getBounds(double scale, DoubleFunction<Rectangle2D.Double> compute) {
+    return get(bounds, scale, compute);
+  }
+
+  /** Returns a copy of the cached drawing area, computing it on a cache miss. */
+  Rectangle2D.Double getDrawingArea(double scale, DoubleFunction<Rectangle2D.Double> compute) {
+    return get(drawingAreas, scale, compute);
+  }
+
+  private synchronized Rectangle2D.Double get(
+      Rectangle2D.Double[] values, double scale, DoubleFunction<Rectangle2D.Double> compute) {
+    int i = indexOf(scale);
+    if (i == -1) {
+      i = SIZE - 1;
+      used[i] = true;
+      scales[i] = scale;
+      bounds[i] = null;
+      drawingAreas[i] = null;
+    }
+    moveToFront(i);
+    Rectangle2D.Double r = values[0];
+    if (r != null) {
+      return (Rectangle2D.Double) r.clone();
+    }
+    r = compute.apply(scale);
+    // The computation may have used the cache for other values
+    i = indexOf(scale);
+    if (i != -1) {
+      values[i] = (Rectangle2D.Double) r.clone();
+    }
+    return r;
+  }
+
+  private int indexOf(double scale) {
+    for (int i = 0; i < SIZE; i++) {
+      if (used[i] && scales[i] == scale) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void moveToFront(int i) {
+    if (i == 0) {
+      return;
+    }
+    double s = scales[i];
+    Rectangle2D.Double b = bounds[i];
+    Rectangle2D.Double d = drawingAreas[i];
+    System.arraycopy(used, 0, used, 1, i);
+    System.arraycopy(scales, 0, scales, 1, i);
+    System.arraycopy(bounds, 0, bounds, 1, i);
+    System.arraycopy(drawingAreas, 0, drawingAreas, 1, i);
+    used[0] = true;
+    scales[0] = s;
+    bounds[0] = b;
+    drawingAreas[0] = d;
+  }
+
+  /** Discards all cached values. */
+  synchronized void clear() {
+    for (int i = 0; i < SIZE; i++) {
+      used[i] = false;
+      bounds[i] = null;
+      drawingAreas[i] = null;
+    }
+  }
+}
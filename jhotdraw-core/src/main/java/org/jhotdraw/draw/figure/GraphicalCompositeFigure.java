@@ -167,8 +167,8 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
 
   /** Return the draw area. This method is delegated to the encapsulated presentation figure. */
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    Rectangle2D.Double r = super.getDrawingArea(scale);
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D.Double r = super.computeDrawingArea(scale);
     if (getPresentationFigure() != null) {
       r.add(getPresentationFigure().getDrawingArea(scale));
     }
@@ -181,9 +181,14 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
    */
   @Override
   public void setBounds(Point2D.Double anchor, Point2D.Double lead) {
+    double scale = AttributeKeys.scaleFromContext(this);
+    if (isLayoutValid(scale) && anchor.equals(getStartPoint()) && lead.equals(getEndPoint())) {
+      // The parent lays us out at the same place again
+      return;
+    }
     super.setBounds(anchor, lead);
     basicSetPresentationFigureBounds(anchor, lead);
-    layout(AttributeKeys.scaleFromContext(this));
+    layout(scale);
   }
 
   @Override
@@ -194,6 +199,7 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
       getLayouter().layout(this, p, p, scale);
       invalidate();
     }
+    setLayoutValid(scale);
   }
 
   protected void superBasicSetBounds(Point2D.Double anchor, Point2D.Double lead) {
@@ -203,6 +209,7 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
   protected void basicSetPresentationFigureBounds(Point2D.Double anchor, Point2D.Double lead) {
     if (getPresentationFigure() != null) {
       getPresentationFigure().setBounds(anchor, lead);
+      invalidateGeometry();
     }
   }
 
@@ -215,6 +222,7 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
     super.transform(tx);
     if (getPresentationFigure() != null) {
       getPresentationFigure().transform(tx);
+      invalidateGeometry();
     }
   }
 
@@ -259,6 +267,7 @@ public class GraphicalCompositeFigure extends AbstractAttributedCompositeFigure
         this.presentationFigure.addNotify(getDrawing());
       }
     }
+    invalidateGeometry();
   }
 
   /**
@@ -138,7 +138,7 @@ public class ImageFigure extends AbstractAttributedDecoratedFigure implements Im
   }
 
   @Override
-  public Rectangle2D.Double getFigureDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D.Double r = (Rectangle2D.Double) rectangle.clone();
     double grow = AttributeKeys.getPerpendicularHitGrowth(this, scale);
     Geom.grow(r, grow, grow);
@@ -160,6 +160,7 @@ public class ImageFigure extends AbstractAttributedDecoratedFigure implements Im
     rectangle.y = Math.min(anchor.y, lead.y);
     rectangle.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     rectangle.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   /**
@@ -179,6 +180,7 @@ public class ImageFigure extends AbstractAttributedDecoratedFigure implements Im
   @Override
   public void restoreTransformTo(Object geometry) {
     rectangle.setRect((Rectangle2D.Double) geometry);
+    invalidateGeometry();
   }
 
   @Override
@@ -45,7 +45,6 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure implements
   private static final long serialVersionUID = 1L;
   private Layouter layouter;
   private List<Figure> children = new ArrayList<>();
-  private transient Rectangle2D.Double cachedDrawingArea;
 
   /** Handles figure changes in the children. */
   private ChildHandler childHandler = new ChildHandler(this);
@@ -87,7 +86,6 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure implements
     }
   }
 
-
   public LabeledLineConnectionFigure() {}
 
   // DRAWING
@@ -114,19 +112,17 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure implements
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      cachedDrawingArea = super.getDrawingArea(scale);
-      for (Figure child : getChildrenFrontToBack()) {
-        if (child.isVisible()) {
-          Rectangle2D.Double childBounds = child.getDrawingArea(scale);
-          if (!childBounds.isEmpty()) {
-            cachedDrawingArea.add(childBounds);
-          }
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D.Double r = super.computeDrawingArea(scale);
+    for (Figure child : getChildrenFrontToBack()) {
+      if (child.isVisible()) {
+        Rectangle2D.Double childBounds = child.getDrawingArea(scale);
+        if (!childBounds.isEmpty()) {
+          r.add(childBounds);
         }
       }
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    return r;
   }
 
   @Override
@@ -313,12 +309,6 @@ public class LabeledLineConnectionFigure extends LineConnectionFigure implements
 
   // EVENT HANDLING
 
-  @Override
-  public void invalidate() {
-    super.invalidate();
-    cachedDrawingArea = null;
-  }
-
   @Override
   public void validate() {
     super.validate();
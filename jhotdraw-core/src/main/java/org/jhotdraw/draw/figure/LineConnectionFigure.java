@@ -72,9 +72,7 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
     public void figureChanged(FigureEvent e) {
       if (!owner.isChanging()) {
         if (e.getSource() == owner.getStartFigure() || e.getSource() == owner.getEndFigure()) {
-          owner.willChange();
-          owner.updateConnection();
-          owner.changed();
+          owner.requestConnectionUpdate();
         }
       }
     }
@@ -89,7 +87,7 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
   @Override
   public void transform(AffineTransform tx) {
     super.transform(tx);
-    updateConnection(); // make sure that we are still connected
+    requestConnectionUpdate(); // make sure that we are still connected
   }
 
   // ATTRIBUTES
@@ -145,6 +143,19 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
     changed();
   }
 
+  /**
+   * Updates the connection through the drawing, so that the drawing can coalesce the updates
+   * requested while it is in a batch of figure changes.
+   */
+  protected void requestConnectionUpdate() {
+    Drawing drawing = getDrawing();
+    if (drawing == null) {
+      updateConnection();
+    } else {
+      drawing.requestConnectionUpdate(this);
+    }
+  }
+
   @Override
   public void validate() {
     super.validate();
@@ -188,6 +199,9 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
         }
       }
       endConnector = newEnd;
+      if (getDrawing() != null) {
+        getDrawing().connectionChanged(this);
+      }
       if (endConnector != null) {
         getEndFigure().addFigureListener(connectionHandler);
         if (getStartFigure() != null && getEndFigure() != null) {
@@ -210,6 +224,9 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
         }
       }
       startConnector = newStart;
+      if (getDrawing() != null) {
+        getDrawing().connectionChanged(this);
+      }
       if (startConnector != null) {
         getStartFigure().addFigureListener(connectionHandler);
         if (getStartFigure() != null && getEndFigure() != null) {
@@ -395,7 +412,6 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
     super.setNode(index, p);
   }
 
-
   @Override
   public void lineout() {
     if (liner != null) {
@@ -438,6 +454,9 @@ public class LineConnectionFigure extends LineFigure implements ConnectionFigure
       Point2D.Double tmpP = getStartPoint();
       setStartPoint(getEndPoint());
       setEndPoint(tmpP);
+      if (getDrawing() != null) {
+        getDrawing().connectionChanged(this);
+      }
       handleConnect(startConnector, endConnector);
       updateConnection();
     }
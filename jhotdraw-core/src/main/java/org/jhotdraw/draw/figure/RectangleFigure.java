@@ -50,7 +50,7 @@ public class RectangleFigure extends AbstractAttributedFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D.Double r = (Rectangle2D.Double) rectangle.clone();
     double grow = AttributeKeys.getPerpendicularHitGrowth(this, scale) + 1d;
     Geom.grow(r, grow, grow);
@@ -71,6 +71,7 @@ public class RectangleFigure extends AbstractAttributedFigure {
     rectangle.y = Math.min(anchor.y, lead.y);
     rectangle.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     rectangle.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   @Override
@@ -84,6 +85,7 @@ public class RectangleFigure extends AbstractAttributedFigure {
   @Override
   public void restoreTransformTo(Object geometry) {
     rectangle.setRect((Rectangle2D.Double) geometry);
+    invalidateGeometry();
   }
 
   @Override
@@ -90,7 +90,7 @@ public class RoundRectangleFigure extends AbstractAttributedFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D.Double r = (Rectangle2D.Double) roundrect.getBounds2D();
     double grow = AttributeKeys.getPerpendicularHitGrowth(this, scale) + 1;
     Geom.grow(r, grow, grow);
@@ -145,6 +145,7 @@ public class RoundRectangleFigure extends AbstractAttributedFigure {
     roundrect.y = Math.min(anchor.y, lead.y);
     roundrect.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     roundrect.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   /**
@@ -175,6 +176,7 @@ public class RoundRectangleFigure extends AbstractAttributedFigure {
     roundrect.y = r.y;
     roundrect.width = r.width;
     roundrect.height = r.height;
+    invalidateGeometry();
   }
 
   @Override
@@ -9,23 +9,16 @@ package org.jhotdraw.draw.figure;
 
 import static org.jhotdraw.draw.AttributeKeys.*;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Shape;
-import java.awt.font.LineBreakMeasurer;
-import java.awt.font.TextAttribute;
 import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.text.AttributedCharacterIterator;
-import java.text.AttributedString;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.draw.AttributeKeys;
 import org.jhotdraw.draw.handle.FontSizeHandle;
 import org.jhotdraw.draw.handle.Handle;
@@ -69,9 +62,24 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
   protected Rectangle2D.Double bounds = new Rectangle2D.Double();
   protected boolean editable = true;
 
-    /** This is a cached value to improve the performance of method isTextOverflow(); */
+  /** This is a cached value to improve the performance of method isTextOverflow(); */
   private Boolean isTextOverflow;
 
+  /**
+   * The layout used for drawing, and the layout used for measuring the preferred text size. The
+   * layouts are kept across calls to {@link #invalidate}, because each layout knows the parameters
+   * it has been computed with, and is recomputed only if one of them changes.
+   */
+  private transient volatile TextAreaLayout cachedLayout;
+
+  private transient volatile TextAreaLayout cachedMeasureLayout;
+
+  /** The key of the layout which is being computed on a worker thread. Accessed on the EDT. */
+  private transient TextAreaLayout.Key pendingLayoutKey;
+
+  /** The scheduler which lays out the text, or null if the text is laid out while painting. */
+  private transient TaskScheduler layoutScheduler;
+
   public TextAreaFigure() {
     this(
         ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels")
@@ -86,8 +94,6 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
   @Override
   protected void drawText(Graphics2D g) {
     if (getText() != null || isEditable()) {
-      Font font = getFont();
-      boolean isUnderlined = attr().get(FONT_UNDERLINE);
       Insets2D.Double insets = getInsets();
       Rectangle2D.Double textRect =
           new Rectangle2D.Double(
@@ -105,47 +111,29 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
         g2.transform(at);
       }
 
-      float leftMargin = (float) textRect.x;
-      float rightMargin = (float) Math.max(leftMargin + 1, textRect.x + textRect.width + 1);
-      float verticalPos = (float) textRect.y;
-      float maxVerticalPos = (float) (textRect.y + textRect.height);
-      if (leftMargin < rightMargin) {
-        float tabWidth =
-            (float) (getTabSize() * font.getStringBounds("m", getFontRenderContext()).getWidth());
-        float[] tabStops = new float[(int) (textRect.width / tabWidth)];
-        for (int i = 0; i < tabStops.length; i++) {
-          tabStops[i] = (float) (textRect.x + (int) (tabWidth * (i + 1)));
-        }
-        if (getText() != null) {
-          Shape savedClipArea = g.getClip();
-          g2.clip(textRect);
-          String[] paragraphs = getText().split("\n");
-          for (int i = 0; i < paragraphs.length; i++) {
-            if (paragraphs[i].length() == 0) {
-              paragraphs[i] = " ";
-            }
-            AttributedString as = new AttributedString(paragraphs[i]);
-            as.addAttribute(TextAttribute.FONT, font);
-            if (isUnderlined) {
-              as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
-            }
-            int tabCount = paragraphs[i].split("\t").length - 1;
-            Rectangle2D.Double paragraphBounds =
-                drawParagraph(
-                    g2,
-                    as.getIterator(),
-                    verticalPos,
-                    maxVerticalPos,
-                    leftMargin,
-                    rightMargin,
-                    tabStops,
-                    tabCount);
-            verticalPos = (float) (paragraphBounds.y + paragraphBounds.height);
-            if (verticalPos > maxVerticalPos) {
-              break;
-            }
+      if (getText() != null) {
+        Font font = getFont();
+        float wrapWidth = (float) Math.max(1, textRect.width + 1);
+        TextAreaLayout.Key key =
+            new TextAreaLayout.Key(
+                getText(),
+                font,
+                attr().get(FONT_UNDERLINE),
+                wrapWidth,
+                TextAreaLayout.createTabStops(
+                    font, getTabSize(), textRect.width, getFontRenderContext()),
+                getFontRenderContext());
+        g2.clip(textRect);
+        TaskScheduler scheduler = layoutScheduler;
+        if (scheduler != null && SwingUtilities.isEventDispatchThread()) {
+          TextAreaLayout layout = getLayoutAsynchronously(key, scheduler);
+          if (layout == null) {
+            drawLayoutPlaceholder(g2, textRect);
+          } else {
+            drawLayout(g2, layout, textRect);
           }
-          g2.setClip(savedClipArea);
+        } else {
+          drawLayout(g2, getLayout(key), textRect);
         }
       }
       g2.dispose();
@@ -153,136 +141,116 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
   }
 
   /**
-   * Draws or measures a paragraph of text at the specified y location and the bounds of the
-   * paragraph.
-   *
-   * @param g Graphics object. This parameter is null, if we want to measure the size of the
-   *     paragraph.
-   * @param styledText the text of the paragraph.
-   * @param verticalPos the top bound of the paragraph
-   * @param maxVerticalPos the bottom bound of the paragraph
-   * @param leftMargin the left bound of the paragraph
-   * @param rightMargin the right bound of the paragraph
-   * @param tabStops an array with tab stops
-   * @param tabCount the number of entries in tabStops which contain actual values
-   * @return Returns the actual bounds of the paragraph.
+   * Replays the text layouts of the specified layout, starting at the top left corner of the text
+   * rectangle. Lines which start below the text rectangle are not drawn.
    */
-  private Rectangle2D.Double drawParagraph(
-      Graphics2D g,
-      AttributedCharacterIterator styledText,
-      float verticalPos,
-      float maxVerticalPos,
-      float leftMargin,
-      float rightMargin,
-      float[] tabStops,
-      int tabCount) {
-    // This method is based on the code sample given
-    // in the class comment of java.awt.font.LineBreakMeasurer,
-    // assume styledText is an AttributedCharacterIterator, and the number
-    // of tabs in styledText is tabCount
-    Rectangle2D.Double paragraphBounds = new Rectangle2D.Double(leftMargin, verticalPos, 0, 0);
-    int[] tabLocations = new int[tabCount + 1];
-    int i = 0;
-    for (char c = styledText.first();
-        c != AttributedCharacterIterator.DONE;
-        c = styledText.next()) {
-      if (c == '\t') {
-        tabLocations[i++] = styledText.getIndex();
-      }
-    }
-    tabLocations[tabCount] = styledText.getEndIndex() - 1;
-    // Now tabLocations has an entry for every tab's offset in
-    // the text.  For convenience, the last entry is tabLocations
-    // is the offset of the last character in the text.
-    LineBreakMeasurer measurer = new LineBreakMeasurer(styledText, getFontRenderContext());
-    int currentTab = 0;
-    while (measurer.getPosition() < styledText.getEndIndex() && verticalPos <= maxVerticalPos) {
-      // Lay out and draw each line.  All segments on a line
-      // must be computed before any drawing can occur, since
-      // we must know the largest ascent on the line.
-      // TextLayouts are computed and stored in a List;
-      // their horizontal positions are stored in a parallel
-      // List.
-      // lineContainsText is true after first segment is drawn
-      boolean lineContainsText = false;
-      boolean lineComplete = false;
-      float maxAscent = 0, maxDescent = 0;
-      float horizontalPos = leftMargin;
-      List<TextLayout> layouts = new ArrayList<>();
-      List<Float> penPositions = new ArrayList<>();
-      int first = layouts.size();
-      while (!lineComplete && verticalPos <= maxVerticalPos) {
-        float wrappingWidth = rightMargin - horizontalPos;
-        TextLayout layout = null;
-        layout = measurer.nextLayout(wrappingWidth, tabLocations[currentTab] + 1, lineContainsText);
-        // layout can be null if lineContainsText is true
-        if (layout != null) {
-          layouts.add(layout);
-          penPositions.add(horizontalPos);
-          horizontalPos += layout.getAdvance();
-          maxAscent = Math.max(maxAscent, layout.getAscent());
-          maxDescent = Math.max(maxDescent, layout.getDescent() + layout.getLeading());
-        } else {
-          lineComplete = true;
+  private void drawLayout(Graphics2D g, TextAreaLayout layout, Rectangle2D.Double textRect) {
+    float x = (float) textRect.x;
+    float y = (float) textRect.y;
+    float maxY = (float) (textRect.y + textRect.height);
+    float wrapWidth = layout.getWrapWidth();
+    for (TextAreaLayout.Paragraph p : layout.getParagraphs()) {
+      for (TextAreaLayout.Line line : p.getLines()) {
+        if (y + line.getTop() > maxY) {
+          return;
         }
-        lineContainsText = true;
-        if (measurer.getPosition() == tabLocations[currentTab] + 1) {
-          currentTab++;
-        }
-        if (measurer.getPosition() == styledText.getEndIndex()) {
-          lineComplete = true;
-        } else if (tabStops.length == 0 || horizontalPos >= tabStops[tabStops.length - 1]) {
-          lineComplete = true;
-        }
-        if (!lineComplete) {
-          // move to next tab stop
-          int j;
-          for (j = 0; horizontalPos >= tabStops[j]; j++) {}
-          horizontalPos = tabStops[j];
+        if (line.getLayoutCount() == 1) {
+          // If there is only one layout element on the line, then honor alignment
+          TextLayout textLayout = line.getLayout(0);
+          float penPosition = line.getPenPosition(0);
+          switch (attr().get(TEXT_ALIGNMENT)) {
+            case TRAILING:
+              penPosition = wrapWidth - textLayout.getVisibleAdvance() - 1;
+              break;
+            case CENTER:
+              penPosition = (wrapWidth - 1 - textLayout.getVisibleAdvance()) / 2;
+              break;
+            case BLOCK:
+              // not supported
+              break;
+            case LEADING:
+            default:
+              break;
+          }
+          textLayout.draw(g, x + penPosition, y + line.getBaseline());
+        } else {
+          for (int i = 0, n = line.getLayoutCount(); i < n; i++) {
+            line.getLayout(i).draw(g, x + line.getPenPosition(i), y + line.getBaseline());
+          }
         }
       }
-      // If there is only one layout element on the line, and we are
-      // drawing, then honor alignment
-      if (first == layouts.size() - 1 && g != null) {
-        switch (attr().get(TEXT_ALIGNMENT)) {
-          case TRAILING:
-            penPositions.set(first, rightMargin - layouts.get(first).getVisibleAdvance() - 1);
-            break;
-          case CENTER:
-            penPositions.set(
-                first,
-                (rightMargin - 1 - leftMargin - layouts.get(first).getVisibleAdvance()) / 2
-                    + leftMargin);
-            break;
-          case BLOCK:
-            // not supported
-            break;
-          case LEADING:
-          default:
-            break;
-        }
+      if (y + p.getBottom() > maxY) {
+        return;
       }
-      verticalPos += maxAscent;
-      Iterator<TextLayout> layoutEnum = layouts.iterator();
-      Iterator<Float> positionEnum = penPositions.iterator();
-      // now iterate through layouts and draw them
-      while (layoutEnum.hasNext()) {
-        TextLayout nextLayout = layoutEnum.next();
-        float nextPosition = positionEnum.next();
-        if (g != null) {
-          nextLayout.draw(g, nextPosition, verticalPos);
-        }
-        Rectangle2D layoutBounds = nextLayout.getBounds();
-        paragraphBounds.add(
-            new Rectangle2D.Double(
-                layoutBounds.getX() + nextPosition,
-                layoutBounds.getY() + verticalPos,
-                layoutBounds.getWidth(),
-                layoutBounds.getHeight()));
+    }
+  }
+
+  /** Draws grey bars in place of the text lines, while the layout is being computed. */
+  private void drawLayoutPlaceholder(Graphics2D g, Rectangle2D.Double textRect) {
+    Font font = getFont();
+    double lineHeight = font.getLineMetrics("M", getFontRenderContext()).getHeight();
+    int lineCount = getText().split("\n").length;
+    Color c = g.getColor();
+    g.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 48));
+    Rectangle2D.Double bar =
+        new Rectangle2D.Double(textRect.x, textRect.y, textRect.width, lineHeight * 0.6);
+    for (int i = 0; i < lineCount; i++) {
+      bar.y = textRect.y + i * lineHeight + lineHeight * 0.2;
+      if (bar.y > textRect.y + textRect.height) {
+        break;
       }
-      verticalPos += maxDescent;
+      g.fill(bar);
+    }
+    g.setColor(c);
+  }
+
+  /** Returns the cached drawing layout, or computes it, if it is not valid for the key. */
+  private TextAreaLayout getLayout(TextAreaLayout.Key key) {
+    TextAreaLayout layout = cachedLayout;
+    if (layout == null || !layout.getKey().equals(key)) {
+      layout = TextAreaLayout.create(key);
+      cachedLayout = layout;
+    }
+    return layout;
+  }
+
+  /**
+   * Returns the cached drawing layout, if it is valid for the key. Otherwise, starts computing the
+   * layout with the scheduler and returns null. The figure repaints itself when the layout is
+   * ready. This method is synchronized, because several threads may draw the figure at once.
+   */
+  private synchronized TextAreaLayout getLayoutAsynchronously(
+      final TextAreaLayout.Key key, TaskScheduler scheduler) {
+    TextAreaLayout layout = cachedLayout;
+    if (layout != null && layout.getKey().equals(key)) {
+      return layout;
+    }
+    if (!key.equals(pendingLayoutKey)) {
+      pendingLayoutKey = key;
+      scheduler.execute(
+          this,
+          TaskScheduler.Priority.INTERACTIVE,
+          () -> {
+            TextAreaLayout result = TextAreaLayout.create(key);
+            SwingUtilities.invokeLater(
+                () -> {
+                  if (completeLayout(key, result)) {
+                    fireAreaInvalidated();
+                  }
+                });
+          });
+    }
+    return null;
+  }
+
+  /** Caches a layout which has been computed asynchronously, unless it is outdated. */
+  private synchronized boolean completeLayout(TextAreaLayout.Key key, TextAreaLayout layout) {
+    if (key.equals(pendingLayoutKey)) {
+      pendingLayoutKey = null;
+      cachedLayout = layout;
+      return true;
     }
-    return paragraphBounds;
+    return false;
   }
 
   @Override
@@ -302,6 +270,7 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
     bounds.y = Math.min(anchor.y, lead.y);
     bounds.width = Math.max(1, Math.abs(lead.x - anchor.x));
     bounds.height = Math.max(1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   @Override
@@ -329,6 +298,7 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
     bounds.y = r.y;
     bounds.width = r.width;
     bounds.height = r.height;
+    invalidateGeometry();
   }
 
   @Override
@@ -409,6 +379,27 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
     this.editable = b;
   }
 
+  /** Returns true, if the text is laid out on a worker thread. */
+  public boolean isAsynchronousLayout() {
+    return layoutScheduler != null;
+  }
+
+  public TaskScheduler getLayoutScheduler() {
+    return layoutScheduler;
+  }
+
+  /**
+   * Sets the scheduler on which text that is painted on the event dispatch thread is laid out, for
+   * example the task scheduler of the application. Grey bars are shown in place of the text until
+   * the layout is ready. This keeps the user interface responsive in drawings with many large text
+   * areas.
+   *
+   * <p>If the scheduler is null, the text is laid out while it is painted. This is the default.
+   */
+  public void setLayoutScheduler(TaskScheduler scheduler) {
+    this.layoutScheduler = scheduler;
+  }
+
   /**
    * Returns a specialized tool for the given coordinate.
    *
@@ -435,6 +426,7 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
   public TextAreaFigure clone() {
     TextAreaFigure that = (TextAreaFigure) super.clone();
     that.bounds = (Rectangle2D.Double) this.bounds.clone();
+    that.pendingLayoutKey = null;
     return that;
   }
 
@@ -479,43 +471,23 @@ public class TextAreaFigure extends AbstractAttributedDecoratedFigure implements
   public Dimension2DDouble getPreferredTextSize(double maxWidth) {
     Rectangle2D.Double textRect = new Rectangle2D.Double();
     if (getText() != null) {
-      Font font = getFont();
-      boolean isUnderlined = attr().get(FONT_UNDERLINE);
-      float leftMargin = 0;
-      float rightMargin = (float) maxWidth - 1;
-      float verticalPos = 0;
-      float maxVerticalPos = Float.MAX_VALUE;
-      if (leftMargin < rightMargin) {
-        float tabWidth =
-            (float) (getTabSize() * font.getStringBounds("m", getFontRenderContext()).getWidth());
-        float[] tabStops = new float[(int) (textRect.width / tabWidth)];
-        for (int i = 0; i < tabStops.length; i++) {
-          tabStops[i] = (float) (textRect.x + (int) (tabWidth * (i + 1)));
-        }
-        String[] paragraphs = getText().split("\n"); // Strings.split(getText(), '\n');
-        for (int i = 0; i < paragraphs.length; i++) {
-          if (paragraphs[i].length() == 0) {
-            paragraphs[i] = " ";
-          }
-          AttributedString as = new AttributedString(paragraphs[i]);
-          as.addAttribute(TextAttribute.FONT, font);
-          if (isUnderlined) {
-            as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
-          }
-          int tabCount = paragraphs[i].split("\t").length - 1;
-          Rectangle2D.Double paragraphBounds =
-              drawParagraph(
-                  null,
-                  as.getIterator(),
-                  verticalPos,
-                  maxVerticalPos,
-                  leftMargin,
-                  rightMargin,
-                  tabStops,
-                  tabCount);
-          verticalPos = (float) (paragraphBounds.y + paragraphBounds.height);
-          textRect.add(paragraphBounds);
+      float wrapWidth = (float) maxWidth - 1;
+      if (0 < wrapWidth) {
+        Font font = getFont();
+        TextAreaLayout.Key key =
+            new TextAreaLayout.Key(
+                getText(),
+                font,
+                attr().get(FONT_UNDERLINE),
+                wrapWidth,
+                TextAreaLayout.createTabStops(font, getTabSize(), 0, getFontRenderContext()),
+                getFontRenderContext());
+        TextAreaLayout layout = cachedMeasureLayout;
+        if (layout == null || !layout.getKey().equals(key)) {
+          layout = TextAreaLayout.create(key);
+          cachedMeasureLayout = layout;
         }
+        textRect = layout.getBounds();
       }
     }
     return new Dimension2DDouble(
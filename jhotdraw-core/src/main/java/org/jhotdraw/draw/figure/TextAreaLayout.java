@@ -0,0 +1,319 @@
+/*
+ * @(#)TextAreaLayout.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The immutable result of breaking the text of a text area into lines.
+ *
+ * <p>A layout is computed once for a {@link Key}, that is for a combination of text, font,
+ * underline style, wrapping width, tab stops and font render context. Figures like {@link
+ * TextAreaFigure} keep the layout and replay the stored {@code TextLayout}s on each paint, until
+ * one of these parameters changes.
+ *
+ * <p>All coordinates are relative to the top left corner of the text area. The left margin is at x
+ * = 0, and the right margin is at x = {@code wrapWidth}.
+ *
+ * <p>Layouts do not depend on mutable figure state, and can therefore be computed on a worker
+ * thread.
+ */
+public final class TextAreaLayout {
+
+  private final Key key;
+  private final List<Paragraph> paragraphs;
+  private final Rectangle2D.Double bounds;
+
+  private TextAreaLayout(Key key) {
+    this.key = key;
+    this.bounds = new Rectangle2D.Double();
+    List<Paragraph> list = new ArrayList<>();
+    if (key.text != null) {
+      float verticalPos = 0;
+      for (String p : key.text.split("\n")) {
+        Paragraph paragraph = layoutParagraph(p.isEmpty() ? " " : p, verticalPos);
+        list.add(paragraph);
+        verticalPos = (float) (paragraph.bounds.y + paragraph.bounds.height);
+        bounds.add(paragraph.bounds);
+      }
+    }
+    this.paragraphs = Collections.unmodifiableList(list);
+  }
+
+  /** Lays out the text described by the specified key. */
+  public static TextAreaLayout create(Key key) {
+    return new TextAreaLayout(key);
+  }
+
+  /**
+   * Computes tab stops at regular intervals, as used by text area figures.
+   *
+   * @param font the font
+   * @param tabSize the number of 'm' characters between two tab stops
+   * @param width the width of the text area
+   * @param frc the font render context
+   * @return the tab stop positions relative to the left margin
+   */
+  public static float[] createTabStops(
+      Font font, int tabSize, double width, FontRenderContext frc) {
+    float tabWidth = (float) (tabSize * font.getStringBounds("m", frc).getWidth());
+    float[] tabStops = new float[Math.max(0, (int) (width / tabWidth))];
+    for (int i = 0; i < tabStops.length; i++) {
+      tabStops[i] = (int) (tabWidth * (i + 1));
+    }
+    return tabStops;
+  }
+
+  /** Returns the parameters with which this layout has been computed. */
+  public Key getKey() {
+    return key;
+  }
+
+  /** Returns the paragraphs of the text. */
+  public List<Paragraph> getParagraphs() {
+    return paragraphs;
+  }
+
+  /**
+   * Returns the union of the bounds of all paragraphs and of the origin. This is the space which is
+   * needed to show the entire text.
+   */
+  public Rectangle2D.Double getBounds() {
+    return (Rectangle2D.Double) bounds.clone();
+  }
+
+  public float getWrapWidth() {
+    return key.wrapWidth;
+  }
+
+  /**
+   * Lays out a paragraph. This is based on the code sample given in the class comment of {@link
+   * LineBreakMeasurer}.
+   */
+  private Paragraph layoutParagraph(String paragraphText, float verticalPos) {
+    float wrapWidth = key.wrapWidth;
+    float[] tabStops = key.tabStops;
+    AttributedString as = new AttributedString(paragraphText);
+    as.addAttribute(TextAttribute.FONT, key.font);
+    if (key.underlined) {
+      as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
+    }
+    AttributedCharacterIterator styledText = as.getIterator();
+    int tabCount = paragraphText.split("\t").length - 1;
+    Rectangle2D.Double paragraphBounds = new Rectangle2D.Double(0, verticalPos, 0, 0);
+    int[] tabLocations = new int[tabCount + 1];
+    int i = 0;
+    for (char c = styledText.first();
+        c != AttributedCharacterIterator.DONE;
+        c = styledText.next()) {
+      if (c == '\t') {
+        tabLocations[i++] = styledText.getIndex();
+      }
+    }
+    // For convenience, the last entry is tabLocations is the offset of the
+    // last character in the text.
+    tabLocations[tabCount] = styledText.getEndIndex() - 1;
+    LineBreakMeasurer measurer = new LineBreakMeasurer(styledText, key.frc);
+    List<Line> lines = new ArrayList<>();
+    int currentTab = 0;
+    while (measurer.getPosition() < styledText.getEndIndex()) {
+      // All segments on a line must be computed before we know the
+      // largest ascent on the line.
+      boolean lineContainsText = false;
+      boolean lineComplete = false;
+      float maxAscent = 0, maxDescent = 0;
+      float horizontalPos = 0;
+      List<TextLayout> layouts = new ArrayList<>();
+      List<Float> penPositions = new ArrayList<>();
+      while (!lineComplete) {
+        float wrappingWidth = wrapWidth - horizontalPos;
+        TextLayout layout =
+            measurer.nextLayout(wrappingWidth, tabLocations[currentTab] + 1, lineContainsText);
+        // layout can be null if lineContainsText is true
+        if (layout != null) {
+          layouts.add(layout);
+          penPositions.add(horizontalPos);
+          horizontalPos += layout.getAdvance();
+          maxAscent = Math.max(maxAscent, layout.getAscent());
+          maxDescent = Math.max(maxDescent, layout.getDescent() + layout.getLeading());
+        } else {
+          lineComplete = true;
+        }
+        lineContainsText = true;
+        if (measurer.getPosition() == tabLocations[currentTab] + 1) {
+          currentTab++;
+        }
+        if (measurer.getPosition() == styledText.getEndIndex()) {
+          lineComplete = true;
+        } else if (tabStops.length == 0 || horizontalPos >= tabStops[tabStops.length - 1]) {
+          lineComplete = true;
+        }
+        if (!lineComplete) {
+          // move to next tab stop
+          int j;
+          for (j = 0; horizontalPos >= tabStops[j]; j++) {}
+          horizontalPos = tabStops[j];
+        }
+      }
+      float top = verticalPos;
+      verticalPos += maxAscent;
+      float[] positions = new float[penPositions.size()];
+      for (int k = 0; k < positions.length; k++) {
+        positions[k] = penPositions.get(k);
+        Rectangle2D layoutBounds = layouts.get(k).getBounds();
+        paragraphBounds.add(
+            new Rectangle2D.Double(
+                layoutBounds.getX() + positions[k],
+                layoutBounds.getY() + verticalPos,
+                layoutBounds.getWidth(),
+                layoutBounds.getHeight()));
+      }
+      lines.add(new Line(layouts.toArray(new TextLayout[0]), positions, top, verticalPos));
+      verticalPos += maxDescent;
+    }
+    return new Paragraph(lines, paragraphBounds);
+  }
+
+  /** The parameters of a {@code TextAreaLayout}. */
+  public static final class Key {
+
+    private final String text;
+    private final Font font;
+    private final boolean underlined;
+    private final float wrapWidth;
+    private final float[] tabStops;
+    private final FontRenderContext frc;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param text the text, paragraphs are separated by LF characters; can be null
+     * @param font the font
+     * @param underlined whether the text is underlined
+     * @param wrapWidth the distance between the left and the right margin
+     * @param tabStops the tab stop positions relative to the left margin
+     * @param frc the font render context
+     */
+    public Key(
+        String text,
+        Font font,
+        boolean underlined,
+        float wrapWidth,
+        float[] tabStops,
+        FontRenderContext frc) {
+      this.text = text;
+      this.font = font;
+      this.underlined = underlined;
+      this.wrapWidth = wrapWidth;
+      this.tabStops = tabStops.clone();
+      this.frc = frc;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) obj;
+      return this.wrapWidth == that.wrapWidth
+          && this.underlined == that.underlined
+          && Objects.equals(this.text, that.text)
+          && Objects.equals(this.font, that.font)
+          && Objects.equals(this.frc, that.frc)
+          && Arrays.equals(this.tabStops, that.tabStops);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = Objects.hash(text, font, underlined, wrapWidth, frc);
+      return 31 * hash + Arrays.hashCode(tabStops);
+    }
+  }
+
+  /** A paragraph of a {@code TextAreaLayout}. */
+  public static final class Paragraph {
+
+    private final List<Line> lines;
+    private final Rectangle2D.Double bounds;
+
+    private Paragraph(List<Line> lines, Rectangle2D.Double bounds) {
+      this.lines = Collections.unmodifiableList(lines);
+      this.bounds = bounds;
+    }
+
+    public List<Line> getLines() {
+      return lines;
+    }
+
+    /** Returns the bounds of the glyphs of the paragraph. */
+    public Rectangle2D.Double getBounds() {
+      return (Rectangle2D.Double) bounds.clone();
+    }
+
+    /** Returns the bottom of the glyphs of the paragraph. The next paragraph starts here. */
+    public double getBottom() {
+      return bounds.y + bounds.height;
+    }
+  }
+
+  /**
+   * A line of a {@code Paragraph}. A line consists of one text layout per tab-separated segment.
+   */
+  public static final class Line {
+
+    private final TextLayout[] layouts;
+    private final float[] penPositions;
+    private final float top;
+    private final float baseline;
+
+    private Line(TextLayout[] layouts, float[] penPositions, float top, float baseline) {
+      this.layouts = layouts;
+      this.penPositions = penPositions;
+      this.top = top;
+      this.baseline = baseline;
+    }
+
+    public int getLayoutCount() {
+      return layouts.length;
+    }
+
+    public TextLayout getLayout(int index) {
+      return layouts[index];
+    }
+
+    /** Returns the x position at which the specified layout is drawn. */
+    public float getPenPosition(int index) {
+      return penPositions[index];
+    }
+
+    /** Returns the y position at which the line starts. */
+    public float getTop() {
+      return top;
+    }
+
+    /** Returns the y position of the baseline of the line. */
+    public float getBaseline() {
+      return baseline;
+    }
+  }
+}
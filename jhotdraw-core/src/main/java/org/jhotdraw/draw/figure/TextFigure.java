@@ -122,16 +122,19 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
     tx.transform(dirVector, dirVector);
     direction.x = dirVector.x - origin.x;
     direction.y = dirVector.y - origin.y;
+    invalidateGeometry();
   }
 
   @Override
   public void setBounds(Point2D.Double anchor, Point2D.Double lead) {
     origin = new Point2D.Double(anchor.x, anchor.y);
+    invalidateGeometry();
   }
 
   @Override
   public void setRotation(double angle) {
     AffineTransform.getRotateInstance(angle).transform(HOIZONTAL_DIRECTION, direction);
+    invalidateGeometry();
   }
 
   @Override
@@ -142,6 +145,7 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
   @Override
   public void setOrigin(Point2D.Double origin) {
     this.origin = origin;
+    invalidateGeometry();
   }
 
   public Point2D.Double getDirection() {
@@ -150,6 +154,7 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
 
   public void setDirection(Point2D.Double direction) {
     this.direction = direction;
+    invalidateGeometry();
   }
 
   @Override
@@ -186,6 +191,10 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
 
   @Override
   public Rectangle2D.Double getBounds(double scale) {
+    return getCachedBounds(scale, this::computeBounds);
+  }
+
+  protected Rectangle2D.Double computeBounds(double scale) {
     TextLayout layout = getTextLayout(scale);
 
     double alignDeltaX = layout.getAdvance() * attr().get(AttributeKeys.ALIGN_RELATIVE_X);
@@ -220,9 +229,9 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
     return AffineTransform.getRotateInstance(direction.x, direction.y, origin.x, origin.y);
   }
 
-  /** Gets the drawing area without taking the decorator into account. */
+  /** Computes the drawing area without taking the decorator into account. */
   @Override
-  protected Rectangle2D.Double getFigureDrawingArea(double factor) {
+  protected Rectangle2D.Double computeDrawingArea(double factor) {
     if (getText() == null) {
       return getBounds(factor);
     } else {
@@ -262,6 +271,7 @@ public class TextFigure extends AbstractAttributedDecoratedFigure
     Point2D.Double p = (Point2D.Double) geometry;
     origin.x = p.x;
     origin.y = p.y;
+    invalidateGeometry();
   }
 
   @Override
@@ -186,10 +186,11 @@ public class TriangleFigure extends AbstractAttributedFigure {
     rectangle.y = Math.min(anchor.y, lead.y);
     rectangle.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     rectangle.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidateGeometry();
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     double totalStrokeWidth = AttributeKeys.getStrokeTotalWidth(this, scale);
     double width = 0d;
     if (attr().get(STROKE_COLOR) != null) {
@@ -257,6 +258,7 @@ public class TriangleFigure extends AbstractAttributedFigure {
     rectangle.y = r.y;
     rectangle.width = r.width;
     rectangle.height = r.height;
+    invalidateGeometry();
   }
 
   @Override
@@ -25,7 +25,7 @@ import org.jhotdraw.geom.Geom;
  */
 public class BezierScaleHandle extends AbstractHandle {
 
-    private Object restoreData;
+  private Object restoreData;
   private AffineTransform transform;
   private Point2D.Double center;
   private double startTheta;
@@ -76,7 +76,7 @@ public class BezierScaleHandle extends AbstractHandle {
 
   @Override
   public void trackStart(Point anchor, int modifiersEx) {
-      restoreData = getBezierFigure().getTransformRestoreData();
+    restoreData = getBezierFigure().getTransformRestoreData();
     transform = new AffineTransform();
     center = getBezierFigure().getCenter();
     Point2D.Double anchorPoint = view.viewToDrawing(anchor);
@@ -86,7 +86,7 @@ public class BezierScaleHandle extends AbstractHandle {
 
   @Override
   public void trackStep(Point anchor, Point lead, int modifiersEx) {
-      Point2D.Double leadPoint = view.viewToDrawing(lead);
+    Point2D.Double leadPoint = view.viewToDrawing(lead);
     double stepTheta = Geom.angle(center.x, center.y, leadPoint.x, leadPoint.y);
     double stepLength = Geom.length(center.x, center.y, leadPoint.x, leadPoint.y);
     double scaleFactor =
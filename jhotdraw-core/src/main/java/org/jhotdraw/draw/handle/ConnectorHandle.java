@@ -32,38 +32,24 @@ import org.jhotdraw.util.ResourceBundleUtil;
  */
 public class ConnectorHandle extends AbstractHandle {
 
-
-  /**
-   * All connectors of the connectable Figure.
-   */
+  /** All connectors of the connectable Figure. */
   protected Collection<Connector> connectors = Collections.emptyList();
 
-  /**
-   * Holds the ConnectionFigure which is currently being created.
-   */
+  /** Holds the ConnectionFigure which is currently being created. */
   private ConnectionFigure createdConnection;
 
-  /**
-   * The prototype for the ConnectionFigure to be created
-   */
+  /** The prototype for the ConnectionFigure to be created */
   private ConnectionFigure prototype;
 
-  /**
-   * The Connector.
-   */
+  /** The Connector. */
   private Connector connector;
 
-  /**
-   * The current connectable Figure.
-   */
+  /** The current connectable Figure. */
   private Figure connectableFigure;
 
-  /**
-   * The current connectable Connector.
-   */
+  /** The current connectable Connector. */
   private Connector connectableConnector;
 
-
   public ConnectorHandle(Connector connector, ConnectionFigure prototype) {
     super(connector.getOwner());
     this.connector = connector;
@@ -88,26 +74,26 @@ public class ConnectorHandle extends AbstractHandle {
     }
     if (createdConnection == null) {
       drawCircle(
-              g,
-              getEditor()
-                      .getHandleAttribute(HandleAttributeKeys.DISCONNECTED_CONNECTOR_HANDLE_FILL_COLOR),
-              getEditor()
-                      .getHandleAttribute(HandleAttributeKeys.DISCONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
+          g,
+          getEditor()
+              .getHandleAttribute(HandleAttributeKeys.DISCONNECTED_CONNECTOR_HANDLE_FILL_COLOR),
+          getEditor()
+              .getHandleAttribute(HandleAttributeKeys.DISCONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
     } else {
       drawCircle(
-              g,
-              getEditor().getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_FILL_COLOR),
-              getEditor()
-                      .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
+          g,
+          getEditor().getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_FILL_COLOR),
+          getEditor()
+              .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
       Point p = view.drawingToView(createdConnection.getEndPoint());
       g.setColor(
-              getEditor()
-                      .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_FILL_COLOR));
+          getEditor()
+              .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_FILL_COLOR));
       int width = getHandlesize();
       g.fillOval(p.x - width / 2, p.y - width / 2, width, width);
       g.setColor(
-              getEditor()
-                      .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
+          getEditor()
+              .getHandleAttribute(HandleAttributeKeys.CONNECTED_CONNECTOR_HANDLE_STROKE_COLOR));
       g.drawOval(p.x - width / 2, p.y - width / 2, width, width);
     }
   }
@@ -168,31 +154,31 @@ public class ConnectorHandle extends AbstractHandle {
       view.clearSelection();
       view.addToSelection(c);
       view.getDrawing()
-              .fireUndoableEditHappened(
-                      new AbstractUndoableEdit() {
-                        private static final long serialVersionUID = 1L;
-
-                        @Override
-                        public String getPresentationName() {
-                          ResourceBundleUtil labels =
-                                  ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels");
-                          return labels.getString("edit.createConnectionFigure.text");
-                        }
-
-                        @Override
-                        public void undo() throws CannotUndoException {
-                          super.undo();
-                          drawing.remove(c);
-                        }
-
-                        @Override
-                        public void redo() throws CannotRedoException {
-                          super.redo();
-                          drawing.add(c);
-                          view.clearSelection();
-                          view.addToSelection(c);
-                        }
-                      });
+          .fireUndoableEditHappened(
+              new AbstractUndoableEdit() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public String getPresentationName() {
+                  ResourceBundleUtil labels =
+                      ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels");
+                  return labels.getString("edit.createConnectionFigure.text");
+                }
+
+                @Override
+                public void undo() throws CannotUndoException {
+                  super.undo();
+                  drawing.remove(c);
+                }
+
+                @Override
+                public void redo() throws CannotRedoException {
+                  super.redo();
+                  drawing.add(c);
+                  view.clearSelection();
+                  view.addToSelection(c);
+                }
+              });
     } else {
       view.getDrawing().remove(getConnection());
       fireAreaInvalidated(getDrawingArea());
@@ -203,7 +189,6 @@ public class ConnectorHandle extends AbstractHandle {
     setTargetFigure(null);
   }
 
-
   @Override
   public boolean isCombinableWith(Handle handle) {
     return false;
@@ -223,9 +208,9 @@ public class ConnectorHandle extends AbstractHandle {
       }
     }
     connectors =
-            (connectableFigure == null)
-                    ? Collections.emptyList()
-                    : connectableFigure.getConnectors(prototype);
+        (connectableFigure == null)
+            ? Collections.emptyList()
+            : connectableFigure.getConnectors(prototype);
     for (Connector c : connectors) {
       if (invalidArea == null) {
         invalidArea = c.getDrawingArea();
@@ -238,10 +223,7 @@ public class ConnectorHandle extends AbstractHandle {
     }
   }
 
-
-  /**
-   * Creates the ConnectionFigure. By default the figure prototype is cloned.
-   */
+  /** Creates the ConnectionFigure. By default the figure prototype is cloned. */
   protected ConnectionFigure createConnection() {
     return (ConnectionFigure) prototype.clone();
   }
@@ -262,23 +244,19 @@ public class ConnectorHandle extends AbstractHandle {
     connectableFigure = newTargetFigure;
   }
 
-
-  /**
-   * Finds a connection end figure.
-   */
+  /** Finds a connection end figure. */
   protected Connector findConnectableConnector(Figure connectableFigure, Point2D.Double p) {
     Connector target =
-            (connectableFigure == null) ? null : connectableFigure.findConnector(p, getConnection());
+        (connectableFigure == null) ? null : connectableFigure.findConnector(p, getConnection());
     if ((connectableFigure != null)
-            && connectableFigure.isConnectable()
-            && !connectableFigure.includes(getOwner())
-            && getConnection().canConnect(connector, target)) {
+        && connectableFigure.isConnectable()
+        && !connectableFigure.includes(getOwner())
+        && getConnection().canConnect(connector, target)) {
       return target;
     }
     return null;
   }
 
-
   private Figure findConnectableFigure(Point2D.Double p, Drawing drawing) {
     for (Figure figure : drawing.getFiguresFrontToBack()) {
       if (!figure.includes(getConnection()) && figure.isConnectable() && figure.contains(p)) {
@@ -287,4 +265,4 @@ public class ConnectorHandle extends AbstractHandle {
     }
     return null;
   }
-}
\ No newline at end of file
+}
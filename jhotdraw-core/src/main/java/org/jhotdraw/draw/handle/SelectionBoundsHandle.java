@@ -0,0 +1,181 @@
+/*
+ * @(#)SelectionBoundsHandle.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.handle;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.Collection;
+import java.util.Collections;
+import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.event.HandleListener;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * A non-interactive {@link Handle} which draws the bounds of a whole selection.
+ *
+ * <p>A drawing view uses this handle instead of the handles of the individual figures, when the
+ * selection is too large for creating a handle for each figure. The handle has no owner; it never
+ * contains a point, so that the selected figures can still be moved with the selection tool.
+ */
+public class SelectionBoundsHandle implements Handle {
+
+  private final Collection<Figure> figures;
+  private DrawingView view;
+  private Rectangle bounds;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param figures the selected figures. The handle does not copy the collection.
+   */
+  public SelectionBoundsHandle(Collection<Figure> figures) {
+    this.figures = figures;
+  }
+
+  /** Returns null, because the handle belongs to all selected figures. */
+  @Override
+  public Figure getOwner() {
+    return null;
+  }
+
+  @Override
+  public void setView(DrawingView view) {
+    this.view = view;
+    bounds = null;
+  }
+
+  @Override
+  public void addHandleListener(HandleListener l) {}
+
+  @Override
+  public void removeHandleListener(HandleListener l) {}
+
+  @Override
+  public Rectangle getBounds() {
+    if (bounds == null) {
+      Rectangle2D.Double r = null;
+      for (Figure f : figures) {
+        if (r == null) {
+          r = f.getBounds();
+        } else {
+          r.add(f.getBounds());
+        }
+      }
+      bounds = (r == null) ? new Rectangle() : view.drawingToView(r);
+      bounds.grow(2, 2);
+    }
+    return new Rectangle(bounds);
+  }
+
+  @Override
+  public Rectangle getDrawingArea() {
+    Rectangle r = getBounds();
+    r.grow(2, 2);
+    return r;
+  }
+
+  @Override
+  public boolean contains(Point p) {
+    return false;
+  }
+
+  @Override
+  public void draw(Graphics2D g) {
+    Rectangle r = getBounds();
+    boolean enabled = view.getEditor().getTool().supportsHandleInteraction();
+    Stroke stroke1 =
+        view.getEditor()
+            .getHandleAttribute(
+                enabled
+                    ? HandleAttributeKeys.RESIZE_BOUNDS_STROKE_1
+                    : HandleAttributeKeys.RESIZE_BOUNDS_STROKE_1_DISABLED);
+    Color strokeColor1 =
+        view.getEditor()
+            .getHandleAttribute(
+                enabled
+                    ? HandleAttributeKeys.RESIZE_BOUNDS_COLOR_1
+                    : HandleAttributeKeys.RESIZE_BOUNDS_COLOR_1_DISABLED);
+    Stroke stroke2 =
+        view.getEditor()
+            .getHandleAttribute(
+                enabled
+                    ? HandleAttributeKeys.RESIZE_BOUNDS_STROKE_2
+                    : HandleAttributeKeys.RESIZE_BOUNDS_STROKE_2_DISABLED);
+    Color strokeColor2 =
+        view.getEditor()
+            .getHandleAttribute(
+                enabled
+                    ? HandleAttributeKeys.RESIZE_BOUNDS_COLOR_2
+                    : HandleAttributeKeys.RESIZE_BOUNDS_COLOR_2_DISABLED);
+    if (stroke1 != null && strokeColor1 != null) {
+      g.setStroke(stroke1);
+      g.setColor(strokeColor1);
+      g.draw(r);
+    }
+    if (stroke2 != null && strokeColor2 != null) {
+      g.setStroke(stroke2);
+      g.setColor(strokeColor2);
+      g.draw(r);
+    }
+  }
+
+  @Override
+  public void invalidate() {
+    bounds = null;
+  }
+
+  @Override
+  public void dispose() {}
+
+  @Override
+  public Cursor getCursor() {
+    return Cursor.getDefaultCursor();
+  }
+
+  @Override
+  public boolean isCombinableWith(Handle handle) {
+    return false;
+  }
+
+  @Override
+  public void trackStart(Point anchor, int modifiersEx) {}
+
+  @Override
+  public void trackStep(Point anchor, Point lead, int modifiersEx) {}
+
+  @Override
+  public void trackEnd(Point anchor, Point lead, int modifiersEx) {}
+
+  @Override
+  public void trackDoubleClick(Point p, int modifiersEx) {}
+
+  @Override
+  public void viewTransformChanged() {
+    bounds = null;
+  }
+
+  @Override
+  public Collection<Handle> createSecondaryHandles() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public String getToolTipText(Point p) {
+    return null;
+  }
+
+  @Override
+  public void keyTyped(KeyEvent evt) {}
+
+  @Override
+  public void keyPressed(KeyEvent evt) {}
+
+  @Override
+  public void keyReleased(KeyEvent evt) {}
+}
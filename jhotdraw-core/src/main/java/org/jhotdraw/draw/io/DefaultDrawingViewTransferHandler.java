@@ -7,8 +7,6 @@
  */
 package org.jhotdraw.draw.io;
 
-
-
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Point;
@@ -48,7 +46,6 @@ import javax.swing.TransferHandler;
 import javax.swing.undo.AbstractUndoableEdit;
 import javax.swing.undo.CannotRedoException;
 import javax.swing.undo.CannotUndoException;
-import org.jhotdraw.datatransfer.CompositeTransferable;
 import org.jhotdraw.draw.Drawing;
 import org.jhotdraw.draw.DrawingView;
 import org.jhotdraw.draw.event.DrawingEvent;
@@ -116,9 +113,11 @@ public class DefaultDrawingViewTransferHandler extends TransferHandler {
         retValue = false;
         try {
           DataFlavor[] transferFlavors = t.getTransferDataFlavors();
-          // Workaround for Mac OS X:
-          // The Apple JVM messes up the sequence of the data flavors.
-          if (System.getProperty("os.name").toLowerCase().startsWith("mac")) {
+          if (importFigureSnapshot(comp, view, t, transferFigures, dropPoint)) {
+            retValue = true;
+          } else if (System.getProperty("os.name").toLowerCase().startsWith("mac")) {
+            // Workaround for Mac OS X:
+            // The Apple JVM messes up the sequence of the data flavors.
             // Search for a suitable input format
             SearchLoop:
             for (InputFormat format : drawing.getInputFormats()) {
@@ -225,11 +224,11 @@ public class DefaultDrawingViewTransferHandler extends TransferHandler {
               @Override
               protected List<Figure> doInBackground() throws Exception {
                 for (File file : files) {
-                    for (InputFormat format : drawing.getInputFormats()) {
-                        if (file.isFile() && format.getFileFilter().accept(file)) {
-                            format.read(file.toURI(), drawing, false);
-                        }
+                  for (InputFormat format : drawing.getInputFormats()) {
+                    if (file.isFile() && format.getFileFilter().accept(file)) {
+                      format.read(file.toURI(), drawing, false);
                     }
+                  }
                 }
                 return new ArrayList<>(drawing.getChildren());
               }
@@ -287,6 +286,86 @@ public class DefaultDrawingViewTransferHandler extends TransferHandler {
     return retValue;
   }
 
+  /**
+   * Imports copies of the figures of a {@link FigureSnapshotTransferable}, if the transferable
+   * comes from a compatible drawing in the same Java VM. This avoids serializing and deserializing
+   * the figures.
+   *
+   * @return true, if the figures have been imported
+   */
+  protected boolean importFigureSnapshot(
+      JComponent comp,
+      DrawingView view,
+      Transferable t,
+      HashSet<Figure> transferFigures,
+      Point dropPoint)
+      throws IOException, UnsupportedFlavorException {
+    if (!t.isDataFlavorSupported(FigureSnapshotTransferable.FIGURES_FLAVOR)) {
+      return false;
+    }
+    Object data = t.getTransferData(FigureSnapshotTransferable.FIGURES_FLAVOR);
+    final Drawing drawing = view.getDrawing();
+    if (!(data instanceof FigureSnapshotTransferable snapshot)
+        || !canImportFigures(snapshot.getDrawing(), drawing)) {
+      return false;
+    }
+    final List<Figure> importedFigures = snapshot.createFigures();
+    drawing.addAll(importedFigures);
+    view.clearSelection();
+    view.addToSelection(importedFigures);
+    transferFigures.addAll(importedFigures);
+    moveToDropPoint(comp, transferFigures, dropPoint);
+    drawing.fireUndoableEditHappened(
+        new AbstractUndoableEdit() {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          public String getPresentationName() {
+            ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels");
+            return labels.getString("edit.paste.text");
+          }
+
+          @Override
+          public void undo() throws CannotUndoException {
+            super.undo();
+            drawing.removeAll(importedFigures);
+          }
+
+          @Override
+          public void redo() throws CannotRedoException {
+            super.redo();
+            drawing.addAll(importedFigures);
+          }
+        });
+    return true;
+  }
+
+  /**
+   * Returns true, if figures of the source drawing can be added to the target drawing as they are.
+   *
+   * <p>This is the case, if both are the same drawing, or if both drawings are of the same class
+   * and use the same kinds of input and output formats. Otherwise the figures are imported through
+   * one of the input formats of the target drawing, which may convert or reject them.
+   */
+  protected boolean canImportFigures(Drawing source, Drawing target) {
+    if (source == target) {
+      return true;
+    }
+    return source.getClass() == target.getClass()
+        && getFormatClasses(source.getInputFormats())
+            .equals(getFormatClasses(target.getInputFormats()))
+        && getFormatClasses(source.getOutputFormats())
+            .equals(getFormatClasses(target.getOutputFormats()));
+  }
+
+  private static List<Class<?>> getFormatClasses(List<?> formats) {
+    List<Class<?>> classes = new ArrayList<>(formats.size());
+    for (Object format : formats) {
+      classes.add(format.getClass());
+    }
+    return classes;
+  }
+
   protected void moveToDropPoint(
       JComponent component, HashSet<Figure> transferFigures, Point dropPoint) {
     if (dropPoint == null) {
@@ -360,15 +439,10 @@ public class DefaultDrawingViewTransferHandler extends TransferHandler {
       java.util.List<Figure> toBeCopied = drawing.sort(transferFigures);
       if (toBeCopied.size() > 0) {
         try {
-          CompositeTransferable transfer = new CompositeTransferable();
-          for (OutputFormat format : drawing.getOutputFormats()) {
-            Transferable t = format.createTransferable(drawing, toBeCopied, view.getScaleFactor());
-            if (!transfer.isDataFlavorSupported(t.getTransferDataFlavors()[0])) {
-              transfer.add(t);
-            }
-          }
+          // The output formats create their data only when it is requested
+          // by a paste target.
+          retValue = new FigureSnapshotTransferable(drawing, toBeCopied, view.getScaleFactor());
           exportedFigures = new HashSet<>(transferFigures);
-          retValue = transfer;
         } catch (IOException e) {
           e.printStackTrace();
           retValue = null;
@@ -0,0 +1,156 @@
+/*
+ * @(#)FigureSnapshotTransferable.java
+ *
+ * Copyright (c) 2007-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.io;
+
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.ClipboardOwner;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * A Transferable which holds a snapshot of figures, and creates the data for the output formats of
+ * a drawing on demand.
+ *
+ * <p>The figures are cloned when the transferable is created, so that later edits of the drawing do
+ * not change the transferred content. The transferable advertises the data flavors of all output
+ * formats of the drawing, but it only asks an output format to create its Transferable, when a
+ * paste target requests one of its flavors. Output formats which do not know their flavors in
+ * advance (see {@link OutputFormat#getTransferDataFlavors}) are asked immediately.
+ *
+ * <p>Paste targets in the same Java VM can request the {@link #FIGURES_FLAVOR}, which returns the
+ * transferable itself, and obtain copies of the figures with {@link #createFigures}, without going
+ * through a serialized representation.
+ */
+public class FigureSnapshotTransferable implements Transferable, ClipboardOwner {
+
+  /** A data flavor for transferring figures within the same Java VM. */
+  public static final DataFlavor FIGURES_FLAVOR =
+      new DataFlavor(
+          DataFlavor.javaJVMLocalObjectMimeType
+              + ";class="
+              + FigureSnapshotTransferable.class.getName(),
+          "JHotDraw Figures");
+
+  private final Drawing drawing;
+  private final List<Figure> figures;
+  private final double scaleFactor;
+
+  /** Maps each advertised flavor to the output format which provides it. */
+  private final LinkedHashMap<DataFlavor, OutputFormat> formats = new LinkedHashMap<>();
+
+  /** Holds the Transferables which have been created so far. */
+  private final Map<OutputFormat, Transferable> transferables = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param drawing The drawing, which provides the output formats.
+   * @param figures The figures of the drawing to be transferred.
+   * @param scaleFactor The factor to be used, when an output format creates an image with a fixed
+   *     size from the figures.
+   */
+  public FigureSnapshotTransferable(Drawing drawing, List<Figure> figures, double scaleFactor)
+      throws IOException {
+    this.drawing = drawing;
+    this.figures = Collections.unmodifiableList(cloneFigures(figures));
+    this.scaleFactor = scaleFactor;
+    for (OutputFormat format : drawing.getOutputFormats()) {
+      DataFlavor[] flavors = format.getTransferDataFlavors();
+      if (flavors == null) {
+        Transferable t = format.createTransferable(drawing, this.figures, scaleFactor);
+        transferables.put(format, t);
+        flavors = t.getTransferDataFlavors();
+      }
+      for (DataFlavor flavor : flavors) {
+        formats.putIfAbsent(flavor, format);
+      }
+    }
+  }
+
+  /** Returns the drawing from which the figures have been copied. */
+  public Drawing getDrawing() {
+    return drawing;
+  }
+
+  /** Returns the snapshot of the figures. The figures must not be modified. */
+  public List<Figure> getFigures() {
+    return figures;
+  }
+
+  /**
+   * Returns new copies of the figures, which can be added to a drawing. Connections between the
+   * figures are preserved.
+   */
+  public List<Figure> createFigures() {
+    return cloneFigures(figures);
+  }
+
+  /**
+   * Clones the specified figures and remaps the connections between them. Connections to figures
+   * which are not cloned are disconnected.
+   */
+  private static List<Figure> cloneFigures(List<Figure> figures) {
+    HashMap<Figure, Figure> originalToDuplicateMap = new HashMap<>(figures.size());
+    ArrayList<Figure> duplicates = new ArrayList<>(figures.size());
+    for (Figure f : figures) {
+      Figure d = f.clone();
+      duplicates.add(d);
+      originalToDuplicateMap.put(f, d);
+    }
+    for (Figure d : duplicates) {
+      d.remap(originalToDuplicateMap, true);
+    }
+    return duplicates;
+  }
+
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    ArrayList<DataFlavor> flavors = new ArrayList<>(formats.size() + 1);
+    flavors.add(FIGURES_FLAVOR);
+    flavors.addAll(formats.keySet());
+    return flavors.toArray(new DataFlavor[0]);
+  }
+
+  @Override
+  public boolean isDataFlavorSupported(DataFlavor flavor) {
+    return FIGURES_FLAVOR.equals(flavor) || formats.containsKey(flavor);
+  }
+
+  @Override
+  public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException, IOException {
+    if (FIGURES_FLAVOR.equals(flavor)) {
+      return this;
+    }
+    OutputFormat format = formats.get(flavor);
+    if (format == null) {
+      throw new UnsupportedFlavorException(flavor);
+    }
+    Transferable t;
+    synchronized (transferables) {
+      t = transferables.get(format);
+      if (t == null) {
+        t = format.createTransferable(drawing, figures, scaleFactor);
+        transferables.put(format, t);
+      }
+    }
+    return t.getTransferData(flavor);
+  }
+
+  @Override
+  public void lostOwnership(Clipboard clipboard, Transferable contents) {}
+}
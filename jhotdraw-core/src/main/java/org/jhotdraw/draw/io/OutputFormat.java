@@ -7,6 +7,7 @@
  */
 package org.jhotdraw.draw.io;
 
+import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -75,4 +76,18 @@ public interface OutputFormat {
    */
   public Transferable createTransferable(Drawing drawing, List<Figure> figures, double scaleFactor)
       throws IOException;
+
+  /**
+   * Returns the data flavors of the Transferables created by this output format, without creating a
+   * Transferable.
+   *
+   * <p>This allows the clipboard to advertise the flavor, and to defer the actual serialization
+   * until a paste target requests it. The default implementation returns null, which means that the
+   * flavors are only known after a Transferable has been created.
+   *
+   * @return The data flavors, or null.
+   */
+  public default DataFlavor[] getTransferDataFlavors() {
+    return null;
+  }
 }
@@ -9,6 +9,7 @@ package org.jhotdraw.draw.layouter;
 
 import org.jhotdraw.draw.figure.CompositeFigure;
 import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.geom.Dimension2DDouble;
 import org.jhotdraw.geom.Insets2D;
 
 /**
@@ -21,4 +22,23 @@ public abstract class AbstractLayouter implements Layouter {
     Insets2D.Double value = child.attr().get(CompositeFigure.LAYOUT_INSETS);
     return (value == null) ? new Insets2D.Double() : (Insets2D.Double) value.clone();
   }
+
+  /**
+   * Returns the preferred sizes of the children of the composite figure, in the order of the
+   * children. The entries of invisible children are null.
+   *
+   * <p>Computing the preferred size of a child may be expensive, so a layout pass asks each child
+   * only once.
+   */
+  protected Dimension2DDouble[] getPreferredSizes(CompositeFigure compositeFigure, double scale) {
+    Dimension2DDouble[] sizes = new Dimension2DDouble[compositeFigure.getChildCount()];
+    int i = 0;
+    for (Figure child : compositeFigure.getChildren()) {
+      if (child.isVisible()) {
+        sizes[i] = child.getPreferredSize(scale);
+      }
+      i++;
+    }
+    return sizes;
+  }
 }
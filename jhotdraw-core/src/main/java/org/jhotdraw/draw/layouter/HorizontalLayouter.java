@@ -34,12 +34,17 @@ public class HorizontalLayouter extends AbstractLayouter {
   @Override
   public Rectangle2D.Double calculateLayout(
       CompositeFigure compositeFigure, Point2D.Double anchor, Point2D.Double lead, double scale) {
+    return calculateLayout(compositeFigure, anchor, getPreferredSizes(compositeFigure, scale));
+  }
+
+  private Rectangle2D.Double calculateLayout(
+      CompositeFigure compositeFigure, Point2D.Double anchor, Dimension2DDouble[] preferredSizes) {
     Insets2D.Double layoutInsets = compositeFigure.attr().get(LAYOUT_INSETS);
     Rectangle2D.Double layoutBounds = new Rectangle2D.Double(anchor.x, anchor.y, 0, 0);
-    for (Figure child : compositeFigure.getChildren()) {
-      if (child.isVisible()) {
-        Dimension2DDouble preferredSize = child.getPreferredSize(scale);
-        Insets2D.Double ins = getInsets(child);
+    for (int i = 0; i < preferredSizes.length; i++) {
+      Dimension2DDouble preferredSize = preferredSizes[i];
+      if (preferredSize != null) {
+        Insets2D.Double ins = getInsets(compositeFigure.getChild(i));
         layoutBounds.height =
             Math.max(layoutBounds.height, preferredSize.height + ins.top + ins.bottom);
         layoutBounds.width += preferredSize.width + ins.left + ins.right;
@@ -55,13 +60,15 @@ public class HorizontalLayouter extends AbstractLayouter {
       CompositeFigure compositeFigure, Point2D.Double anchor, Point2D.Double lead, double scale) {
     Insets2D.Double layoutInsets = compositeFigure.attr().get(LAYOUT_INSETS);
     Alignment compositeAlignment = compositeFigure.attr().get(COMPOSITE_ALIGNMENT);
-    Rectangle2D.Double layoutBounds = calculateLayout(compositeFigure, anchor, lead, scale);
+    Dimension2DDouble[] preferredSizes = getPreferredSizes(compositeFigure, scale);
+    Rectangle2D.Double layoutBounds = calculateLayout(compositeFigure, anchor, preferredSizes);
     double x = layoutBounds.x + layoutInsets.left;
-    for (Figure child : compositeFigure.getChildren()) {
-      if (child.isVisible()) {
+    for (int i = 0; i < preferredSizes.length; i++) {
+      if (preferredSizes[i] != null) {
+        Figure child = compositeFigure.getChild(i);
         Insets2D.Double insets = getInsets(child);
-        double width = child.getPreferredSize(scale).width;
-        double height = child.getPreferredSize(scale).height;
+        double width = preferredSizes[i].width;
+        double height = preferredSizes[i].height;
         // --
         switch (compositeAlignment) {
           case LEADING:
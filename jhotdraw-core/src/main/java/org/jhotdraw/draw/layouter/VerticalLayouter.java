@@ -37,15 +37,20 @@ public class VerticalLayouter extends AbstractLayouter {
   @Override
   public Rectangle2D.Double calculateLayout(
       CompositeFigure layoutable, Point2D.Double anchor, Point2D.Double lead, double scale) {
+    return calculateLayout(layoutable, anchor, getPreferredSizes(layoutable, scale));
+  }
+
+  private Rectangle2D.Double calculateLayout(
+      CompositeFigure layoutable, Point2D.Double anchor, Dimension2DDouble[] preferredSizes) {
     Insets2D.Double layoutInsets = layoutable.attr().get(LAYOUT_INSETS);
     if (layoutInsets == null) {
       layoutInsets = new Insets2D.Double(0, 0, 0, 0);
     }
     Rectangle2D.Double layoutBounds = new Rectangle2D.Double(anchor.x, anchor.y, 0, 0);
-    for (Figure child : layoutable.getChildren()) {
-      if (child.isVisible()) {
-        Dimension2DDouble preferredSize = child.getPreferredSize(scale);
-        Insets2D.Double ins = getInsets(child);
+    for (int i = 0; i < preferredSizes.length; i++) {
+      Dimension2DDouble preferredSize = preferredSizes[i];
+      if (preferredSize != null) {
+        Insets2D.Double ins = getInsets(layoutable.getChild(i));
         layoutBounds.width =
             Math.max(layoutBounds.width, preferredSize.width + ins.left + ins.right);
         layoutBounds.height += preferredSize.height + ins.top + ins.bottom;
@@ -64,13 +69,15 @@ public class VerticalLayouter extends AbstractLayouter {
     if (layoutInsets == null) {
       layoutInsets = new Insets2D.Double();
     }
-    Rectangle2D.Double layoutBounds = calculateLayout(layoutable, anchor, lead, scale);
+    Dimension2DDouble[] preferredSizes = getPreferredSizes(layoutable, scale);
+    Rectangle2D.Double layoutBounds = calculateLayout(layoutable, anchor, preferredSizes);
     double y = layoutBounds.y + layoutInsets.top;
-    for (Figure child : layoutable.getChildren()) {
-      if (child.isVisible()) {
+    for (int i = 0; i < preferredSizes.length; i++) {
+      if (preferredSizes[i] != null) {
+        Figure child = layoutable.getChild(i);
         Insets2D.Double insets = getInsets(child);
-        double height = child.getPreferredSize(scale).height;
-        double width = child.getPreferredSize(scale).width;
+        double height = preferredSizes[i].height;
+        double width = preferredSizes[i].width;
         switch (compositeAlignment) {
           case LEADING:
             child.setBounds(
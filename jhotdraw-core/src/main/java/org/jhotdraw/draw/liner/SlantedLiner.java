@@ -51,7 +51,8 @@ public class SlantedLiner implements Liner {
     path.invalidatePath();
   }
 
-  private void handleSameFigureConnection(BezierPath path, Connector start, Connector end, ConnectionFigure figure) {
+  private void handleSameFigureConnection(
+      BezierPath path, Connector start, Connector end, ConnectionFigure figure) {
     // Ensure path has exactly four nodes
     while (path.size() < 5) {
       path.add(1, new BezierPath.Node(0, 0));
@@ -154,11 +155,11 @@ public class SlantedLiner implements Liner {
         eoutcode = Geom.outcode(eb, sb);
       }
       if ((soutcode & (Geom.OUT_TOP | Geom.OUT_BOTTOM)) != 0
-              && (eoutcode & (Geom.OUT_TOP | Geom.OUT_BOTTOM)) != 0) {
+          && (eoutcode & (Geom.OUT_TOP | Geom.OUT_BOTTOM)) != 0) {
         path.add(new BezierPath.Node(sp.x, (sp.y + ep.y) / 2));
         path.add(new BezierPath.Node(ep.x, (sp.y + ep.y) / 2));
       } else if ((soutcode & (Geom.OUT_LEFT | Geom.OUT_RIGHT)) != 0
-              && (eoutcode & (Geom.OUT_LEFT | Geom.OUT_RIGHT)) != 0) {
+          && (eoutcode & (Geom.OUT_LEFT | Geom.OUT_RIGHT)) != 0) {
         path.add(new BezierPath.Node((sp.x + ep.x) / 2, sp.y));
         path.add(new BezierPath.Node((sp.x + ep.x) / 2, ep.y));
       } else if (soutcode == Geom.OUT_BOTTOM || soutcode == Geom.OUT_TOP) {
@@ -176,7 +177,6 @@ public class SlantedLiner implements Liner {
     }
   }
 
-
   @Override
   public Liner clone() {
     try {
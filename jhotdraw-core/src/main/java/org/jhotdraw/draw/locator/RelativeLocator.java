@@ -221,7 +221,6 @@ public class RelativeLocator extends AbstractLocator {
     return new RelativeLocator(0.5, 0.5, isTransform);
   }
 
-
   @Override
   public boolean equals(Object obj) {
     if (obj == null) {
@@ -10,10 +10,10 @@ package org.jhotdraw.draw.print;
 import java.awt.*;
 import java.awt.geom.*;
 import java.awt.print.*;
-import java.util.Objects;
-
 import org.jhotdraw.draw.*;
-import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.event.DrawingEvent;
+import org.jhotdraw.draw.event.DrawingListener;
+import org.jhotdraw.draw.event.DrawingListenerAdapter;
 
 /**
  * {@code DrawingPageable} can be used to print a {@link Drawing} using the java.awt.print API.
@@ -33,6 +33,14 @@ import org.jhotdraw.draw.figure.Figure;
  * }
  * </pre>
  *
+ * <p>By default, the drawing is scaled to fit on a single page. In tiled mode, the drawing is
+ * printed at a fixed scale on as many pages as needed, row by row.
+ *
+ * <p>The layout of the pages is computed once per page format, with the drawing area at the scale
+ * of the printout, and is computed again when the drawing changes. Each page is rendered with a
+ * clip set to its part of the drawing, so that the drawing only draws the figures which intersect
+ * the page. No page is retained after it has been printed.
+ *
  * @see org.jhotdraw.app.action.file.PrintFileAction
  */
 public class DrawingPageable implements Pageable {
@@ -40,6 +48,58 @@ public class DrawingPageable implements Pageable {
   private Drawing drawing;
   private PageFormat pageFormat;
   private boolean isAutorotate = false;
+  private boolean isTiled = false;
+  private double tileScale = 1d;
+
+  /** The layout of the pages, or null if it has not been computed yet. */
+  private Layout layout;
+
+  /**
+   * Discards the layout when the drawing changes. It only listens while there is a layout, so that
+   * the drawing does not keep a pageable alive after printing.
+   */
+  private final DrawingListener layoutHandler =
+      new DrawingListenerAdapter() {
+        @Override
+        public void figureAdded(DrawingEvent e) {
+          invalidateLayout();
+        }
+
+        @Override
+        public void figureRemoved(DrawingEvent e) {
+          invalidateLayout();
+        }
+
+        @Override
+        public void drawingChanged(DrawingEvent e) {
+          invalidateLayout();
+        }
+      };
+
+  /** The placement of the drawing on the pages of one page format. */
+  private static class Layout {
+
+    private final Rectangle2D.Double imageableArea;
+    private final Rectangle2D.Double drawBounds;
+
+    /** The scale from drawing coordinates to page coordinates. */
+    private final double scale;
+
+    private int columns = 1;
+    private int rows = 1;
+    private double tileWidth;
+    private double tileHeight;
+
+    Layout(Rectangle2D.Double imageableArea, Rectangle2D.Double drawBounds, double scale) {
+      this.imageableArea = imageableArea;
+      this.drawBounds = drawBounds;
+      this.scale = scale;
+    }
+
+    int getNumberOfPages() {
+      return columns * rows;
+    }
+  }
 
   public DrawingPageable(Drawing drawing) {
     this.drawing = drawing;
@@ -48,9 +108,37 @@ public class DrawingPageable implements Pageable {
     pageFormat.setPaper(paper);
   }
 
+  public void setPageFormat(PageFormat newValue) {
+    pageFormat = newValue;
+    invalidateLayout();
+  }
+
+  /**
+   * If set to true, the drawing is printed at the tile scale on as many pages as needed. Otherwise
+   * the drawing is scaled to fit on a single page.
+   */
+  public void setTiled(boolean newValue) {
+    isTiled = newValue;
+    invalidateLayout();
+  }
+
+  public boolean isTiled() {
+    return isTiled;
+  }
+
+  /** Sets the scale factor from drawing coordinates to page coordinates in tiled mode. */
+  public void setTileScale(double newValue) {
+    tileScale = newValue;
+    invalidateLayout();
+  }
+
+  public double getTileScale() {
+    return tileScale;
+  }
+
   @Override
   public int getNumberOfPages() {
-    return 1;
+    return getLayout(pageFormat).getNumberOfPages();
   }
 
   @Override
@@ -72,52 +160,115 @@ public class DrawingPageable implements Pageable {
     };
   }
 
-  public int printPage(Graphics graphics, PageFormat pageFormat, int pageIndex){
-    if (pageIndex < 0 || pageIndex >= getNumberOfPages()) {
+  public int printPage(Graphics graphics, PageFormat pageFormat, int pageIndex) {
+    Layout l = getLayout(pageFormat);
+    if (pageIndex < 0 || pageIndex >= l.getNumberOfPages()) {
       throw new IndexOutOfBoundsException("Invalid page index:" + pageIndex);
     }
-    if (drawing.getChildCount() > 0) {
-      Graphics2D g = (Graphics2D) graphics;
-      setRenderingHints(g);
-      // Determine the draw bounds of the drawing
+    if (l.drawBounds != null) {
+      Graphics2D g = (Graphics2D) graphics.create();
+      try {
+        setRenderingHints(g);
+        Rectangle2D.Double pageArea;
+        if (isTiled) {
+          pageArea =
+              new Rectangle2D.Double(
+                  l.drawBounds.x + (pageIndex % l.columns) * l.tileWidth,
+                  l.drawBounds.y + (pageIndex / l.columns) * l.tileHeight,
+                  l.tileWidth,
+                  l.tileHeight);
+        } else {
+          pageArea = l.drawBounds;
+        }
+        g.transform(createPageTransform(l, pageArea));
+        g.clip(pageArea);
+        // Draw the figures of the page
+        drawing.draw(g);
+      } finally {
+        g.dispose();
+      }
+    }
+    return Printable.PAGE_EXISTS;
+  }
+
+  /** Returns the layout for the specified page format, and computes it if necessary. */
+  private Layout getLayout(PageFormat pageFormat) {
+    Rectangle2D.Double imageableArea =
+        new Rectangle2D.Double(
+            pageFormat.getImageableX(),
+            pageFormat.getImageableY(),
+            pageFormat.getImageableWidth(),
+            pageFormat.getImageableHeight());
+    Layout l = layout;
+    if (l == null || !l.imageableArea.equals(imageableArea)) {
+      if (l == null) {
+        drawing.addDrawingListener(layoutHandler);
+      }
+      // Determine the draw bounds of the drawing at the scale of the printout
       Rectangle2D.Double drawBounds = null;
-      double scale = AttributeKeys.getScaleFactorFromGraphics(g);
-      for (Figure f : drawing.getChildren()) {
-        if (drawBounds == null) {
-          drawBounds = f.getDrawingArea(scale);
+      double scale = 1d;
+      if (drawing.getChildCount() > 0) {
+        if (isTiled) {
+          scale = tileScale;
         } else {
-          drawBounds.add(f.getDrawingArea(scale));
+          scale = getFitScale(drawing.getDrawingArea(1d), imageableArea);
         }
+        drawBounds = drawing.getDrawingArea(scale);
       }
-      // Setup a transformation for the drawing
-      AffineTransform tx = new AffineTransform();
-      tx.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
-      // Maybe rotate drawing
-      if (isAutorotate
-          && Objects.requireNonNull(drawBounds).width > drawBounds.height
-          && pageFormat.getImageableWidth() < pageFormat.getImageableHeight()) {
-        double scaleFactor =
-            Math.min(
-                pageFormat.getImageableWidth() / drawBounds.height,
-                pageFormat.getImageableHeight() / drawBounds.width);
-        tx.scale(scaleFactor, scaleFactor);
-        tx.translate(drawBounds.height, 0d);
-        tx.rotate(Math.PI / 2d, 0, 0);
-        tx.translate(-drawBounds.x, -drawBounds.y);
-      } else {
-          assert drawBounds != null;
-          double scaleFactor =
-            Math.min(
-                pageFormat.getImageableWidth() / drawBounds.width,
-                pageFormat.getImageableHeight() / drawBounds.height);
-        tx.scale(scaleFactor, scaleFactor);
-        tx.translate(-drawBounds.x, -drawBounds.y);
+      l = new Layout(imageableArea, drawBounds, scale);
+      if (isTiled && drawBounds != null) {
+        l.tileWidth = imageableArea.width / tileScale;
+        l.tileHeight = imageableArea.height / tileScale;
+        l.columns = Math.max(1, (int) Math.ceil(drawBounds.width / l.tileWidth));
+        l.rows = Math.max(1, (int) Math.ceil(drawBounds.height / l.tileHeight));
       }
-      g.transform(tx);
-      // Draw the drawing
-      drawing.draw(g);
+      layout = l;
     }
-    return Printable.PAGE_EXISTS;
+    return l;
+  }
+
+  /** Discards the layout, so that it is computed again for the next page. */
+  private void invalidateLayout() {
+    if (layout != null) {
+      layout = null;
+      drawing.removeDrawingListener(layoutHandler);
+    }
+  }
+
+  /** Returns true, if the specified area is rotated to fit on the page. */
+  private boolean isRotated(Rectangle2D.Double area, Rectangle2D.Double imageableArea) {
+    return isAutorotate && area.width > area.height && imageableArea.width < imageableArea.height;
+  }
+
+  /** Returns the scale at which the specified area fits on the page. */
+  private double getFitScale(Rectangle2D.Double area, Rectangle2D.Double imageableArea) {
+    if (isRotated(area, imageableArea)) {
+      return Math.min(imageableArea.width / area.height, imageableArea.height / area.width);
+    }
+    return Math.min(imageableArea.width / area.width, imageableArea.height / area.height);
+  }
+
+  /** Creates the transformation from drawing coordinates to page coordinates. */
+  private AffineTransform createPageTransform(Layout l, Rectangle2D.Double pageArea) {
+    Rectangle2D.Double imageableArea = l.imageableArea;
+    AffineTransform tx = new AffineTransform();
+    tx.translate(imageableArea.x, imageableArea.y);
+    if (isTiled) {
+      tx.scale(l.scale, l.scale);
+      tx.translate(-pageArea.x, -pageArea.y);
+    } else if (isRotated(pageArea, imageableArea)) {
+      // Rotate the drawing
+      double scaleFactor = getFitScale(pageArea, imageableArea);
+      tx.scale(scaleFactor, scaleFactor);
+      tx.translate(pageArea.height, 0d);
+      tx.rotate(Math.PI / 2d, 0, 0);
+      tx.translate(-pageArea.x, -pageArea.y);
+    } else {
+      double scaleFactor = getFitScale(pageArea, imageableArea);
+      tx.scale(scaleFactor, scaleFactor);
+      tx.translate(-pageArea.x, -pageArea.y);
+    }
+    return tx;
   }
 
   protected void setRenderingHints(Graphics2D g) {
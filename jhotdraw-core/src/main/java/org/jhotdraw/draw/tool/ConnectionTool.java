@@ -51,8 +51,8 @@ public class ConnectionTool extends AbstractTool {
   private static final int ANCHOR_WIDTH = 6;
 
   /**
-   * AttributesFigure to be applied to the created ConnectionFigure. These attributes override the default
-   * attributes of the DrawingEditor.
+   * AttributesFigure to be applied to the created ConnectionFigure. These attributes override the
+   * default attributes of the DrawingEditor.
    */
   private Map<AttributeKey<?>, Object> prototypeAttributes;
 
@@ -61,8 +61,8 @@ public class CreationTool extends AbstractTool {
   private static final long serialVersionUID = 1L;
 
   /**
-   * AttributesFigure to be applied to the created ConnectionFigure. These attributes override the default
-   * attributes of the DrawingEditor.
+   * AttributesFigure to be applied to the created ConnectionFigure. These attributes override the
+   * default attributes of the DrawingEditor.
    */
   protected Map<AttributeKey<?>, Object> prototypeAttributes;
 
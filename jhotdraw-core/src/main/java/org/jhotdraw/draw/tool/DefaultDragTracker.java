@@ -111,10 +111,19 @@ public class DefaultDragTracker extends AbstractTool implements DragTracker {
       if (dragRect != null) {
         anchorPoint = previousPoint = view.viewToDrawing(anchor);
         anchorOrigin = previousOrigin = new Point2D.Double(dragRect.x, dragRect.y);
+        view.beginInteraction(transformedFigures);
       }
     }
   }
 
+  @Override
+  public void deactivate(DrawingEditor editor) {
+    if (getView() != null) {
+      getView().endInteraction();
+    }
+    super.deactivate(editor);
+  }
+
   @Override
   public void mouseDragged(MouseEvent evt) {
     DrawingView view = getView();
@@ -133,10 +142,15 @@ public class DefaultDragTracker extends AbstractTool implements DragTracker {
       }
       AffineTransform tx = new AffineTransform();
       tx.translate(constrainedRect.x - previousOrigin.x, constrainedRect.y - previousOrigin.y);
-      for (Figure f : transformedFigures) {
-        f.willChange();
-        f.transform(tx);
-        f.changed();
+      getDrawing().beginConnectionUpdate();
+      try {
+        for (Figure f : transformedFigures) {
+          f.willChange();
+          f.transform(tx);
+          f.changed();
+        }
+      } finally {
+        getDrawing().endConnectionUpdate();
       }
       previousPoint = currentPoint;
       previousOrigin = new Point2D.Double(constrainedRect.x, constrainedRect.y);
@@ -147,6 +161,7 @@ public class DefaultDragTracker extends AbstractTool implements DragTracker {
   public void mouseReleased(MouseEvent evt) {
     super.mouseReleased(evt);
     DrawingView view = getView();
+    view.endInteraction();
     if (transformedFigures != null && !transformedFigures.isEmpty()) {
       isDragging = false;
       int x = evt.getX();
@@ -159,10 +174,15 @@ public class DefaultDragTracker extends AbstractTool implements DragTracker {
         if (snapBack) {
           AffineTransform tx = new AffineTransform();
           tx.translate(anchorOrigin.x - previousOrigin.x, anchorOrigin.y - previousOrigin.y);
-          for (Figure f : transformedFigures) {
-            f.willChange();
-            f.transform(tx);
-            f.changed();
+          getDrawing().beginConnectionUpdate();
+          try {
+            for (Figure f : transformedFigures) {
+              f.willChange();
+              f.transform(tx);
+              f.changed();
+            }
+          } finally {
+            getDrawing().endConnectionUpdate();
           }
           Rectangle r = new Rectangle(anchor.x, anchor.y, 0, 0);
           r.add(evt.getX(), evt.getY());
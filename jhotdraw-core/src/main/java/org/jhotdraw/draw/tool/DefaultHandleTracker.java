@@ -17,7 +17,9 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.jhotdraw.draw.Drawing;
 import org.jhotdraw.draw.DrawingEditor;
 import org.jhotdraw.draw.DrawingView;
@@ -137,6 +139,7 @@ public class DefaultHandleTracker extends AbstractTool implements HandleTracker
     if (v != null) {
       v.setCursor(Cursor.getDefaultCursor());
       v.setActiveHandle(null);
+      v.endInteraction();
     }
     clearHoverHandles();
     dragLocation = null;
@@ -232,12 +235,16 @@ public class DefaultHandleTracker extends AbstractTool implements HandleTracker
     anchor = new Point(evt.getX(), evt.getY());
     multicaster.trackStart(anchor, evt.getModifiersEx(), getView());
     clearHoverHandles();
+    Set<Figure> changedFigures = new HashSet<>(getView().getSelectedFigures());
+    changedFigures.add(masterHandle.getOwner());
+    getView().beginInteraction(changedFigures);
   }
 
   @Override
   public void mouseReleased(MouseEvent evt) {
     dragLocation = new Point(evt.getX(), evt.getY());
     multicaster.trackEnd(anchor, dragLocation, evt.getModifiersEx(), getView());
+    getView().endInteraction();
     // Note: we must not fire "Tool Done" in this method, because then we can not
     // listen to keyboard events for the handle.
     Rectangle r = new Rectangle(anchor.x, anchor.y, 0, 0);
@@ -7,6 +7,8 @@
  */
 package org.jhotdraw.draw.tool;
 
+import static org.jhotdraw.draw.AttributeKeys.TRANSFORM;
+
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Container;
@@ -16,13 +18,19 @@ import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import org.jhotdraw.draw.Drawing;
 import org.jhotdraw.draw.DrawingEditor;
 import org.jhotdraw.draw.DrawingView;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.draw.handle.Handle;
+import org.jhotdraw.geom.Geom;
 
 /**
  * <code>DefaultSelectAreaTracker</code> implements interactions with the background area of a
@@ -59,6 +67,15 @@ public class DefaultSelectAreaTracker extends AbstractTool implements SelectArea
   /** Rubberband stroke. */
   private Stroke rubberbandStroke = new BasicStroke();
 
+  /**
+   * The selectable figures which lie within the rubberband. The set is updated incrementally while
+   * the rubberband is dragged, and is shown as a preview of the selection.
+   */
+  private final Set<Figure> previewFigures = new HashSet<>();
+
+  /** Color of the preview. When this is null, the tracker does not draw the preview. */
+  private Color previewColor = new Color(0x8080c0ff, true);
+
   /**
    * The hover handles, are the handles of the figure over which the mouse pointer is currently
    * hovering.
@@ -84,6 +101,7 @@ public class DefaultSelectAreaTracker extends AbstractTool implements SelectArea
 
   @Override
   public void mouseDragged(MouseEvent evt) {
+    Rectangle oldRubberband = (Rectangle) rubberband.clone();
     Rectangle invalidatedArea = (Rectangle) rubberband.clone();
     rubberband.setBounds(
         Math.min(anchor.x, evt.getX()),
@@ -95,9 +113,105 @@ public class DefaultSelectAreaTracker extends AbstractTool implements SelectArea
     } else {
       invalidatedArea = invalidatedArea.union(rubberband);
     }
+    Rectangle previewArea = updatePreview(oldRubberband, rubberband);
+    if (previewArea != null) {
+      invalidatedArea.add(previewArea);
+    }
     fireAreaInvalidated(invalidatedArea);
   }
 
+  /**
+   * Updates the preview figures after the rubberband has changed. Only the figures which intersect
+   * the area that has been added to or removed from the rubberband can change their state, and only
+   * these figures are looked up in the drawing. A drawing without a spatial index has to look at
+   * all of its children for each lookup; such a drawing is searched only once, in the union of the
+   * old and the new rubberband.
+   *
+   * @return the area of the figures which have been added to or removed from the preview, in view
+   *     coordinates, or null
+   */
+  private Rectangle updatePreview(Rectangle oldRubberband, Rectangle newRubberband) {
+    DrawingView view = getView();
+    if (previewColor == null || view == null || view.getDrawing() == null) {
+      return null;
+    }
+    Drawing drawing = view.getDrawing();
+    Rectangle2D.Double bounds = view.viewToDrawing(newRubberband);
+    Rectangle invalidatedArea = null;
+    if (!drawing.isSpatiallyIndexed()) {
+      Rectangle area = oldRubberband.isEmpty() ? newRubberband : oldRubberband.union(newRubberband);
+      for (Figure f : drawing.findFigures(view.viewToDrawing(area))) {
+        boolean isPreviewed = f.isSelectable() && isWithin(f, bounds);
+        if (isPreviewed ? previewFigures.add(f) : previewFigures.remove(f)) {
+          invalidatedArea = add(invalidatedArea, view.drawingToView(f.getBounds()));
+        }
+      }
+      return invalidatedArea;
+    }
+    for (Rectangle r : subtract(oldRubberband, newRubberband)) {
+      for (Figure f : drawing.findFigures(view.viewToDrawing(r))) {
+        if (previewFigures.contains(f) && !isWithin(f, bounds)) {
+          previewFigures.remove(f);
+          invalidatedArea = add(invalidatedArea, view.drawingToView(f.getBounds()));
+        }
+      }
+    }
+    for (Rectangle r : subtract(newRubberband, oldRubberband)) {
+      for (Figure f : drawing.findFigures(view.viewToDrawing(r))) {
+        if (!previewFigures.contains(f) && f.isSelectable() && isWithin(f, bounds)) {
+          previewFigures.add(f);
+          invalidatedArea = add(invalidatedArea, view.drawingToView(f.getBounds()));
+        }
+      }
+    }
+    return invalidatedArea;
+  }
+
+  /**
+   * Returns true, if the figure lies within the bounds, as in {@link Drawing#findFiguresWithin}.
+   */
+  private static boolean isWithin(Figure f, Rectangle2D.Double bounds) {
+    Rectangle2D r = f.getBounds();
+    if (f.attr().get(TRANSFORM) != null) {
+      r = f.attr().get(TRANSFORM).createTransformedShape(r).getBounds2D();
+    }
+    return f.isVisible() && Geom.contains(bounds, r);
+  }
+
+  /** Returns the rectangles which cover the area of a, which is not covered by b. */
+  private static List<Rectangle> subtract(Rectangle a, Rectangle b) {
+    if (a.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Rectangle i = a.intersection(b);
+    if (b.isEmpty() || i.isEmpty()) {
+      return Collections.singletonList(a);
+    }
+    List<Rectangle> result = new ArrayList<>(4);
+    if (i.y > a.y) {
+      result.add(new Rectangle(a.x, a.y, a.width, i.y - a.y));
+    }
+    if (i.y + i.height < a.y + a.height) {
+      result.add(new Rectangle(a.x, i.y + i.height, a.width, a.y + a.height - i.y - i.height));
+    }
+    if (i.x > a.x) {
+      result.add(new Rectangle(a.x, i.y, i.x - a.x, i.height));
+    }
+    if (i.x + i.width < a.x + a.width) {
+      result.add(new Rectangle(i.x + i.width, i.y, a.x + a.width - i.x - i.width, i.height));
+    }
+    return result;
+  }
+
+  private static Rectangle add(Rectangle area, Rectangle r) {
+    r.grow(1, 1);
+    if (area == null) {
+      return r;
+    }
+    area.add(r);
+    return area;
+  }
+
   @Override
   public void mouseMoved(MouseEvent evt) {
     clearRubberBand();
@@ -137,13 +251,31 @@ public class DefaultSelectAreaTracker extends AbstractTool implements SelectArea
 
   private void clearRubberBand() {
     if (!rubberband.isEmpty()) {
-      fireAreaInvalidated(rubberband);
+      Rectangle invalidatedArea = (Rectangle) rubberband.clone();
+      DrawingView view = getView();
+      if (view != null) {
+        for (Figure f : previewFigures) {
+          invalidatedArea = add(invalidatedArea, view.drawingToView(f.getBounds()));
+        }
+      }
+      previewFigures.clear();
+      fireAreaInvalidated(invalidatedArea);
       rubberband.width = -1;
     }
   }
 
   @Override
   public void draw(Graphics2D g) {
+    if (previewColor != null && !previewFigures.isEmpty()) {
+      Rectangle clip = g.getClipBounds();
+      g.setColor(previewColor);
+      for (Figure f : previewFigures) {
+        Rectangle r = getView().drawingToView(f.getBounds());
+        if (clip == null || clip.intersects(r)) {
+          g.drawRect(r.x, r.y, r.width, r.height);
+        }
+      }
+    }
     g.setStroke(rubberbandStroke);
     g.setColor(rubberbandColor);
     g.drawRect(rubberband.x, rubberband.y, rubberband.width - 1, rubberband.height - 1);
@@ -156,11 +288,16 @@ public class DefaultSelectAreaTracker extends AbstractTool implements SelectArea
 
   private void selectGroup(boolean toggle) {
     Collection<Figure> figures = getView().findFiguresWithin(rubberband);
+    List<Figure> selectable = new ArrayList<>(figures.size());
     for (Figure f : figures) {
       if (f.isSelectable()) {
-        getView().addToSelection(f);
+        selectable.add(f);
       }
     }
+    if (!selectable.isEmpty()) {
+      // add all figures at once, so that only one selection event is fired
+      getView().addToSelection(selectable);
+    }
   }
 
   protected void clearHoverHandles() {
@@ -0,0 +1,189 @@
+/*
+ * @(#)BandRendererTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jhotdraw.draw.AttributeKeys.FILL_COLOR;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class BandRendererTest {
+
+  /** Blocks the thread which draws it, until it is released. */
+  private static class BlockingFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    private final CountDownLatch drawing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    BlockingFigure(double x, double y, double width, double height) {
+      super(x, y, width, height);
+    }
+
+    @Override
+    public void draw(Graphics2D g) {
+      drawing.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      super.draw(g);
+    }
+  }
+
+  /** Fails to draw itself. */
+  private static class FailingFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+
+    FailingFigure(double x, double y, double width, double height) {
+      super(x, y, width, height);
+    }
+
+    @Override
+    public void draw(Graphics2D g) {
+      throw new IllegalStateException("broken figure");
+    }
+  }
+
+  private final List<Rectangle> doneBands = new ArrayList<>();
+  private final List<Rectangle> failedBands = new ArrayList<>();
+  private final CountDownLatch lastBand = new CountDownLatch(1);
+
+  private final DefaultDrawingView view =
+      new DefaultDrawingView() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void bandDone(Rectangle band, boolean isRendered, boolean isLastBand) {
+          doneBands.add(band);
+          if (!isRendered) {
+            failedBands.add(band);
+          }
+          if (isLastBand) {
+            lastBand.countDown();
+          }
+        }
+      };
+
+  private final BandRenderer renderer = new BandRenderer(view);
+  private final BufferedImage image = new BufferedImage(200, 400, BufferedImage.TYPE_INT_ARGB);
+
+  private void startRendering(Drawing drawing, Rectangle area) throws Exception {
+    SwingUtilities.invokeAndWait(() -> renderer.render(drawing, area, new AffineTransform()));
+  }
+
+  /** Waits for the last band, and composites the bands into the image. */
+  private void composite(Drawing drawing) throws Exception {
+    assertThat(lastBand.await(10, TimeUnit.SECONDS)).isTrue();
+    SwingUtilities.invokeAndWait(
+        () -> {
+          assertThat(renderer.needsCompositing()).isTrue();
+          Graphics2D g = image.createGraphics();
+          renderer.composite(g, drawing, new AffineTransform());
+          g.dispose();
+          assertThat(renderer.getRenderingArea()).isNull();
+        });
+  }
+
+  @Test
+  public void testBandsCoverTheRenderedArea() throws Exception {
+    DefaultDrawing drawing = new DefaultDrawing();
+    RectangleFigure f = new RectangleFigure(50, 50, 100, 300);
+    f.attr().set(FILL_COLOR, Color.RED);
+    drawing.add(f);
+    Rectangle area = new Rectangle(0, 200, 200, 200);
+    startRendering(drawing, area);
+    composite(drawing);
+    assertThat(failedBands).isEmpty();
+    Rectangle covered = new Rectangle(doneBands.get(0));
+    for (Rectangle band : doneBands) {
+      covered.add(band);
+    }
+    assertThat(covered).isEqualTo(area);
+    assertThat(image.getRGB(100, 300)).isEqualTo(Color.RED.getRGB());
+    // only the rendered area has been drawn
+    assertThat(image.getRGB(100, 100)).isZero();
+  }
+
+  @Test
+  public void testEventDispatchThreadDoesNotWaitForBands() throws Exception {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    BlockingFigure blocking = new BlockingFigure(0, 0, 200, 400);
+    drawing.add(blocking);
+    RectangleFigure moved = new RectangleFigure(0, 0, 20, 20);
+    drawing.add(moved);
+    try {
+      startRendering(drawing, new Rectangle(0, 0, 200, 400));
+      assertThat(blocking.drawing.await(10, TimeUnit.SECONDS)).isTrue();
+      // A worker holds the read lock, and still the figures can be changed without waiting
+      SwingUtilities.invokeAndWait(
+          () -> {
+            assertThat(renderer.getRenderingArea()).isEqualTo(new Rectangle(0, 0, 200, 400));
+            moved.willChange();
+            moved.setBounds(new Point2D.Double(100, 300), new Point2D.Double(120, 320));
+            moved.changed();
+          });
+      assertThat(lastBand.getCount()).isEqualTo(1);
+    } finally {
+      blocking.release.countDown();
+    }
+    composite(drawing);
+    // The change of the index has been deferred until the workers were done
+    assertThat(drawing.findFigures(new Rectangle2D.Double(105, 305, 5, 5))).contains(moved);
+    assertThat(drawing.findFigures(new Rectangle2D.Double(5, 5, 5, 5))).doesNotContain(moved);
+  }
+
+  @Test
+  public void testFailedBandsAreReported() throws Exception {
+    DefaultDrawing drawing = new DefaultDrawing();
+    drawing.add(new RectangleFigure(0, 0, 200, 20));
+    drawing.add(new FailingFigure(0, 350, 200, 20));
+    startRendering(drawing, new Rectangle(0, 0, 200, 400));
+    composite(drawing);
+    assertThat(failedBands).isNotEmpty();
+    Rectangle failed = new Rectangle(failedBands.get(0));
+    for (Rectangle band : failedBands) {
+      failed.add(band);
+    }
+    assertThat(failed.contains(new Rectangle(0, 350, 200, 20))).isTrue();
+    assertThat(failed.contains(0, 10)).isFalse();
+  }
+
+  @Test
+  public void testBandsOfAnotherTransformAreDiscarded() throws Exception {
+    DefaultDrawing drawing = new DefaultDrawing();
+    RectangleFigure f = new RectangleFigure(0, 0, 200, 400);
+    f.attr().set(FILL_COLOR, Color.RED);
+    drawing.add(f);
+    startRendering(drawing, new Rectangle(0, 0, 200, 400));
+    assertThat(lastBand.await(10, TimeUnit.SECONDS)).isTrue();
+    SwingUtilities.invokeAndWait(
+        () -> {
+          Graphics2D g = image.createGraphics();
+          renderer.composite(g, drawing, AffineTransform.getScaleInstance(2, 2));
+          g.dispose();
+          assertThat(renderer.needsCompositing()).isFalse();
+        });
+    assertThat(image.getRGB(100, 100)).isZero();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * @(#)ConnectionIndexTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import org.jhotdraw.draw.connector.ChopRectangleConnector;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.LineConnectionFigure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConnectionIndexTest {
+
+  private DefaultDrawing drawing;
+  private RectangleFigure start;
+  private RectangleFigure end;
+  private CountingConnectionFigure connection;
+
+  @BeforeEach
+  public void setUp() {
+    drawing = new DefaultDrawing();
+    start = new RectangleFigure(0, 0, 10, 10);
+    end = new RectangleFigure(100, 100, 10, 10);
+    connection = new CountingConnectionFigure();
+    drawing.add(start);
+    drawing.add(end);
+    drawing.add(connection);
+    connection.setStartConnector(new ChopRectangleConnector(start));
+    connection.setEndConnector(new ChopRectangleConnector(end));
+  }
+
+  @Test
+  public void testFindConnections() {
+    assertThat(drawing.findConnections(start)).containsExactly(connection);
+    assertThat(drawing.findConnections(end)).containsExactly(connection);
+    drawing.remove(connection);
+    assertThat(drawing.findConnections(start)).isEmpty();
+  }
+
+  @Test
+  public void testReconnectUpdatesIndex() {
+    RectangleFigure other = new RectangleFigure(50, 50, 10, 10);
+    drawing.add(other);
+    connection.setEndConnector(new ChopRectangleConnector(other));
+    assertThat(drawing.findConnections(end)).isEmpty();
+    assertThat(drawing.findConnections(other)).containsExactly(connection);
+  }
+
+  @Test
+  public void testBatchUpdatesConnectionOnce() {
+    AffineTransform tx = AffineTransform.getTranslateInstance(5, 5);
+    connection.updateCount = 0;
+    drawing.beginConnectionUpdate();
+    for (Figure f : new Figure[] {start, end}) {
+      f.willChange();
+      f.transform(tx);
+      f.changed();
+    }
+    assertThat(connection.updateCount).isZero();
+    drawing.endConnectionUpdate();
+    assertThat(connection.updateCount).isEqualTo(1);
+    assertThat(connection.getStartPoint()).isNotEqualTo(new Point2D.Double(10, 10));
+  }
+
+  private static class CountingConnectionFigure extends LineConnectionFigure {
+
+    private static final long serialVersionUID = 1L;
+    private int updateCount;
+
+    @Override
+    public void updateConnection() {
+      updateCount++;
+      super.updateConnection();
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * @(#)DefaultDrawingViewTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Point;
+import java.awt.geom.Point2D;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.jhotdraw.draw.handle.AbstractHandle;
+import org.jhotdraw.draw.handle.Handle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DefaultDrawingViewTest {
+
+  /** A handle at the top left corner of its owner. */
+  private static class CornerHandle extends AbstractHandle {
+
+    private final boolean isCombinable;
+    private boolean isDisposed;
+
+    CornerHandle(Figure owner, boolean isCombinable) {
+      super(owner);
+      this.isCombinable = isCombinable;
+    }
+
+    @Override
+    protected Point2D.Double getDrawingLocation() {
+      return getOwner().getStartPoint();
+    }
+
+    @Override
+    public boolean isCombinableWith(Handle handle) {
+      return isCombinable && super.isCombinableWith(handle);
+    }
+
+    @Override
+    public void dispose() {
+      isDisposed = true;
+      super.dispose();
+    }
+
+    void requestRemove() {
+      fireHandleRequestRemove(getDrawingArea());
+    }
+  }
+
+  /** Counts how often its handles have been created. Only has handles at detail level 0. */
+  private static class CountingFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    private final boolean hasCombinableHandles;
+    private int createCount;
+
+    CountingFigure(double x, double y, boolean hasCombinableHandles) {
+      super(x, y, 40, 40);
+      this.hasCombinableHandles = hasCombinableHandles;
+    }
+
+    @Override
+    public Collection<Handle> createHandles(int detailLevel) {
+      createCount++;
+      List<Handle> handles = new ArrayList<>();
+      if (detailLevel == 0) {
+        handles.add(new CornerHandle(this, hasCombinableHandles));
+      }
+      return handles;
+    }
+  }
+
+  private final DefaultDrawingView view = new DefaultDrawingView();
+  private final DefaultDrawing drawing = new DefaultDrawing();
+
+  @BeforeEach
+  public void setUp() {
+    view.setDrawing(drawing);
+    view.setSize(400, 400);
+    view.addNotify(createEditor());
+  }
+
+  /** Creates an editor which answers handle attributes with their default values. */
+  private DrawingEditor createEditor() {
+    return (DrawingEditor)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {DrawingEditor.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getHandleAttribute":
+                  return ((AttributeKey<?>) args[0]).getDefaultValue();
+                case "getActiveView":
+                  return view;
+                default:
+                  return method.getReturnType() == boolean.class ? false : null;
+              }
+            });
+  }
+
+  private CountingFigure select(double x, double y, boolean hasCombinableHandles) {
+    CountingFigure f = new CountingFigure(x, y, hasCombinableHandles);
+    drawing.add(f);
+    view.addToSelection(f);
+    return f;
+  }
+
+  private Point corner(Figure f) {
+    return view.drawingToView(f.getStartPoint());
+  }
+
+  @Test
+  public void testHandlesAreCreatedWhenTheyAreHit() {
+    CountingFigure near = select(20, 20, true);
+    CountingFigure far = select(300, 300, true);
+    Handle handle = view.findHandle(corner(near));
+    assertThat(handle).isInstanceOf(CornerHandle.class);
+    assertThat(handle.getOwner()).isSameAs(near);
+    assertThat(near.createCount).isEqualTo(1);
+    assertThat(far.createCount).isZero();
+    assertThat(view.findHandle(corner(near))).isSameAs(handle);
+    assertThat(near.createCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testLargeSelectionIsAggregated() {
+    view.setHandleAggregationThreshold(2);
+    CountingFigure first = select(20, 20, true);
+    select(100, 20, true);
+    CountingFigure third = select(200, 20, true);
+    // The aggregate handle is not interactive
+    assertThat(view.findHandle(corner(first))).isNull();
+    assertThat(first.createCount).isZero();
+
+    view.removeFromSelection(third);
+    Handle handle = view.findHandle(corner(first));
+    assertThat(handle).isInstanceOf(CornerHandle.class);
+    assertThat(first.createCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testRemovedHandleIsDisposed() {
+    CountingFigure f = select(20, 20, true);
+    CornerHandle handle = (CornerHandle) view.findHandle(corner(f));
+    handle.requestRemove();
+    assertThat(handle.isDisposed).isTrue();
+    Handle recreated = view.findHandle(corner(f));
+    assertThat(recreated).isNotNull().isNotSameAs(handle);
+    assertThat(f.createCount).isEqualTo(2);
+  }
+
+  @Test
+  public void testDetailLevelFallsBackToZero() {
+    CountingFigure f = select(20, 20, true);
+    view.setHandleDetailLevel(1);
+    assertThat(view.getHandleDetailLevel()).isZero();
+    assertThat(view.findHandle(corner(f))).isInstanceOf(CornerHandle.class);
+  }
+
+  @Test
+  public void testCompatibleHandlesAreOnlyCreatedIfCombinable() {
+    CountingFigure first = select(20, 20, true);
+    CountingFigure second = select(300, 300, true);
+    Handle master = view.findHandle(corner(first));
+    Collection<Handle> compatible = view.getCompatibleHandles(master);
+    assertThat(compatible).hasSize(2).contains(master);
+    assertThat(second.createCount).isEqualTo(1);
+
+    view.clearSelection();
+    CountingFigure third = select(20, 100, false);
+    CountingFigure fourth = select(300, 100, false);
+    master = view.findHandle(corner(third));
+    assertThat(view.getCompatibleHandles(master)).containsExactly(master);
+    assertThat(fourth.createCount).isZero();
+  }
+}
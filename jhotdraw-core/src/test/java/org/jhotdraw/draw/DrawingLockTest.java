@@ -0,0 +1,196 @@
+/*
+ * @(#)DrawingLockTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class DrawingLockTest {
+
+  @Test
+  public void testEachDrawingHasItsOwnLock() throws Exception {
+    QuadTreeDrawing busy = new QuadTreeDrawing();
+    QuadTreeDrawing other = new QuadTreeDrawing();
+    other.add(new RectangleFigure(0, 0, 10, 10));
+    busy.getReadWriteLock().writeLock().lock();
+    try {
+      CompletableFuture.runAsync(() -> draw(other)).get(10, TimeUnit.SECONDS);
+    } finally {
+      busy.getReadWriteLock().writeLock().unlock();
+    }
+  }
+
+  @Test
+  public void testDrawingCanNotChangeWhileItIsRead() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    drawing.add(new RectangleFigure(0, 0, 10, 10));
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      assertThatThrownBy(() -> drawing.add(new RectangleFigure(20, 0, 10, 10)))
+          .isInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(() -> drawing.basicRemoveChild(0))
+          .isInstanceOf(IllegalStateException.class);
+    } finally {
+      readLock.unlock();
+    }
+    assertThat(drawing.getChildCount()).isEqualTo(1);
+    drawing.add(new RectangleFigure(20, 0, 10, 10));
+    assertThat(drawing.getChildCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDrawingCanBeReadWhileItIsWritten() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    drawing.getReadWriteLock().writeLock().lock();
+    try {
+      drawing.add(new RectangleFigure(0, 0, 10, 10));
+      assertThat(drawing.findFigures(new Rectangle2D.Double(0, 0, 5, 5))).hasSize(1);
+    } finally {
+      drawing.getReadWriteLock().writeLock().unlock();
+    }
+  }
+
+  @Test
+  public void testHitTestsWaitForWriter() throws Exception {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    drawing.add(new RectangleFigure(0, 0, 10, 10));
+    Point2D.Double p = new Point2D.Double(5, 5);
+    List<Callable<Object>> hitTests =
+        List.of(
+            () -> drawing.findFigure(p),
+            () -> drawing.findFigureInside(p),
+            () -> drawing.findFigureExcept(p, (Figure) null),
+            () -> drawing.findFigureExcept(p, Collections.emptySet()),
+            () -> drawing.getChildren(new Rectangle2D.Double(-1, -1, 20, 20)));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      for (Callable<Object> hitTest : hitTests) {
+        Future<Object> result;
+        drawing.getReadWriteLock().writeLock().lock();
+        try {
+          result = executor.submit(hitTest);
+          assertThatThrownBy(() -> result.get(50, TimeUnit.MILLISECONDS))
+              .isInstanceOf(TimeoutException.class);
+        } finally {
+          drawing.getReadWriteLock().writeLock().unlock();
+        }
+        assertThat(result.get(10, TimeUnit.SECONDS)).isNotNull();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Moves itself when it is drawn for the first time, like a figure with a lazy layout. */
+  private static class MovingFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    private boolean isLaidOut;
+
+    MovingFigure() {
+      super(0, 0, 10, 10);
+    }
+
+    @Override
+    public void draw(Graphics2D g) {
+      if (!isLaidOut) {
+        isLaidOut = true;
+        willChange();
+        transform(AffineTransform.getTranslateInstance(100, 0));
+        changed();
+      }
+      super.draw(g);
+    }
+  }
+
+  @Test
+  public void testFigureCanChangeWhileItIsDrawn() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    MovingFigure f = new MovingFigure();
+    drawing.add(f);
+    draw(drawing);
+    assertThat(drawing.findFigures(new Rectangle2D.Double(100, 0, 10, 10))).containsExactly(f);
+    assertThat(drawing.findFigures(new Rectangle2D.Double(0, 0, 5, 5))).isEmpty();
+  }
+
+  @Test
+  public void testChangeIsDeferredUntilTheReadLockIsReleased() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    RectangleFigure f = new RectangleFigure(0, 0, 10, 10);
+    drawing.add(f);
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      readLock.lock();
+      f.willChange();
+      f.transform(AffineTransform.getTranslateInstance(100, 0));
+      f.changed();
+      readLock.unlock();
+      // The quad tree is updated when the outermost read lock is released
+      assertThat(drawing.findFigures(new Rectangle2D.Double(100, 0, 10, 10))).isEmpty();
+    } finally {
+      readLock.unlock();
+    }
+    assertThat(drawing.findFigures(new Rectangle2D.Double(100, 0, 10, 10))).containsExactly(f);
+  }
+
+  @Test
+  public void testChildrenAreSortedWhileTheDrawingIsRead() {
+    DefaultDrawing drawing = new DefaultDrawing();
+    RectangleFigure front =
+        new RectangleFigure(0, 0, 10, 10) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          public int getLayer() {
+            return 1;
+          }
+        };
+    RectangleFigure back = new RectangleFigure(0, 0, 10, 10);
+    drawing.add(front);
+    drawing.add(back);
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      assertThat(drawing.getFiguresFrontToBack()).containsExactly(front, back);
+      draw(drawing);
+    } finally {
+      readLock.unlock();
+    }
+    // The children are sorted in place, once the drawing is no longer read
+    assertThat(drawing.getFiguresFrontToBack()).containsExactly(front, back);
+    assertThat(drawing.getChildren()).containsExactly(back, front);
+  }
+
+  private static void draw(Drawing drawing) {
+    BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    drawing.draw(g);
+    g.dispose();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * @(#)InteractionLayersTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jhotdraw.draw.AttributeKeys.FILL_COLOR;
+import static org.jhotdraw.draw.AttributeKeys.STROKE_COLOR;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class InteractionLayersTest {
+
+  private final DefaultDrawingView view = new DefaultDrawingView();
+  private final List<RenderStatistics> frames = new ArrayList<>();
+
+  private static RectangleFigure createFigure(double x, Color color) {
+    RectangleFigure f = new RectangleFigure(x, 10, 40, 40);
+    f.attr().set(FILL_COLOR, color);
+    f.attr().set(STROKE_COLOR, null);
+    return f;
+  }
+
+  private static void move(Figure f, double dx) {
+    f.willChange();
+    f.transform(AffineTransform.getTranslateInstance(dx, 0));
+    f.changed();
+  }
+
+  private BufferedImage paint() {
+    BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.clipRect(0, 0, 200, 100);
+    view.paintComponent(g);
+    g.dispose();
+    return image;
+  }
+
+  @Test
+  public void testOnlyActiveFiguresAreRedrawn() {
+    DefaultDrawing drawing = new DefaultDrawing();
+    RectangleFigure back = createFigure(0, Color.RED);
+    RectangleFigure active = createFigure(30, Color.GREEN);
+    RectangleFigure front = createFigure(60, Color.BLUE);
+    drawing.add(back);
+    drawing.add(active);
+    drawing.add(front);
+    view.setDrawing(drawing);
+    view.setSize(200, 100);
+    view.addRenderListener(e -> frames.add(e.getStatistics()));
+
+    view.beginInteraction(List.of(active));
+    paint();
+    assertThat(frames.get(0).getFiguresDrawn()).isEqualTo(3);
+
+    move(active, 10);
+    BufferedImage image = paint();
+    assertThat(frames.get(1).getBufferState()).isEqualTo(RenderStatistics.BufferState.LAYERED);
+    assertThat(frames.get(1).getFiguresDrawn()).isEqualTo(1);
+    // the front figure stays in front of the moved figure
+    assertThat(image.getRGB(75, 30)).isEqualTo(Color.BLUE.getRGB());
+    assertThat(image.getRGB(55, 30)).isEqualTo(Color.GREEN.getRGB());
+
+    move(back, -5);
+    paint();
+    assertThat(frames.get(2).getFiguresDrawn()).isGreaterThan(1);
+
+    view.endInteraction();
+    view.setDrawingDoubleBuffered(false);
+    paint();
+    assertThat(frames.get(3).getBufferState()).isEqualTo(RenderStatistics.BufferState.UNBUFFERED);
+  }
+
+  @Test
+  public void testOnlyFiguresInTheDirtyAreaAreQueried() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    RectangleFigure back = createFigure(0, Color.RED);
+    RectangleFigure active = createFigure(60, Color.GREEN);
+    drawing.add(back);
+    drawing.add(active);
+    for (int i = 0; i < 1000; i++) {
+      drawing.add(createFigure(1000 + i * 50, Color.BLUE));
+    }
+    view.setDrawing(drawing);
+    view.setSize(200, 100);
+    view.addRenderListener(e -> frames.add(e.getStatistics()));
+
+    view.beginInteraction(List.of(active));
+    paint();
+    move(back, 5);
+    paint();
+    RenderStatistics frame = frames.get(frames.size() - 1);
+    assertThat(frame.getBufferState()).isEqualTo(RenderStatistics.BufferState.LAYERED);
+    assertThat(frame.getFiguresQueried()).isBetween(1, 2);
+    assertThat(frame.getFiguresCulled()).isLessThan(10);
+  }
+}
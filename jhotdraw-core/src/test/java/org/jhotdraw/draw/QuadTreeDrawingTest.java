@@ -0,0 +1,46 @@
+/*
+ * @(#)QuadTreeDrawingTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class QuadTreeDrawingTest {
+
+  @Test
+  public void testFindFiguresWithinMatchesLinearScan() {
+    QuadTreeDrawing indexed = new QuadTreeDrawing();
+    DefaultDrawing linear = new DefaultDrawing();
+    for (int i = 0; i < 50; i++) {
+      for (int j = 0; j < 50; j++) {
+        Figure f = new RectangleFigure(i * 20, j * 20, 10 + i % 3 * 10, 10);
+        if ((i + j) % 7 == 0) {
+          f.transform(AffineTransform.getRotateInstance(0.3, i * 20, j * 20));
+        }
+        indexed.add(f);
+        linear.basicAdd(f);
+      }
+    }
+    Rectangle2D.Double[] queries = {
+      new Rectangle2D.Double(0, 0, 1000, 1000),
+      new Rectangle2D.Double(95, 95, 310, 207),
+      new Rectangle2D.Double(-5, 400, 60, 30),
+      new Rectangle2D.Double(2000, 2000, 10, 10)
+    };
+    for (Rectangle2D.Double q : queries) {
+      assertThat(indexed.findFiguresWithin(q))
+          .containsExactlyInAnyOrderElementsOf(linear.findFiguresWithin(q));
+    }
+    assertThat(indexed.findFiguresWithin(queries[1])).isNotEmpty();
+  }
+}
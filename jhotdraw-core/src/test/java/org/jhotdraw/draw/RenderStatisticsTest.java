@@ -0,0 +1,64 @@
+/*
+ * @(#)RenderStatisticsTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class RenderStatisticsTest {
+
+  @Test
+  public void testDrawingReportsCulledAndDrawnFigures() {
+    QuadTreeDrawing drawing = new QuadTreeDrawing();
+    for (int i = 0; i < 10; i++) {
+      drawing.add(new RectangleFigure(i * 100, 0, 50, 50));
+    }
+    BufferedImage image = new BufferedImage(250, 100, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.clipRect(0, 0, 250, 100);
+    assertThat(RenderStatistics.current()).isNull();
+    RenderStatistics stats = RenderStatistics.beginFrame(true);
+    try {
+      assertThat(RenderStatistics.current()).isSameAs(stats);
+      drawing.draw(g);
+    } finally {
+      stats.endFrame();
+      g.dispose();
+    }
+    assertThat(RenderStatistics.current()).isNull();
+    assertThat(stats.getFiguresQueried()).isEqualTo(3);
+    assertThat(stats.getFiguresDrawn()).isEqualTo(3);
+    assertThat(stats.getFigureClassNanos()).containsOnlyKeys(RectangleFigure.class);
+  }
+
+  @Test
+  public void testViewNotifiesRenderListeners() {
+    DefaultDrawingView view = new DefaultDrawingView();
+    view.setDrawingDoubleBuffered(false);
+    DefaultDrawing drawing = new DefaultDrawing();
+    drawing.add(new RectangleFigure(10, 10, 50, 50));
+    view.setDrawing(drawing);
+    view.setSize(200, 200);
+    List<RenderStatistics> frames = new ArrayList<>();
+    view.addRenderListener(e -> frames.add(e.getStatistics()));
+    BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.clipRect(0, 0, 200, 200);
+    view.paintComponent(g);
+    g.dispose();
+    assertThat(frames).hasSize(1);
+    assertThat(frames.get(0).getFiguresDrawn()).isEqualTo(1);
+    assertThat(frames.get(0).getBufferState()).isEqualTo(RenderStatistics.BufferState.UNBUFFERED);
+  }
+}
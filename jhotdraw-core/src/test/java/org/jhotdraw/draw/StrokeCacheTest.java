@@ -0,0 +1,90 @@
+/*
+ * @(#)StrokeCacheTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.BasicStroke;
+import java.awt.Stroke;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.jhotdraw.geom.DoubleStroke;
+import org.junit.jupiter.api.Test;
+
+public class StrokeCacheTest {
+
+  @Test
+  public void testEqualParametersShareStroke() {
+    StrokeCache cache = new StrokeCache(16);
+    Stroke a = cache.getBasicStroke(2f, 0, 0, 4f, new float[] {1f, 2f}, 0f);
+    Stroke b = cache.getBasicStroke(2f, 0, 0, 4f, new float[] {1f, 2f}, 0f);
+    Stroke c = cache.getBasicStroke(3f, 0, 0, 4f, new float[] {1f, 2f}, 0f);
+    assertThat(b).isSameAs(a);
+    assertThat(c).isNotSameAs(a);
+    assertThat(((BasicStroke) c).getLineWidth()).isEqualTo(3f);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDoubleStrokeIsNotMixedUpWithBasicStroke() {
+    StrokeCache cache = new StrokeCache(16);
+    Stroke basic = cache.getBasicStroke(2f, 0, 0, 4f, null, 0f);
+    Stroke dbl = cache.getDoubleStroke(0f, 2f, 0, 0, 4f, null, 0f);
+    assertThat(basic).isInstanceOf(BasicStroke.class);
+    assertThat(dbl).isInstanceOf(DoubleStroke.class);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedStrokeIsEvicted() {
+    StrokeCache cache = new StrokeCache(2);
+    Stroke a = cache.getBasicStroke(1f);
+    cache.getBasicStroke(2f);
+    cache.getBasicStroke(1f);
+    cache.getBasicStroke(3f);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getBasicStroke(1f)).isSameAs(a);
+  }
+
+  @Test
+  public void testFiguresWithSameStyleShareStroke() {
+    RectangleFigure r1 = new RectangleFigure(0, 0, 10, 10);
+    RectangleFigure r2 = new RectangleFigure(20, 20, 10, 10);
+    r1.attr().set(AttributeKeys.STROKE_DASHES, new double[] {4d, 2d});
+    r2.attr().set(AttributeKeys.STROKE_DASHES, new double[] {4d, 2d});
+    assertThat(AttributeKeys.getStroke(r2, 1.0)).isSameAs(AttributeKeys.getStroke(r1, 1.0));
+    assertThat(AttributeKeys.getHitStroke(r2, 1.0)).isSameAs(AttributeKeys.getHitStroke(r1, 1.0));
+  }
+
+  @Test
+  public void testCachedKeyOwnsItsDashes() {
+    StrokeCache cache = new StrokeCache(16);
+    float[] dashes = {1f, 2f};
+    Stroke a = cache.getBasicStroke(2f, 0, 0, 4f, dashes, 0f);
+    dashes[0] = 5f;
+    Stroke b = cache.getBasicStroke(2f, 0, 0, 4f, dashes, 0f);
+    assertThat(b).isNotSameAs(a);
+    assertThat(cache.getBasicStroke(2f, 0, 0, 4f, new float[] {1f, 2f}, 0f)).isSameAs(a);
+    assertThat(((BasicStroke) a).getDashArray()).containsExactly(1f, 2f);
+  }
+
+  @Test
+  public void testFigureKeepsStrokeUntilAttributesChange() {
+    RectangleFigure r = new RectangleFigure(0, 0, 10, 10);
+    r.attr().set(AttributeKeys.STROKE_DASHES, new double[] {4d, 2d});
+    Stroke stroke = AttributeKeys.getStroke(r, 1.0);
+    long lookups =
+        StrokeCache.getInstance().getHitCount() + StrokeCache.getInstance().getMissCount();
+    assertThat(AttributeKeys.getStroke(r, 1.0)).isSameAs(stroke);
+    assertThat(StrokeCache.getInstance().getHitCount() + StrokeCache.getInstance().getMissCount())
+        .isEqualTo(lookups);
+    r.attr().set(AttributeKeys.STROKE_WIDTH, 3d);
+    assertThat(((BasicStroke) AttributeKeys.getStroke(r, 1.0)).getLineWidth()).isEqualTo(3f);
+    r.attr().removeAttribute(AttributeKeys.STROKE_WIDTH);
+    assertThat(AttributeKeys.getStroke(r, 1.0)).isSameAs(stroke);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * @(#)CoalescingEventDispatcherTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingEventDispatcherTest {
+
+  @Test
+  public void testMergesDrawingEvents() throws Exception {
+    // Runs on the event dispatch thread, so that the scheduled flush cannot interfere.
+    SwingUtilities.invokeAndWait(this::mergeDrawingEvents);
+  }
+
+  private void mergeDrawingEvents() {
+    DefaultDrawing drawing = new DefaultDrawing();
+    List<DrawingEvent> added = new ArrayList<>();
+    List<DrawingEvent> changed = new ArrayList<>();
+    CoalescingEventDispatcher dispatcher =
+        new CoalescingEventDispatcher(
+            new DrawingListenerAdapter() {
+              @Override
+              public void figureAdded(DrawingEvent e) {
+                added.add(e);
+              }
+
+              @Override
+              public void drawingChanged(DrawingEvent e) {
+                changed.add(e);
+              }
+            },
+            null);
+    drawing.addDrawingListener(dispatcher);
+    RectangleFigure a = new RectangleFigure(0, 0, 10, 10);
+    RectangleFigure b = new RectangleFigure(20, 20, 10, 10);
+    RectangleFigure c = new RectangleFigure(50, 50, 10, 10);
+    drawing.add(a);
+    drawing.add(b);
+    drawing.add(c);
+    drawing.remove(c);
+    for (RectangleFigure f : List.of(a, b)) {
+      f.willChange();
+      f.transform(AffineTransform.getTranslateInstance(5, 5));
+      f.changed();
+    }
+    assertTrue(added.isEmpty());
+
+    dispatcher.flush();
+    assertEquals(1, added.size());
+    assertEquals(Set.of(a, b), ((CoalescedDrawingEvent) added.get(0)).getAddedFigures());
+    assertEquals(1, changed.size());
+    Rectangle2D.Double area = changed.get(0).getInvalidatedArea();
+    assertTrue(area.contains(a.getBounds()));
+    assertTrue(area.contains(b.getBounds()));
+
+    added.clear();
+    dispatcher.flush();
+    assertTrue(added.isEmpty());
+  }
+
+  @Test
+  public void testInvalidatedAreaIsAlwaysTheUnion() throws Exception {
+    SwingUtilities.invokeAndWait(this::computeUnion);
+  }
+
+  private void computeUnion() {
+    DefaultDrawing drawing = new DefaultDrawing();
+    List<DrawingEvent> events = new ArrayList<>();
+    CoalescingEventDispatcher dispatcher =
+        new CoalescingEventDispatcher(
+            new DrawingListenerAdapter() {
+              @Override
+              public void figureAdded(DrawingEvent e) {
+                events.add(e);
+              }
+
+              @Override
+              public void figureRemoved(DrawingEvent e) {
+                events.add(e);
+              }
+
+              @Override
+              public void drawingChanged(DrawingEvent e) {
+                events.add(e);
+              }
+            },
+            null);
+    RectangleFigure a = new RectangleFigure(0, 0, 10, 10);
+    RectangleFigure b = new RectangleFigure(100, 100, 10, 10);
+    drawing.add(a);
+    // Events without an area
+    dispatcher.figureRemoved(new DrawingEvent(drawing, 1, b));
+    dispatcher.figureAdded(new DrawingEvent(drawing, 0, a));
+    dispatcher.flush();
+    assertEquals(2, events.size());
+    for (DrawingEvent e : events) {
+      assertTrue(e.getInvalidatedArea().contains(a.getDrawingArea()));
+      assertTrue(e.getInvalidatedArea().contains(b.getDrawingArea()));
+    }
+
+    events.clear();
+    dispatcher.drawingChanged(new DrawingEvent(drawing, null));
+    dispatcher.flush();
+    assertEquals(1, events.size());
+    assertEquals(drawing.getDrawingArea(), events.get(0).getInvalidatedArea());
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * @(#)CompositeLayoutTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.geom.Point2D;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.draw.event.FigureEvent;
+import org.jhotdraw.draw.event.FigureListenerAdapter;
+import org.jhotdraw.draw.layouter.VerticalLayouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CompositeLayoutTest {
+
+  /** Counts how often it has been laid out. */
+  private static class CountingComposite extends GraphicalCompositeFigure {
+
+    private static final long serialVersionUID = 1L;
+    private int layoutCount;
+
+    CountingComposite() {
+      setLayouter(new VerticalLayouter());
+    }
+
+    @Override
+    public void layout(double scale) {
+      layoutCount++;
+      super.layout(scale);
+    }
+  }
+
+  private final CountingComposite parent = new CountingComposite();
+  private final CountingComposite first = new CountingComposite();
+  private final CountingComposite second = new CountingComposite();
+  private final RectangleFigure leaf = new RectangleFigure(0, 0, 20, 10);
+  private int changedCount;
+
+  @BeforeEach
+  public void setUp() {
+    first.add(new RectangleFigure(0, 0, 20, 10));
+    second.add(leaf);
+    parent.add(first);
+    parent.add(second);
+    parent.addFigureListener(
+        new FigureListenerAdapter() {
+          @Override
+          public void figureChanged(FigureEvent e) {
+            changedCount++;
+          }
+        });
+    parent.layout(1d);
+    parent.layoutCount = 0;
+    first.layoutCount = 0;
+    second.layoutCount = 0;
+  }
+
+  private void growLeaf() {
+    Point2D.Double start = leaf.getStartPoint();
+    Point2D.Double end = leaf.getEndPoint();
+    leaf.willChange();
+    leaf.setBounds(start, new Point2D.Double(end.x, end.y + 10));
+    leaf.changed();
+  }
+
+  @Test
+  public void testUnchangedSiblingIsNotLaidOut() {
+    double height = parent.getBounds().height;
+    growLeaf();
+    assertThat(second.layoutCount).isPositive();
+    assertThat(parent.layoutCount).isPositive();
+    assertThat(first.layoutCount).isZero();
+    assertThat(parent.getBounds().height).isEqualTo(height + 10);
+  }
+
+  @Test
+  public void testDeferredLayoutIsBatched() throws Exception {
+    parent.setLayoutDeferred(true);
+    SwingUtilities.invokeAndWait(
+        () -> {
+          growLeaf();
+          growLeaf();
+          assertThat(parent.layoutCount).isZero();
+        });
+    // The deferred layout runs in the next cycle of the event dispatch thread
+    SwingUtilities.invokeAndWait(() -> {});
+    assertThat(parent.layoutCount).isEqualTo(1);
+    assertThat(changedCount).isEqualTo(1);
+    assertThat(first.layoutCount).isZero();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * @(#)FigureParentTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.List;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.event.DrawingEvent;
+import org.jhotdraw.draw.event.DrawingListenerAdapter;
+import org.jhotdraw.draw.event.FigureEvent;
+import org.jhotdraw.draw.event.FigureListener;
+import org.jhotdraw.draw.event.FigureListenerAdapter;
+import org.junit.jupiter.api.Test;
+
+public class FigureParentTest {
+
+  private static void move(Figure f) {
+    f.willChange();
+    f.transform(AffineTransform.getTranslateInstance(5, 5));
+    f.changed();
+  }
+
+  @Test
+  public void testDrawingIsNotifiedThroughParent() {
+    DefaultDrawing drawing = new DefaultDrawing();
+    RectangleFigure f = new RectangleFigure(0, 0, 10, 10);
+    List<DrawingEvent> events = new ArrayList<>();
+    drawing.addDrawingListener(
+        new DrawingListenerAdapter() {
+          @Override
+          public void drawingChanged(DrawingEvent e) {
+            events.add(e);
+          }
+        });
+    drawing.add(f);
+    assertNotNull(f.getParent());
+    move(f);
+    assertFalse(events.isEmpty());
+
+    drawing.remove(f);
+    assertNull(f.getParent());
+    events.clear();
+    move(f);
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void testSecondParentFallsBackToListener() {
+    DefaultDrawing first = new DefaultDrawing();
+    DefaultDrawing second = new DefaultDrawing();
+    RectangleFigure f = new RectangleFigure(0, 0, 10, 10);
+    first.basicAdd(f);
+    second.basicAdd(f);
+    List<DrawingEvent> events = new ArrayList<>();
+    second.addDrawingListener(
+        new DrawingListenerAdapter() {
+          @Override
+          public void drawingChanged(DrawingEvent e) {
+            events.add(e);
+          }
+        });
+    first.remove(f);
+    move(f);
+    assertFalse(events.isEmpty());
+  }
+
+  @Test
+  public void testListenerCanRemoveItselfWhileNotified() {
+    RectangleFigure f = new RectangleFigure(0, 0, 10, 10);
+    List<String> calls = new ArrayList<>();
+    FigureListener first =
+        new FigureListenerAdapter() {
+          @Override
+          public void figureChanged(FigureEvent e) {
+            calls.add("first");
+            f.removeFigureListener(this);
+          }
+        };
+    FigureListener second =
+        new FigureListenerAdapter() {
+          @Override
+          public void figureChanged(FigureEvent e) {
+            calls.add("second");
+          }
+        };
+    f.addFigureListener(first);
+    f.addFigureListener(second);
+    f.addFigureListener(second);
+    move(f);
+    move(f);
+    assertEquals(List.of("first", "second", "second"), calls);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * @(#)GeometryCacheTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import org.jhotdraw.draw.AttributeKeys;
+import org.jhotdraw.geom.path.BezierPath;
+import org.junit.jupiter.api.Test;
+
+public class GeometryCacheTest {
+
+  private static class CountingBezierFigure extends BezierFigure {
+
+    private static final long serialVersionUID = 1L;
+    int boundsComputed;
+
+    @Override
+    protected Rectangle2D.Double computeBounds(double scale) {
+      boundsComputed++;
+      return super.computeBounds(scale);
+    }
+  }
+
+  private static class CountingRectangleFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    int drawingAreaComputed;
+
+    CountingRectangleFigure() {
+      super(0, 0, 100, 50);
+    }
+
+    @Override
+    protected Rectangle2D.Double computeDrawingArea(double scale) {
+      drawingAreaComputed++;
+      return super.computeDrawingArea(scale);
+    }
+  }
+
+  private static CountingBezierFigure createLine() {
+    CountingBezierFigure f = new CountingBezierFigure();
+    f.setBounds(new Point2D.Double(0, 0), new Point2D.Double(100, 50));
+    f.boundsComputed = 0;
+    return f;
+  }
+
+  @Test
+  public void testCachesMostRecentlyUsedScales() {
+    CountingBezierFigure f = createLine();
+    assertEquals(new Rectangle2D.Double(0, 0, 100, 50), f.getBounds(1.0));
+    f.getBounds(1.0);
+    f.getBounds(2.0);
+    f.getBounds(1.0);
+    f.getBounds(2.0);
+    assertEquals(2, f.boundsComputed);
+    f.getBounds(3.0);
+    f.getBounds(1.0);
+    assertEquals(4, f.boundsComputed);
+  }
+
+  @Test
+  public void testReturnsCopies() {
+    CountingBezierFigure f = createLine();
+    f.getBounds(1.0).width = 0;
+    assertEquals(100, f.getBounds(1.0).width);
+  }
+
+  @Test
+  public void testInvalidatedByChange() {
+    CountingBezierFigure f = createLine();
+    Rectangle2D.Double area = f.getDrawingArea(1.0);
+    f.willChange();
+    f.transform(AffineTransform.getTranslateInstance(10, 20));
+    f.changed();
+    assertEquals(new Rectangle2D.Double(10, 20, 100, 50), f.getBounds(1.0));
+    Rectangle2D.Double moved = f.getDrawingArea(1.0);
+    assertEquals(area.x + 10, moved.x, 1e-9);
+    assertEquals(area.y + 20, moved.y, 1e-9);
+  }
+
+  @Test
+  public void testInvalidatedByAttributeChange() {
+    CountingBezierFigure f = createLine();
+    Rectangle2D.Double area = f.getDrawingArea(1.0);
+    f.attr().set(AttributeKeys.STROKE_WIDTH, 20d);
+    assertTrue(f.getDrawingArea(1.0).width > area.width);
+  }
+
+  @Test
+  public void testInvalidatedByJoiningAndSplittingSegments() {
+    CountingBezierFigure f = createLine();
+    f.addNode(1, new BezierPath.Node(50, 100));
+    assertEquals(100, f.getBounds(1.0).height, 1e-9);
+    assertEquals(1, f.joinSegments(new Point2D.Double(50, 100), 1f));
+    assertEquals(50, f.getBounds(1.0).height, 1e-9);
+    assertEquals(1, f.splitSegment(new Point2D.Double(50, 25), 1f));
+    f.getBounds(1.0);
+    assertEquals(3, f.boundsComputed);
+  }
+
+  @Test
+  public void testLeafFiguresCacheTheirDrawingArea() {
+    CountingRectangleFigure f = new CountingRectangleFigure();
+    Rectangle2D.Double area = f.getDrawingArea(1.0);
+    f.getDrawingArea(1.0);
+    assertEquals(1, f.drawingAreaComputed);
+    f.attr().set(AttributeKeys.STROKE_WIDTH, 20d);
+    assertTrue(f.getDrawingArea(1.0).width > area.width);
+    assertEquals(2, f.drawingAreaComputed);
+  }
+
+  @Test
+  public void testLeafFiguresInvalidatedByGeometryChange() {
+    for (Figure f :
+        new Figure[] {
+          new RectangleFigure(0, 0, 100, 50),
+          new RoundRectangleFigure(0, 0, 100, 50),
+          new EllipseFigure(0, 0, 100, 50),
+          new DiamondFigure(0, 0, 100, 50),
+          new TriangleFigure(0, 0, 100, 50),
+          new ImageFigure(0, 0, 100, 50),
+          new TextAreaFigure()
+        }) {
+      f.setBounds(new Point2D.Double(0, 0), new Point2D.Double(100, 50));
+      Rectangle2D.Double area = f.getDrawingArea(1.0);
+      Object restoreData = f.getTransformRestoreData();
+      // Handles and tools call these methods without willChange and changed, too
+      f.setBounds(new Point2D.Double(10, 20), new Point2D.Double(110, 70));
+      assertEquals(area.x + 10, f.getDrawingArea(1.0).x, 1e-9, f.getClass().getName());
+      f.transform(AffineTransform.getTranslateInstance(10, 0));
+      assertEquals(area.x + 20, f.getDrawingArea(1.0).x, 1e-9, f.getClass().getName());
+      f.restoreTransformTo(restoreData);
+      assertEquals(area, f.getDrawingArea(1.0), f.getClass().getName());
+    }
+  }
+}
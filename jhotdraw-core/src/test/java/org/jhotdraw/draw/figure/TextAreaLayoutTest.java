@@ -0,0 +1,229 @@
+/*
+ * @(#)TextAreaLayoutTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.figure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Proxy;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.api.app.TaskScheduler;
+import org.jhotdraw.draw.event.FigureEvent;
+import org.jhotdraw.draw.event.FigureListenerAdapter;
+import org.junit.jupiter.api.Test;
+
+public class TextAreaLayoutTest {
+
+  private static final String TEXT =
+      "The quick brown fox jumps over the lazy dog.\n"
+          + "\n"
+          + "Name\tValue\tUnit\n"
+          + "A rather long paragraph, which has to be wrapped several times, because it does not"
+          + " fit into the narrow text area.\n"
+          + "\t\tIndented\ttwice";
+
+  private static final Font FONT = new Font("Dialog", Font.PLAIN, 12);
+  private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+  /** A line as computed by the line breaking that was used before layouts were cached. */
+  private static class BaselineLine {
+
+    final List<Integer> characterCounts = new ArrayList<>();
+    final List<Float> penPositions = new ArrayList<>();
+    float baseline;
+  }
+
+  /**
+   * Breaks the text into lines like {@code TextAreaFigure.drawParagraph} did before text area
+   * layouts were introduced, with the left margin at x = 0.
+   */
+  private static List<BaselineLine> breakLines(
+      String text, boolean isUnderlined, float rightMargin, float[] tabStops) {
+    List<BaselineLine> lines = new ArrayList<>();
+    float verticalPos = 0;
+    for (String paragraph : text.split("\n")) {
+      if (paragraph.length() == 0) {
+        paragraph = " ";
+      }
+      AttributedString as = new AttributedString(paragraph);
+      as.addAttribute(TextAttribute.FONT, FONT);
+      if (isUnderlined) {
+        as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
+      }
+      AttributedCharacterIterator styledText = as.getIterator();
+      int tabCount = paragraph.split("\t").length - 1;
+      double bottom = verticalPos;
+      int[] tabLocations = new int[tabCount + 1];
+      int i = 0;
+      for (char c = styledText.first();
+          c != AttributedCharacterIterator.DONE;
+          c = styledText.next()) {
+        if (c == '\t') {
+          tabLocations[i++] = styledText.getIndex();
+        }
+      }
+      tabLocations[tabCount] = styledText.getEndIndex() - 1;
+      LineBreakMeasurer measurer = new LineBreakMeasurer(styledText, FRC);
+      int currentTab = 0;
+      while (measurer.getPosition() < styledText.getEndIndex()) {
+        BaselineLine line = new BaselineLine();
+        List<TextLayout> layouts = new ArrayList<>();
+        boolean lineContainsText = false;
+        boolean lineComplete = false;
+        float maxAscent = 0, maxDescent = 0;
+        float horizontalPos = 0;
+        while (!lineComplete) {
+          float wrappingWidth = rightMargin - horizontalPos;
+          TextLayout layout =
+              measurer.nextLayout(wrappingWidth, tabLocations[currentTab] + 1, lineContainsText);
+          if (layout != null) {
+            layouts.add(layout);
+            line.characterCounts.add(layout.getCharacterCount());
+            line.penPositions.add(horizontalPos);
+            horizontalPos += layout.getAdvance();
+            maxAscent = Math.max(maxAscent, layout.getAscent());
+            maxDescent = Math.max(maxDescent, layout.getDescent() + layout.getLeading());
+          } else {
+            lineComplete = true;
+          }
+          lineContainsText = true;
+          if (measurer.getPosition() == tabLocations[currentTab] + 1) {
+            currentTab++;
+          }
+          if (measurer.getPosition() == styledText.getEndIndex()) {
+            lineComplete = true;
+          } else if (tabStops.length == 0 || horizontalPos >= tabStops[tabStops.length - 1]) {
+            lineComplete = true;
+          }
+          if (!lineComplete) {
+            int j;
+            for (j = 0; horizontalPos >= tabStops[j]; j++) {}
+            horizontalPos = tabStops[j];
+          }
+        }
+        verticalPos += maxAscent;
+        line.baseline = verticalPos;
+        for (int k = 0; k < layouts.size(); k++) {
+          Rectangle2D b = layouts.get(k).getBounds();
+          bottom = Math.max(bottom, b.getY() + b.getHeight() + verticalPos);
+        }
+        lines.add(line);
+        verticalPos += maxDescent;
+      }
+      // The next paragraph starts at the bottom of the glyphs of this paragraph
+      verticalPos = (float) bottom;
+    }
+    return lines;
+  }
+
+  private static void assertSameLineBreaks(String text, boolean isUnderlined, double width) {
+    float wrapWidth = (float) Math.max(1, width + 1);
+    float[] tabStops = TextAreaLayout.createTabStops(FONT, 8, width, FRC);
+    List<BaselineLine> expected = breakLines(text, isUnderlined, wrapWidth, tabStops);
+    TextAreaLayout layout =
+        TextAreaLayout.create(
+            new TextAreaLayout.Key(text, FONT, isUnderlined, wrapWidth, tabStops, FRC));
+
+    List<TextAreaLayout.Line> actual = new ArrayList<>();
+    for (TextAreaLayout.Paragraph paragraph : layout.getParagraphs()) {
+      actual.addAll(paragraph.getLines());
+    }
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      BaselineLine e = expected.get(i);
+      TextAreaLayout.Line a = actual.get(i);
+      assertThat(a.getLayoutCount()).isEqualTo(e.characterCounts.size());
+      for (int k = 0; k < a.getLayoutCount(); k++) {
+        assertThat(a.getLayout(k).getCharacterCount()).isEqualTo(e.characterCounts.get(k));
+        assertThat(a.getPenPosition(k)).isEqualTo(e.penPositions.get(k));
+      }
+      assertThat(a.getBaseline()).isEqualTo(e.baseline);
+    }
+  }
+
+  @Test
+  public void testLineBreaksMatchBaseline() {
+    for (double width : new double[] {0, 40, 120, 300, 1000}) {
+      assertSameLineBreaks(TEXT, false, width);
+      assertSameLineBreaks(TEXT, true, width);
+    }
+  }
+
+  @Test
+  public void testEmptyParagraphsAreKept() {
+    assertSameLineBreaks("\n\nlast", false, 100);
+    TextAreaLayout layout =
+        TextAreaLayout.create(
+            new TextAreaLayout.Key("\n\nlast", FONT, false, 101, new float[0], FRC));
+    assertThat(layout.getParagraphs()).hasSize(3);
+  }
+
+  @Test
+  public void testLayoutIsScheduledOnce() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    List<Object> owners = new ArrayList<>();
+    List<Object> priorities = new ArrayList<>();
+    TaskScheduler scheduler =
+        (TaskScheduler)
+            Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {TaskScheduler.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("execute")) {
+                    owners.add(args[0]);
+                    priorities.add(args[1]);
+                    tasks.add((Runnable) args[2]);
+                  }
+                  return null;
+                });
+    TextAreaFigure figure = new TextAreaFigure(TEXT);
+    figure.setBounds(new Point2D.Double(0, 0), new Point2D.Double(200, 200));
+    figure.setLayoutScheduler(scheduler);
+    int[] invalidations = new int[1];
+    figure.addFigureListener(
+        new FigureListenerAdapter() {
+          @Override
+          public void areaInvalidated(FigureEvent e) {
+            invalidations[0]++;
+          }
+        });
+    BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    try {
+      SwingUtilities.invokeAndWait(
+          () -> {
+            figure.drawText(g);
+            figure.drawText(g);
+          });
+      assertThat(tasks).hasSize(1);
+      assertThat(owners).containsExactly(figure);
+      assertThat(priorities).containsExactly(TaskScheduler.Priority.INTERACTIVE);
+
+      tasks.get(0).run();
+      // Waits for the layout to be handed over to the event dispatch thread
+      SwingUtilities.invokeAndWait(() -> {});
+      assertThat(invalidations[0]).isEqualTo(1);
+      SwingUtilities.invokeAndWait(() -> figure.drawText(g));
+      assertThat(tasks).hasSize(1);
+    } finally {
+      g.dispose();
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * @(#)FigureSnapshotTransferableTest.java
+ *
+ * Copyright (c) 2007-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
+import java.awt.geom.AffineTransform;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import javax.swing.filechooser.FileFilter;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.connector.ChopRectangleConnector;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.LineConnectionFigure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FigureSnapshotTransferableTest {
+
+  private DefaultDrawing drawing;
+  private RectangleFigure start;
+  private RectangleFigure end;
+  private LineConnectionFigure connection;
+  private CountingOutputFormat format;
+
+  @BeforeEach
+  public void setUp() {
+    drawing = new DefaultDrawing();
+    start = new RectangleFigure(0, 0, 10, 10);
+    end = new RectangleFigure(100, 100, 10, 10);
+    connection = new LineConnectionFigure();
+    drawing.add(start);
+    drawing.add(end);
+    drawing.add(connection);
+    connection.setStartConnector(new ChopRectangleConnector(start));
+    connection.setEndConnector(new ChopRectangleConnector(end));
+    format = new CountingOutputFormat();
+    drawing.addOutputFormat(format);
+  }
+
+  @Test
+  public void testDataIsCreatedOnFirstRequest() throws Exception {
+    FigureSnapshotTransferable t =
+        new FigureSnapshotTransferable(drawing, drawing.getChildren(), 1.0);
+    assertThat(t.isDataFlavorSupported(DataFlavor.stringFlavor)).isTrue();
+    assertThat(format.count).isZero();
+    assertThat(t.getTransferData(DataFlavor.stringFlavor)).isEqualTo("3");
+    assertThat(t.getTransferData(DataFlavor.stringFlavor)).isEqualTo("3");
+    assertThat(format.count).isEqualTo(1);
+  }
+
+  @Test
+  public void testSnapshotIsNotAffectedByLaterEdits() throws Exception {
+    FigureSnapshotTransferable t =
+        new FigureSnapshotTransferable(drawing, List.of(start, end, connection), 1.0);
+    start.willChange();
+    start.transform(AffineTransform.getTranslateInstance(50, 50));
+    start.changed();
+    assertThat(t.getFigures().get(0).getBounds().x).isEqualTo(0.0);
+  }
+
+  @Test
+  public void testCreatedFiguresAreConnectedToEachOther() throws Exception {
+    FigureSnapshotTransferable t =
+        new FigureSnapshotTransferable(drawing, List.of(start, end, connection), 1.0);
+    List<Figure> figures = t.createFigures();
+    assertThat(figures).doesNotContainAnyElementsOf(t.getFigures());
+    LineConnectionFigure c = (LineConnectionFigure) figures.get(2);
+    assertThat(c.getStartFigure()).isSameAs(figures.get(0));
+    assertThat(c.getEndFigure()).isSameAs(figures.get(1));
+  }
+
+  private static class CountingOutputFormat implements OutputFormat {
+
+    private int count;
+
+    @Override
+    public FileFilter getFileFilter() {
+      return null;
+    }
+
+    @Override
+    public String getFileExtension() {
+      return "txt";
+    }
+
+    @Override
+    public void write(URI uri, Drawing drawing) {}
+
+    @Override
+    public void write(OutputStream out, Drawing drawing) {}
+
+    @Override
+    public Transferable createTransferable(
+        Drawing drawing, List<Figure> figures, double scaleFactor) {
+      count++;
+      return new StringSelection(Integer.toString(figures.size()));
+    }
+
+    @Override
+    public DataFlavor[] getTransferDataFlavors() {
+      return new DataFlavor[] {DataFlavor.stringFlavor};
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * @(#)DrawingPageableTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.print;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.print.PageFormat;
+import java.awt.print.Paper;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.jhotdraw.geom.Geom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DrawingPageableTest {
+
+  /** Counts how often it has been drawn. */
+  private static class CountingFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    private int drawCount;
+
+    CountingFigure(double x, double y) {
+      super(x, y, 20, 20);
+    }
+
+    @Override
+    public void draw(Graphics2D g) {
+      drawCount++;
+      super.draw(g);
+    }
+  }
+
+  /** Has a margin of 10 units on the page, like a marker drawn at a fixed size. */
+  private static class MarkerFigure extends RectangleFigure {
+
+    private static final long serialVersionUID = 1L;
+    private double lastScale;
+
+    MarkerFigure(double x, double y) {
+      super(x, y, 20, 20);
+    }
+
+    @Override
+    protected Rectangle2D.Double computeDrawingArea(double scale) {
+      lastScale = scale;
+      Rectangle2D.Double r = super.computeDrawingArea(scale);
+      Geom.grow(r, 10 / scale, 10 / scale);
+      return r;
+    }
+  }
+
+  private final CountingFigure topLeft = new CountingFigure(10, 10);
+  private final CountingFigure topRight = new CountingFigure(500, 10);
+  private final CountingFigure bottomLeft = new CountingFigure(10, 500);
+  private QuadTreeDrawing drawing;
+  private DrawingPageable pageable;
+  private PageFormat pageFormat;
+
+  @BeforeEach
+  public void setUp() {
+    drawing = new QuadTreeDrawing();
+    drawing.add(topLeft);
+    drawing.add(topRight);
+    drawing.add(bottomLeft);
+    Paper paper = new Paper();
+    paper.setSize(300, 300);
+    paper.setImageableArea(0, 0, 300, 300);
+    pageFormat = new PageFormat();
+    pageFormat.setPaper(paper);
+    pageable = new DrawingPageable(drawing);
+    pageable.setPageFormat(pageFormat);
+  }
+
+  private void print(int pageIndex) {
+    BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    pageable.printPage(g, pageFormat, pageIndex);
+    g.dispose();
+  }
+
+  @Test
+  public void testFitsOnOnePage() {
+    assertThat(pageable.getNumberOfPages()).isEqualTo(1);
+    print(0);
+    assertThat(topLeft.drawCount).isEqualTo(1);
+    assertThat(topRight.drawCount).isEqualTo(1);
+    assertThat(bottomLeft.drawCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testTilesOnlyDrawTheirFigures() {
+    pageable.setTiled(true);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(4);
+    print(1);
+    assertThat(topLeft.drawCount).isZero();
+    assertThat(topRight.drawCount).isEqualTo(1);
+    assertThat(bottomLeft.drawCount).isZero();
+    print(3);
+    assertThat(topRight.drawCount).isEqualTo(1);
+    assertThat(bottomLeft.drawCount).isZero();
+    print(2);
+    assertThat(bottomLeft.drawCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testLayoutFollowsDrawingChanges() {
+    pageable.setTiled(true);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(4);
+    CountingFigure right = new CountingFigure(800, 10);
+    drawing.add(right);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(6);
+    print(2);
+    assertThat(right.drawCount).isEqualTo(1);
+    drawing.remove(right);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(4);
+  }
+
+  @Test
+  public void testTilesAreLaidOutAtTheTileScale() {
+    // Fits on one tile at scale 1, but its margin reaches beyond the tile at scale 0.5
+    drawing.add(new MarkerFigure(570, 10));
+    pageable.setTiled(true);
+    pageable.setTileScale(0.5);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDrawingIsLaidOutAtTheFitScale() {
+    MarkerFigure marker = new MarkerFigure(570, 10);
+    drawing.add(marker);
+    assertThat(pageable.getNumberOfPages()).isEqualTo(1);
+    double scale = marker.lastScale;
+    assertThat(scale).isCloseTo(300 / drawing.getDrawingArea(1d).width, within(1e-9));
+  }
+}
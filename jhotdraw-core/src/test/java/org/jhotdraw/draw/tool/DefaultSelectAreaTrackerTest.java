@@ -0,0 +1,121 @@
+/*
+ * @(#)DefaultSelectAreaTrackerTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.draw.tool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.DefaultDrawingView;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.DrawingEditor;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class DefaultSelectAreaTrackerTest {
+
+  /** Counts the lookups of figures. */
+  private static class CountingDrawing extends DefaultDrawing {
+
+    private static final long serialVersionUID = 1L;
+    private int lookupCount;
+
+    @Override
+    public List<Figure> findFigures(Rectangle2D.Double bounds) {
+      lookupCount++;
+      return super.findFigures(bounds);
+    }
+  }
+
+  private final DefaultDrawingView view = new DefaultDrawingView();
+  private final DefaultSelectAreaTracker tracker = new DefaultSelectAreaTracker();
+  private final RectangleFigure near = new RectangleFigure(20, 20, 20, 20);
+  private final RectangleFigure far = new RectangleFigure(120, 120, 20, 20);
+
+  private DrawingEditor createEditor() {
+    return (DrawingEditor)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {DrawingEditor.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "findView":
+                case "getActiveView":
+                  return view;
+                case "getDrawingViews":
+                  return List.of(view);
+                default:
+                  return method.getReturnType() == boolean.class ? false : null;
+              }
+            });
+  }
+
+  private void setUp(Drawing drawing) {
+    drawing.add(near);
+    drawing.add(far);
+    view.setDrawing(drawing);
+    view.setSize(200, 200);
+    tracker.activate(createEditor());
+    tracker.mousePressed(mouseEvent(MouseEvent.MOUSE_PRESSED, 10, 10));
+  }
+
+  private MouseEvent mouseEvent(int id, int x, int y) {
+    return new MouseEvent(view, id, 0, 0, x, y, 1, false, MouseEvent.BUTTON1);
+  }
+
+  private void drag(int x, int y) {
+    tracker.mouseDragged(mouseEvent(MouseEvent.MOUSE_DRAGGED, x, y));
+  }
+
+  /** Returns true, if the tracker draws the preview of a figure. */
+  private boolean isPreviewed(Figure f) {
+    BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    tracker.draw(g);
+    g.dispose();
+    Rectangle r = view.drawingToView(f.getBounds());
+    return image.getRGB(r.x, r.y + r.height / 2) != 0;
+  }
+
+  private void assertPreviewFollowsRubberband() {
+    drag(30, 30);
+    assertThat(isPreviewed(near)).isFalse();
+    drag(60, 60);
+    assertThat(isPreviewed(near)).isTrue();
+    assertThat(isPreviewed(far)).isFalse();
+    drag(160, 160);
+    assertThat(isPreviewed(near)).isTrue();
+    assertThat(isPreviewed(far)).isTrue();
+    drag(160, 30);
+    assertThat(isPreviewed(near)).isFalse();
+    assertThat(isPreviewed(far)).isFalse();
+  }
+
+  @Test
+  public void testDrawingWithoutIndexIsSearchedOncePerDrag() {
+    CountingDrawing drawing = new CountingDrawing();
+    setUp(drawing);
+    drawing.lookupCount = 0;
+    assertPreviewFollowsRubberband();
+    assertThat(drawing.lookupCount).isEqualTo(4);
+  }
+
+  @Test
+  public void testIndexedDrawingIsSearchedInTheChangedArea() {
+    setUp(new QuadTreeDrawing());
+    assertPreviewFollowsRubberband();
+  }
+}
@@ -14,6 +14,8 @@ import java.awt.color.ColorSpace;
 import java.awt.geom.Point2D;
 import java.awt.image.ColorModel;
 import java.awt.image.MemoryImageSource;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /** AbstractColorWheelImageProducer. */
 public abstract class AbstractColorWheelImageProducer extends MemoryImageSource {
@@ -28,6 +30,9 @@ public abstract class AbstractColorWheelImageProducer extends MemoryImageSource
   protected float verticalValue = 1f;
   protected boolean isLookupValid = false;
 
+  /** Images with fewer pixels are generated on the calling thread. */
+  private static final int PARALLEL_THRESHOLD = 128 * 128;
+
   public AbstractColorWheelImageProducer(ColorSpace sys, int w, int h) {
     super(w, h, null, 0, w);
     this.colorSpace = sys;
@@ -78,6 +83,52 @@ public abstract class AbstractColorWheelImageProducer extends MemoryImageSource
 
   protected abstract void generateColorWheel();
 
+  /**
+   * Computes the pixels of the color wheel from lookup tables which hold the alpha value and the
+   * angular and radial component values for each pixel. Pixels with an alpha value of 0 are left
+   * unchanged.
+   *
+   * <p>Large images are computed in bands of rows on the common fork-join pool. The colors of a row
+   * are converted with a single call to {@link ColorUtil#CStoRGB24(ColorSpace, float[], int[], int,
+   * int)}.
+   */
+  protected void generatePixels(int[] alphas, float[] angulars, float[] radials) {
+    int bands =
+        (w * h < PARALLEL_THRESHOLD) ? 1 : Math.min(h, 4 * ForkJoinPool.getCommonPoolParallelism());
+    if (bands <= 1) {
+      generateRows(0, h, alphas, angulars, radials);
+    } else {
+      IntStream.range(0, bands)
+          .parallel()
+          .forEach(
+              b -> generateRows(b * h / bands, (b + 1) * h / bands, alphas, angulars, radials));
+    }
+  }
+
+  private void generateRows(int fromY, int toY, int[] alphas, float[] angulars, float[] radials) {
+    int n = colorSpace.getNumComponents();
+    float[] components = new float[w * n];
+    int[] indices = new int[w];
+    int[] rgb24 = new int[w];
+    for (int y = fromY; y < toY; y++) {
+      int count = 0;
+      for (int index = y * w, end = index + w; index < end; index++) {
+        if (alphas[index] != 0) {
+          int c = count * n;
+          components[c + angularIndex] = angulars[index];
+          components[c + radialIndex] = radials[index];
+          components[c + verticalIndex] = verticalValue;
+          indices[count++] = index;
+        }
+      }
+      ColorUtil.CStoRGB24(colorSpace, components, rgb24, 0, count);
+      for (int i = 0; i < count; i++) {
+        int index = indices[i];
+        pixels[index] = alphas[index] | 0xffffff & rgb24[i];
+      }
+    }
+  }
+
   public Point getColorLocation(Color c) {
     float[] components = ColorUtil.fromColor(colorSpace, c);
     return getColorLocation(components);
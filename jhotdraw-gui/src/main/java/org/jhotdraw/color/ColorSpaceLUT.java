@@ -0,0 +1,173 @@
+/*
+ * @(#)ColorSpaceLUT.java
+ *
+ * Copyright (c) 2010 The authors and contributors of JHotDraw.
+ *
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.color;
+
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_ColorSpace;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A lookup table which approximates the conversion from a {@code ColorSpace} to sRGB.
+ *
+ * <p>The table holds the exact RGB values on a regular grid over the component ranges of the color
+ * space. Colors between the grid points are interpolated linearly along each component axis
+ * (trilinear interpolation for three components).
+ *
+ * <p>Lookup tables are used by {@link ColorUtil#CStoRGB24(ColorSpace, float[], int[], int, int)}
+ * for ICC based color spaces, such as {@link CMYKGenericColorSpace}, for which each conversion goes
+ * through the color management module. They are only precise enough for drawing color wheels and
+ * slider tracks: for the generic CMYK profile, the mean error of a color channel is about 0.3/255,
+ * and 99% of the channels are within 2/255 of the exact value. Where the conversion of the profile
+ * bends sharply, the error reaches up to 20/255; a finer grid hardly reduces it.
+ *
+ * <p>Color spaces which are computed in Java, such as {@link CIELABColorSpace}, are not
+ * approximated: they are cheap enough to convert exactly, and interpolating across their clamped
+ * gamut boundary would produce visible errors.
+ */
+public final class ColorSpaceLUT {
+
+  private static final Map<ColorSpace, ColorSpaceLUT> INSTANCES = new WeakHashMap<>();
+  private static volatile boolean enabled = true;
+  private static final float EPSILON = 1e-4f;
+
+  private final int numComponents;
+  private final int size;
+  private final float[] minValues;
+  private final float[] scales;
+  private final int[] strides;
+
+  /** Holds interleaved r, g, b values for each grid point. */
+  private final float[] table;
+
+  /**
+   * Creates a lookup table for the specified color space.
+   *
+   * @param cs the color space
+   * @param size the number of grid points along each component axis, at least 2
+   */
+  public ColorSpaceLUT(ColorSpace cs, int size) {
+    if (size < 2) {
+      throw new IllegalArgumentException("size must be at least 2: " + size);
+    }
+    this.numComponents = cs.getNumComponents();
+    this.size = size;
+    minValues = new float[numComponents];
+    scales = new float[numComponents];
+    strides = new int[numComponents];
+    int count = 1;
+    for (int d = numComponents - 1; d >= 0; d--) {
+      minValues[d] = cs.getMinValue(d);
+      scales[d] = (size - 1) / (cs.getMaxValue(d) - minValues[d]);
+      strides[d] = count;
+      count *= size;
+    }
+    table = new float[count * 3];
+    float[] components = new float[numComponents];
+    float[] rgb = new float[3];
+    for (int i = 0; i < count; i++) {
+      for (int d = 0; d < numComponents; d++) {
+        components[d] = minValues[d] + ((i / strides[d]) % size) / scales[d];
+      }
+      ColorUtil.CStoRGB(cs, components, rgb);
+      System.arraycopy(rgb, 0, table, i * 3, 3);
+    }
+  }
+
+  /**
+   * Returns the shared lookup table for the specified color space. The table is created on first
+   * use.
+   */
+  public static ColorSpaceLUT getInstance(ColorSpace cs) {
+    synchronized (INSTANCES) {
+      ColorSpaceLUT lut = INSTANCES.get(cs);
+      if (lut == null) {
+        lut = new ColorSpaceLUT(cs, cs.getNumComponents() > 3 ? 13 : 33);
+        INSTANCES.put(cs, lut);
+      }
+      return lut;
+    }
+  }
+
+  /** Enables or disables the use of lookup tables by {@link ColorUtil}. Enabled by default. */
+  public static void setEnabled(boolean newValue) {
+    enabled = newValue;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns true, if lookup tables are enabled, and the conversion of the specified color space to
+   * RGB is expensive enough to benefit from a lookup table.
+   */
+  public static boolean isUsedFor(ColorSpace cs) {
+    return enabled && cs.getNumComponents() <= 4 && cs instanceof ICC_ColorSpace && !cs.isCS_sRGB();
+  }
+
+  /**
+   * Converts color components to 24-bit RGB values with alpha. Colors which are outside of the RGB
+   * gamut are converted to transparent black.
+   *
+   * @param colorvalues the color components of {@code count} colors, one after the other
+   * @param rgb24 receives the RGB values
+   * @param offset the index of the first RGB value in {@code rgb24}
+   * @param count the number of colors
+   */
+  public void toRGB24(float[] colorvalues, int[] rgb24, int offset, int count) {
+    float[] fractions = new float[numComponents];
+    int corners = 1 << numComponents;
+    for (int i = 0; i < count; i++) {
+      int c = i * numComponents;
+      int base = 0;
+      for (int d = 0; d < numComponents; d++) {
+        float t = (colorvalues[c + d] - minValues[d]) * scales[d];
+        t = Math.max(0f, Math.min(t, size - 1));
+        int cell = Math.min((int) t, size - 2);
+        fractions[d] = t - cell;
+        base += cell * strides[d];
+      }
+      float r = 0, g = 0, b = 0;
+      for (int corner = 0; corner < corners; corner++) {
+        float weight = 1f;
+        int index = base;
+        for (int d = 0; d < numComponents; d++) {
+          if ((corner & (1 << d)) != 0) {
+            weight *= fractions[d];
+            index += strides[d];
+          } else {
+            weight *= 1f - fractions[d];
+          }
+        }
+        if (weight != 0f) {
+          index *= 3;
+          r += weight * table[index];
+          g += weight * table[index + 1];
+          b += weight * table[index + 2];
+        }
+      }
+      rgb24[offset + i] = ColorUtil.RGBtoRGB24(snap(r), snap(g), snap(b));
+    }
+  }
+
+  /**
+   * Removes rounding errors of the interpolation at the gamut boundary, so that they do not turn
+   * displayable colors into transparent ones.
+   */
+  private static float snap(float v) {
+    if (v < 0f && v > -EPSILON) {
+      return 0f;
+    }
+    if (v > 1f && v < 1f + EPSILON) {
+      return 1f;
+    }
+    return v;
+  }
+}
@@ -81,16 +81,17 @@ public class ColorTrackImageProducer extends MemoryImageSource {
   }
 
   private void generateHorizontalColorTrack() {
-    float[] components = colorizer.getComponents();
-    float[] rgb = new float[3];
     ColorSpace cs = colorizer.getColorSpace();
     int offset = trackBuffer / 2;
     float minv = cs.getMinValue(componentIndex);
     float maxv = cs.getMaxValue(componentIndex);
-    for (int x = 0, n = w - trackBuffer - 1; x <= n; x++) {
-      components[componentIndex] = (x / (float) n) * (maxv - minv) + minv;
-      pixels[x + offset] = ColorUtil.CStoRGB24(cs, components, rgb);
+    int last = w - trackBuffer - 1;
+    float[] colorvalues = createTrackColorValues(last + 1);
+    int nc = cs.getNumComponents();
+    for (int x = 0; x <= last; x++) {
+      colorvalues[x * nc + componentIndex] = (x / (float) last) * (maxv - minv) + minv;
     }
+    ColorUtil.CStoRGB24(cs, colorvalues, pixels, offset, last + 1);
     for (int x = 0; x < offset; x++) {
       pixels[x] = pixels[offset];
       pixels[w - x - 1] = pixels[w - offset - 1];
@@ -101,16 +102,21 @@ public class ColorTrackImageProducer extends MemoryImageSource {
   }
 
   private void generateVerticalColorTrack() {
-    float[] components = colorizer.getComponents();
-    float[] rgb = new float[3];
     ColorSpace cs = colorizer.getColorSpace();
     int offset = trackBuffer / 2;
     float minv = cs.getMinValue(componentIndex);
     float maxv = cs.getMaxValue(componentIndex);
-    for (int y = 0, n = h - trackBuffer - 1; y <= n; y++) {
+    int last = h - trackBuffer - 1;
+    float[] colorvalues = createTrackColorValues(last + 1);
+    int nc = cs.getNumComponents();
+    for (int y = 0; y <= last; y++) {
       // Note: removed + minv - minv from formula below
-      components[componentIndex] = maxv - (y / (float) n) * (maxv - minv);
-      pixels[(y + offset) * w] = ColorUtil.CStoRGB24(cs, components, rgb);
+      colorvalues[y * nc + componentIndex] = maxv - (y / (float) last) * (maxv - minv);
+    }
+    int[] rgb24 = new int[last + 1];
+    ColorUtil.CStoRGB24(cs, colorvalues, rgb24, 0, last + 1);
+    for (int y = 0; y <= last; y++) {
+      pixels[(y + offset) * w] = rgb24[y];
     }
     for (int y = 0; y < offset; y++) {
       pixels[y * w] = pixels[offset * w];
@@ -123,6 +129,20 @@ public class ColorTrackImageProducer extends MemoryImageSource {
     }
   }
 
+  /**
+   * Returns the color components of the color slider model, repeated {@code count} times. The
+   * component shown by the track is then filled in by the caller.
+   */
+  private float[] createTrackColorValues(int count) {
+    float[] components = colorizer.getComponents();
+    int nc = colorizer.getColorSpace().getNumComponents();
+    float[] colorvalues = new float[count * nc];
+    for (int i = 0; i < count; i++) {
+      System.arraycopy(components, 0, colorvalues, i * nc, Math.min(nc, components.length));
+    }
+    return colorvalues;
+  }
+
   public void setColorSliderModel(ColorSliderModel colorizer) {
     this.colorizer = colorizer;
     isDirty = true;
@@ -59,14 +59,48 @@ public class ColorUtil {
 
   public static int CStoRGB24(ColorSpace colorSpace, float[] components, float[] rgb) {
     CStoRGB(colorSpace, components, rgb);
-    // If the color is not displayable in RGB, we return transparent black.
-    if (rgb[0] < 0f || rgb[1] < 0f || rgb[2] < 0f || rgb[0] > 1f || rgb[1] > 1f || rgb[2] > 1f) {
+    return RGBtoRGB24(rgb[0], rgb[1], rgb[2]);
+  }
+
+  /**
+   * Converts the color components of many colors to 24-bit RGB values with alpha. Colors which are
+   * not displayable in RGB are converted to transparent black.
+   *
+   * <p>If {@link ColorSpaceLUT#isUsedFor} returns true for the color space, the colors are
+   * interpolated from a lookup table.
+   *
+   * @param colorSpace the color space
+   * @param colorvalues the color components of {@code count} colors, one after the other
+   * @param rgb24 receives the RGB values
+   * @param offset the index of the first RGB value in {@code rgb24}
+   * @param count the number of colors
+   */
+  public static void CStoRGB24(
+      ColorSpace colorSpace, float[] colorvalues, int[] rgb24, int offset, int count) {
+    if (ColorSpaceLUT.isUsedFor(colorSpace)) {
+      ColorSpaceLUT.getInstance(colorSpace).toRGB24(colorvalues, rgb24, offset, count);
+    } else if (colorSpace instanceof NamedColorSpace) {
+      ((NamedColorSpace) colorSpace).toRGB24(colorvalues, rgb24, offset, count);
+    } else {
+      int n = colorSpace.getNumComponents();
+      float[] components = new float[n];
+      float[] rgb = new float[3];
+      for (int i = 0; i < count; i++) {
+        System.arraycopy(colorvalues, i * n, components, 0, n);
+        rgb24[offset + i] = CStoRGB24(colorSpace, components, rgb);
+      }
+    }
+  }
+
+  /**
+   * Returns a 24-bit RGB value with alpha from RGB values in the range [0,1]. If the color is not
+   * displayable in RGB, transparent black is returned.
+   */
+  static int RGBtoRGB24(float r, float g, float b) {
+    if (r < 0f || g < 0f || b < 0f || r > 1f || g > 1f || b > 1f) {
       return 0;
     }
-    return 0xff000000
-        | ((int) (rgb[0] * 255f) << 16)
-        | ((int) (rgb[1] * 255f) << 8)
-        | (int) (rgb[2] * 255f);
+    return 0xff000000 | ((int) (r * 255f) << 16) | ((int) (g * 255f) << 8) | (int) (b * 255f);
   }
 
   /**
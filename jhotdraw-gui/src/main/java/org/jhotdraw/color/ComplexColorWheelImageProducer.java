@@ -118,16 +118,7 @@ public class ComplexColorWheelImageProducer extends AbstractColorWheelImageProdu
     if (!isLookupValid) {
       generateLookupTables();
     }
-    float[] components = new float[colorSpace.getNumComponents()];
-    float[] rgb = new float[3];
-    for (int index = 0; index < pixels.length; index++) {
-      if (alphas[index] != 0) {
-        components[angularIndex] = angulars[index];
-        components[radialIndex] = radials[index];
-        components[verticalIndex] = verticalValue;
-        pixels[index] = alphas[index] | 0xffffff & ColorUtil.CStoRGB24(colorSpace, components, rgb);
-      }
-    }
+    generatePixels(alphas, angulars, radials);
     newPixels();
     isPixelsValid = true;
   }
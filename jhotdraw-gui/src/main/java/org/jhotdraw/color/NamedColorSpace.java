@@ -24,4 +24,27 @@ public interface NamedColorSpace {
 
   /** Faster fromCIEXYZ method which uses the provided output array. */
   public float[] fromCIEXYZ(float[] xyz, float[] colorvalue);
+
+  /** Returns the number of components of this color space. */
+  public int getNumComponents();
+
+  /**
+   * Converts the color components of many colors to 24-bit RGB values with alpha. Colors which are
+   * not displayable in RGB are converted to transparent black.
+   *
+   * @param colorvalues the color components of {@code count} colors, one after the other
+   * @param rgb24 receives the RGB values
+   * @param offset the index of the first RGB value in {@code rgb24}
+   * @param count the number of colors
+   */
+  public default void toRGB24(float[] colorvalues, int[] rgb24, int offset, int count) {
+    int n = getNumComponents();
+    float[] components = new float[n];
+    float[] rgb = new float[3];
+    for (int i = 0; i < count; i++) {
+      System.arraycopy(colorvalues, i * n, components, 0, n);
+      toRGB(components, rgb);
+      rgb24[offset + i] = ColorUtil.RGBtoRGB24(rgb[0], rgb[1], rgb[2]);
+    }
+  }
 }
@@ -0,0 +1,415 @@
+/*
+ * @(#)DefaultTaskScheduler.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.gui;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+import org.jhotdraw.api.app.TaskScheduler;
+
+/**
+ * Default implementation of {@link TaskScheduler}.
+ *
+ * <p>Tasks are executed by a fixed number of daemon threads, one per available processor by
+ * default. Waiting tasks are kept in a priority queue, so that interactive tasks overtake queued
+ * load, export and prefetch tasks.
+ *
+ * <p>A shared instance can be obtained with {@link #getInstance}. It is used by applications which
+ * do not set their own scheduler, and by components which are not part of an application.
+ */
+public class DefaultTaskScheduler implements TaskScheduler {
+
+  private static DefaultTaskScheduler instance;
+
+  public static synchronized DefaultTaskScheduler getInstance() {
+    if (instance == null) {
+      instance = new DefaultTaskScheduler();
+    }
+    return instance;
+  }
+
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final Map<Object, Set<ScheduledTask>> ownerTasks = new HashMap<>();
+  private final PropertyChangeSupport propertySupport = new PropertyChangeSupport(this);
+  private final AtomicInteger pendingNotifications = new AtomicInteger();
+
+  /** The values of the bound properties, as last reported to the listeners. Accessed on the EDT. */
+  private int firedQueueSize;
+
+  private int firedActiveCount;
+
+  /** Creates a scheduler with one worker thread per available processor. */
+  public DefaultTaskScheduler() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /** Creates a scheduler with the specified number of worker threads. */
+  public DefaultTaskScheduler(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+    }
+    executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            30,
+            TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(),
+            new WorkerThreadFactory()) {
+          @Override
+          protected void beforeExecute(Thread t, Runnable r) {
+            activeCount.incrementAndGet();
+            fireCountsChanged();
+          }
+
+          @Override
+          protected void afterExecute(Runnable r, Throwable t) {
+            activeCount.decrementAndGet();
+            fireCountsChanged();
+          }
+        };
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public Future<?> execute(Object owner, Priority priority, Runnable task) {
+    ScheduledTask scheduled = new ScheduledTask(owner, priority, task);
+    if (owner != null) {
+      synchronized (ownerTasks) {
+        ownerTasks.computeIfAbsent(owner, k -> new LinkedHashSet<>()).add(scheduled);
+      }
+    }
+    executor.execute(scheduled);
+    fireCountsChanged();
+    return scheduled;
+  }
+
+  @Override
+  public ExecutorService createSerialExecutor(Object owner, Priority priority) {
+    return new SerialExecutor(owner, priority);
+  }
+
+  @Override
+  public void cancel(Object owner) {
+    ArrayList<ScheduledTask> tasks = new ArrayList<>();
+    synchronized (ownerTasks) {
+      Set<ScheduledTask> s = ownerTasks.get(owner);
+      if (s == null) {
+        return;
+      }
+      for (Iterator<ScheduledTask> i = s.iterator(); i.hasNext(); ) {
+        ScheduledTask t = i.next();
+        if (t.priority != Priority.EXPORT) {
+          tasks.add(t);
+          i.remove();
+        }
+      }
+      if (s.isEmpty()) {
+        ownerTasks.remove(owner);
+      }
+    }
+    // Running tasks are not interrupted, because an interrupt could leave
+    // a half written file behind.
+    for (ScheduledTask t : tasks) {
+      if (t.task instanceof SerialTask) {
+        // The serial executor cancels its queued tasks, and schedules the
+        // tasks which are added later
+        ((SerialTask) t.task).cancel();
+      } else {
+        t.cancel(false);
+      }
+    }
+  }
+
+  @Override
+  public int getParallelism() {
+    return executor.getMaximumPoolSize();
+  }
+
+  @Override
+  public int getQueueSize() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public int getActiveCount() {
+    return activeCount.get();
+  }
+
+  @Override
+  public void addPropertyChangeListener(PropertyChangeListener l) {
+    propertySupport.addPropertyChangeListener(l);
+  }
+
+  @Override
+  public void removePropertyChangeListener(PropertyChangeListener l) {
+    propertySupport.removePropertyChangeListener(l);
+  }
+
+  /**
+   * Reports the queue size and the active count to the property change listeners. Notifications
+   * which are requested while one is already pending on the EDT are coalesced.
+   */
+  protected void fireCountsChanged() {
+    if (!propertySupport.hasListeners(null) || pendingNotifications.getAndIncrement() > 0) {
+      return;
+    }
+    SwingUtilities.invokeLater(
+        () -> {
+          pendingNotifications.set(0);
+          int oldQueueSize = firedQueueSize;
+          int oldActiveCount = firedActiveCount;
+          firedQueueSize = getQueueSize();
+          firedActiveCount = getActiveCount();
+          propertySupport.firePropertyChange(QUEUE_SIZE_PROPERTY, oldQueueSize, firedQueueSize);
+          propertySupport.firePropertyChange(
+              ACTIVE_COUNT_PROPERTY, oldActiveCount, firedActiveCount);
+        });
+  }
+
+  /** A task in the priority queue of the executor. */
+  private class ScheduledTask extends FutureTask<Object> implements Comparable<ScheduledTask> {
+
+    private final Object owner;
+    private final Priority priority;
+    private final long seqNo;
+    private final Runnable task;
+
+    ScheduledTask(Object owner, Priority priority, Runnable task) {
+      super(task, null);
+      this.owner = owner;
+      this.priority = priority;
+      this.seqNo = sequence.getAndIncrement();
+      this.task = task;
+    }
+
+    @Override
+    public int compareTo(ScheduledTask that) {
+      int result = this.priority.compareTo(that.priority);
+      return (result != 0) ? result : Long.compare(this.seqNo, that.seqNo);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      // A SwingWorker must learn about the cancellation by itself, so that
+      // its done() method is invoked.
+      if (task instanceof Future) {
+        ((Future<?>) task).cancel(mayInterruptIfRunning);
+      }
+      boolean canceled = super.cancel(mayInterruptIfRunning);
+      if (canceled && executor.remove(this)) {
+        fireCountsChanged();
+      }
+      return canceled;
+    }
+
+    @Override
+    protected void done() {
+      if (owner != null) {
+        synchronized (ownerTasks) {
+          Set<ScheduledTask> s = ownerTasks.get(owner);
+          if (s != null) {
+            s.remove(this);
+            if (s.isEmpty()) {
+              ownerTasks.remove(owner);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Schedules its tasks one after the other. Shutting the executor down lets the queued tasks
+   * complete. Running tasks are never interrupted.
+   */
+  private class SerialExecutor extends AbstractExecutorService {
+
+    private final Object owner;
+    private final Priority priority;
+    private final ArrayDeque<SerialTask> tasks = new ArrayDeque<>();
+    private SerialTask active;
+    private Future<?> activeFuture;
+    private boolean isShutdown;
+
+    SerialExecutor(Object owner, Priority priority) {
+      this.owner = owner;
+      this.priority = priority;
+    }
+
+    @Override
+    public synchronized void execute(Runnable r) {
+      if (isShutdown) {
+        throw new RejectedExecutionException("The executor has been shut down.");
+      }
+      tasks.add(new SerialTask(this, r));
+      if (active == null) {
+        scheduleNext();
+      }
+    }
+
+    private synchronized void scheduleNext() {
+      active = tasks.poll();
+      if (active == null) {
+        activeFuture = null;
+        notifyAll();
+      } else {
+        activeFuture = DefaultTaskScheduler.this.execute(owner, priority, active);
+      }
+    }
+
+    /**
+     * Removes the tasks which have not been started from the queue, including the active task if
+     * the worker thread has not started it yet.
+     */
+    private synchronized List<Runnable> drain() {
+      List<Runnable> pending = new ArrayList<>();
+      if (active != null && !active.isStarted) {
+        pending.add(active.task);
+        activeFuture.cancel(false);
+        active = null;
+        activeFuture = null;
+      }
+      for (SerialTask t : tasks) {
+        pending.add(t.task);
+      }
+      tasks.clear();
+      if (active == null) {
+        notifyAll();
+      }
+      return pending;
+    }
+
+    /** Cancels the queued tasks, and marks the running task as canceled. */
+    private void cancel() {
+      List<Runnable> pending;
+      synchronized (this) {
+        pending = drain();
+        if (activeFuture != null) {
+          activeFuture.cancel(false);
+        }
+      }
+      // A SwingWorker must learn about the cancellation by itself, so that
+      // its done() method is invoked.
+      for (Runnable r : pending) {
+        if (r instanceof Future) {
+          ((Future<?>) r).cancel(false);
+        }
+      }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+      isShutdown = true;
+      notifyAll();
+    }
+
+    /** Returns the tasks which have not been started. The running task is not interrupted. */
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+      isShutdown = true;
+      return drain();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+      return isShutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+      return isShutdown && active == null;
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      while (!isTerminated()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+      return true;
+    }
+  }
+
+  /** A task of a serial executor. */
+  private static class SerialTask implements Runnable {
+
+    private final SerialExecutor executor;
+    private final Runnable task;
+
+    /** Guarded by the executor. */
+    private boolean isStarted;
+
+    SerialTask(SerialExecutor executor, Runnable task) {
+      this.executor = executor;
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      synchronized (executor) {
+        if (executor.active != this) {
+          // the task has been removed from the executor before it was started
+          return;
+        }
+        isStarted = true;
+      }
+      try {
+        task.run();
+      } finally {
+        executor.scheduleNext();
+      }
+    }
+
+    private void cancel() {
+      executor.cancel();
+    }
+  }
+
+  private static class WorkerThreadFactory implements ThreadFactory {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    private final String namePrefix =
+        "DefaultTaskScheduler-" + POOL_NUMBER.getAndIncrement() + "-worker-";
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+      t.setDaemon(true);
+      t.setPriority(Thread.NORM_PRIORITY);
+      return t;
+    }
+  }
+}
@@ -10,13 +10,17 @@ package org.jhotdraw.gui;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.concurrent.*;
 import javax.swing.*;
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.*;
+import org.jhotdraw.api.app.TaskScheduler;
 import org.jhotdraw.gui.fontchooser.DefaultFontChooserModel;
+import org.jhotdraw.gui.fontchooser.FontCatalog;
 import org.jhotdraw.gui.fontchooser.FontChooserModel;
 import org.jhotdraw.gui.fontchooser.FontCollectionNode;
 import org.jhotdraw.gui.fontchooser.FontFaceNode;
@@ -78,6 +82,16 @@ public class JFontChooser extends JComponent {
   /** This future is used to load fonts lazily */
   private static FutureTask<Font[]> future;
 
+  /** The file in which the font catalog is kept between application launches. */
+  private static Path fontCatalogFile =
+      Paths.get(System.getProperty("user.home", ""), ".jhotdraw", "fontcatalog.txt");
+
+  /** The font catalog, as read from the catalog file or as created from the loaded fonts. */
+  private static FontCatalog fontCatalog;
+
+  /** Completes with an up to date font catalog. */
+  private static CompletableFuture<FontCatalog> validatedFontCatalog;
+
   private TreeModelListener modelHandler =
       new TreeModelListener() {
         @Override
@@ -103,7 +117,7 @@ public class JFontChooser extends JComponent {
 
   /** Creates new form JFontChooser */
   public JFontChooser() {
-    loadAllFonts();
+    loadFontCatalog();
     model = new DefaultFontChooserModel.UIResource();
     model.addTreeModelListener(modelHandler);
     updateUI();
@@ -112,12 +126,29 @@ public class JFontChooser extends JComponent {
           @Override
           public void propertyChange(PropertyChangeEvent evt) {
             if ("ancestor".equals(evt.getPropertyName()) && evt.getNewValue() != null) {
+              JFontChooser.this.removePropertyChangeListener(this);
+              final FontCatalog catalog;
               try {
-                ((DefaultFontChooserModel) model).setFonts(getAllFonts());
+                catalog = getFontCatalog();
+                ((DefaultFontChooserModel) model).setFontCatalog(catalog);
               } catch (Exception ex) {
                 ex.printStackTrace();
+                return;
               }
-              JFontChooser.this.removePropertyChangeListener(this);
+              // If the catalog was out of date, show the fonts which are
+              // actually installed, as soon as they are known.
+              loadFontCatalog()
+                  .thenAccept(
+                      validated -> {
+                        if (!validated.hasSameEntries(catalog)) {
+                          SwingUtilities.invokeLater(
+                              () -> {
+                                if (model instanceof DefaultFontChooserModel) {
+                                  ((DefaultFontChooserModel) model).setFontCatalog(validated);
+                                }
+                              });
+                        }
+                      });
             }
           }
         });
@@ -304,7 +335,7 @@ public class JFontChooser extends JComponent {
                   // return fonts;
                 }
               });
-      new Thread(future).start();
+      DefaultTaskScheduler.getInstance().execute(null, TaskScheduler.Priority.PREFETCH, future);
     }
   }
 
@@ -318,12 +349,81 @@ public class JFontChooser extends JComponent {
   public static synchronized Font[] getAllFonts() {
     loadAllFonts();
     try {
+      // If the task is still waiting in the queue of the scheduler, we
+      // load the fonts on the current thread rather than waiting for it.
+      future.run();
       return future.get().clone();
     } catch (InterruptedException | ExecutionException ex) {
       return new Font[0];
     }
   }
 
+  /** Sets the file in which the font catalog is kept between application launches. */
+  public static synchronized void setFontCatalogFile(Path file) {
+    fontCatalogFile = file;
+  }
+
+  public static synchronized Path getFontCatalogFile() {
+    return fontCatalogFile;
+  }
+
+  /**
+   * Reads the font catalog from the catalog file, and starts validating it using a worker thread.
+   * If the fingerprint of the font directories has changed, or if there is no catalog file, the
+   * fonts are loaded and a new catalog file is written.
+   *
+   * <p>It is recommended to call this method during the startup of an application.
+   *
+   * @return a future which completes with an up to date font catalog.
+   */
+  public static synchronized CompletableFuture<FontCatalog> loadFontCatalog() {
+    if (validatedFontCatalog == null) {
+      final CompletableFuture<FontCatalog> validated = new CompletableFuture<>();
+      validatedFontCatalog = validated;
+      final Path file = fontCatalogFile;
+      fontCatalog = FontCatalog.read(file);
+      final FontCatalog cached = fontCatalog;
+      DefaultTaskScheduler.getInstance()
+          .execute(
+              null,
+              TaskScheduler.Priority.PREFETCH,
+              () -> {
+                try {
+                  FontCatalog result =
+                      FontCatalog.validate(
+                          cached,
+                          FontCatalog.computeFingerprint(),
+                          JFontChooser::getAllFonts,
+                          file);
+                  if (result != cached) {
+                    synchronized (JFontChooser.class) {
+                      fontCatalog = result;
+                    }
+                  }
+                  validated.complete(result);
+                } catch (RuntimeException ex) {
+                  validated.completeExceptionally(ex);
+                }
+              });
+    }
+    return validatedFontCatalog;
+  }
+
+  /**
+   * Gets a catalog of all fonts. If a catalog file has been read, this method returns immediately.
+   * Otherwise, it waits until the fonts have been loaded.
+   *
+   * @return the font catalog.
+   */
+  public static synchronized FontCatalog getFontCatalog() {
+    loadFontCatalog();
+    if (fontCatalog == null) {
+      // No catalog file yet. The fingerprint is computed by the validation task.
+      fontCatalog = FontCatalog.fromFonts("", getAllFonts());
+    }
+    return fontCatalog;
+  }
+
   /**
    * Gets the selected Font. This is a bound property.
    *
@@ -363,7 +463,6 @@ public class JFontChooser extends JComponent {
         || selectionPath == null
         || selectionPath.getPathCount() != 4
         || !((FontFaceNode) selectionPath.getLastPathComponent())
-            .getFont()
             .getFontName()
             .equals(newValue.getFontName())) {
       if (newValue == null) {
@@ -388,7 +487,7 @@ public class JFontChooser extends JComponent {
         // search in the current family
         if (newFace == null && newFamily != null) {
           for (FontFaceNode face : newFamily.faces()) {
-            if (face.getFont().getFontName().equals(newValue.getFontName())) {
+            if (face.getFontName().equals(newValue.getFontName())) {
               newFace = face;
               break;
             }
@@ -398,7 +497,7 @@ public class JFontChooser extends JComponent {
         if (newFace == null && newCollection != null) {
           for (FontFamilyNode family : newCollection.families()) {
             for (FontFaceNode face : family.faces()) {
-              if (face.getFont().getFontName().equals(newValue.getFontName())) {
+              if (face.getFontName().equals(newValue.getFontName())) {
                 newFamily = family;
                 newFace = face;
                 break;
@@ -414,7 +513,7 @@ public class JFontChooser extends JComponent {
             FontCollectionNode collection = (FontCollectionNode) root.getChildAt(i);
             for (FontFamilyNode family : collection.families()) {
               for (FontFaceNode face : family.faces()) {
-                if (face.getFont().getFontName().equals(newValue.getFontName())) {
+                if (face.getFontName().equals(newValue.getFontName())) {
                   newCollection = collection;
                   newFamily = family;
                   newFace = face;
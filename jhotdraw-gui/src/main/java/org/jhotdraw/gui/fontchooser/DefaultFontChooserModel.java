@@ -51,24 +51,37 @@ public class DefaultFontChooserModel extends AbstractFontChooserModel {
    *
    * @param fonts
    */
-  @SuppressWarnings("unchecked")
   public void setFonts(Font[] fonts) {
-    ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.gui.Labels");
-    // collect families and sort them alphabetically
-    ArrayList<FontFamilyNode> families = new ArrayList<>();
     HashMap<String, FontFamilyNode> familyMap = new HashMap<>();
     for (Font f : fonts) {
-      String familyName = f.getFamily();
-      FontFamilyNode family;
-      if (familyMap.containsKey(familyName)) {
-        family = familyMap.get(familyName);
-      } else {
-        family = new FontFamilyNode(familyName);
-        familyMap.put(familyName, family);
-      }
-      family.add(new FontFaceNode(f));
+      familyMap.computeIfAbsent(f.getFamily(), FontFamilyNode::new).add(new FontFaceNode(f));
+    }
+    setFamilies(familyMap.values());
+  }
+
+  /**
+   * Sets the fonts of the DefaultFontChooserModel from a font catalog. The fonts are not loaded,
+   * until they are requested from the face nodes.
+   *
+   * <p>Fires treeStructureChanged event on the root node.
+   *
+   * @param catalog
+   */
+  public void setFontCatalog(FontCatalog catalog) {
+    HashMap<String, FontFamilyNode> familyMap = new HashMap<>();
+    for (FontCatalog.Entry e : catalog.getEntries()) {
+      familyMap
+          .computeIfAbsent(e.getFamily(), FontFamilyNode::new)
+          .add(new FontFaceNode(e.getFontName(), e.getPSName()));
     }
-    families.addAll(familyMap.values());
+    setFamilies(familyMap.values());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void setFamilies(Collection<FontFamilyNode> familyNodes) {
+    ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.gui.Labels");
+    // sort families alphabetically
+    ArrayList<FontFamilyNode> families = new ArrayList<>(familyNodes);
     Collections.sort(families);
     // group families into collections
     root.removeAllChildren();
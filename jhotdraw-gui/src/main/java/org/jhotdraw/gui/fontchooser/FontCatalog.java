@@ -0,0 +1,262 @@
+/*
+ * @(#)FontCatalog.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.gui.fontchooser;
+
+import java.awt.Font;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Describes the installed fonts by family name, face name and PostScript name, without holding on
+ * to {@code Font} objects.
+ *
+ * <p>A catalog can be written to a file and read back. Reading a catalog takes a few milliseconds,
+ * whereas {@code GraphicsEnvironment.getAllFonts()} may take seconds on systems with many installed
+ * fonts. The catalog stores a fingerprint of the font directories, which can be compared with
+ * {@link #computeFingerprint} to find out whether the catalog is still up to date.
+ */
+public final class FontCatalog {
+
+  private static final String HEADER = "JHotDraw font catalog 2";
+  private final String fingerprint;
+  private final List<Entry> entries;
+
+  public FontCatalog(String fingerprint, List<Entry> entries) {
+    this.fingerprint = fingerprint;
+    this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+  }
+
+  /** Creates a catalog which describes the specified fonts. */
+  public static FontCatalog fromFonts(String fingerprint, Font[] fonts) {
+    ArrayList<Entry> entries = new ArrayList<>(fonts.length);
+    for (Font f : fonts) {
+      entries.add(new Entry(f.getFamily(), f.getFontName(), f.getPSName()));
+    }
+    return new FontCatalog(fingerprint, entries);
+  }
+
+  /** Returns the fingerprint of the font directories at the time the catalog was created. */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Computes a fingerprint of the font directories of the Java runtime and of the operating system.
+   * The fingerprint changes when a font file is added, removed or replaced.
+   *
+   * <p>This method walks the font directories. It should not be called on the AWT Event Dispatcher
+   * Thread.
+   */
+  public static String computeFingerprint() {
+    long hash = 17;
+    hash = 31 * hash + System.getProperty("java.version", "").hashCode();
+    for (Path dir : getFontDirectories()) {
+      if (Files.isDirectory(dir)) {
+        hash = 31 * hash + dir.toString().hashCode();
+        try (Stream<Path> files = Files.walk(dir)) {
+          for (Path p : (Iterable<Path>) files::iterator) {
+            File f = p.toFile();
+            hash = 31 * hash + p.getFileName().toString().hashCode();
+            hash = 31 * hash + f.lastModified();
+            hash = 31 * hash + f.length();
+          }
+        } catch (IOException | RuntimeException ex) {
+          // An unreadable directory yields a different fingerprint than
+          // a readable one, and so the catalog will be revalidated.
+          hash = 31 * hash + 1;
+        }
+      }
+    }
+    return Long.toHexString(hash);
+  }
+
+  private static List<Path> getFontDirectories() {
+    ArrayList<Path> dirs = new ArrayList<>();
+    String home = System.getProperty("user.home", "");
+    dirs.add(Paths.get(System.getProperty("java.home", ""), "lib", "fonts"));
+    String os = System.getProperty("os.name", "").toLowerCase();
+    if (os.startsWith("windows")) {
+      String windir = System.getenv("WINDIR");
+      if (windir != null) {
+        dirs.add(Paths.get(windir, "Fonts"));
+      }
+      String localAppData = System.getenv("LOCALAPPDATA");
+      if (localAppData != null) {
+        dirs.add(Paths.get(localAppData, "Microsoft", "Windows", "Fonts"));
+      }
+    } else if (os.startsWith("mac")) {
+      dirs.add(Paths.get("/System/Library/Fonts"));
+      dirs.add(Paths.get("/Library/Fonts"));
+      dirs.add(Paths.get(home, "Library", "Fonts"));
+    } else {
+      dirs.add(Paths.get("/usr/share/fonts"));
+      dirs.add(Paths.get("/usr/local/share/fonts"));
+      dirs.add(Paths.get(home, ".fonts"));
+      dirs.add(Paths.get(home, ".local", "share", "fonts"));
+    }
+    return dirs;
+  }
+
+  /**
+   * Reads a catalog from a file.
+   *
+   * @return the catalog, or null if the file does not exist or is not a catalog
+   */
+  public static FontCatalog read(Path file) {
+    if (!Files.isReadable(file)) {
+      return null;
+    }
+    try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(r.readLine())) {
+        return null;
+      }
+      String fingerprint = r.readLine();
+      if (fingerprint == null) {
+        return null;
+      }
+      ArrayList<Entry> entries = new ArrayList<>();
+      for (String line = r.readLine(); line != null; line = r.readLine()) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 3) {
+          return null;
+        }
+        entries.add(new Entry(fields[0], fields[1], fields[2]));
+      }
+      return new FontCatalog(fingerprint, entries);
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the catalog to a file. The file is replaced atomically, so that concurrently running
+   * applications never read a partially written catalog.
+   */
+  public void write(Path file) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, "fontcatalog", ".tmp");
+    try {
+      try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        w.write(HEADER);
+        w.newLine();
+        w.write(fingerprint);
+        w.newLine();
+        for (Entry e : entries) {
+          if (isStorable(e.family) && isStorable(e.fontName) && isStorable(e.psName)) {
+            w.write(e.family + '\t' + e.fontName + '\t' + e.psName);
+            w.newLine();
+          }
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Returns the cached catalog, if it has been created with the specified fingerprint. Otherwise,
+   * creates a new catalog from the installed fonts and writes it to the catalog file.
+   *
+   * @param cached the catalog which has been read from the file, or null
+   * @param fingerprint the current fingerprint of the font directories
+   * @param fonts supplies the installed fonts; only called if the cached catalog is out of date
+   * @param file the catalog file
+   * @return an up to date catalog
+   */
+  public static FontCatalog validate(
+      FontCatalog cached, String fingerprint, Supplier<Font[]> fonts, Path file) {
+    if (cached != null && fingerprint.equals(cached.fingerprint)) {
+      return cached;
+    }
+    FontCatalog result = fromFonts(fingerprint, fonts.get());
+    try {
+      result.write(file);
+    } catch (IOException ex) {
+      // The catalog will be created again on the next launch.
+      Logger.getLogger(FontCatalog.class.getName())
+          .log(Level.FINE, "Could not write font catalog " + file, ex);
+    }
+    return result;
+  }
+
+  private static boolean isStorable(String name) {
+    return name.indexOf('\t') == -1 && name.indexOf('\n') == -1 && name.indexOf('\r') == -1;
+  }
+
+  /** Returns true, if both catalogs describe the same fonts. The fingerprints are not compared. */
+  public boolean hasSameEntries(FontCatalog that) {
+    return that != null && this.entries.equals(that.entries);
+  }
+
+  /**
+   * Describes a font face. The style is not stored, because the fonts of the graphics environment
+   * are always plain. The face name tells whether a face is bold or italic.
+   */
+  public static final class Entry {
+
+    private final String family;
+    private final String fontName;
+    private final String psName;
+
+    public Entry(String family, String fontName, String psName) {
+      this.family = family;
+      this.fontName = fontName;
+      this.psName = psName;
+    }
+
+    public String getFamily() {
+      return family;
+    }
+
+    /** Returns the font face name, which can be used to create the font. */
+    public String getFontName() {
+      return fontName;
+    }
+
+    public String getPSName() {
+      return psName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Entry)) {
+        return false;
+      }
+      Entry that = (Entry) obj;
+      return this.family.equals(that.family)
+          && this.fontName.equals(that.fontName)
+          && this.psName.equals(that.psName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(family, fontName, psName);
+    }
+  }
+}
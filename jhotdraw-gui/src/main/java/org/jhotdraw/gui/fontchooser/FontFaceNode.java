@@ -17,13 +17,27 @@ public class FontFaceNode implements MutableTreeNode, Comparable<FontFaceNode>,
 
   private FontFamilyNode parent;
   private Font typeface;
+  private String fontName;
   private String name;
 
   public FontFaceNode(Font typeface) {
     this.typeface = typeface;
+    this.fontName = typeface.getFontName();
     this.name = beautifyName(typeface.getPSName());
   }
 
+  /**
+   * Creates a node for a font face, which has not been loaded yet. The font is created when {@link
+   * #getFont} is called for the first time.
+   *
+   * @param fontName the font face name
+   * @param psName the PostScript name of the font face
+   */
+  public FontFaceNode(String fontName, String psName) {
+    this.fontName = fontName;
+    this.name = beautifyName(psName);
+  }
+
   protected String beautifyName(String name) {
     // 'Beautify' the name
     int p = name.lastIndexOf('-');
@@ -98,9 +112,17 @@ public class FontFaceNode implements MutableTreeNode, Comparable<FontFaceNode>,
   }
 
   public Font getFont() {
+    if (typeface == null) {
+      typeface = new Font(fontName, Font.PLAIN, 1);
+    }
     return typeface;
   }
 
+  /** Returns the font face name. Unlike {@link #getFont}, this does not load the font. */
+  public String getFontName() {
+    return fontName;
+  }
+
   @Override
   public String toString() {
     return name;
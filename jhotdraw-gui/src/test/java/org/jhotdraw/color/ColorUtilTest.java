@@ -0,0 +1,170 @@
+/*
+ * @(#)ColorUtilTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.color;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.PixelGrabber;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ColorUtilTest {
+
+  /**
+   * The error bounds of the lookup table for the generic CMYK profile, in 1/255, as documented in
+   * {@link ColorSpaceLUT}.
+   */
+  private static final int MAX_LUT_ERROR = 20;
+
+  private static final int TYPICAL_LUT_ERROR = 2;
+  private static final double MAX_MEAN_LUT_ERROR = 0.35;
+
+  @AfterEach
+  public void enableLookupTables() {
+    ColorSpaceLUT.setEnabled(true);
+  }
+
+  private static ColorSpace[] colorSpaces() {
+    return new ColorSpace[] {
+      ColorSpace.getInstance(ColorSpace.CS_sRGB),
+      new CIELABColorSpace(),
+      HSVColorSpace.getInstance(),
+      CMYKGenericColorSpace.getInstance()
+    };
+  }
+
+  /** Returns random color components within the range of the color space. */
+  private static float[] randomColors(ColorSpace cs, int count, Random random) {
+    int n = cs.getNumComponents();
+    float[] colorvalues = new float[count * n];
+    for (int i = 0; i < colorvalues.length; i++) {
+      int c = i % n;
+      colorvalues[i] =
+          cs.getMinValue(c) + random.nextFloat() * (cs.getMaxValue(c) - cs.getMinValue(c));
+    }
+    return colorvalues;
+  }
+
+  /** Converts each color on its own. */
+  private static int[] toRGB24(ColorSpace cs, float[] colorvalues) {
+    int n = cs.getNumComponents();
+    int[] rgb24 = new int[colorvalues.length / n];
+    float[] components = new float[n];
+    float[] rgb = new float[3];
+    for (int i = 0; i < rgb24.length; i++) {
+      System.arraycopy(colorvalues, i * n, components, 0, n);
+      rgb24[i] = ColorUtil.CStoRGB24(cs, components, rgb);
+    }
+    return rgb24;
+  }
+
+  @Test
+  public void testBatchConversionMatchesSingleConversion() {
+    ColorSpaceLUT.setEnabled(false);
+    Random random = new Random(0);
+    for (ColorSpace cs : colorSpaces()) {
+      float[] colorvalues = randomColors(cs, 2000, random);
+      int[] rgb24 = new int[2010];
+      ColorUtil.CStoRGB24(cs, colorvalues, rgb24, 10, 2000);
+      int[] expected = toRGB24(cs, colorvalues);
+      for (int i = 0; i < expected.length; i++) {
+        assertThat(rgb24[10 + i]).as("%s color %d", cs, i).isEqualTo(expected[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testLookupTableErrorIsBounded() {
+    ColorSpace cs = CMYKGenericColorSpace.getInstance();
+    assertThat(ColorSpaceLUT.isUsedFor(cs)).isTrue();
+    float[] colorvalues = randomColors(cs, 20000, new Random(1));
+    int[] rgb24 = new int[20000];
+    ColorUtil.CStoRGB24(cs, colorvalues, rgb24, 0, 20000);
+    int[] expected = toRGB24(cs, colorvalues);
+    long sum = 0;
+    int max = 0;
+    int atypical = 0;
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(rgb24[i] >>> 24).isEqualTo(expected[i] >>> 24);
+      for (int shift = 0; shift < 24; shift += 8) {
+        int error = Math.abs((rgb24[i] >> shift & 0xff) - (expected[i] >> shift & 0xff));
+        sum += error;
+        max = Math.max(max, error);
+        if (error > TYPICAL_LUT_ERROR) {
+          atypical++;
+        }
+      }
+    }
+    int channels = 3 * expected.length;
+    assertThat(max).isLessThanOrEqualTo(MAX_LUT_ERROR);
+    assertThat((double) sum / channels).isLessThanOrEqualTo(MAX_MEAN_LUT_ERROR);
+    // 99% of the channels
+    assertThat(atypical).isLessThanOrEqualTo(channels / 100);
+  }
+
+  /** Computes the pixels of a color wheel one after the other on the current thread. */
+  private static int[] generateSingleThreaded(PolarColorWheelImageProducer p) {
+    ColorSpace cs = p.colorSpace;
+    int[] pixels = new int[p.w * p.h];
+    float[] components = new float[cs.getNumComponents()];
+    int[] rgb24 = new int[1];
+    for (int index = 0; index < pixels.length; index++) {
+      if (p.alphas[index] != 0) {
+        components[p.angularIndex] = p.angulars[index];
+        components[p.radialIndex] = p.radials[index];
+        components[p.verticalIndex] = p.verticalValue;
+        ColorUtil.CStoRGB24(cs, components, rgb24, 0, 1);
+        pixels[index] = p.alphas[index] | 0xffffff & rgb24[0];
+      }
+    }
+    return pixels;
+  }
+
+  @Test
+  public void testBandedColorWheelMatchesSingleThreadedColorWheel() {
+    for (boolean isLUT : new boolean[] {false, true}) {
+      ColorSpaceLUT.setEnabled(isLUT);
+      for (ColorSpace cs : colorSpaces()) {
+        // Large enough to be generated in bands
+        PolarColorWheelImageProducer p = new PolarColorWheelImageProducer(cs, 300, 300);
+        p.setVerticalValue(cs.getMaxValue(2) * 0.75f);
+        p.generateColorWheel();
+        assertThat(p.pixels).as("%s lut=%b", cs, isLUT).isEqualTo(generateSingleThreaded(p));
+      }
+    }
+  }
+
+  @Test
+  public void testColorTrackMatchesSingleConversion() throws InterruptedException {
+    ColorSpaceLUT.setEnabled(false);
+    for (ColorSpace cs : colorSpaces()) {
+      for (int component = 0; component < cs.getNumComponents(); component++) {
+        ColorTrackImageProducer p = new ColorTrackImageProducer(106, 4, 6, true);
+        p.setColorSliderModel(new DefaultColorSliderModel(cs));
+        p.setColorComponentIndex(component);
+        p.generateColorTrack();
+        int[] pixels = new int[106 * 4];
+        PixelGrabber grabber = new PixelGrabber(p, 0, 0, 106, 4, pixels, 0, 106);
+        assertThat(grabber.grabPixels(10000)).isTrue();
+
+        float[] components = new DefaultColorSliderModel(cs).getComponents();
+        float[] rgb = new float[3];
+        float min = cs.getMinValue(component);
+        float max = cs.getMaxValue(component);
+        for (int x = 0; x < 100; x++) {
+          components[component] = (x / 99f) * (max - min) + min;
+          int expected = ColorUtil.CStoRGB24(cs, components, rgb);
+          // The track has no alpha channel
+          assertThat(pixels[3 + x] & 0xffffff).as("%s %d", cs, x).isEqualTo(expected & 0xffffff);
+        }
+      }
+    }
+  }
+}
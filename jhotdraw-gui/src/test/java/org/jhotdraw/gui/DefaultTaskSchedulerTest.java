@@ -0,0 +1,158 @@
+/*
+ * @(#)DefaultTaskSchedulerTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.gui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingWorker;
+import org.jhotdraw.api.app.TaskScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class DefaultTaskSchedulerTest {
+
+  private final DefaultTaskScheduler scheduler = new DefaultTaskScheduler(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+  private final Object owner = new Object();
+
+  @AfterEach
+  public void tearDown() {
+    release.countDown();
+  }
+
+  /** Occupies the only worker thread until the test releases it. */
+  private void blockWorker() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    scheduler.execute(
+        null,
+        Priority.INTERACTIVE,
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    started.await();
+  }
+
+  private Runnable logging(String name) {
+    return () -> log.add(name);
+  }
+
+  /** Waits until all tasks which have been queued so far are done. */
+  private void awaitQueuedTasks() throws Exception {
+    scheduler.execute(null, Priority.PREFETCH, () -> {}).get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testTasksAreDequeuedByPriority() throws Exception {
+    blockWorker();
+    scheduler.execute(null, Priority.PREFETCH, logging("prefetch"));
+    scheduler.execute(null, Priority.EXPORT, logging("export"));
+    scheduler.execute(null, Priority.LOAD, logging("load 1"));
+    scheduler.execute(null, Priority.INTERACTIVE, logging("interactive"));
+    scheduler.execute(null, Priority.LOAD, logging("load 2"));
+    release.countDown();
+    awaitQueuedTasks();
+    assertThat(log).containsExactly("interactive", "load 1", "load 2", "export", "prefetch");
+  }
+
+  @Test
+  public void testSerialExecutorRunsTasksInOrder() throws Exception {
+    DefaultTaskScheduler parallel = new DefaultTaskScheduler(4);
+    ExecutorService serial = parallel.createSerialExecutor(owner, Priority.INTERACTIVE);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    for (int i = 0; i < 20; i++) {
+      String name = "task " + i;
+      serial.execute(
+          () -> {
+            if (running.incrementAndGet() > 1) {
+              overlaps.incrementAndGet();
+            }
+            log.add(name);
+            Thread.yield();
+            running.decrementAndGet();
+          });
+    }
+    serial.shutdown();
+    assertThat(serial.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(overlaps.get()).isZero();
+    assertThat(log).hasSize(20);
+    for (int i = 0; i < 20; i++) {
+      assertThat(log.get(i)).isEqualTo("task " + i);
+    }
+  }
+
+  @Test
+  public void testCancelDrainsTheSerialQueue() throws Exception {
+    ExecutorService serial = scheduler.createSerialExecutor(owner, Priority.INTERACTIVE);
+    blockWorker();
+    SwingWorker<Object, Object> worker =
+        new SwingWorker<Object, Object>() {
+          @Override
+          protected Object doInBackground() {
+            log.add("worker");
+            return null;
+          }
+        };
+    serial.execute(logging("first"));
+    serial.execute(worker);
+    serial.execute(logging("third"));
+    scheduler.cancel(owner);
+    assertThat(worker.isCancelled()).isTrue();
+    release.countDown();
+    awaitQueuedTasks();
+    // The executor is not stalled by the canceled tasks
+    serial.execute(logging("after cancel"));
+    serial.shutdown();
+    assertThat(serial.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(log).containsExactly("after cancel");
+  }
+
+  @Test
+  public void testCancelKeepsExportTasks() throws Exception {
+    blockWorker();
+    Future<?> load = scheduler.execute(owner, Priority.LOAD, logging("load"));
+    Future<?> export = scheduler.execute(owner, Priority.EXPORT, logging("export"));
+    scheduler.cancel(owner);
+    release.countDown();
+    export.get(10, TimeUnit.SECONDS);
+    awaitQueuedTasks();
+    assertThat(load.isCancelled()).isTrue();
+    assertThat(log).containsExactly("export");
+  }
+
+  @Test
+  public void testShutdownLetsQueuedTasksComplete() throws Exception {
+    ExecutorService serial = scheduler.createSerialExecutor(owner, Priority.INTERACTIVE);
+    blockWorker();
+    serial.execute(logging("first"));
+    serial.execute(logging("second"));
+    serial.shutdown();
+    assertThatThrownBy(() -> serial.execute(logging("rejected")))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(serial.isTerminated()).isFalse();
+    release.countDown();
+    assertThat(serial.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(log).containsExactly("first", "second");
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * @(#)FontCatalogTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.gui.fontchooser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Font;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FontCatalogTest {
+
+  @TempDir Path dir;
+
+  private int loadCount;
+
+  private static FontCatalog createCatalog(String fingerprint) {
+    return new FontCatalog(
+        fingerprint,
+        Arrays.asList(
+            new FontCatalog.Entry("Serif", "Serif.plain", "Serif"),
+            new FontCatalog.Entry("Serif", "Serif.bold", "Serif-Bold"),
+            new FontCatalog.Entry("Sans Serif", "Sans Serif Italic", "SansSerif-Italic")));
+  }
+
+  private Supplier<Font[]> countingFonts() {
+    return () -> {
+      loadCount++;
+      return new Font[] {new Font("Dialog", Font.PLAIN, 1)};
+    };
+  }
+
+  @Test
+  public void testWrittenCatalogCanBeReadBack() throws Exception {
+    Path file = dir.resolve("sub").resolve("fontcatalog.txt");
+    FontCatalog catalog = createCatalog("abc");
+    catalog.write(file);
+    FontCatalog read = FontCatalog.read(file);
+    assertThat(read).isNotNull();
+    assertThat(read.getFingerprint()).isEqualTo("abc");
+    assertThat(read.hasSameEntries(catalog)).isTrue();
+    assertThat(read.getEntries()).isEqualTo(catalog.getEntries());
+    // The temporary file has been moved into place
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertThat(files).containsExactly(file);
+    }
+  }
+
+  @Test
+  public void testNamesWhichCannotBeStoredAreSkipped() throws Exception {
+    Path file = dir.resolve("fontcatalog.txt");
+    new FontCatalog(
+            "abc",
+            Arrays.asList(
+                new FontCatalog.Entry("Bad\tFamily", "Bad", "Bad"),
+                new FontCatalog.Entry("Serif", "Serif.plain", "Serif")))
+        .write(file);
+    assertThat(FontCatalog.read(file).getEntries())
+        .containsExactly(new FontCatalog.Entry("Serif", "Serif.plain", "Serif"));
+  }
+
+  @Test
+  public void testOtherFilesAreNotRead() throws Exception {
+    assertThat(FontCatalog.read(dir.resolve("missing.txt"))).isNull();
+    Path file = dir.resolve("fontcatalog.txt");
+    Files.write(
+        file,
+        "JHotDraw font catalog 1\nabc\nSerif\tSerif\tSerif\t0\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(FontCatalog.read(file)).isNull();
+  }
+
+  @Test
+  public void testCatalogWithSameFingerprintIsKept() throws Exception {
+    Path file = dir.resolve("fontcatalog.txt");
+    createCatalog("abc").write(file);
+    FontCatalog cached = FontCatalog.read(file);
+    assertThat(FontCatalog.validate(cached, "abc", countingFonts(), file)).isSameAs(cached);
+    assertThat(loadCount).isZero();
+  }
+
+  @Test
+  public void testCatalogIsRenewedWhenFingerprintChanges() throws Exception {
+    Path file = dir.resolve("fontcatalog.txt");
+    createCatalog("abc").write(file);
+    FontCatalog cached = FontCatalog.read(file);
+    FontCatalog validated = FontCatalog.validate(cached, "def", countingFonts(), file);
+    assertThat(loadCount).isEqualTo(1);
+    assertThat(validated.getFingerprint()).isEqualTo("def");
+    assertThat(validated.hasSameEntries(cached)).isFalse();
+    assertThat(validated.getEntries()).hasSize(1);
+
+    FontCatalog reread = FontCatalog.read(file);
+    assertThat(reread.getFingerprint()).isEqualTo("def");
+    assertThat(reread.hasSameEntries(validated)).isTrue();
+    assertThat(FontCatalog.validate(reread, "def", countingFonts(), file)).isSameAs(reread);
+    assertThat(loadCount).isEqualTo(1);
+  }
+
+  @Test
+  public void testMissingCatalogIsCreated() {
+    Path file = dir.resolve("fontcatalog.txt");
+    FontCatalog validated = FontCatalog.validate(null, "abc", countingFonts(), file);
+    assertThat(loadCount).isEqualTo(1);
+    assertThat(FontCatalog.read(file).hasSameEntries(validated)).isTrue();
+  }
+}
@@ -0,0 +1,520 @@
+/*
+ * @(#)BinaryDOMInput.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.jhotdraw.io.BinaryDOMOutput.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.jhotdraw.xml.DOMFactory;
+import org.jhotdraw.xml.DOMInput;
+
+/**
+ * A {@code DOMInput} which reads the binary representation written by {@link BinaryDOMOutput}.
+ *
+ * <p>The element tree is decoded from the buffer at once. Attribute values keep the type with which
+ * they have been written, so that numbers do not need to be parsed again. Values can be requested
+ * as any type, though, with the same conversions as {@link org.jhotdraw.xml.JavaxDOMInput}.
+ */
+public class BinaryDOMInput implements DOMInput {
+
+  private final DOMFactory factory;
+  private final Element document;
+  private Element current;
+  private final HashMap<Integer, Object> idobjects = new HashMap<>();
+
+  /**
+   * Creates a new instance, and decodes the element tree from the remaining bytes of the buffer.
+   *
+   * @throws IOException if the buffer does not hold a supported binary drawing
+   */
+  public BinaryDOMInput(DOMFactory factory, ByteBuffer buf) throws IOException {
+    this.factory = factory;
+    try {
+      if (buf.getInt() != MAGIC) {
+        throw new IOException("Not a binary drawing.");
+      }
+      int version = readVarInt(buf);
+      if (version < 1 || version > VERSION) {
+        throw new IOException("Unsupported binary drawing version: " + version);
+      }
+      document = new Decoder(buf).decode();
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("Corrupt binary drawing.", e);
+    }
+    current = document;
+  }
+
+  @Override
+  public String getTagName() {
+    return current.tagName;
+  }
+
+  @Override
+  public String getAttribute(String name, String defaultValue) {
+    Object value = current.getAttribute(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    String str = toString(value);
+    return str.isEmpty() ? defaultValue : str;
+  }
+
+  @Override
+  public String getText() {
+    return getText(null);
+  }
+
+  @Override
+  public String getText(String defaultValue) {
+    if (current.children.isEmpty() && current.text == null) {
+      return defaultValue;
+    }
+    StringBuilder buf = new StringBuilder();
+    current.appendText(buf);
+    return buf.toString();
+  }
+
+  @Override
+  public int getAttribute(String name, int defaultValue) {
+    Object value = current.getAttribute(name);
+    if (value instanceof Number) {
+      return ((Number) value).intValue();
+    }
+    String str = (value == null) ? "" : toString(value);
+    return str.isEmpty() ? defaultValue : Long.decode(str).intValue();
+  }
+
+  @Override
+  public double getAttribute(String name, double defaultValue) {
+    Object value = current.getAttribute(name);
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    String str = (value == null) ? "" : toString(value);
+    return str.isEmpty() ? defaultValue : Double.parseDouble(str);
+  }
+
+  @Override
+  public boolean getAttribute(String name, boolean defaultValue) {
+    Object value = current.getAttribute(name);
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    String str = (value == null) ? "" : toString(value);
+    return str.isEmpty() ? defaultValue : Boolean.parseBoolean(str);
+  }
+
+  @Override
+  public List<String> getInheritedAttribute(String name) {
+    List<String> values = new ArrayList<>();
+    for (Element e = current; e != document; e = e.parent) {
+      Object value = e.getAttribute(name);
+      values.add(0, (value == null) ? "" : toString(value));
+    }
+    return values;
+  }
+
+  @Override
+  public int getElementCount() {
+    return current.children.size();
+  }
+
+  @Override
+  public int getElementCount(String tagName) {
+    int count = 0;
+    for (Element child : current.children) {
+      if (child.tagName.equalsIgnoreCase(tagName)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void openElement(int index) {
+    if (index < current.children.size()) {
+      current = current.children.get(index);
+    }
+  }
+
+  @Override
+  public void openElement(String tagName) {
+    for (Element child : current.children) {
+      if (child.tagName.equalsIgnoreCase(tagName)) {
+        current = child;
+        return;
+      }
+    }
+    throw new IllegalArgumentException("element not found:" + tagName);
+  }
+
+  @Override
+  public void openElement(String tagName, int index) {
+    int count = 0;
+    for (Element child : current.children) {
+      if (child.tagName.equalsIgnoreCase(tagName) && count++ == index) {
+        current = child;
+        return;
+      }
+    }
+    throw new IllegalArgumentException("no such child " + tagName + "[" + index + "]");
+  }
+
+  @Override
+  public void closeElement() {
+    current = current.parent;
+  }
+
+  @Override
+  public Object readObject() throws IOException {
+    return readObject(0);
+  }
+
+  @Override
+  public Object readObject(int index) throws IOException {
+    openElement(index);
+    Object o;
+    if (current.ref >= 0) {
+      if (!idobjects.containsKey(current.ref)) {
+        throw new IOException("Illegal object reference: <" + getTagName() + " ref=" + current.ref);
+      }
+      o = idobjects.get(current.ref);
+    } else {
+      o = factory.read(this);
+      if (current.id >= 0) {
+        idobjects.put(current.id, o);
+      }
+    }
+    closeElement();
+    return o;
+  }
+
+  /** Formats a value in the same way as {@link org.jhotdraw.xml.JavaxDOMOutput}. */
+  private static String toString(Object value) {
+    String str = value.toString();
+    if ((value instanceof Double || value instanceof Float) && str.endsWith(".0")) {
+      str = str.substring(0, str.length() - 2);
+    }
+    return str;
+  }
+
+  static int readVarInt(ByteBuffer buf) {
+    return (int) readVarLong(buf);
+  }
+
+  static long readVarLong(ByteBuffer buf) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buf.get();
+      value |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable length integer.");
+  }
+
+  /** An element of the decoded tree. */
+  private static class Element {
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final String tagName;
+    private final Element parent;
+    private final ArrayList<Element> children = new ArrayList<>(0);
+    private String[] attributeNames = NO_NAMES;
+    private Object[] attributeValues = NO_VALUES;
+    private int attributeCount;
+    private String text;
+    private int id = -1;
+    private int ref = -1;
+
+    Element(String tagName, Element parent) {
+      this.tagName = tagName;
+      this.parent = parent;
+    }
+
+    /** Returns the attribute value. An attribute which has been set twice has the later value. */
+    Object getAttribute(String name) {
+      if ("id".equals(name) && id >= 0) {
+        return Integer.toString(id, 16);
+      }
+      if ("ref".equals(name) && ref >= 0) {
+        return Integer.toString(ref, 16);
+      }
+      for (int i = attributeCount - 1; i >= 0; i--) {
+        if (attributeNames[i].equals(name)) {
+          return attributeValues[i];
+        }
+      }
+      return null;
+    }
+
+    void addAttribute(String name, Object value) {
+      if (attributeCount == attributeNames.length) {
+        int newLength = Math.max(4, attributeCount * 2);
+        attributeNames = Arrays.copyOf(attributeNames, newLength);
+        attributeValues = Arrays.copyOf(attributeValues, newLength);
+      }
+      attributeNames[attributeCount] = name;
+      attributeValues[attributeCount] = value;
+      attributeCount++;
+    }
+
+    void appendText(StringBuilder buf) {
+      if (text != null) {
+        buf.append(text);
+      }
+      for (Element child : children) {
+        child.appendText(buf);
+      }
+    }
+  }
+
+  /** The tag name, and the types and names of the attributes of elements. */
+  private record Shape(String tagName, int[] kinds, int[] nameIndices) {
+
+    /** Returns true, if at least one attribute has a value, which has been written. */
+    boolean hasValues() {
+      for (int kind : kinds) {
+        if (kind != TRUE_ATTRIBUTE && kind != FALSE_ATTRIBUTE && kind != OBJECT_ID) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Decodes the token stream written by {@code BinaryDOMOutput}. */
+  private static class Decoder {
+
+    private final ByteBuffer buf;
+    private final ArrayList<String> strings = new ArrayList<>();
+    private final ArrayList<Shape> shapes = new ArrayList<>();
+    private long[] lastValues = new long[64];
+    private int nextId;
+
+    Decoder(ByteBuffer buf) {
+      this.buf = buf;
+    }
+
+    Element decode() throws IOException {
+      Element document = new Element("#document", null);
+      Element element = document;
+      while (buf.hasRemaining()) {
+        int token = buf.get();
+        switch (token) {
+          case START_ELEMENT:
+            Element child = new Element(readString(), element);
+            element.children.add(child);
+            element = child;
+            break;
+          case END_ELEMENT:
+            if (element == document) {
+              throw new IOException("Unbalanced end of element.");
+            }
+            element = element.parent;
+            break;
+          case TEXT:
+            String text = readUTF8(readLength());
+            element.text = (element.text == null) ? text : element.text + text;
+            break;
+          case SHAPED_ELEMENT:
+            Shape shape = readShape();
+            Element shaped = new Element(shape.tagName(), element);
+            element.children.add(shaped);
+            readValues(shaped, shape);
+            element = shaped;
+            break;
+          case EMPTY_ELEMENTS:
+            Shape runShape = readShape();
+            long count = readVarLong(buf);
+            // Each element has at least one value, which takes at least one byte
+            if (!runShape.hasValues() || count < 0 || count > buf.remaining()) {
+              throw new IOException("Illegal number of empty elements: " + count);
+            }
+            element.children.ensureCapacity(element.children.size() + (int) count);
+            for (int i = 0; i < count; i++) {
+              Element empty = new Element(runShape.tagName(), element);
+              element.children.add(empty);
+              readValues(empty, runShape);
+            }
+            break;
+          default:
+            if (!isAttribute(token)) {
+              throw new IOException("Unknown token: " + token);
+            }
+            readValue(element, token, hasName(token) ? readStringIndex() : -1);
+            break;
+        }
+      }
+      if (element != document) {
+        throw new IOException("Unexpected end of binary drawing.");
+      }
+      return document;
+    }
+
+    /**
+     * Reads an attribute value, and adds it to an element.
+     *
+     * @param kind the type of the attribute, such as {@code INT_ATTRIBUTE}
+     * @param nameIndex the index of the attribute name in the string table, or -1 for an object id
+     *     or reference
+     */
+    private void readValue(Element element, int kind, int nameIndex) throws IOException {
+      String name = (nameIndex < 0) ? null : strings.get(nameIndex);
+      switch (kind) {
+        case OBJECT_ID:
+          element.id = nextId++;
+          break;
+        case OBJECT_REF:
+          long ref = readVarLong(buf);
+          if (ref < 0 || ref > Integer.MAX_VALUE) {
+            throw new IOException("Illegal object reference: " + ref);
+          }
+          element.ref = (int) ref;
+          break;
+        case STRING_ATTRIBUTE:
+          element.addAttribute(name, readString());
+          break;
+        case INT_ATTRIBUTE:
+          element.addAttribute(name, (int) unZigZag(readVarLong(buf)));
+          break;
+        case TRUE_ATTRIBUTE:
+          element.addAttribute(name, Boolean.TRUE);
+          break;
+        case FALSE_ATTRIBUTE:
+          element.addAttribute(name, Boolean.FALSE);
+          break;
+        case FLOAT_ATTRIBUTE:
+          element.addAttribute(name, buf.getFloat());
+          break;
+        case DOUBLE_ATTRIBUTE:
+          element.addAttribute(name, buf.getDouble());
+          break;
+        case DELTA_ATTRIBUTE:
+          if (nameIndex >= lastValues.length) {
+            lastValues = Arrays.copyOf(lastValues, Math.max(nameIndex + 1, lastValues.length * 2));
+          }
+          long value = lastValues[nameIndex] + unZigZag(readVarLong(buf));
+          lastValues[nameIndex] = value;
+          element.addAttribute(name, (double) value);
+          break;
+        default:
+          throw new IOException("Unknown attribute type: " + kind);
+      }
+    }
+
+    private void readValues(Element element, Shape shape) throws IOException {
+      for (int i = 0; i < shape.kinds().length; i++) {
+        readValue(element, shape.kinds()[i], shape.nameIndices()[i]);
+      }
+    }
+
+    /**
+     * Reads a reference to the shape table, or a new shape, which is added to the table.
+     *
+     * @throws IOException if the reference does not point into the shape table
+     */
+    private Shape readShape() throws IOException {
+      long ref = readVarLong(buf);
+      if (ref < 0 || ref > shapes.size()) {
+        throw new IOException("Illegal shape reference: " + ref);
+      }
+      if (ref != 0) {
+        return shapes.get((int) ref - 1);
+      }
+      String tagName = readString();
+      long count = readVarLong(buf);
+      if (count < 0 || count > buf.remaining()) {
+        throw new IOException("Illegal attribute count: " + count);
+      }
+      int[] kinds = new int[(int) count];
+      int[] nameIndices = new int[kinds.length];
+      for (int i = 0; i < kinds.length; i++) {
+        kinds[i] = buf.get();
+        if (!isAttribute(kinds[i])) {
+          throw new IOException("Unknown attribute type: " + kinds[i]);
+        }
+        nameIndices[i] = hasName(kinds[i]) ? readStringIndex() : -1;
+      }
+      Shape shape = new Shape(tagName, kinds, nameIndices);
+      shapes.add(shape);
+      return shape;
+    }
+
+    private static boolean isAttribute(int token) {
+      return token >= OBJECT_ID && token <= DELTA_ATTRIBUTE;
+    }
+
+    private static boolean hasName(int kind) {
+      return kind != OBJECT_ID && kind != OBJECT_REF;
+    }
+
+    private String readString() throws IOException {
+      return strings.get(readStringIndex());
+    }
+
+    /**
+     * Reads a reference to a string of the string table, or a new string, which is added to the
+     * table.
+     *
+     * @throws IOException if the reference does not point into the string table
+     */
+    private int readStringIndex() throws IOException {
+      long ref = readVarLong(buf);
+      if (ref < 0 || ref > strings.size()) {
+        throw new IOException("Illegal string reference: " + ref);
+      }
+      if (ref != 0) {
+        return (int) ref - 1;
+      }
+      strings.add(readUTF8(readLength()));
+      return strings.size() - 1;
+    }
+
+    /**
+     * Reads the length of a byte sequence.
+     *
+     * @throws IOException if the length is negative or exceeds the remaining bytes
+     */
+    private int readLength() throws IOException {
+      long length = readVarLong(buf);
+      if (length < 0 || length > buf.remaining()) {
+        throw new IOException("Illegal length: " + length);
+      }
+      return (int) length;
+    }
+
+    private String readUTF8(int length) {
+      String str;
+      if (buf.hasArray()) {
+        int pos = buf.position();
+        str = new String(buf.array(), buf.arrayOffset() + pos, length, StandardCharsets.UTF_8);
+        buf.position(pos + length);
+      } else {
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        str = new String(bytes, StandardCharsets.UTF_8);
+      }
+      return str;
+    }
+
+    private static long unZigZag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
@@ -0,0 +1,518 @@
+/*
+ * @(#)BinaryDOMOutput.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.jhotdraw.xml.DOMFactory;
+import org.jhotdraw.xml.DOMOutput;
+
+/**
+ * A {@code DOMOutput} which writes a compact binary representation of the element tree.
+ *
+ * <p>The binary representation holds the same elements, attributes and texts as the XML written by
+ * {@link org.jhotdraw.xml.JavaxDOMOutput}, and can be read back with {@link BinaryDOMInput}. It is
+ * written as a stream of tokens:
+ *
+ * <ul>
+ *   <li>Tag names, attribute names and string values are written once, and referred to by their
+ *       index in a string table afterwards.
+ *   <li>Integers are written as variable length integers.
+ *   <li>Numbers without fractional part are written as the difference to the previous value of an
+ *       attribute with the same name. Coordinates of neighbouring figures and bezier nodes are
+ *       usually close to each other, so that the difference fits into one or two bytes.
+ *   <li>Object ids are implied by the order in which the objects are written.
+ *   <li>The tag name and the names and types of the attributes of an element form its shape. Each
+ *       shape is written once, and referred to by its index in a shape table afterwards, so that
+ *       only the attribute values of an element have to be written.
+ *   <li>Consecutive empty elements with the same shape, such as the nodes of a bezier path, are
+ *       written as one list of attribute values.
+ * </ul>
+ */
+public class BinaryDOMOutput implements DOMOutput {
+
+  /** The magic number at the start of each binary drawing: "JHDB". */
+  static final int MAGIC = 0x4a484442;
+
+  /** The version of the binary format. Version 1 has no shapes. */
+  static final int VERSION = 2;
+
+  static final int START_ELEMENT = 1;
+  static final int END_ELEMENT = 2;
+  static final int TEXT = 3;
+  static final int OBJECT_ID = 4;
+  static final int OBJECT_REF = 5;
+  static final int STRING_ATTRIBUTE = 6;
+  static final int INT_ATTRIBUTE = 7;
+  static final int TRUE_ATTRIBUTE = 8;
+  static final int FALSE_ATTRIBUTE = 9;
+  static final int FLOAT_ATTRIBUTE = 10;
+  static final int DOUBLE_ATTRIBUTE = 11;
+  static final int DELTA_ATTRIBUTE = 12;
+  static final int SHAPED_ELEMENT = 13;
+  static final int EMPTY_ELEMENTS = 14;
+
+  /** Integral numbers up to this magnitude are delta encoded. */
+  static final double MAX_DELTA_VALUE = 1L << 52;
+
+  private final DataOutputStream out;
+  private final DOMFactory factory;
+  private IOException error;
+
+  /** Maps strings to their index in the string table. */
+  private final HashMap<String, Integer> strings = new HashMap<>();
+
+  /** Holds the last integral value of each attribute name, indexed by the string index. */
+  private long[] lastValues = new long[64];
+
+  /** Maps the shapes of elements to their index in the shape table. */
+  private final HashMap<List<Object>, Shape> shapes = new HashMap<>();
+
+  /** The element which has been opened last, until its shape is known. */
+  private PendingElement pending;
+
+  /** Empty elements with the same shape, which have not been written yet. */
+  private Shape runShape;
+
+  private final ArrayList<Object[]> runValues = new ArrayList<>();
+  private int writtenShapeCount;
+
+  private final HashMap<Object, Integer> objectids = new HashMap<>();
+  private HashMap<String, Object> prototypes;
+  private final ArrayList<String> openElements = new ArrayList<>();
+
+  /** Creates a new instance which writes to the specified stream. */
+  public BinaryDOMOutput(DOMFactory factory, OutputStream out) throws IOException {
+    this.factory = factory;
+    this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+    this.out.writeInt(MAGIC);
+    writeVarInt(VERSION);
+  }
+
+  /** The binary format has no doctype. This method does nothing. */
+  @Override
+  public void setDoctype(String doctype) {}
+
+  @Override
+  public void openElement(String tagName) {
+    flushPending();
+    pending = new PendingElement(tagName);
+    openElements.add(tagName);
+  }
+
+  @Override
+  public void closeElement() {
+    if (openElements.isEmpty()) {
+      throw new IllegalStateException("There is no open element.");
+    }
+    openElements.remove(openElements.size() - 1);
+    if (pending != null && pending.hasValues()) {
+      // An empty element; it may be written together with its siblings
+      Shape shape = getShape(pending);
+      if (shape != runShape) {
+        flushRun();
+        runShape = shape;
+      }
+      runValues.add(pending.values());
+      pending = null;
+    } else {
+      flush();
+      write(END_ELEMENT);
+    }
+  }
+
+  /** Comments are not stored in the binary format. This method does nothing. */
+  @Override
+  public void addComment(String comment) {}
+
+  @Override
+  public void addText(String text) {
+    flush();
+    write(TEXT);
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    write(bytes);
+  }
+
+  @Override
+  public void addAttribute(String name, String value) {
+    if (value != null) {
+      addValue(STRING_ATTRIBUTE, name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, String value, String defaultValue) {
+    if (!value.equals(defaultValue)) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, int value) {
+    addValue(INT_ATTRIBUTE, name, value);
+  }
+
+  @Override
+  public void addAttribute(String name, int value, int defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, boolean value) {
+    addValue(value ? TRUE_ATTRIBUTE : FALSE_ATTRIBUTE, name, null);
+  }
+
+  @Override
+  public void addAttribute(String name, boolean value, boolean defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, float value) {
+    addValue(FLOAT_ATTRIBUTE, name, value);
+  }
+
+  @Override
+  public void addAttribute(String name, float value, float defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, double value) {
+    if (value == Math.rint(value)
+        && Math.abs(value) <= MAX_DELTA_VALUE
+        && (value != 0 || 1 / value > 0)) {
+      addValue(DELTA_ATTRIBUTE, name, (long) value);
+    } else {
+      addValue(DOUBLE_ATTRIBUTE, name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, double value, double defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void writeObject(Object o) throws IOException {
+    String tagName = factory.getName(o);
+    if (tagName == null) {
+      throw new IllegalArgumentException("no tag name for:" + o);
+    }
+    openElement(tagName);
+    Integer ref = objectids.get(o);
+    if (ref != null) {
+      addValue(OBJECT_REF, null, ref);
+    } else {
+      objectids.put(o, objectids.size());
+      addValue(OBJECT_ID, null, null);
+      factory.write(this, o);
+    }
+    closeElement();
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  @Override
+  public Object getPrototype() {
+    if (prototypes == null) {
+      prototypes = new HashMap<>();
+    }
+    String tagName = openElements.get(openElements.size() - 1);
+    return prototypes.computeIfAbsent(tagName, factory::createPrototype);
+  }
+
+  /**
+   * Flushes the output. The underlying stream is not closed.
+   *
+   * @throws IOException if writing has failed
+   */
+  public void finish() throws IOException {
+    if (!openElements.isEmpty()) {
+      throw new IllegalStateException("Element is still open: " + openElements);
+    }
+    flushRun();
+    if (error == null) {
+      out.flush();
+    } else {
+      throw error;
+    }
+  }
+
+  /**
+   * Adds an attribute value of the specified type to the pending element. If the attributes of the
+   * current element have already been written, the value is written with its type and name.
+   *
+   * @param kind the token of the type, such as {@code INT_ATTRIBUTE}
+   * @param name the attribute name, or null for an object id or reference
+   */
+  private void addValue(int kind, String name, Object value) {
+    if (pending != null) {
+      pending.add(kind, name, value);
+    } else {
+      flushRun();
+      write(kind);
+      writeValue(kind, (name == null) ? -1 : writeString(name), value);
+    }
+  }
+
+  /** Writes an attribute value without its type and name. */
+  private void writeValue(int kind, int nameIndex, Object value) {
+    switch (kind) {
+      case STRING_ATTRIBUTE:
+        writeString((String) value);
+        break;
+      case INT_ATTRIBUTE:
+        writeVarLong(zigZag((Integer) value));
+        break;
+      case FLOAT_ATTRIBUTE:
+        try {
+          out.writeFloat((Float) value);
+        } catch (IOException e) {
+          error = e;
+        }
+        break;
+      case DOUBLE_ATTRIBUTE:
+        try {
+          out.writeDouble((Double) value);
+        } catch (IOException e) {
+          error = e;
+        }
+        break;
+      case DELTA_ATTRIBUTE:
+        if (nameIndex >= lastValues.length) {
+          lastValues = Arrays.copyOf(lastValues, Math.max(nameIndex + 1, lastValues.length * 2));
+        }
+        long longValue = (Long) value;
+        writeVarLong(zigZag(longValue - lastValues[nameIndex]));
+        lastValues[nameIndex] = longValue;
+        break;
+      case OBJECT_REF:
+        writeVarInt((Integer) value);
+        break;
+      default:
+        // The type is the value
+        break;
+    }
+  }
+
+  /** Writes the pending element and the empty elements before it. */
+  private void flush() {
+    flushPending();
+    flushRun();
+  }
+
+  /** Writes the pending element as an open element, after the empty elements before it. */
+  private void flushPending() {
+    if (pending != null) {
+      flushRun();
+      write(SHAPED_ELEMENT);
+      Shape shape = writeShape(getShape(pending));
+      writeValues(shape, pending.values());
+      pending = null;
+    }
+  }
+
+  /** Writes the empty elements which have the same shape. */
+  private void flushRun() {
+    if (!runValues.isEmpty()) {
+      write(EMPTY_ELEMENTS);
+      writeShape(runShape);
+      writeVarInt(runValues.size());
+      for (Object[] values : runValues) {
+        writeValues(runShape, values);
+      }
+      runValues.clear();
+    }
+    runShape = null;
+  }
+
+  private void writeValues(Shape shape, Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      writeValue(shape.kinds[i], shape.nameIndices[i], values[i]);
+    }
+  }
+
+  /** Returns the shape of an element. A shape which is not yet in the table is created. */
+  private Shape getShape(PendingElement e) {
+    List<Object> key = e.getShapeKey();
+    Shape shape = shapes.get(key);
+    if (shape == null) {
+      shape =
+          new Shape(e.tagName, Arrays.copyOf(e.kinds, e.count), Arrays.copyOf(e.names, e.count));
+      shapes.put(key, shape);
+    }
+    return shape;
+  }
+
+  /**
+   * Writes a reference to the shape table. A shape which has not been written yet, is written
+   * inline, and gets the next index in the table.
+   */
+  private Shape writeShape(Shape shape) {
+    if (shape.index >= 0) {
+      writeVarInt(shape.index + 1);
+      return shape;
+    }
+    shape.index = writtenShapeCount++;
+    writeVarInt(0);
+    writeString(shape.tagName);
+    writeVarInt(shape.kinds.length);
+    for (int i = 0; i < shape.kinds.length; i++) {
+      write(shape.kinds[i]);
+      if (shape.names[i] != null) {
+        shape.nameIndices[i] = writeString(shape.names[i]);
+      }
+    }
+    return shape;
+  }
+
+  /**
+   * Writes a reference to the string table. A string which is not yet in the table is written
+   * inline, and added to the table.
+   *
+   * @return the index of the string in the table
+   */
+  private int writeString(String str) {
+    Integer index = strings.get(str);
+    if (index != null) {
+      writeVarInt(index + 1);
+      return index;
+    }
+    int newIndex = strings.size();
+    strings.put(str, newIndex);
+    writeVarInt(0);
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    write(bytes);
+    return newIndex;
+  }
+
+  /** The tag name and the names and types of the attributes of an element. */
+  private static class Shape {
+
+    private final String tagName;
+    private final int[] kinds;
+    private final String[] names;
+    private final int[] nameIndices;
+
+    /** The index in the shape table, or -1 if the shape has not been written yet. */
+    private int index = -1;
+
+    Shape(String tagName, int[] kinds, String[] names) {
+      this.tagName = tagName;
+      this.kinds = kinds;
+      this.names = names;
+      this.nameIndices = new int[kinds.length];
+      Arrays.fill(nameIndices, -1);
+    }
+  }
+
+  /** An element whose attributes are collected, until it gets content or is closed. */
+  private static class PendingElement {
+
+    private final String tagName;
+    private int[] kinds = new int[8];
+    private String[] names = new String[8];
+    private Object[] values = new Object[8];
+    private int count;
+
+    PendingElement(String tagName) {
+      this.tagName = tagName;
+    }
+
+    void add(int kind, String name, Object value) {
+      if (count == kinds.length) {
+        kinds = Arrays.copyOf(kinds, count * 2);
+        names = Arrays.copyOf(names, count * 2);
+        values = Arrays.copyOf(values, count * 2);
+      }
+      kinds[count] = kind;
+      names[count] = name;
+      values[count] = value;
+      count++;
+    }
+
+    /** Returns true, if at least one attribute has a value, which has to be written. */
+    boolean hasValues() {
+      for (int i = 0; i < count; i++) {
+        if (kinds[i] != TRUE_ATTRIBUTE && kinds[i] != FALSE_ATTRIBUTE && kinds[i] != OBJECT_ID) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    Object[] values() {
+      return Arrays.copyOf(values, count);
+    }
+
+    List<Object> getShapeKey() {
+      List<Object> key = new ArrayList<>(1 + count * 2);
+      key.add(tagName);
+      for (int i = 0; i < count; i++) {
+        key.add(kinds[i]);
+        key.add(names[i]);
+      }
+      return key;
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private void writeVarInt(int value) {
+    writeVarLong(value & 0xffffffffL);
+  }
+
+  private void writeVarLong(long value) {
+    try {
+      while ((value & ~0x7fL) != 0) {
+        out.write((int) ((value & 0x7f) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    } catch (IOException e) {
+      error = e;
+    }
+  }
+
+  private void write(int b) {
+    try {
+      out.write(b);
+    } catch (IOException e) {
+      error = e;
+    }
+  }
+
+  private void write(byte[] bytes) {
+    try {
+      out.write(bytes);
+    } catch (IOException e) {
+      error = e;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * @(#)BinaryInputFormat.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.io.InputFormat;
+import org.jhotdraw.xml.DOMFactory;
+
+/**
+ * An InputFormat that can read Drawings with DOMStorable Figure's from the binary representation
+ * written by {@link BinaryOutputFormat}.
+ *
+ * <p>Files are memory mapped instead of being read through a stream.
+ */
+public class BinaryInputFormat implements InputFormat {
+
+  private DOMFactory factory;
+
+  /** Format description used for the file filter. */
+  private String description;
+
+  /** File name extension used for the file filter. */
+  private String fileExtension;
+
+  /** The mime type is used for clipboard access. */
+  private String mimeType;
+
+  /** The data flavor constructed from the mime type. */
+  private DataFlavor dataFlavor;
+
+  /**
+   * Creates a new instance with format name "Binary Drawing", file extension "jhd" and mime type
+   * "application/x-jhotdraw-binary".
+   */
+  public BinaryInputFormat(DOMFactory factory) {
+    this(factory, "Binary Drawing", "jhd", "application/x-jhotdraw-binary");
+  }
+
+  /**
+   * Creates a new instance using the specified parameters.
+   *
+   * @param factory The factory for creating Figures from the binary elements.
+   * @param description The format description to be used for the file filter.
+   * @param fileExtension The file extension to be used for file filter.
+   * @param mimeType The Mime Type is used for clipboard access.
+   */
+  public BinaryInputFormat(
+      DOMFactory factory, String description, String fileExtension, String mimeType) {
+    this.factory = factory;
+    this.description = description;
+    this.fileExtension = fileExtension;
+    this.mimeType = mimeType;
+    this.dataFlavor = new DataFlavor(mimeType, description);
+  }
+
+  @Override
+  public javax.swing.filechooser.FileFilter getFileFilter() {
+    return new FileNameExtensionFilter(description, fileExtension);
+  }
+
+  @Override
+  public boolean isDataFlavorSupported(DataFlavor flavor) {
+    return flavor.equals(dataFlavor);
+  }
+
+  @Override
+  public void read(URI uri, Drawing drawing, boolean replace) throws IOException {
+    if ("file".equals(uri.getScheme())) {
+      read(new File(uri), drawing, replace);
+    } else {
+      InputFormat.super.read(uri, drawing, replace);
+    }
+  }
+
+  @Override
+  public void read(File file, Drawing drawing, boolean replace) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), drawing, replace);
+    }
+  }
+
+  @Override
+  public void read(InputStream in, Drawing drawing, boolean replace) throws IOException {
+    read(ByteBuffer.wrap(in.readAllBytes()), drawing, replace);
+  }
+
+  private void read(ByteBuffer buf, Drawing drawing, boolean replace) throws IOException {
+    BinaryDOMInput domi = new BinaryDOMInput(factory, buf);
+    domi.openElement(factory.getName(drawing));
+    domi.openElement("figures");
+    List<Figure> figures = new ArrayList<>(domi.getElementCount());
+    for (int i = 0, n = domi.getElementCount(); i < n; i++) {
+      figures.add((Figure) domi.readObject(i));
+    }
+    domi.closeElement();
+    domi.closeElement();
+    if (replace) {
+      drawing.removeAllChildren();
+    }
+    drawing.addAll(figures);
+  }
+
+  @Override
+  public void read(Transferable t, Drawing drawing, boolean replace)
+      throws UnsupportedFlavorException, IOException {
+    List<Figure> figures = new ArrayList<>();
+    InputStream in = (InputStream) t.getTransferData(dataFlavor);
+    BinaryDOMInput domi = new BinaryDOMInput(factory, ByteBuffer.wrap(in.readAllBytes()));
+    domi.openElement("Drawing-Clip");
+    for (int i = 0, n = domi.getElementCount(); i < n; i++) {
+      figures.add((Figure) domi.readObject(i));
+    }
+    domi.closeElement();
+    if (replace) {
+      drawing.removeAllChildren();
+    }
+    drawing.addAll(figures);
+  }
+}
@@ -0,0 +1,646 @@
+/*
+ * @(#)ChunkedDrawing.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.figure.AbstractAttributedFigure;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.geom.QuadTree;
+import org.jhotdraw.io.ChunkedDrawingFile.Chunk;
+import org.jhotdraw.io.ChunkedDrawingFile.Entry;
+
+/**
+ * A {@link org.jhotdraw.draw.Drawing} which keeps only part of its figures in memory, and reads the
+ * other figures from a {@link ChunkedDrawingFile} when they are needed.
+ *
+ * <p>The chunks of the file are loaded, when a drawing view draws or hit-tests an area which
+ * intersects their bounds. When more figures than {@link #getMaxLoadedFigures} are loaded, the
+ * least recently used chunks are evicted, unless they have been changed, hold connected figures or
+ * figures with figure listeners, such as selected figures, or intersect the area which is currently
+ * being requested. Consequently, {@link #getChildren} only holds the loaded figures, whereas {@link
+ * #getDrawingArea} covers all figures of the file.
+ *
+ * <p>Chunks are loaded and evicted under the write lock of the drawing, before the drawing is read.
+ * No paging takes place while the current thread holds the read lock. Since paging changes the
+ * children of the drawing, the drawing can not be drawn by several threads at the same time.
+ *
+ * <p>{@link #save} writes the changed chunks back to the file. Figures which have been added since
+ * the last save are packed into new chunks.
+ *
+ * <p>Like the other drawings, a chunked drawing is not serializable. Its figures are read from an
+ * open file. Use {@link #clone} to obtain a drawing which holds all figures in memory.
+ */
+public class ChunkedDrawing extends QuadTreeDrawing {
+
+  private static final long serialVersionUID = 1L;
+
+  private final ChunkedDrawingFile file;
+  private final ArrayList<Chunk> chunks = new ArrayList<>();
+  private final QuadTree<Chunk> chunkTree = new QuadTree<>();
+
+  /** The loaded chunks in the order of their last use. */
+  private final LinkedHashMap<Chunk, Chunk> loadedChunks = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Holds the chunk and the z-order value of each loaded figure. */
+  private final IdentityHashMap<Figure, Placement> placements = new IdentityHashMap<>();
+
+  /** Holds the connection figures and the figures they connect. This chunk is never evicted. */
+  private Chunk residentChunk;
+
+  /** Holds the figures which have been added since the last save. */
+  private Chunk addedChunk;
+
+  private Rectangle2D.Double fileBounds;
+  private double bottomZ;
+  private double topZ;
+  private int loadedFigureCount;
+  private int maxLoadedFigures = 100_000;
+  private int chunkSize = ChunkedDrawingFile.DEFAULT_CHUNK_SIZE;
+
+  /** Suppresses change tracking while chunks are loaded or evicted. */
+  private boolean isPaging;
+
+  /**
+   * Creates a new drawing for the specified file. Only the resident chunk is loaded immediately.
+   */
+  public ChunkedDrawing(ChunkedDrawingFile file) {
+    this.file = file;
+    this.bottomZ = file.getBottomZ();
+    this.topZ = file.getTopZ();
+    for (Chunk chunk : file.getChunks()) {
+      if (chunk.resident && residentChunk == null) {
+        residentChunk = chunk;
+      } else {
+        addChunk(chunk);
+      }
+    }
+    if (residentChunk == null) {
+      residentChunk = new Chunk();
+      residentChunk.resident = true;
+      residentChunk.figures = new ArrayList<>();
+    } else {
+      load(residentChunk);
+    }
+    addedChunk = new Chunk();
+    addedChunk.figures = new ArrayList<>();
+    updateFileBounds();
+  }
+
+  /** Returns the maximal number of figures which are kept in memory. */
+  public int getMaxLoadedFigures() {
+    return maxLoadedFigures;
+  }
+
+  /**
+   * Sets the maximal number of figures which are kept in memory. This is a soft limit: changed
+   * chunks and the chunks of the currently requested area are kept even if they exceed it.
+   */
+  public void setMaxLoadedFigures(int newValue) {
+    maxLoadedFigures = newValue;
+  }
+
+  /** Sets the maximal number of figures per chunk, which is used for newly added figures. */
+  public void setChunkSize(int newValue) {
+    chunkSize = newValue;
+  }
+
+  /** Returns the number of chunks of the file which are currently loaded. */
+  public int getLoadedChunkCount() {
+    return loadedChunks.size();
+  }
+
+  /** Returns true if figures have been added, changed or removed since the last save. */
+  public boolean isModified() {
+    if (residentChunk.dirty || !addedChunk.figures.isEmpty()) {
+      return true;
+    }
+    for (Chunk chunk : loadedChunks.keySet()) {
+      if (chunk.dirty) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Loads all chunks which intersect the specified area, and evicts chunks which are no longer
+   * needed. Does nothing, if the current thread holds the read lock of the drawing.
+   */
+  public void ensureLoaded(Rectangle2D r) {
+    if (isReadLockedByCurrentThread()) {
+      return;
+    }
+    Lock writeLock = lockForWriting();
+    try {
+      page(r);
+    } finally {
+      unlock(writeLock);
+    }
+  }
+
+  /** Loads all chunks which contain the specified point. */
+  public void ensureLoaded(Point2D.Double p) {
+    ensureLoaded(around(p));
+  }
+
+  /**
+   * Loads the chunks of the specified area, and performs a query on the drawing before another
+   * thread can evict them again.
+   */
+  private <T> T query(Rectangle2D r, Supplier<T> query) {
+    if (isReadLockedByCurrentThread()) {
+      return query.get();
+    }
+    Lock writeLock = lockForWriting();
+    try {
+      page(r);
+      return query.get();
+    } finally {
+      unlock(writeLock);
+    }
+  }
+
+  private static Rectangle2D.Double around(Point2D.Double p) {
+    return new Rectangle2D.Double(p.x - 1, p.y - 1, 2, 2);
+  }
+
+  private void page(Rectangle2D r) {
+    List<Chunk> requested = new ArrayList<>(chunkTree.findIntersects(r));
+    for (Chunk chunk : requested) {
+      if (chunk.figures == null) {
+        load(chunk);
+      } else {
+        loadedChunks.get(chunk);
+      }
+    }
+    evict(requested);
+  }
+
+  private void load(Chunk chunk) {
+    List<Entry> entries;
+    try {
+      entries = file.read(chunk);
+    } catch (IOException e) {
+      Logger.getLogger(ChunkedDrawing.class.getName())
+          .log(Level.WARNING, "Unable to read chunk at " + chunk.offset, e);
+      return;
+    }
+    chunk.figures = new ArrayList<>(entries.size());
+    isPaging = true;
+    try {
+      for (Entry e : entries) {
+        Figure f = e.figure();
+        placements.put(f, new Placement(chunk, e.z()));
+        chunk.figures.add(f);
+        basicAdd(insertionIndex(e.z()), f);
+        f.addNotify(this);
+      }
+    } finally {
+      isPaging = false;
+    }
+    if (chunk != residentChunk) {
+      loadedChunks.put(chunk, chunk);
+    }
+    loadedFigureCount += entries.size();
+    invalidate();
+  }
+
+  private void evict(Collection<Chunk> requested) {
+    for (Iterator<Chunk> i = loadedChunks.keySet().iterator();
+        i.hasNext() && loadedFigureCount > maxLoadedFigures; ) {
+      Chunk chunk = i.next();
+      if (!chunk.dirty && !requested.contains(chunk) && !isReferenced(chunk)) {
+        i.remove();
+        unload(chunk);
+      }
+    }
+  }
+
+  /**
+   * Returns true, if a figure of the chunk is connected, or has figure listeners. Evicting such a
+   * figure would leave its connections, or the selection of a view, with a figure which is no
+   * longer part of the drawing.
+   */
+  private boolean isReferenced(Chunk chunk) {
+    for (Figure f : chunk.figures) {
+      if (!(f instanceof AbstractAttributedFigure)
+          || ((AbstractAttributedFigure) f).hasFigureListeners()
+          || !findConnections(f).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void unload(Chunk chunk) {
+    isPaging = true;
+    try {
+      for (Figure f : chunk.figures) {
+        int index = indexOfLoaded(f);
+        if (index != -1) {
+          basicRemoveChild(index);
+          f.removeNotify(this);
+        }
+        placements.remove(f);
+      }
+    } finally {
+      isPaging = false;
+    }
+    loadedFigureCount -= chunk.figures.size();
+    chunk.figures = null;
+    invalidate();
+  }
+
+  /**
+   * Writes the changed chunks and the added figures to the file. The space of the previous chunks
+   * is reused by later saves.
+   */
+  public void save() throws IOException {
+    Lock writeLock = lockForWriting();
+    try {
+      basicSave();
+    } finally {
+      unlock(writeLock);
+    }
+  }
+
+  private void basicSave() throws IOException {
+    for (Figure f : ChunkedDrawingFile.findResidentFigures(CHILDREN)) {
+      makeResident(f);
+    }
+    for (Iterator<Chunk> i = chunks.iterator(); i.hasNext(); ) {
+      Chunk chunk = i.next();
+      if (chunk.dirty) {
+        chunkTree.remove(chunk);
+        if (chunk.figures.isEmpty()) {
+          i.remove();
+          loadedChunks.remove(chunk);
+        } else {
+          file.writeChunk(chunk, entries(chunk.figures));
+          chunkTree.add(chunk, chunk.bounds);
+        }
+        chunk.dirty = false;
+      }
+    }
+    if (residentChunk.dirty) {
+      file.writeChunk(residentChunk, entries(residentChunk.figures));
+      residentChunk.dirty = false;
+    }
+    for (List<Entry> packed : ChunkedDrawingFile.pack(entries(addedChunk.figures), chunkSize)) {
+      Chunk chunk = new Chunk();
+      file.writeChunk(chunk, packed);
+      chunk.figures = new ArrayList<>(packed.size());
+      for (Entry e : packed) {
+        chunk.figures.add(e.figure());
+        placements.get(e.figure()).chunk = chunk;
+      }
+      addChunk(chunk);
+      loadedChunks.put(chunk, chunk);
+    }
+    addedChunk.figures.clear();
+    List<Chunk> index = new ArrayList<>(chunks.size() + 1);
+    if (!residentChunk.figures.isEmpty()) {
+      index.add(residentChunk);
+    }
+    index.addAll(chunks);
+    file.writeIndex(index);
+    Set<Figure> children = Collections.newSetFromMap(new IdentityHashMap<>());
+    children.addAll(CHILDREN);
+    placements.keySet().retainAll(children);
+    updateFileBounds();
+  }
+
+  /** Closes the file. */
+  public void close() throws IOException {
+    file.close();
+  }
+
+  private void makeResident(Figure f) {
+    Placement p = (f == null) ? null : placements.get(f);
+    if (p != null && p.chunk != residentChunk && p.chunk.figures.remove(f)) {
+      p.chunk.dirty = true;
+      p.chunk = residentChunk;
+      residentChunk.figures.add(f);
+      residentChunk.dirty = true;
+    }
+  }
+
+  private List<Entry> entries(List<Figure> figures) {
+    List<Entry> entries = new ArrayList<>(figures.size());
+    for (Figure f : figures) {
+      entries.add(new Entry(f, placements.get(f).z));
+    }
+    return entries;
+  }
+
+  private void addChunk(Chunk chunk) {
+    chunks.add(chunk);
+    chunkTree.add(chunk, chunk.bounds);
+  }
+
+  private void updateFileBounds() {
+    fileBounds = null;
+    for (Chunk chunk : chunks) {
+      if (fileBounds == null) {
+        fileBounds = (Rectangle2D.Double) chunk.bounds.clone();
+      } else {
+        fileBounds.add(chunk.bounds);
+      }
+    }
+    invalidate();
+  }
+
+  /** Returns the index at which a figure with the specified z-order value must be inserted. */
+  private int insertionIndex(double z) {
+    int low = 0;
+    int high = CHILDREN.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (zOf(CHILDREN.get(mid)) <= z) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Returns the index of a loaded figure, using its z-order value as a hint. */
+  private int indexOfLoaded(Figure f) {
+    int index = insertionIndex(zOf(f)) - 1;
+    if (index >= 0 && CHILDREN.get(index) == f) {
+      return index;
+    }
+    return CHILDREN.indexOf(f);
+  }
+
+  private double zOf(Figure f) {
+    Placement p = placements.get(f);
+    return (p == null) ? topZ : p.z;
+  }
+
+  /** Returns a z-order value between the loaded figures at index - 1 and index. */
+  private double zAt(int index) {
+    boolean hasPrevious = index > 0;
+    boolean hasNext = index < CHILDREN.size();
+    if (hasPrevious && hasNext) {
+      return (zOf(CHILDREN.get(index - 1)) + zOf(CHILDREN.get(index))) / 2;
+    } else if (hasNext) {
+      bottomZ = Math.min(bottomZ, zOf(CHILDREN.get(index))) - 1;
+      return bottomZ;
+    } else {
+      topZ = Math.max(topZ, hasPrevious ? zOf(CHILDREN.get(index - 1)) : topZ) + 1;
+      return topZ;
+    }
+  }
+
+  private void markDirty(Figure f) {
+    Placement p = placements.get(f);
+    if (p != null) {
+      p.chunk.dirty = true;
+    }
+  }
+
+  @Override
+  public void basicAdd(int index, Figure figure) {
+    if (!isPaging) {
+      Placement p = placements.get(figure);
+      double z = zAt(index);
+      if (p == null || p.chunk.figures == null || p.chunk.figures.contains(figure)) {
+        p = new Placement(addedChunk, z);
+        placements.put(figure, p);
+      } else {
+        p.z = z;
+        p.chunk.dirty = true;
+      }
+      p.chunk.figures.add(figure);
+      loadedFigureCount++;
+    }
+    super.basicAdd(index, figure);
+  }
+
+  @Override
+  public Figure basicRemoveChild(int index) {
+    Figure figure = super.basicRemoveChild(index);
+    if (!isPaging) {
+      Placement p = placements.get(figure);
+      if (p != null && p.chunk.figures != null && p.chunk.figures.remove(figure)) {
+        p.chunk.dirty = true;
+        loadedFigureCount--;
+      }
+    }
+    return figure;
+  }
+
+  @Override
+  public void bringToFront(Figure figure) {
+    Placement p = placements.get(figure);
+    if (p != null) {
+      p.z = ++topZ;
+      p.chunk.dirty = true;
+    }
+    super.bringToFront(figure);
+  }
+
+  @Override
+  public void sendToBack(Figure figure) {
+    Placement p = placements.get(figure);
+    if (p != null) {
+      p.z = --bottomZ;
+      p.chunk.dirty = true;
+    }
+    super.sendToBack(figure);
+  }
+
+  @Override
+  public Rectangle2D.Double getDrawingArea(double factor) {
+    Rectangle2D.Double r = super.getDrawingArea(factor);
+    if (fileBounds != null) {
+      if (getChildCount() == 0) {
+        r = (Rectangle2D.Double) fileBounds.clone();
+      } else {
+        r.add(fileBounds);
+      }
+    }
+    return r;
+  }
+
+  /** Drawing loads and evicts chunks, so the drawing can not be drawn by several threads. */
+  @Override
+  public boolean isConcurrentlyDrawable() {
+    return false;
+  }
+
+  @Override
+  public void draw(Graphics2D g) {
+    Rectangle2D clipBounds = g.getClipBounds();
+    if (clipBounds != null) {
+      ensureLoaded(clipBounds);
+    }
+    super.draw(g);
+  }
+
+  @Override
+  public List<Figure> getChildren(Rectangle2D.Double bounds) {
+    return query(bounds, () -> super.getChildren(bounds));
+  }
+
+  @Override
+  public Figure findFigureInside(Point2D.Double p) {
+    return query(around(p), () -> super.findFigureInside(p));
+  }
+
+  @Override
+  public Figure findFigure(Point2D.Double p) {
+    return query(around(p), () -> super.findFigure(p));
+  }
+
+  @Override
+  public Figure findFigureExcept(Point2D.Double p, Figure ignore) {
+    return query(around(p), () -> super.findFigureExcept(p, ignore));
+  }
+
+  @Override
+  public Figure findFigureExcept(Point2D.Double p, Collection<? extends Figure> ignore) {
+    return query(around(p), () -> super.findFigureExcept(p, ignore));
+  }
+
+  @Override
+  public Figure findFigureBehind(Point2D.Double p, Figure figure) {
+    return query(around(p), () -> super.findFigureBehind(p, figure));
+  }
+
+  @Override
+  public Figure findFigureBehind(Point2D.Double p, Collection<? extends Figure> children) {
+    return query(around(p), () -> super.findFigureBehind(p, children));
+  }
+
+  @Override
+  public List<Figure> findFigures(Rectangle2D.Double r) {
+    return query(r, () -> super.findFigures(r));
+  }
+
+  @Override
+  public List<Figure> findFiguresWithin(Rectangle2D.Double bounds) {
+    return query(bounds, () -> super.findFiguresWithin(bounds));
+  }
+
+  @Override
+  public Figure findFigure(Point2D.Double p, double scaleDenominator) {
+    double tolerance = 10 / 2 / scaleDenominator;
+    Rectangle2D.Double r =
+        new Rectangle2D.Double(p.x - tolerance, p.y - tolerance, 2 * tolerance, 2 * tolerance);
+    return query(r, () -> super.findFigure(p, scaleDenominator));
+  }
+
+  @Override
+  public Figure findFigureBehind(Point2D.Double p, double scaleDenominator, Figure behindFigure) {
+    double tolerance = 10 / 2 / scaleDenominator;
+    Rectangle2D.Double r =
+        new Rectangle2D.Double(p.x - tolerance, p.y - tolerance, 2 * tolerance, 2 * tolerance);
+    return query(r, () -> super.findFigureBehind(p, scaleDenominator, behindFigure));
+  }
+
+  /**
+   * Returns a {@link QuadTreeDrawing} with clones of all figures of this drawing. The figures of
+   * the chunks which are not loaded are read from the file, so the clone holds all figures in
+   * memory.
+   *
+   * @throws UncheckedIOException if a chunk can not be read
+   */
+  @Override
+  public QuadTreeDrawing clone() {
+    Lock readLock = getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      List<Entry> entries = new ArrayList<>();
+      IdentityHashMap<Figure, Figure> originalToClone = new IdentityHashMap<>();
+      for (Figure f : CHILDREN) {
+        Figure clone = f.clone();
+        originalToClone.put(f, clone);
+        entries.add(new Entry(clone, zOf(f)));
+      }
+      for (Figure clone : originalToClone.values()) {
+        clone.remap(originalToClone, false);
+      }
+      for (Chunk chunk : chunks) {
+        if (chunk.figures == null) {
+          try {
+            entries.addAll(file.read(chunk));
+          } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read chunk at " + chunk.offset, e);
+          }
+        }
+      }
+      entries.sort(Comparator.comparingDouble(Entry::z));
+      QuadTreeDrawing that = new QuadTreeDrawing();
+      that.attr().setAttributes(attr().getAttributes());
+      that.setInputFormats(getInputFormats());
+      that.setOutputFormats(getOutputFormats());
+      for (Entry e : entries) {
+        that.add(e.figure());
+      }
+      return that;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  @Override
+  protected EventHandler createEventHandler() {
+    return new ChunkedEventHandler();
+  }
+
+  /** Marks the chunks of changed figures as dirty. */
+  protected class ChunkedEventHandler extends QuadTreeEventHandler {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void childChanged(Figure child, Rectangle2D.Double invalidatedArea) {
+      markDirty(child);
+      super.childChanged(child, invalidatedArea);
+    }
+
+    @Override
+    public void childAttributeChanged(Figure child) {
+      markDirty(child);
+      super.childAttributeChanged(child);
+    }
+  }
+
+  /** The chunk and the z-order value of a loaded figure. */
+  private static class Placement {
+
+    private Chunk chunk;
+    private double z;
+
+    Placement(Chunk chunk, double z) {
+      this.chunk = chunk;
+      this.z = z;
+    }
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * @(#)ChunkedDrawingFile.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jhotdraw.draw.figure.CompositeFigure;
+import org.jhotdraw.draw.figure.ConnectionFigure;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.xml.DOMFactory;
+
+/**
+ * A drawing file which stores the figures in spatially sorted chunks, so that a {@link
+ * ChunkedDrawing} can read only the chunks which are needed for the visible area of a drawing.
+ *
+ * <p>The file starts with a header, which points to the index. The index holds the bounds, the file
+ * position and the number of figures of each chunk. The chunks are the leaves of an R-tree which is
+ * packed with the Sort-Tile-Recursive algorithm, so that the chunks of neighbouring figures do
+ * hardly overlap. Each chunk is written with {@link BinaryDOMOutput}. Connection figures and the
+ * figures they connect are kept together in a <em>resident</em> chunk, since object references can
+ * not cross chunk boundaries.
+ *
+ * <p>The space which is referenced by the index in the file is never overwritten. When a drawing is
+ * saved, the changed chunks and a new index are written into space which is no longer referenced,
+ * or appended to the file. Then the header is updated to point to the new index, and the file is
+ * truncated after the last referenced byte. Thus the file is at most about twice the size of its
+ * data. Use {@link #write} to write a compact file from scratch.
+ */
+public class ChunkedDrawingFile implements Closeable {
+
+  /** The magic number at the start of each chunked drawing file: "JHDC". */
+  static final int MAGIC = 0x4a484443;
+
+  /** The version of the file format. */
+  static final int VERSION = 1;
+
+  /** The default maximal number of figures per chunk. */
+  public static final int DEFAULT_CHUNK_SIZE = 256;
+
+  private static final int HEADER_SIZE = 16;
+  private static final int CHUNK_ENTRY_SIZE = 8 + 4 + 4 + 1 + 4 * 8;
+
+  private final DOMFactory factory;
+  private final FileChannel channel;
+  private final List<Chunk> chunks;
+  private double bottomZ;
+  private double topZ;
+
+  /** The space which is referenced by the index in the file, sorted by offset. */
+  private List<Extent> committed = new ArrayList<>();
+
+  /** The space which has been written since the index was last written. */
+  private final List<Extent> allocated = new ArrayList<>();
+
+  private ChunkedDrawingFile(DOMFactory factory, FileChannel channel) throws IOException {
+    this.factory = factory;
+    this.channel = channel;
+    ByteBuffer header = map(0, HEADER_SIZE);
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a chunked drawing.");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported chunked drawing version: " + version);
+    }
+    long indexOffset = header.getLong();
+    ByteBuffer index = map(indexOffset, channel.size() - indexOffset);
+    bottomZ = index.getDouble();
+    topZ = index.getDouble();
+    int count = index.getInt();
+    committed.add(new Extent(indexOffset, indexSize(count)));
+    chunks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Chunk chunk = new Chunk();
+      chunk.offset = index.getLong();
+      chunk.length = index.getInt();
+      chunk.figureCount = index.getInt();
+      chunk.resident = index.get() != 0;
+      chunk.bounds =
+          new Rectangle2D.Double(
+              index.getDouble(), index.getDouble(), index.getDouble(), index.getDouble());
+      chunks.add(chunk);
+      committed.add(new Extent(chunk.offset, chunk.length));
+    }
+    committed.sort(Comparator.comparingLong(Extent::offset));
+  }
+
+  /**
+   * Opens a chunked drawing file for reading and saving. Only the header and the index are read.
+   *
+   * @param file the file
+   * @param factory the factory for reading and writing the figures
+   */
+  public static ChunkedDrawingFile open(Path file, DOMFactory factory) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      return new ChunkedDrawingFile(factory, channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Writes the figures into a new chunked drawing file. An existing file is replaced.
+   *
+   * @param file the file
+   * @param factory the factory for writing the figures
+   * @param figures the figures in z-order
+   * @param chunkSize the maximal number of figures per chunk
+   */
+  public static void write(Path file, DOMFactory factory, List<Figure> figures, int chunkSize)
+      throws IOException {
+    Set<Figure> resident = findResidentFigures(figures);
+    List<Entry> residentEntries = new ArrayList<>();
+    List<Entry> entries = new ArrayList<>(figures.size());
+    for (int i = 0; i < figures.size(); i++) {
+      Figure f = figures.get(i);
+      (resident.contains(f) ? residentEntries : entries).add(new Entry(f, i));
+    }
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).putInt(VERSION).putLong(0).flip();
+      channel.write(header, 0);
+      ChunkedDrawingFile f = new ChunkedDrawingFile(factory, channel, figures.size());
+      List<Chunk> chunks = new ArrayList<>();
+      if (!residentEntries.isEmpty()) {
+        Chunk chunk = new Chunk();
+        chunk.resident = true;
+        f.writeChunk(chunk, residentEntries);
+        chunks.add(chunk);
+      }
+      for (List<Entry> packed : pack(entries, chunkSize)) {
+        Chunk chunk = new Chunk();
+        f.writeChunk(chunk, packed);
+        chunks.add(chunk);
+      }
+      f.writeIndex(chunks);
+    }
+  }
+
+  /**
+   * Returns the figures which must be kept in the resident chunk: the figures which are, or
+   * contain, a connection figure, and the figures which are, or contain, the start or end figure of
+   * such a connection.
+   *
+   * @param figures the figures of the drawing
+   * @return a subset of the specified figures
+   */
+  static Set<Figure> findResidentFigures(List<Figure> figures) {
+    Map<Figure, Figure> topLevel = new IdentityHashMap<>();
+    for (Figure f : figures) {
+      collectTopLevel(f, f, topLevel);
+    }
+    Set<Figure> resident = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Map.Entry<Figure, Figure> e : topLevel.entrySet()) {
+      if (e.getKey() instanceof ConnectionFigure) {
+        ConnectionFigure c = (ConnectionFigure) e.getKey();
+        resident.add(e.getValue());
+        if (topLevel.containsKey(c.getStartFigure())) {
+          resident.add(topLevel.get(c.getStartFigure()));
+        }
+        if (topLevel.containsKey(c.getEndFigure())) {
+          resident.add(topLevel.get(c.getEndFigure()));
+        }
+      }
+    }
+    return resident;
+  }
+
+  /** Maps the figure and all figures it contains to the specified top-level figure. */
+  private static void collectTopLevel(Figure f, Figure top, Map<Figure, Figure> topLevel) {
+    topLevel.put(f, top);
+    if (f instanceof CompositeFigure) {
+      for (Figure child : ((CompositeFigure) f).getChildren()) {
+        collectTopLevel(child, top, topLevel);
+      }
+    }
+  }
+
+  /** Creates an instance for writing a new file. */
+  private ChunkedDrawingFile(DOMFactory factory, FileChannel channel, int figureCount) {
+    this.factory = factory;
+    this.channel = channel;
+    this.chunks = new ArrayList<>();
+    this.bottomZ = 0;
+    this.topZ = figureCount;
+  }
+
+  /** Returns the chunks of the file. */
+  List<Chunk> getChunks() {
+    return chunks;
+  }
+
+  /** Returns a z-order value which is below the z-order values of all figures in the file. */
+  double getBottomZ() {
+    return bottomZ;
+  }
+
+  /** Returns a z-order value which is above the z-order values of all figures in the file. */
+  double getTopZ() {
+    return topZ;
+  }
+
+  /**
+   * Reads the figures of a chunk.
+   *
+   * @return the figures with their z-order values
+   */
+  List<Entry> read(Chunk chunk) throws IOException {
+    BinaryDOMInput domi = new BinaryDOMInput(factory, map(chunk.offset, chunk.length));
+    domi.openElement("chunk");
+    int n = domi.getElementCount();
+    List<Entry> entries = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      domi.openElement(i);
+      double z = domi.getAttribute("z", 0.0);
+      entries.add(new Entry((Figure) domi.readObject(), z));
+      domi.closeElement();
+    }
+    domi.closeElement();
+    return entries;
+  }
+
+  /**
+   * Writes the figures into space which is not referenced by the index in the file, and updates the
+   * position, the bounds and the figure count of the chunk. The previous data of the chunk remains
+   * in the file until the next index has been written.
+   */
+  void writeChunk(Chunk chunk, List<Entry> entries) throws IOException {
+    List<Entry> sorted = new ArrayList<>(entries);
+    sorted.sort(Comparator.comparingDouble(Entry::z));
+    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    BinaryDOMOutput domo = new BinaryDOMOutput(factory, buf);
+    domo.openElement("chunk");
+    Rectangle2D.Double bounds = null;
+    for (Entry e : sorted) {
+      domo.openElement("f");
+      domo.addAttribute("z", e.z());
+      domo.writeObject(e.figure());
+      domo.closeElement();
+      if (bounds == null) {
+        bounds = e.figure().getDrawingArea();
+      } else {
+        bounds.add(e.figure().getDrawingArea());
+      }
+      bottomZ = Math.min(bottomZ, e.z());
+      topZ = Math.max(topZ, e.z());
+    }
+    domo.closeElement();
+    domo.finish();
+    chunk.length = buf.size();
+    chunk.offset = allocate(chunk.length);
+    chunk.figureCount = sorted.size();
+    chunk.bounds = (bounds == null) ? new Rectangle2D.Double() : bounds;
+    writeFully(ByteBuffer.wrap(buf.toByteArray()), chunk.offset);
+  }
+
+  /**
+   * Writes an index of the specified chunks into space which is not referenced by the current
+   * index, points the header to it, and truncates the file after the last referenced byte.
+   */
+  void writeIndex(List<Chunk> newChunks) throws IOException {
+    ByteBuffer index = ByteBuffer.allocate(indexSize(newChunks.size()));
+    index.putDouble(bottomZ).putDouble(topZ).putInt(newChunks.size());
+    for (Chunk chunk : newChunks) {
+      index.putLong(chunk.offset).putInt(chunk.length).putInt(chunk.figureCount);
+      index.put((byte) (chunk.resident ? 1 : 0));
+      Rectangle2D.Double r = chunk.bounds;
+      index.putDouble(r.x).putDouble(r.y).putDouble(r.width).putDouble(r.height);
+    }
+    index.flip();
+    long indexOffset = allocate(index.capacity());
+    writeFully(index, indexOffset);
+    channel.force(false);
+    ByteBuffer pointer = ByteBuffer.allocate(8);
+    pointer.putLong(indexOffset).flip();
+    writeFully(pointer, 8);
+    channel.force(false);
+    List<Extent> referenced = new ArrayList<>(newChunks.size() + 1);
+    referenced.add(new Extent(indexOffset, index.capacity()));
+    long end = indexOffset + index.capacity();
+    for (Chunk chunk : newChunks) {
+      referenced.add(new Extent(chunk.offset, chunk.length));
+      end = Math.max(end, chunk.offset + chunk.length);
+    }
+    referenced.sort(Comparator.comparingLong(Extent::offset));
+    committed = referenced;
+    allocated.clear();
+    channel.truncate(end);
+    if (newChunks != chunks) {
+      chunks.clear();
+      chunks.addAll(newChunks);
+    }
+  }
+
+  private static int indexSize(int chunkCount) {
+    return 8 + 8 + 4 + chunkCount * CHUNK_ENTRY_SIZE;
+  }
+
+  /**
+   * Returns the offset of the first gap of the specified length, which is neither referenced by the
+   * index in the file, nor has been written since. If there is no such gap, the space is appended
+   * to the end of the file.
+   */
+  private long allocate(long length) {
+    List<Extent> used = new ArrayList<>(committed.size() + allocated.size());
+    used.addAll(committed);
+    used.addAll(allocated);
+    used.sort(Comparator.comparingLong(Extent::offset));
+    long offset = HEADER_SIZE;
+    for (Extent e : used) {
+      if (e.offset() - offset >= length) {
+        break;
+      }
+      offset = Math.max(offset, e.offset() + e.length());
+    }
+    allocated.add(new Extent(offset, length));
+    return offset;
+  }
+
+  /**
+   * Packs the entries into chunks with the Sort-Tile-Recursive algorithm: the entries are sorted
+   * into vertical slices by the x-coordinate of their center, and each slice is sorted by the
+   * y-coordinate and cut into chunks.
+   */
+  static List<List<Entry>> pack(List<Entry> entries, int chunkSize) {
+    int n = entries.size();
+    if (n == 0) {
+      return Collections.emptyList();
+    }
+    int chunkCount = (n + chunkSize - 1) / chunkSize;
+    int sliceCount = (int) Math.ceil(Math.sqrt(chunkCount));
+    int sliceSize = sliceCount * chunkSize;
+    List<Entry> sorted = new ArrayList<>(entries);
+    sorted.sort(Comparator.comparingDouble(e -> e.figure().getBounds().getCenterX()));
+    List<List<Entry>> packed = new ArrayList<>(chunkCount);
+    for (int i = 0; i < n; i += sliceSize) {
+      List<Entry> slice = new ArrayList<>(sorted.subList(i, Math.min(n, i + sliceSize)));
+      slice.sort(Comparator.comparingDouble(e -> e.figure().getBounds().getCenterY()));
+      for (int j = 0; j < slice.size(); j += chunkSize) {
+        packed.add(slice.subList(j, Math.min(slice.size(), j + chunkSize)));
+      }
+    }
+    return packed;
+  }
+
+  private ByteBuffer map(long position, long size) throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+  }
+
+  private void writeFully(ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      position += channel.write(buf, position);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /** A figure with its z-order value. */
+  record Entry(Figure figure, double z) {}
+
+  /** A range of bytes in the file. */
+  private record Extent(long offset, long length) {}
+
+  /**
+   * A chunk of the file. The fields below the index data are maintained by {@link ChunkedDrawing}.
+   */
+  static class Chunk {
+
+    long offset;
+    int length;
+    int figureCount;
+    boolean resident;
+    Rectangle2D.Double bounds;
+
+    /** The figures of the chunk, if the chunk is loaded; null otherwise. */
+    List<Figure> figures;
+
+    /** Whether the loaded figures differ from the data in the file. */
+    boolean dirty;
+  }
+}
@@ -12,6 +12,7 @@ import java.awt.datatransfer.Transferable;
 import java.io.*;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import org.jhotdraw.datatransfer.InputStreamTransferable;
 import org.jhotdraw.draw.*;
@@ -94,29 +95,40 @@ public class DOMStorableOutputFormat implements OutputFormat {
 
   @Override
   public void write(OutputStream out, Drawing drawing) throws IOException {
-    JavaxDOMOutput domo = new JavaxDOMOutput(factory);
+    StreamingDOMOutput domo = new StreamingDOMOutput(factory, out);
     domo.openElement(factory.getName(drawing));
     //    drawing.write(domo);
     domo.openElement("figures");
-    for (Figure f : drawing.getChildren()) {
-      domo.writeObject(f);
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      for (Figure f : drawing.getChildren()) {
+        domo.writeObject(f);
+      }
+    } finally {
+      readLock.unlock();
     }
     domo.closeElement();
     domo.closeElement();
-    domo.save(out);
+    domo.finish();
   }
 
   @Override
   public Transferable createTransferable(Drawing drawing, List<Figure> figures, double scaleFactor)
       throws IOException {
     ByteArrayOutputStream buf = new ByteArrayOutputStream();
-    JavaxDOMOutput domo = new JavaxDOMOutput(factory);
+    StreamingDOMOutput domo = new StreamingDOMOutput(factory, buf);
     domo.openElement("Drawing-Clip");
     for (Figure f : figures) {
       domo.writeObject(f);
     }
     domo.closeElement();
-    domo.save(buf);
+    domo.finish();
     return new InputStreamTransferable(new DataFlavor(mimeType, description), buf.toByteArray());
   }
+
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {new DataFlavor(mimeType, description)};
+  }
 }
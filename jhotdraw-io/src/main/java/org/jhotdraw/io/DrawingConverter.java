@@ -0,0 +1,197 @@
+/*
+ * @(#)DrawingConverter.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.io.InputFormat;
+import org.jhotdraw.draw.io.OutputFormat;
+
+/**
+ * Converts drawing files from one format into another on a pool of worker threads.
+ *
+ * <p>Each worker thread creates its own input and output formats, so that formats and their parsers
+ * are never shared between threads. For each file, the worker creates a new drawing, reads the file
+ * with the first input format which accepts the file name, and writes the target file with the
+ * first output format which has the file extension of the target file.
+ *
+ * <p>The conversion does not need an AWT component, and can be run in headless mode.
+ */
+public class DrawingConverter {
+
+  /** A conversion of one file. */
+  public record Job(Path source, Path target) {}
+
+  /**
+   * The result of a conversion.
+   *
+   * @param job the job
+   * @param readNanos the time needed for reading the source file
+   * @param writeNanos the time needed for writing the target file
+   * @param error the error, or null if the conversion succeeded
+   */
+  public record Result(Job job, long readNanos, long writeNanos, Exception error) {
+
+    public boolean isSuccess() {
+      return error == null;
+    }
+  }
+
+  /**
+   * The summary of all conversions.
+   *
+   * @param succeeded the number of files which have been converted
+   * @param failed the number of files which could not be converted
+   * @param elapsedNanos the elapsed wall clock time
+   */
+  public record Summary(int succeeded, int failed, long elapsedNanos) {
+
+    /** Returns the number of converted files per second. */
+    public double getThroughput() {
+      return (elapsedNanos == 0) ? 0 : (succeeded + failed) * 1e9 / elapsedNanos;
+    }
+  }
+
+  private final Supplier<Drawing> drawingFactory;
+  private final ThreadLocal<List<InputFormat>> inputFormats;
+  private final ThreadLocal<List<OutputFormat>> outputFormats;
+  private final int threadCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param drawingFactory creates an empty drawing for each file
+   * @param inputFormatsFactory creates the input formats, once for each worker thread
+   * @param outputFormatsFactory creates the output formats, once for each worker thread
+   * @param threadCount the number of worker threads
+   */
+  public DrawingConverter(
+      Supplier<Drawing> drawingFactory,
+      Supplier<List<InputFormat>> inputFormatsFactory,
+      Supplier<List<OutputFormat>> outputFormatsFactory,
+      int threadCount) {
+    this.drawingFactory = drawingFactory;
+    this.inputFormats = ThreadLocal.withInitial(inputFormatsFactory);
+    this.outputFormats = ThreadLocal.withInitial(outputFormatsFactory);
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Converts the files. This method blocks until all files have been converted.
+   *
+   * @param jobs the conversions
+   * @param listener receives the result of each conversion as soon as it is done. The listener is
+   *     called on the worker threads, and must be thread safe.
+   * @return the summary
+   */
+  public Summary convert(List<Job> jobs, Consumer<Result> listener) throws InterruptedException {
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount, new WorkerFactory());
+    try {
+      List<Future<Result>> futures = new ArrayList<>(jobs.size());
+      for (Job job : jobs) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  Result result = convert(job);
+                  listener.accept(result);
+                  return result;
+                }));
+      }
+      int succeeded = 0;
+      int failed = 0;
+      for (Future<Result> f : futures) {
+        try {
+          if (f.get().isSuccess()) {
+            succeeded++;
+          } else {
+            failed++;
+          }
+        } catch (ExecutionException e) {
+          failed++;
+        }
+      }
+      return new Summary(succeeded, failed, System.nanoTime() - start);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Converts a single file on the current thread. */
+  public Result convert(Job job) {
+    long readNanos = 0;
+    long writeNanos = 0;
+    try {
+      File source = job.source().toFile();
+      InputFormat inputFormat = findInputFormat(source);
+      OutputFormat outputFormat = findOutputFormat(job.target());
+      Drawing drawing = drawingFactory.get();
+      drawing.setInputFormats(inputFormats.get());
+      drawing.setOutputFormats(outputFormats.get());
+      long start = System.nanoTime();
+      inputFormat.read(source, drawing);
+      readNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      Path parent = job.target().toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      outputFormat.write(job.target().toUri(), drawing);
+      writeNanos = System.nanoTime() - start;
+      return new Result(job, readNanos, writeNanos, null);
+    } catch (IOException | RuntimeException e) {
+      return new Result(job, readNanos, writeNanos, e);
+    }
+  }
+
+  private InputFormat findInputFormat(File file) throws IOException {
+    for (InputFormat format : inputFormats.get()) {
+      if (format.getFileFilter() != null && format.getFileFilter().accept(file)) {
+        return format;
+      }
+    }
+    throw new IOException("No input format for " + file);
+  }
+
+  private OutputFormat findOutputFormat(Path file) throws IOException {
+    String name = file.getFileName().toString().toLowerCase(Locale.ENGLISH);
+    for (OutputFormat format : outputFormats.get()) {
+      if (name.endsWith("." + format.getFileExtension().toLowerCase(Locale.ENGLISH))) {
+        return format;
+      }
+    }
+    throw new IOException("No output format for " + file);
+  }
+
+  /** Creates daemon worker threads, so that a pending conversion does not block the VM exit. */
+  private static class WorkerFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "DrawingConverter-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
@@ -15,6 +15,7 @@ import java.awt.Composite;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -25,6 +26,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.concurrent.locks.Lock;
 import javax.imageio.ImageIO;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import org.jhotdraw.datatransfer.ImageTransferable;
@@ -129,6 +131,11 @@ public class ImageOutputFormat implements OutputFormat {
     return new ImageTransferable(toImage(drawing, figures, scaleFactor, true));
   }
 
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {DataFlavor.imageFlavor, ImageTransferable.IMAGE_PNG_FLAVOR};
+  }
+
   /**
    * Writes the figures to the specified output stream. This method ensures that all figures of the
    * drawing are visible on the image.
@@ -150,10 +157,17 @@ public class ImageOutputFormat implements OutputFormat {
       Dimension imageSize)
       throws IOException {
     BufferedImage img;
-    if (drawingTransform == null || imageSize == null) {
-      img = toImage(drawing, figures, 1d, false);
-    } else {
-      img = toImage(drawing, figures, drawingTransform, imageSize);
+    // The image is encoded after the lock has been released
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      if (drawingTransform == null || imageSize == null) {
+        img = toImage(drawing, figures, 1d, false);
+      } else {
+        img = toImage(drawing, figures, drawingTransform, imageSize);
+      }
+    } finally {
+      readLock.unlock();
     }
     ImageIO.write(img, formatName, out);
     img.flush();
@@ -21,6 +21,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import org.jhotdraw.datatransfer.AbstractTransferable;
@@ -92,7 +93,13 @@ public class SerializationOutputFormat implements OutputFormat {
   @Override
   public void write(OutputStream out, Drawing drawing) throws IOException {
     ObjectOutputStream oout = new ObjectOutputStream(out);
-    oout.writeObject(drawing);
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      oout.writeObject(drawing);
+    } finally {
+      readLock.unlock();
+    }
     oout.flush();
   }
 
@@ -124,4 +131,9 @@ public class SerializationOutputFormat implements OutputFormat {
       }
     };
   }
+
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {dataFlavor};
+  }
 }
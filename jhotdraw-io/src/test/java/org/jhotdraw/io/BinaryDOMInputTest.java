@@ -0,0 +1,190 @@
+/*
+ * @(#)BinaryDOMInputTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.jhotdraw.io.BinaryDOMOutput.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.junit.jupiter.api.Test;
+
+public class BinaryDOMInputTest {
+
+  /** Writes the header of a binary drawing, followed by the specified tokens. */
+  private static byte[] drawing(long... tokens) {
+    return drawingOfVersion(VERSION, tokens);
+  }
+
+  private static byte[] drawingOfVersion(int version, long... tokens) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteBuffer magic = ByteBuffer.allocate(4).putInt(MAGIC);
+    out.write(magic.array(), 0, 4);
+    writeVarLong(out, version);
+    for (long token : tokens) {
+      writeVarLong(out, token);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7fL) != 0) {
+      out.write((int) (value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static BinaryDOMInput read(byte[] bytes) throws IOException {
+    return new BinaryDOMInput(new DOMDefaultDrawFigureFactory(), ByteBuffer.wrap(bytes));
+  }
+
+  private static byte[] writeFigures() throws IOException {
+    Drawing drawing = new DefaultDrawing();
+    new DOMStorableInputFormat(new DOMDefaultDrawFigureFactory())
+        .read(BinaryDOMInputTest.class.getResourceAsStream("figures.xml"), drawing, true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryOutputFormat(new DOMDefaultDrawFigureFactory()).write(out, drawing);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testWellFormedDrawingIsRead() {
+    // <a b="c"></a>
+    byte[] bytes =
+        drawing(START_ELEMENT, 0, 1, 'a', STRING_ATTRIBUTE, 0, 1, 'b', 0, 1, 'c', END_ELEMENT);
+    assertThatCode(() -> read(bytes)).doesNotThrowAnyException();
+  }
+
+  @Test
+  public void testShapedElementsAreRead() throws IOException {
+    // <a><p x="1" y="2"/><p x="4" y="1"/></a>
+    long[] shape = {0, 0, 1, 'p', 2, DELTA_ATTRIBUTE, 0, 1, 'x', DELTA_ATTRIBUTE, 0, 1, 'y'};
+    long[] values = {2, 2, 4, 6, 1};
+    ByteArrayOutputStream tokens = new ByteArrayOutputStream();
+    tokens.writeBytes(drawing(START_ELEMENT, 0, 1, 'a', EMPTY_ELEMENTS));
+    for (long token : shape) {
+      writeVarLong(tokens, token);
+    }
+    for (long token : values) {
+      writeVarLong(tokens, token);
+    }
+    writeVarLong(tokens, END_ELEMENT);
+    BinaryDOMInput in = read(tokens.toByteArray());
+    in.openElement("a");
+    assertThat(in.getElementCount("p")).isEqualTo(2);
+    in.openElement(1);
+    assertThat(in.getAttribute("x", 0d)).isEqualTo(4d);
+    assertThat(in.getAttribute("y", 0d)).isEqualTo(1d);
+  }
+
+  @Test
+  public void testVersion1IsRead() throws IOException {
+    BinaryDOMInput in =
+        read(
+            drawingOfVersion(
+                1, START_ELEMENT, 0, 1, 'a', INT_ATTRIBUTE, 0, 1, 'b', 6, END_ELEMENT));
+    in.openElement("a");
+    assertThat(in.getAttribute("b", 0)).isEqualTo(3);
+  }
+
+  @Test
+  public void testIllegalShapeIsRejected() {
+    assertThatThrownBy(() -> read(drawing(SHAPED_ELEMENT, 1)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("shape reference");
+    assertThatThrownBy(() -> read(drawing(SHAPED_ELEMENT, 0, 0, 1, 'a', 1, 99)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("attribute type");
+    // Elements without values would take no space
+    assertThatThrownBy(
+            () -> read(drawing(EMPTY_ELEMENTS, 0, 0, 1, 'a', 1, TRUE_ATTRIBUTE, 0, 1, 'b', 1000)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("empty elements");
+    assertThatThrownBy(
+            () -> read(drawing(EMPTY_ELEMENTS, 0, 0, 1, 'a', 1, INT_ATTRIBUTE, 0, 1, 'b', 1000)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("empty elements");
+  }
+
+  @Test
+  public void testStringReferenceOutsideOfTableIsRejected() {
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 1, END_ELEMENT)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("string reference");
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 0, 1, 'a', START_ELEMENT, 3)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("string reference");
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, -1L)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("string reference");
+  }
+
+  @Test
+  public void testLengthBeyondEndOfBufferIsRejected() {
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 0, 1000, 'a')))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("length");
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 0, 0xffffffffL, 'a')))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("length");
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 0, 1, 'a', TEXT, -1L)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("length");
+  }
+
+  @Test
+  public void testDeltaAttributeOutsideOfTableIsRejected() {
+    assertThatThrownBy(
+            () -> read(drawing(START_ELEMENT, 0, 1, 'a', DELTA_ATTRIBUTE, Integer.MAX_VALUE, 2)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("string reference");
+  }
+
+  @Test
+  public void testIllegalObjectReferenceIsRejected() {
+    assertThatThrownBy(() -> read(drawing(START_ELEMENT, 0, 1, 'a', OBJECT_REF, -1L)))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("object reference");
+  }
+
+  @Test
+  public void testTruncatedDrawingIsRejected() throws IOException {
+    byte[] bytes = writeFigures();
+    int headerLength = drawing().length;
+    for (int length = 0; length < bytes.length; length++) {
+      if (length != headerLength) {
+        // The header alone is an empty document
+        byte[] truncated = Arrays.copyOf(bytes, length);
+        assertThatThrownBy(() -> read(truncated)).isInstanceOf(IOException.class);
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptDrawingFailsWithIOException() throws IOException {
+    byte[] bytes = writeFigures();
+    Random random = new Random(0);
+    for (int i = 0; i < 2000; i++) {
+      byte[] corrupt = bytes.clone();
+      corrupt[4 + random.nextInt(corrupt.length - 4)] = (byte) random.nextInt(256);
+      try {
+        read(corrupt);
+      } catch (IOException e) {
+        // expected for most corruptions
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * @(#)BinaryInputOutputFormatTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.figure.BezierFigure;
+import org.jhotdraw.geom.path.BezierPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.xmlunit.assertj.XmlAssert;
+
+public class BinaryInputOutputFormatTest {
+
+  @ParameterizedTest(name = "{index} {0}")
+  @CsvSource({"figures", "arrowtip", "green_rectangle", "bezier", "group", "image"})
+  public void testBinaryRoundtrip(String filename) throws IOException {
+    Drawing drawing = new DefaultDrawing();
+    new DOMStorableInputFormat(new DOMDefaultDrawFigureFactory())
+        .read(
+            BinaryInputOutputFormatTest.class.getResourceAsStream(filename + ".xml"),
+            drawing,
+            true);
+
+    File binaryFile = new File("target/test-output/" + filename + "_roundtrip.jhd");
+    binaryFile.getParentFile().mkdirs();
+    new BinaryOutputFormat(new DOMDefaultDrawFigureFactory()).write(binaryFile, drawing);
+
+    Drawing binaryDrawing = new DefaultDrawing();
+    new BinaryInputFormat(new DOMDefaultDrawFigureFactory()).read(binaryFile, binaryDrawing);
+    assertThat(binaryDrawing.getChildren()).hasSameSizeAs(drawing.getChildren());
+
+    ByteArrayOutputStream xml = new ByteArrayOutputStream();
+    new DOMStorableOutputFormat(new DOMDefaultDrawFigureFactory()).write(xml, binaryDrawing);
+    XmlAssert.assertThat(BinaryInputOutputFormatTest.class.getResourceAsStream(filename + ".xml"))
+        .and(new ByteArrayInputStream(xml.toByteArray()))
+        .ignoreWhitespace()
+        .areIdentical();
+    assertThat(binaryFile.length()).isLessThan(xml.size());
+  }
+
+  @Test
+  public void testBezierNodesArePacked() throws IOException {
+    BezierFigure figure = new BezierFigure();
+    for (int i = 0; i < 1000; i++) {
+      figure.addNode(new BezierPath.Node(i % 100, i / 10));
+    }
+    figure.getNode(500).x[1] = 0.5;
+    figure.getNode(500).mask = BezierPath.C1_MASK;
+    Drawing drawing = new DefaultDrawing();
+    drawing.add(figure);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryOutputFormat(new DOMDefaultDrawFigureFactory()).write(out, drawing);
+    // The nodes take about two bytes each
+    assertThat(out.size()).isLessThan(2500);
+
+    Drawing read = new DefaultDrawing();
+    new BinaryInputFormat(new DOMDefaultDrawFigureFactory())
+        .read(new ByteArrayInputStream(out.toByteArray()), read, true);
+    BezierFigure readFigure = (BezierFigure) read.getChild(0);
+    assertThat(readFigure.getNodeCount()).isEqualTo(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(readFigure.getNode(i)).isEqualTo(figure.getNode(i));
+    }
+  }
+}
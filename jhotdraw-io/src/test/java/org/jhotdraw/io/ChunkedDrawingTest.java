@@ -0,0 +1,247 @@
+/*
+ * @(#)ChunkedDrawingTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.connector.ChopRectangleConnector;
+import org.jhotdraw.draw.event.FigureListenerAdapter;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.figure.GroupFigure;
+import org.jhotdraw.draw.figure.LineConnectionFigure;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedDrawingTest {
+
+  private Path file;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    Files.createDirectories(Path.of("target/test-output"));
+    file = Path.of("target/test-output/grid.jhc");
+    List<Figure> figures = new ArrayList<>();
+    for (int y = 0; y < 40; y++) {
+      for (int x = 0; x < 40; x++) {
+        figures.add(new RectangleFigure(x * 100, y * 100, 50, 50));
+      }
+    }
+    ChunkedDrawingFile.write(file, new DOMDefaultDrawFigureFactory(), figures, 16);
+  }
+
+  @Test
+  public void testOnlyVisibleChunksAreLoaded() throws IOException {
+    ChunkedDrawing drawing = open();
+    assertThat(drawing.getChildCount()).isZero();
+    assertThat(drawing.getDrawingArea().getMaxX()).isGreaterThan(3900);
+
+    List<Figure> found = drawing.findFigures(new Rectangle2D.Double(0, 0, 250, 250));
+    assertThat(found).hasSize(9);
+    assertThat(drawing.getChildCount()).isLessThan(100);
+    assertThat(drawing.findFigure(new Point2D.Double(3925, 3925))).isNotNull();
+    drawing.close();
+  }
+
+  @Test
+  public void testCleanChunksAreEvicted() throws IOException {
+    ChunkedDrawing drawing = open();
+    drawing.setMaxLoadedFigures(64);
+    for (int i = 0; i < 40; i++) {
+      drawing.findFigures(new Rectangle2D.Double(i * 100, i * 100, 50, 50));
+    }
+    assertThat(drawing.getChildCount()).isLessThanOrEqualTo(64 + 2 * 16);
+    drawing.close();
+  }
+
+  @Test
+  public void testSaveWritesChangedAndAddedFigures() throws IOException {
+    ChunkedDrawing drawing = open();
+    drawing.setMaxLoadedFigures(0);
+    Figure f = drawing.findFigure(new Point2D.Double(25, 25));
+    f.willChange();
+    f.transform(AffineTransform.getTranslateInstance(0, 10));
+    f.changed();
+    drawing.add(new RectangleFigure(5000, 5000, 10, 10));
+    assertThat(drawing.isModified()).isTrue();
+    drawing.save();
+    assertThat(drawing.isModified()).isFalse();
+    drawing.close();
+
+    drawing = open();
+    assertThat(drawing.findFigure(new Point2D.Double(25, 5))).isNull();
+    assertThat(drawing.findFigure(new Point2D.Double(25, 55))).isNotNull();
+    assertThat(drawing.findFigure(new Point2D.Double(5005, 5005))).isNotNull();
+    drawing.close();
+  }
+
+  @Test
+  public void testFileSizeIsBoundedAcrossSaves() throws IOException {
+    ChunkedDrawing drawing = open();
+    List<Figure> figures = drawing.findFigures(new Rectangle2D.Double(0, 0, 4000, 4000));
+    long initialSize = Files.size(file);
+    for (int i = 0; i < 20; i++) {
+      for (Figure f : figures) {
+        f.willChange();
+        f.transform(AffineTransform.getTranslateInstance(0, (i % 2 == 0) ? 10 : -10));
+        f.changed();
+      }
+      drawing.save();
+      assertThat(Files.size(file)).isLessThan(3 * initialSize);
+    }
+    drawing.close();
+
+    drawing = open();
+    assertThat(drawing.findFigures(new Rectangle2D.Double(0, 0, 4000, 4000))).hasSize(1600);
+    assertThat(drawing.findFigure(new Point2D.Double(3925, 3925))).isNotNull();
+    drawing.close();
+  }
+
+  @Test
+  public void testConnectedFiguresInsideGroupsAreResident() throws IOException {
+    List<Figure> figures = new ArrayList<>();
+    for (int x = 0; x < 40; x++) {
+      figures.add(new RectangleFigure(x * 100, 0, 50, 50));
+    }
+    RectangleFigure grouped = new RectangleFigure(1000, 1000, 50, 50);
+    GroupFigure group = new GroupFigure();
+    group.basicAdd(grouped);
+    group.basicAdd(new RectangleFigure(1100, 1000, 50, 50));
+    RectangleFigure end = new RectangleFigure(3000, 3000, 50, 50);
+    LineConnectionFigure connection = new LineConnectionFigure();
+    connection.setStartConnector(new ChopRectangleConnector(grouped));
+    connection.setEndConnector(new ChopRectangleConnector(end));
+    connection.updateConnection();
+    figures.add(group);
+    figures.add(end);
+    figures.add(connection);
+    ChunkedDrawingFile.write(file, new DOMDefaultDrawFigureFactory(), figures, 4);
+
+    ChunkedDrawing drawing = open();
+    assertThat(drawing.getChildren()).hasSize(3);
+    LineConnectionFigure c = null;
+    GroupFigure g = null;
+    for (Figure f : drawing.getChildren()) {
+      if (f instanceof LineConnectionFigure) {
+        c = (LineConnectionFigure) f;
+      } else if (f instanceof GroupFigure) {
+        g = (GroupFigure) f;
+      }
+    }
+    assertThat(c).isNotNull();
+    assertThat(g).isNotNull();
+    assertThat(g.getChildren()).contains(c.getStartFigure());
+    assertThat(drawing.getChildren()).contains(c.getEndFigure());
+
+    // Saving keeps the group resident
+    drawing.add(new RectangleFigure(5000, 5000, 10, 10));
+    drawing.save();
+    drawing.close();
+    drawing = open();
+    assertThat(drawing.getChildren()).hasSize(3);
+    drawing.close();
+  }
+
+  @Test
+  public void testSelectedFiguresAreNotEvicted() throws IOException {
+    ChunkedDrawing drawing = open();
+    drawing.setMaxLoadedFigures(16);
+    Figure selected = drawing.findFigure(new Point2D.Double(25, 25));
+    // a drawing view listens to the figures it has selected
+    selected.addFigureListener(new FigureListenerAdapter() {});
+    for (int i = 1; i < 40; i++) {
+      drawing.findFigures(new Rectangle2D.Double(i * 100, i * 100, 50, 50));
+    }
+    assertThat(drawing.getChildren()).contains(selected);
+    drawing.close();
+  }
+
+  @Test
+  public void testChunksAreNotPagedWhileTheDrawingIsRead() throws IOException {
+    ChunkedDrawing drawing = open();
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      assertThat(drawing.findFigures(new Rectangle2D.Double(0, 0, 250, 250))).isEmpty();
+    } finally {
+      readLock.unlock();
+    }
+    assertThat(drawing.findFigures(new Rectangle2D.Double(0, 0, 250, 250))).hasSize(9);
+    drawing.close();
+  }
+
+  @Test
+  public void testConcurrentQueriesSeeLoadedChunks() throws Exception {
+    ChunkedDrawing drawing = open();
+    drawing.setMaxLoadedFigures(64);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        int x = (i * 7) % 38;
+        int y = (i * 13) % 38;
+        results.add(
+            executor.submit(
+                () ->
+                    drawing
+                        .findFigures(new Rectangle2D.Double(x * 100, y * 100, 250, 250))
+                        .size()));
+      }
+      for (Future<Integer> result : results) {
+        assertThat(result.get()).isEqualTo(9);
+      }
+    } finally {
+      executor.shutdown();
+    }
+    drawing.close();
+  }
+
+  @Test
+  public void testCloneHoldsAllFigures() throws IOException {
+    ChunkedDrawing drawing = open();
+    Figure loaded = drawing.findFigure(new Point2D.Double(25, 25));
+    QuadTreeDrawing clone = drawing.clone();
+    assertThat(clone.getChildCount()).isEqualTo(1600);
+    assertThat(clone.getChildren()).doesNotContain(loaded);
+    assertThat(clone.findFigure(new Point2D.Double(3925, 3925))).isNotNull();
+    assertThat(drawing.getChildCount()).isLessThan(100);
+    drawing.close();
+  }
+
+  @Test
+  public void testDrawingCanNotBeSerialized() throws IOException {
+    ChunkedDrawing drawing = open();
+    drawing.findFigure(new Point2D.Double(25, 25));
+    try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+      assertThatThrownBy(() -> out.writeObject(drawing))
+          .isInstanceOf(NotSerializableException.class);
+    }
+    drawing.close();
+  }
+
+  private ChunkedDrawing open() throws IOException {
+    return new ChunkedDrawing(ChunkedDrawingFile.open(file, new DOMDefaultDrawFigureFactory()));
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * @(#)DefaultDOMFactoryTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.jhotdraw.xml.DefaultDOMFactory;
+import org.jhotdraw.xml.JavaxDOMInput;
+import org.jhotdraw.xml.JavaxDOMOutput;
+import org.junit.jupiter.api.Test;
+
+public class DefaultDOMFactoryTest {
+
+  public static class Point {
+
+    private int x;
+    private final boolean isSupplied;
+
+    public Point() {
+      this(false);
+    }
+
+    Point(boolean isSupplied) {
+      this.isSupplied = isSupplied;
+    }
+  }
+
+  public static class Hidden {
+
+    private Hidden() {}
+  }
+
+  public enum Corner {
+    TOP {
+      @Override
+      public String toString() {
+        return "top";
+      }
+    },
+    BOTTOM
+  }
+
+  private final DefaultDOMFactory factory = new DefaultDOMFactory();
+
+  private void registerPoint() {
+    factory.register(
+        "point",
+        Point.class,
+        (p, in) -> p.x = in.getAttribute("x", 0),
+        (p, out) -> out.addAttribute("x", p.x));
+  }
+
+  /** Writes the objects into a document and reads them back. */
+  private Object[] writeAndRead(Object... objects) throws IOException {
+    JavaxDOMOutput out = new JavaxDOMOutput(factory);
+    out.openElement("root");
+    for (Object o : objects) {
+      out.writeObject(o);
+    }
+    out.closeElement();
+    StringWriter w = new StringWriter();
+    out.save(w);
+    return read(w.toString(), objects.length);
+  }
+
+  private Object[] read(String xml, int count) throws IOException {
+    JavaxDOMInput in = new JavaxDOMInput(factory, new StringReader(xml));
+    in.openElement("root");
+    Object[] objects = new Object[count];
+    for (int i = 0; i < count; i++) {
+      objects[i] = in.readObject(i);
+    }
+    return objects;
+  }
+
+  private Object readEnum(String value) throws IOException {
+    return read("<root><enum id=\"0\" type=\"corner\">" + value + "</enum></root>", 1)[0];
+  }
+
+  @Test
+  public void testRegisteredClassIsInstantiatedForEachElement() throws IOException {
+    registerPoint();
+    Point a = new Point();
+    a.x = 3;
+    Point b = new Point();
+    b.x = 7;
+    Object[] read = writeAndRead(a, b);
+    assertThat(read).hasSize(2).hasOnlyElementsOfType(Point.class);
+    assertThat(read[0]).isNotSameAs(read[1]);
+    assertThat(((Point) read[0]).x).isEqualTo(3);
+    assertThat(((Point) read[1]).x).isEqualTo(7);
+    assertThat(factory.createPrototype("point")).isInstanceOf(Point.class);
+    assertThat(factory.createPrototype(Point.class.getName()))
+        .isNotSameAs(factory.createPrototype("point"));
+  }
+
+  @Test
+  public void testSupplierCreatesInstances() throws IOException {
+    factory.register(
+        "point",
+        Point.class,
+        () -> new Point(true),
+        (p, in) -> p.x = in.getAttribute("x", 0),
+        (p, out) -> out.addAttribute("x", p.x));
+    Object[] read = writeAndRead(new Point());
+    assertThat(((Point) read[0]).isSupplied).isTrue();
+    assertThat(((Point) factory.createPrototype("point")).isSupplied).isTrue();
+  }
+
+  @Test
+  public void testClassWithoutPublicConstructorFailsWhenInstantiated() {
+    factory.register("hidden", Hidden.class, (h, in) -> {}, (h, out) -> {});
+    assertThatThrownBy(() -> factory.createPrototype("hidden"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(Hidden.class.getName());
+    assertThatThrownBy(() -> factory.createPrototype("unknown"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testEnumIsReadByNameAndByValue() throws IOException {
+    factory.addEnumClass("corner", Corner.class);
+    factory.addEnum("upper", Corner.TOP);
+    assertThat(readEnum("TOP")).isSameAs(Corner.TOP);
+    assertThat(readEnum("upper")).isSameAs(Corner.TOP);
+    assertThat(readEnum("BOTTOM")).isSameAs(Corner.BOTTOM);
+    assertThat(writeAndRead(Corner.TOP, Corner.BOTTOM)).containsExactly(Corner.TOP, Corner.BOTTOM);
+    assertThatThrownBy(() -> readEnum("LEFT"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("LEFT");
+  }
+
+  @Test
+  public void testEnumValueAddedAfterLookupIsFound() throws IOException {
+    factory.addEnumClass("corner", Corner.class);
+    assertThat(readEnum("BOTTOM")).isSameAs(Corner.BOTTOM);
+    assertThatThrownBy(() -> readEnum("lower")).isInstanceOf(IllegalArgumentException.class);
+    factory.addEnum("lower", Corner.BOTTOM);
+    assertThat(readEnum("lower")).isSameAs(Corner.BOTTOM);
+    assertThat(writeAndRead(Corner.BOTTOM)).containsExactly(Corner.BOTTOM);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * @(#)DrawingConverterTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.io.InputFormat;
+import org.jhotdraw.draw.io.OutputFormat;
+import org.junit.jupiter.api.Test;
+
+public class DrawingConverterTest {
+
+  @Test
+  public void testConvertsFilesInParallel() throws IOException, InterruptedException {
+    Path dir = Path.of("target/test-output/converter");
+    Files.createDirectories(dir);
+    List<DrawingConverter.Job> jobs = new ArrayList<>();
+    for (String name : new String[] {"figures", "arrowtip", "green_rectangle", "bezier", "group"}) {
+      Path source = dir.resolve(name + ".xml");
+      try (InputStream in = DrawingConverterTest.class.getResourceAsStream(name + ".xml")) {
+        Files.copy(in, source, StandardCopyOption.REPLACE_EXISTING);
+      }
+      jobs.add(new DrawingConverter.Job(source, dir.resolve("out/" + name + ".jhd")));
+    }
+    jobs.add(new DrawingConverter.Job(dir.resolve("missing.xml"), dir.resolve("out/missing.jhd")));
+
+    DrawingConverter converter =
+        new DrawingConverter(
+            DefaultDrawing::new,
+            () ->
+                List.<InputFormat>of(new DOMStorableInputFormat(new DOMDefaultDrawFigureFactory())),
+            () -> List.<OutputFormat>of(new BinaryOutputFormat(new DOMDefaultDrawFigureFactory())),
+            3);
+    ConcurrentLinkedQueue<DrawingConverter.Result> results = new ConcurrentLinkedQueue<>();
+    DrawingConverter.Summary summary = converter.convert(jobs, results::add);
+
+    assertThat(summary.succeeded()).isEqualTo(5);
+    assertThat(summary.failed()).isEqualTo(1);
+    assertThat(results).hasSize(6);
+    Drawing drawing = new DefaultDrawing();
+    new BinaryInputFormat(new DOMDefaultDrawFigureFactory())
+        .read(dir.resolve("out/group.jhd").toFile(), drawing);
+    assertThat(drawing.getChildren()).isNotEmpty();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * @(#)ExportLockTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Graphics2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+public class ExportLockTest {
+
+  @Test
+  public void testDrawingDoesNotChangeWhileItIsExported() throws Exception {
+    CountDownLatch drawing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    QuadTreeDrawing d = new QuadTreeDrawing();
+    d.add(
+        new RectangleFigure(0, 0, 10, 10) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          public void draw(Graphics2D g) {
+            drawing.countDown();
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            }
+            super.draw(g);
+          }
+        });
+    ImageOutputFormat format = new ImageOutputFormat();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Future<?> export =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                format.write(out, d);
+              } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+              }
+            });
+    assertThat(drawing.await(10, TimeUnit.SECONDS)).isTrue();
+    Future<?> writer = CompletableFuture.runAsync(() -> d.add(new RectangleFigure(0, 0, 5, 5)));
+    try {
+      assertThatThrownBy(() -> writer.get(100, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+      assertThat(d.getChildCount()).isEqualTo(1);
+    } finally {
+      release.countDown();
+    }
+    export.get(10, TimeUnit.SECONDS);
+    writer.get(10, TimeUnit.SECONDS);
+    assertThat(d.getChildCount()).isEqualTo(2);
+    assertThat(out.size()).isGreaterThan(0);
+  }
+
+  @Test
+  public void testExportSeesEachStateOfAChangingDrawing() throws Exception {
+    Drawing d = new QuadTreeDrawing();
+    BinaryOutputFormat format = new BinaryOutputFormat(new DOMDefaultDrawFigureFactory());
+    Future<?> writer =
+        CompletableFuture.runAsync(
+            () -> {
+              for (int i = 0; i < 200; i++) {
+                d.add(new RectangleFigure(i, i, 10, 10));
+              }
+            });
+    int lastCount = 0;
+    while (lastCount < 200) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      format.write(out, d);
+      Drawing read = new DefaultDrawing();
+      new BinaryInputFormat(new DOMDefaultDrawFigureFactory())
+          .read(new ByteArrayInputStream(out.toByteArray()), read, true);
+      assertThat(read.getChildCount()).isGreaterThanOrEqualTo(lastCount);
+      lastCount = read.getChildCount();
+    }
+    writer.get(10, TimeUnit.SECONDS);
+  }
+}
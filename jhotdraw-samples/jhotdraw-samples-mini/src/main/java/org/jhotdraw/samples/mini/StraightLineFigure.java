@@ -39,11 +39,13 @@ public class StraightLineFigure extends AbstractAttributedFigure {
     Point2D.Double p1 = (Point2D.Double) line.getP1();
     Point2D.Double p2 = (Point2D.Double) line.getP2();
     line.setLine(ty.transform(p1, p1), ty.transform(p2, p2));
+    invalidateGeometry();
   }
 
   @Override
   public void setBounds(Point2D.Double start, Point2D.Double end) {
     line.setLine(start, end);
+    invalidateGeometry();
   }
 
   @Override
@@ -59,6 +61,7 @@ public class StraightLineFigure extends AbstractAttributedFigure {
   @Override
   public void restoreTransformTo(Object restoreData) {
     line = (Line2D.Double) ((Line2D.Double) restoreData).clone();
+    invalidateGeometry();
   }
 
   @Override
@@ -0,0 +1,133 @@
+/*
+ * @(#)Main.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.samples.convert;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.jhotdraw.draw.QuadTreeDrawing;
+import org.jhotdraw.draw.io.InputFormat;
+import org.jhotdraw.draw.io.OutputFormat;
+import org.jhotdraw.io.BinaryInputFormat;
+import org.jhotdraw.io.BinaryOutputFormat;
+import org.jhotdraw.io.DOMDefaultDrawFigureFactory;
+import org.jhotdraw.io.DOMStorableInputFormat;
+import org.jhotdraw.io.DOMStorableOutputFormat;
+import org.jhotdraw.io.DrawingConverter;
+import org.jhotdraw.io.ImageOutputFormat;
+import org.jhotdraw.samples.odg.io.ODGInputFormat;
+import org.jhotdraw.samples.svg.io.SVGOutputFormat;
+import org.jhotdraw.samples.svg.io.SVGZInputFormat;
+import org.jhotdraw.samples.svg.io.SVGZOutputFormat;
+
+/**
+ * Converts drawing files without opening a window.
+ *
+ * <p>Usage: {@code Main [-threads n] -to extension outputDirectory file|directory...}
+ *
+ * <p>Directories are searched recursively. Each file is written to the output directory, with the
+ * file extension replaced by the target extension. Supported targets are {@code svg}, {@code svgz},
+ * {@code xml}, {@code jhd}, {@code png}, {@code jpg} and {@code bmp}.
+ */
+public class Main {
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (System.getProperty("java.awt.headless") == null) {
+      System.setProperty("java.awt.headless", "true");
+    }
+    int threads = Runtime.getRuntime().availableProcessors();
+    String extension = null;
+    int i = 0;
+    for (; i < args.length && args[i].startsWith("-"); i++) {
+      if (args[i].equals("-threads") && i + 1 < args.length) {
+        threads = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-to") && i + 1 < args.length) {
+        extension = args[++i];
+      } else {
+        usage();
+        return;
+      }
+    }
+    if (extension == null || args.length - i < 2) {
+      usage();
+      return;
+    }
+    Path outputDirectory = Path.of(args[i++]);
+    List<DrawingConverter.Job> jobs = new ArrayList<>();
+    for (; i < args.length; i++) {
+      try (Stream<Path> files = Files.walk(Path.of(args[i]))) {
+        for (Path source : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+          jobs.add(
+              new DrawingConverter.Job(
+                  source, outputDirectory.resolve(replaceExtension(source, extension))));
+        }
+      }
+    }
+
+    DrawingConverter converter =
+        new DrawingConverter(
+            QuadTreeDrawing::new, Main::createInputFormats, Main::createOutputFormats, threads);
+    DrawingConverter.Summary summary =
+        converter.convert(
+            jobs,
+            r -> {
+              synchronized (System.out) {
+                if (r.isSuccess()) {
+                  System.out.printf(
+                      "%s: read %d ms, write %d ms%n",
+                      r.job().source(), r.readNanos() / 1000000, r.writeNanos() / 1000000);
+                } else {
+                  System.out.printf("%s: %s%n", r.job().source(), r.error());
+                }
+              }
+            });
+    System.out.printf(
+        "%d converted, %d failed in %d ms (%.1f files/s)%n",
+        summary.succeeded(),
+        summary.failed(),
+        summary.elapsedNanos() / 1000000,
+        summary.getThroughput());
+  }
+
+  private static List<InputFormat> createInputFormats() {
+    List<InputFormat> formats = new ArrayList<>();
+    formats.add(new SVGZInputFormat());
+    formats.add(new ODGInputFormat());
+    formats.add(new DOMStorableInputFormat(new DOMDefaultDrawFigureFactory()));
+    formats.add(new BinaryInputFormat(new DOMDefaultDrawFigureFactory()));
+    return formats;
+  }
+
+  private static List<OutputFormat> createOutputFormats() {
+    List<OutputFormat> formats = new ArrayList<>();
+    formats.add(new SVGOutputFormat());
+    formats.add(new SVGZOutputFormat());
+    formats.add(new DOMStorableOutputFormat(new DOMDefaultDrawFigureFactory()));
+    formats.add(new BinaryOutputFormat(new DOMDefaultDrawFigureFactory()));
+    formats.add(new ImageOutputFormat());
+    formats.add(new ImageOutputFormat("JPG", "JPEG", "jpg", BufferedImage.TYPE_INT_RGB));
+    formats.add(
+        new ImageOutputFormat(
+            "BMP", "Windows Bitmap (BMP)", "bmp", BufferedImage.TYPE_BYTE_INDEXED));
+    return formats;
+  }
+
+  private static String replaceExtension(Path file, String extension) {
+    String name = file.getFileName().toString();
+    int p = name.lastIndexOf('.');
+    return ((p == -1) ? name : name.substring(0, p)) + "." + extension;
+  }
+
+  private static void usage() {
+    System.err.println("Usage: Main [-threads n] -to extension outputDirectory file|directory...");
+  }
+}
@@ -0,0 +1,13 @@
+/* @(#)package-info.java
+*
+* Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+* You may not use, copy or modify this file, except in compliance with the
+* accompanying license terms.
+*
+
+*/
+/**
+ * A command line tool which converts drawings between the SVG, ODG, JHotDraw XML, binary and image
+ * formats on a pool of worker threads, without opening a window.
+ */
+package org.jhotdraw.samples.convert;
@@ -132,7 +132,7 @@ public class ODGAttributeKeys extends AttributeKeys {
     if (strokeWidth == 0) {
       strokeWidth = 1;
     }
-    return new BasicStroke((float) strokeWidth);
+    return StrokeCache.getInstance().getBasicStroke((float) strokeWidth);
   }
 
   /** Sets ODG default values. */
@@ -28,7 +28,6 @@ import org.jhotdraw.geom.path.BezierPath;
 public class ODGBezierFigure extends BezierFigure {
 
   private static final long serialVersionUID = 1L;
-  private transient Rectangle2D.Double cachedDrawingArea;
 
   public ODGBezierFigure() {
     this(false);
@@ -108,17 +107,14 @@ public class ODGBezierFigure extends BezierFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      if (attr().get(TRANSFORM) == null) {
-        cachedDrawingArea = path.getBounds2D();
-      } else {
-        BezierPath p2 = path.clone();
-        p2.transform(attr().get(TRANSFORM));
-        cachedDrawingArea = p2.getBounds2D();
-      }
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    if (attr().get(TRANSFORM) == null) {
+      return path.getBounds2D();
+    } else {
+      BezierPath p2 = path.clone();
+      p2.transform(attr().get(TRANSFORM));
+      return p2.getBounds2D();
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
   }
 
   /**
@@ -132,10 +128,4 @@ public class ODGBezierFigure extends BezierFigure {
     }
     invalidate();
   }
-
-  @Override
-  public void invalidate() {
-    super.invalidate();
-    cachedDrawingArea = null;
-  }
 }
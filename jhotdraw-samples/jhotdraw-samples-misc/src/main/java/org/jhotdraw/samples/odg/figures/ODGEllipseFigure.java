@@ -85,7 +85,7 @@ public class ODGEllipseFigure extends ODGAttributedFigure implements ODGFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D rx = getTransformedShape().getBounds2D();
     Rectangle2D.Double r =
         (rx instanceof Rectangle2D.Double)
@@ -127,6 +127,7 @@ public class ODGEllipseFigure extends ODGAttributedFigure implements ODGFigure {
     ellipse.y = Math.min(anchor.y, lead.y);
     ellipse.width = Math.max(0.1, Math.abs(lead.x - anchor.x));
     ellipse.height = Math.max(0.1, Math.abs(lead.y - anchor.y));
+    invalidate();
   }
 
   /**
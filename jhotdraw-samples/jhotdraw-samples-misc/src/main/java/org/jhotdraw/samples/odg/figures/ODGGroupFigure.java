@@ -72,25 +72,20 @@ public class ODGGroupFigure extends GroupFigure implements ODGFigure {
   }
 
   @Override
-  public Rectangle2D.Double getBounds(double scale) {
-    if (cachedBounds == null) {
-      if (getChildCount() == 0) {
-        cachedBounds = new Rectangle2D.Double();
+  protected Rectangle2D.Double computeBounds(double scale) {
+    Rectangle2D.Double r = null;
+    for (Figure f : children) {
+      Rectangle2D.Double bounds = f.getBounds(scale);
+      if (f.attr().get(TRANSFORM) != null) {
+        bounds.setRect(f.attr().get(TRANSFORM).createTransformedShape(bounds).getBounds2D());
+      }
+      if (r == null || r.isEmpty()) {
+        r = bounds;
       } else {
-        for (Figure f : children) {
-          Rectangle2D.Double bounds = f.getBounds(scale);
-          if (f.attr().get(TRANSFORM) != null) {
-            bounds.setRect(f.attr().get(TRANSFORM).createTransformedShape(bounds).getBounds2D());
-          }
-          if (cachedBounds == null || cachedBounds.isEmpty()) {
-            cachedBounds = bounds;
-          } else {
-            cachedBounds.add(bounds);
-          }
-        }
+        r.add(bounds);
       }
     }
-    return (Rectangle2D.Double) cachedBounds.clone();
+    return (r == null) ? new Rectangle2D.Double() : r;
   }
 
   @Override
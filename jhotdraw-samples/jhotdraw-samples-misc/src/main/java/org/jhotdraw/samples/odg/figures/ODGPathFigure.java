@@ -136,7 +136,6 @@ public class ODGPathFigure extends AbstractAttributedCompositeFigure implements
   public void invalidate() {
     super.invalidate();
     cachedPath = null;
-    cachedDrawingArea = null;
   }
 
   protected Path2D.Double getPath() {
@@ -155,31 +154,28 @@ public class ODGPathFigure extends AbstractAttributedCompositeFigure implements
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      double strokeTotalWidth = AttributeKeys.getStrokeTotalWidth(this, 1.0);
-      double width = strokeTotalWidth / 2d;
-      if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
-        width *= attr().get(STROKE_MITER_LIMIT);
-      } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
-        width += strokeTotalWidth * 2;
-      }
-      Path2D.Double gp = getPath();
-      Rectangle2D strokeRect = new Rectangle2D.Double(0, 0, width, width);
-      if (attr().get(TRANSFORM) != null) {
-        gp = (Path2D.Double) gp.clone();
-        gp.transform(attr().get(TRANSFORM));
-        strokeRect = attr().get(TRANSFORM).createTransformedShape(strokeRect).getBounds2D();
-      }
-      Rectangle2D rx = gp.getBounds2D();
-      Rectangle2D.Double r =
-          (rx instanceof Rectangle2D.Double)
-              ? (Rectangle2D.Double) rx
-              : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
-      Geom.grow(r, strokeRect.getWidth(), strokeRect.getHeight());
-      cachedDrawingArea = r;
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    double strokeTotalWidth = AttributeKeys.getStrokeTotalWidth(this, 1.0);
+    double width = strokeTotalWidth / 2d;
+    if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
+      width *= attr().get(STROKE_MITER_LIMIT);
+    } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
+      width += strokeTotalWidth * 2;
+    }
+    Path2D.Double gp = getPath();
+    Rectangle2D strokeRect = new Rectangle2D.Double(0, 0, width, width);
+    if (attr().get(TRANSFORM) != null) {
+      gp = (Path2D.Double) gp.clone();
+      gp.transform(attr().get(TRANSFORM));
+      strokeRect = attr().get(TRANSFORM).createTransformedShape(strokeRect).getBounds2D();
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    Rectangle2D rx = gp.getBounds2D();
+    Rectangle2D.Double r =
+        (rx instanceof Rectangle2D.Double)
+            ? (Rectangle2D.Double) rx
+            : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
+    Geom.grow(r, strokeRect.getWidth(), strokeRect.getHeight());
+    return r;
   }
 
   @Override
@@ -103,7 +103,7 @@ public class ODGRectFigure extends ODGAttributedFigure implements ODGFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D rx = getTransformedShape().getBounds2D();
     Rectangle2D.Double r =
         (rx instanceof Rectangle2D.Double)
@@ -144,6 +144,7 @@ public class ODGRectFigure extends ODGAttributedFigure implements ODGFigure {
 
   private void invalidateTransformedShape() {
     cachedTransformedShape = null;
+    invalidateGeometry();
     cachedHitShape = null;
   }
 
@@ -21,6 +21,7 @@ import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.app.DefaultApplicationModel;
 import org.jhotdraw.app.DefaultMenuBuilder;
+import org.jhotdraw.app.LazyActionMap;
 import org.jhotdraw.app.action.file.ExportFileAction;
 import org.jhotdraw.draw.AttributeKey;
 import org.jhotdraw.draw.AttributeKeys;
@@ -78,20 +79,26 @@ public class PertApplicationModel extends DefaultApplicationModel {
 
   @Override
   public ActionMap createActionMap(Application a, View v) {
-    ActionMap m = super.createActionMap(a, v);
-    ResourceBundleUtil drawLabels = ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels");
-    AbstractAction aa;
-    m.put(ExportFileAction.ID, new ExportFileAction(a, v));
-    m.put(
-        "view.toggleGrid", aa = new ToggleViewPropertyAction(a, v, PertView.GRID_VISIBLE_PROPERTY));
-    drawLabels.configureAction(aa, "view.toggleGrid");
+    LazyActionMap m = (LazyActionMap) super.createActionMap(a, v);
+    m.putLazy(ExportFileAction.ID, () -> new ExportFileAction(a, v));
+    m.putLazy(
+        "view.toggleGrid",
+        () -> {
+          AbstractAction aa = new ToggleViewPropertyAction(a, v, PertView.GRID_VISIBLE_PROPERTY);
+          ResourceBundleUtil.getBundle("org.jhotdraw.draw.Labels")
+              .configureAction(aa, "view.toggleGrid");
+          return aa;
+        });
     for (double sf : SCALE_FACTORS) {
-      m.put(
+      m.putLazy(
           (int) (sf * 100) + "%",
-          aa =
-              new ViewPropertyAction(
-                  a, v, DrawingView.SCALE_FACTOR_PROPERTY, Double.TYPE, new Double(sf)));
-      aa.putValue(Action.NAME, (int) (sf * 100) + " %");
+          () -> {
+            AbstractAction aa =
+                new ViewPropertyAction(
+                    a, v, DrawingView.SCALE_FACTOR_PROPERTY, Double.TYPE, new Double(sf));
+            aa.putValue(Action.NAME, (int) (sf * 100) + " %");
+            return aa;
+          });
     }
     return m;
   }
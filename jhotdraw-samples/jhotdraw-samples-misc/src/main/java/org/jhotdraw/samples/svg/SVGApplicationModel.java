@@ -12,7 +12,6 @@ import java.beans.PropertyChangeListener;
 import java.util.*;
 import javax.swing.*;
 import javax.swing.filechooser.FileFilter;
-import org.jhotdraw.action.edit.ClearSelectionAction;
 import org.jhotdraw.action.edit.RedoAction;
 import org.jhotdraw.action.edit.UndoAction;
 import org.jhotdraw.api.app.Application;
@@ -22,6 +21,7 @@ import org.jhotdraw.api.app.View;
 import org.jhotdraw.api.gui.URIChooser;
 import org.jhotdraw.app.DefaultApplicationModel;
 import org.jhotdraw.app.DefaultMenuBuilder;
+import org.jhotdraw.app.LazyActionMap;
 import org.jhotdraw.app.action.file.ExportFileAction;
 import org.jhotdraw.draw.Drawing;
 import org.jhotdraw.draw.DrawingEditor;
@@ -95,11 +95,9 @@ public class SVGApplicationModel extends DefaultApplicationModel {
   @Override
   public ActionMap createActionMap(Application a, View view) {
     SVGView v = (SVGView) view;
-    ActionMap m = super.createActionMap(a, v);
-    AbstractAction aa;
-    m.put(ClearSelectionAction.ID, new ClearSelectionAction());
-    m.put(ViewSourceAction.ID, new ViewSourceAction(a, v));
-    m.put(ExportFileAction.ID, new ExportFileAction(a, v));
+    LazyActionMap m = (LazyActionMap) super.createActionMap(a, v);
+    m.putLazy(ViewSourceAction.ID, () -> new ViewSourceAction(a, v));
+    m.putLazy(ExportFileAction.ID, () -> new ExportFileAction(a, v));
     if (v instanceof SVGView) {
       SVGView svgView = v;
       m.put(UndoAction.ID, svgView.getUndoManager().getUndoAction());
@@ -111,13 +109,16 @@ public class SVGApplicationModel extends DefaultApplicationModel {
     } else {
       editor = (v == null) ? null : v.getEditor();
     }
-    m.put(SelectSameAction.ID, new SelectSameAction(editor));
-    m.put(GroupAction.ID, new GroupAction(editor, new SVGGroupFigure()));
-    m.put(UngroupAction.ID, new UngroupAction(editor, new SVGGroupFigure()));
-    m.put(CombineAction.ID, new CombineAction(editor));
-    m.put(SplitAction.ID, new SplitAction(editor));
-    m.put(BringToFrontAction.ID, new BringToFrontAction(editor));
-    m.put(SendToBackAction.ID, new SendToBackAction(editor));
+    if (v == null || !a.isSharingToolsAmongViews()) {
+      // Actions on the shared editor are inherited from the action map of the application
+      m.putLazy(SelectSameAction.ID, () -> new SelectSameAction(editor));
+      m.putLazy(GroupAction.ID, () -> new GroupAction(editor, new SVGGroupFigure()));
+      m.putLazy(UngroupAction.ID, () -> new UngroupAction(editor, new SVGGroupFigure()));
+      m.putLazy(CombineAction.ID, () -> new CombineAction(editor));
+      m.putLazy(SplitAction.ID, () -> new SplitAction(editor));
+      m.putLazy(BringToFrontAction.ID, () -> new BringToFrontAction(editor));
+      m.putLazy(SendToBackAction.ID, () -> new SendToBackAction(editor));
+    }
     return m;
   }
 
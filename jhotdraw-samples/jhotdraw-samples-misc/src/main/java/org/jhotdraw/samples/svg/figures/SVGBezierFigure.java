@@ -34,7 +34,6 @@ import org.jhotdraw.util.ResourceBundleUtil;
 public class SVGBezierFigure extends BezierFigure {
 
   private static final long serialVersionUID = 1L;
-  private transient Rectangle2D.Double cachedDrawingArea;
 
   public SVGBezierFigure() {
     this(false);
@@ -130,25 +129,24 @@ public class SVGBezierFigure extends BezierFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      if (attr().get(TRANSFORM) == null) {
-        cachedDrawingArea = path.getBounds2D();
-      } else {
-        BezierPath p2 = path.clone();
-        p2.transform(attr().get(TRANSFORM));
-        cachedDrawingArea = p2.getBounds2D();
-      }
-      double strokeTotalWidth = AttributeKeys.getStrokeTotalWidth(this, 1.0);
-      double width = strokeTotalWidth / 2d;
-      if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
-        width *= attr().get(STROKE_MITER_LIMIT);
-      } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
-        width += strokeTotalWidth * 2;
-      }
-      Geom.grow(cachedDrawingArea, width, width);
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D.Double r;
+    if (attr().get(TRANSFORM) == null) {
+      r = path.getBounds2D();
+    } else {
+      BezierPath p2 = path.clone();
+      p2.transform(attr().get(TRANSFORM));
+      r = p2.getBounds2D();
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    double strokeTotalWidth = AttributeKeys.getStrokeTotalWidth(this, 1.0);
+    double width = strokeTotalWidth / 2d;
+    if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
+      width *= attr().get(STROKE_MITER_LIMIT);
+    } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
+      width += strokeTotalWidth * 2;
+    }
+    Geom.grow(r, width, width);
+    return r;
   }
 
   /**
@@ -235,10 +233,4 @@ public class SVGBezierFigure extends BezierFigure {
     }
     invalidate();
   }
-
-  @Override
-  public void invalidate() {
-    super.invalidate();
-    cachedDrawingArea = null;
-  }
 }
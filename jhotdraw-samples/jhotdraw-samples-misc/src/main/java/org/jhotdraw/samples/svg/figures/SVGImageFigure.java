@@ -137,7 +137,7 @@ public class SVGImageFigure extends SVGAttributedFigure implements SVGFigure, Im
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D rx = getTransformedShape().getBounds2D();
     Rectangle2D.Double r =
         (rx instanceof Rectangle2D.Double)
@@ -163,6 +163,7 @@ public class SVGImageFigure extends SVGAttributedFigure implements SVGFigure, Im
 
   private void invalidateTransformedShape() {
     cachedTransformedShape = null;
+    invalidateGeometry();
     cachedHitShape = null;
   }
 
@@ -143,7 +143,6 @@ public class SVGPathFigure extends AbstractAttributedCompositeFigure implements
   protected void invalidate() {
     super.invalidate();
     cachedPath = null;
-    cachedDrawingArea = null;
     cachedHitShape = null;
   }
 
@@ -175,33 +174,30 @@ public class SVGPathFigure extends AbstractAttributedCompositeFigure implements
 
   // int count;
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      double strokeTotalWidth = Math.max(1d, AttributeKeys.getStrokeTotalWidth(this, 1.0));
-      double width = strokeTotalWidth / 2d;
-      if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
-        width *= attr().get(STROKE_MITER_LIMIT);
-      } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
-        width += strokeTotalWidth * 2;
-      }
-      Shape gp = getPath();
-      Rectangle2D strokeRect = new Rectangle2D.Double(0, 0, width, width);
-      AffineTransform tx = attr().get(TRANSFORM);
-      if (tx != null) {
-        // We have to use the (rectangular) bounds of the path here,
-        // because we draw a rectangular handle over the shape of the figure
-        gp = tx.createTransformedShape(gp.getBounds2D());
-        strokeRect = tx.createTransformedShape(strokeRect).getBounds2D();
-      }
-      Rectangle2D rx = gp.getBounds2D();
-      Rectangle2D.Double r =
-          (rx instanceof Rectangle2D.Double)
-              ? (Rectangle2D.Double) rx
-              : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
-      Geom.grow(r, strokeRect.getWidth(), strokeRect.getHeight());
-      cachedDrawingArea = r;
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    double strokeTotalWidth = Math.max(1d, AttributeKeys.getStrokeTotalWidth(this, 1.0));
+    double width = strokeTotalWidth / 2d;
+    if (attr().get(STROKE_JOIN) == BasicStroke.JOIN_MITER) {
+      width *= attr().get(STROKE_MITER_LIMIT);
+    } else if (attr().get(STROKE_CAP) != BasicStroke.CAP_BUTT) {
+      width += strokeTotalWidth * 2;
+    }
+    Shape gp = getPath();
+    Rectangle2D strokeRect = new Rectangle2D.Double(0, 0, width, width);
+    AffineTransform tx = attr().get(TRANSFORM);
+    if (tx != null) {
+      // We have to use the (rectangular) bounds of the path here,
+      // because we draw a rectangular handle over the shape of the figure
+      gp = tx.createTransformedShape(gp.getBounds2D());
+      strokeRect = tx.createTransformedShape(strokeRect).getBounds2D();
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    Rectangle2D rx = gp.getBounds2D();
+    Rectangle2D.Double r =
+        (rx instanceof Rectangle2D.Double)
+            ? (Rectangle2D.Double) rx
+            : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
+    Geom.grow(r, strokeRect.getWidth(), strokeRect.getHeight());
+    return r;
   }
 
   @Override
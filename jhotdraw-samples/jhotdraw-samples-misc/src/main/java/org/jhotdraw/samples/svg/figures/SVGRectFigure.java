@@ -183,7 +183,7 @@ public class SVGRectFigure extends SVGAttributedFigure implements SVGFigure {
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
     Rectangle2D rx = getTransformedShape().getBounds2D();
     Rectangle2D.Double r =
         (rx instanceof Rectangle2D.Double)
@@ -225,6 +225,7 @@ public class SVGRectFigure extends SVGAttributedFigure implements SVGFigure {
 
   private void invalidateTransformedShape() {
     cachedTransformedShape = null;
+    invalidateGeometry();
     cachedHitShape = null;
   }
 
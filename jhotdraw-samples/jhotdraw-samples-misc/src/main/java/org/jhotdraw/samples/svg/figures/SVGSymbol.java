@@ -0,0 +1,82 @@
+/*
+ * @(#)SVGSymbol.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.samples.svg.figures;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jhotdraw.draw.AttributeKey;
+import org.jhotdraw.draw.figure.Figure;
+
+/**
+ * A shared definition of a figure, which is referenced by any number of {@link SVGUseFigure}s.
+ *
+ * <p>The prototype figure is parsed once and is never changed afterwards. Instances which override
+ * attributes of the prototype share a copy of the prototype for each distinct set of overrides, so
+ * that the geometry of the copy is computed once for all of them.
+ */
+public final class SVGSymbol implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The maximal number of copies with overridden attributes, which are kept. */
+  private static final int MAX_VARIANTS = 32;
+
+  private final Figure prototype;
+
+  /** Copies of the prototype with overridden attributes. */
+  private transient Map<Map<AttributeKey<?>, Object>, Figure> variants;
+
+  /**
+   * Creates a new symbol.
+   *
+   * @param prototype the figure which defines the symbol. The figure must not be changed
+   *     afterwards.
+   */
+  public SVGSymbol(Figure prototype) {
+    this.prototype = prototype;
+  }
+
+  /** Returns the figure which defines the symbol. The figure must not be changed. */
+  public Figure getPrototype() {
+    return prototype;
+  }
+
+  /**
+   * Returns the prototype with the specified attributes overridden. The returned figure is shared
+   * and must not be changed.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Figure getVariant(Map<AttributeKey<?>, Object> overrides) {
+    if (overrides.isEmpty()) {
+      return prototype;
+    }
+    if (variants == null) {
+      variants =
+          new LinkedHashMap<Map<AttributeKey<?>, Object>, Figure>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Map<AttributeKey<?>, Object>, Figure> eldest) {
+              return size() > MAX_VARIANTS;
+            }
+          };
+    }
+    Figure variant = variants.get(overrides);
+    if (variant == null) {
+      variant = prototype.clone();
+      for (Map.Entry<AttributeKey<?>, Object> entry : overrides.entrySet()) {
+        variant.attr().set((AttributeKey<Object>) entry.getKey(), entry.getValue());
+      }
+      variants.put(new HashMap<AttributeKey<?>, Object>(overrides), variant);
+    }
+    return variant;
+  }
+}
@@ -17,11 +17,10 @@ import static org.jhotdraw.draw.AttributeKeys.TRANSFORM;
 import static org.jhotdraw.samples.svg.SVGAttributeKeys.*;
 
 import java.awt.*;
-import java.awt.font.*;
 import java.awt.geom.*;
-import java.text.*;
 import java.util.*;
 import org.jhotdraw.draw.*;
+import org.jhotdraw.draw.figure.TextAreaLayout;
 import org.jhotdraw.draw.figure.TextHolderFigure;
 import org.jhotdraw.draw.handle.BoundsOutlineHandle;
 import org.jhotdraw.draw.handle.FontSizeHandle;
@@ -51,10 +50,17 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
   private Boolean isTextOverflow;
 
   /** This is used to perform faster drawing and hit testing. */
-  private transient Rectangle2D.Double cachedDrawingArea;
-
   private transient Shape cachedTextShape;
 
+  /**
+   * The layout from which the text shape is built, and the layout used for measuring the preferred
+   * text size. The layouts survive {@link #invalidate}, they are only recomputed when the text, the
+   * font or the wrapping width changes.
+   */
+  private transient TextAreaLayout cachedLayout;
+
+  private transient TextAreaLayout cachedMeasureLayout;
+
   public SVGTextAreaFigure() {
     this("Text");
   }
@@ -86,19 +92,16 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      Rectangle2D.Double r = getBounds();
-      double g = SVGAttributeKeys.getPerpendicularHitGrowth(this, 1.0);
-      Geom.grow(r, g, g);
-      if (attr().get(TRANSFORM) == null) {
-        cachedDrawingArea = r;
-      } else {
-        cachedDrawingArea = new Rectangle2D.Double();
-        cachedDrawingArea.setRect(attr().get(TRANSFORM).createTransformedShape(r).getBounds2D());
-      }
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D.Double r = getBounds();
+    double g = SVGAttributeKeys.getPerpendicularHitGrowth(this, 1.0);
+    Geom.grow(r, g, g);
+    if (attr().get(TRANSFORM) == null) {
+      return r;
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    Rectangle2D.Double area = new Rectangle2D.Double();
+    area.setRect(attr().get(TRANSFORM).createTransformedShape(r).getBounds2D());
+    return area;
   }
 
   /** Checks if a Point2D.Double is inside the figure. */
@@ -119,9 +122,7 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
     if (cachedTextShape == null) {
       Path2D.Double shape;
       cachedTextShape = shape = new Path2D.Double();
-      if (getText() != null || isEditable()) {
-        Font font = getFont();
-        boolean isUnderlined = attr().get(FONT_UNDERLINE);
+      if (getText() != null) {
         Insets2D.Double insets = getInsets();
         Rectangle2D.Double textRect =
             new Rectangle2D.Double(
@@ -129,162 +130,51 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
                 bounds.y + insets.top,
                 bounds.width - insets.left - insets.right,
                 bounds.height - insets.top - insets.bottom);
-        float leftMargin = (float) textRect.x;
-        float rightMargin = (float) Math.max(leftMargin + 1, textRect.x + textRect.width);
-        float verticalPos = (float) textRect.y;
-        float maxVerticalPos = (float) (textRect.y + textRect.height);
-        if (leftMargin < rightMargin) {
-          float tabWidth =
-              (float) (getTabSize() * font.getStringBounds("m", getFontRenderContext()).getWidth());
-          float[] tabStops = new float[(int) (textRect.width / tabWidth)];
-          for (int i = 0; i < tabStops.length; i++) {
-            tabStops[i] = (float) (textRect.x + (int) (tabWidth * (i + 1)));
-          }
-          if (getText() != null) {
-            String[] paragraphs = getText().split("\n"); // Strings.split(getText(), '\n');
-            for (int i = 0; i < paragraphs.length; i++) {
-              if (paragraphs[i].length() == 0) {
-                paragraphs[i] = " ";
-              }
-              AttributedString as = new AttributedString(paragraphs[i]);
-              as.addAttribute(TextAttribute.FONT, font);
-              if (isUnderlined) {
-                as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
-              }
-              int tabCount = paragraphs[i].split("\t").length - 1;
-              Rectangle2D.Double paragraphBounds =
-                  appendParagraph(
-                      shape,
-                      as.getIterator(),
-                      verticalPos,
-                      maxVerticalPos,
-                      leftMargin,
-                      rightMargin,
-                      tabStops,
-                      tabCount);
-              verticalPos = (float) (paragraphBounds.y + paragraphBounds.height);
-              if (verticalPos > textRect.y + textRect.height) {
-                break;
-              }
-            }
-          }
+        Font font = getFont();
+        TextAreaLayout layout = cachedLayout;
+        TextAreaLayout.Key key =
+            new TextAreaLayout.Key(
+                getText(),
+                font,
+                attr().get(FONT_UNDERLINE),
+                (float) Math.max(1, textRect.width),
+                TextAreaLayout.createTabStops(
+                    font, getTabSize(), textRect.width, getFontRenderContext()),
+                getFontRenderContext());
+        if (layout == null || !layout.getKey().equals(key)) {
+          layout = TextAreaLayout.create(key);
+          cachedLayout = layout;
         }
+        appendLayout(shape, layout, textRect);
       }
     }
     return cachedTextShape;
   }
 
   /**
-   * Appends a paragraph of text at the specified y location and returns the bounds of the
-   * paragraph.
-   *
-   * @param shape Shape to which to add the glyphs of the paragraph. This parameter is null, if we
-   *     only want to measure the size of the paragraph.
-   * @param styledText the text of the paragraph.
-   * @param verticalPos the top bound of the paragraph
-   * @param maxVerticalPos the bottom bound of the paragraph
-   * @param leftMargin the left bound of the paragraph
-   * @param rightMargin the right bound of the paragraph
-   * @param tabStops an array with tab stops
-   * @param tabCount the number of entries in tabStops which contain actual values
-   * @return Returns the actual bounds of the paragraph.
+   * Appends the outlines of the text layouts of the specified layout to the shape, starting at the
+   * top left corner of the text rectangle. Lines with a baseline below the text rectangle are not
+   * appended.
    */
-  private Rectangle2D.Double appendParagraph(
-      Path2D.Double shape,
-      AttributedCharacterIterator styledText,
-      float verticalPos,
-      float maxVerticalPos,
-      float leftMargin,
-      float rightMargin,
-      float[] tabStops,
-      int tabCount) {
-    // assume styledText is an AttributedCharacterIterator, and the number
-    // of tabs in styledText is tabCount
-    Rectangle2D.Double paragraphBounds = new Rectangle2D.Double(leftMargin, verticalPos, 0, 0);
-    int[] tabLocations = new int[tabCount + 1];
-    int i = 0;
-    for (char c = styledText.first(); c != CharacterIterator.DONE; c = styledText.next()) {
-      if (c == '\t') {
-        tabLocations[i++] = styledText.getIndex();
-      }
-    }
-    tabLocations[tabCount] = styledText.getEndIndex() - 1;
-    // Now tabLocations has an entry for every tab's offset in
-    // the text.  For convenience, the last entry is tabLocations
-    // is the offset of the last character in the text.
-    LineBreakMeasurer measurer = new LineBreakMeasurer(styledText, getFontRenderContext());
-    int currentTab = 0;
-    while (measurer.getPosition() < styledText.getEndIndex()) {
-      // Lay out and draw each line.  All segments on a line
-      // must be computed before any drawing can occur, since
-      // we must know the largest ascent on the line.
-      // TextLayouts are computed and stored in a List;
-      // their horizontal positions are stored in a parallel
-      // List.
-      // lineContainsText is true after first segment is drawn
-      boolean lineContainsText = false;
-      boolean lineComplete = false;
-      float maxAscent = 0, maxDescent = 0;
-      float horizontalPos = leftMargin;
-      LinkedList<TextLayout> layouts = new LinkedList<TextLayout>();
-      LinkedList<Float> penPositions = new LinkedList<Float>();
-      while (!lineComplete) {
-        float wrappingWidth = rightMargin - horizontalPos;
-        TextLayout layout = null;
-        layout = measurer.nextLayout(wrappingWidth, tabLocations[currentTab] + 1, lineContainsText);
-        // layout can be null if lineContainsText is true
-        if (layout != null) {
-          layouts.add(layout);
-          penPositions.add(horizontalPos);
-          horizontalPos += layout.getAdvance();
-          maxAscent = Math.max(maxAscent, layout.getAscent());
-          maxDescent = Math.max(maxDescent, layout.getDescent() + layout.getLeading());
-        } else {
-          lineComplete = true;
-        }
-        lineContainsText = true;
-        if (measurer.getPosition() == tabLocations[currentTab] + 1) {
-          currentTab++;
-        }
-        if (measurer.getPosition() == styledText.getEndIndex()) {
-          lineComplete = true;
-        } else if (tabStops.length == 0 || horizontalPos >= tabStops[tabStops.length - 1]) {
-          lineComplete = true;
+  private void appendLayout(
+      Path2D.Double shape, TextAreaLayout layout, Rectangle2D.Double textRect) {
+    double maxY = textRect.y + textRect.height;
+    for (TextAreaLayout.Paragraph p : layout.getParagraphs()) {
+      for (TextAreaLayout.Line line : p.getLines()) {
+        double baseline = textRect.y + line.getBaseline();
+        if (baseline > maxY) {
+          break;
         }
-        if (!lineComplete) {
-          // move to next tab stop
-          int j;
-          for (j = 0; horizontalPos >= tabStops[j]; j++) {}
-          horizontalPos = tabStops[j];
+        for (int i = 0, n = line.getLayoutCount(); i < n; i++) {
+          AffineTransform tx =
+              AffineTransform.getTranslateInstance(textRect.x + line.getPenPosition(i), baseline);
+          shape.append(line.getLayout(i).getOutline(tx), false);
         }
       }
-      verticalPos += maxAscent;
-      if (verticalPos > maxVerticalPos) {
+      if (textRect.y + p.getBottom() > maxY) {
         break;
       }
-      Iterator<TextLayout> layoutEnum = layouts.iterator();
-      Iterator<Float> positionEnum = penPositions.iterator();
-      // now iterate through layouts and draw them
-      while (layoutEnum.hasNext()) {
-        TextLayout nextLayout = layoutEnum.next();
-        float nextPosition = positionEnum.next();
-        AffineTransform tx = new AffineTransform();
-        tx.translate(nextPosition, verticalPos);
-        if (shape != null) {
-          Shape outline = nextLayout.getOutline(tx);
-          shape.append(outline, false);
-        }
-        Rectangle2D layoutBounds = nextLayout.getBounds();
-        paragraphBounds.add(
-            new Rectangle2D.Double(
-                layoutBounds.getX() + nextPosition,
-                layoutBounds.getY() + verticalPos,
-                layoutBounds.getWidth(),
-                layoutBounds.getHeight()));
-      }
-      verticalPos += maxDescent;
     }
-    return paragraphBounds;
   }
 
   @Override
@@ -524,7 +414,6 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
   @Override
   public void invalidate() {
     super.invalidate();
-    cachedDrawingArea = null;
     cachedTextShape = null;
     isTextOverflow = null;
   }
@@ -553,45 +442,23 @@ public class SVGTextAreaFigure extends SVGAttributedFigure implements SVGFigure,
   public Dimension2DDouble getPreferredTextSize(double maxWidth) {
     Rectangle2D.Double textRect = new Rectangle2D.Double();
     if (getText() != null) {
-      Font font = getFont();
-      boolean isUnderlined = attr().get(FONT_UNDERLINE);
-      float leftMargin = 0;
-      float rightMargin = (float) maxWidth - 1;
-      float verticalPos = 0;
-      float maxVerticalPos = Float.MAX_VALUE;
-      if (leftMargin < rightMargin) {
-        float tabWidth =
-            (float) (getTabSize() * font.getStringBounds("m", getFontRenderContext()).getWidth());
-        float[] tabStops = new float[(int) (textRect.width / tabWidth)];
-        for (int i = 0; i < tabStops.length; i++) {
-          tabStops[i] = (float) (textRect.x + (int) (tabWidth * (i + 1)));
-        }
-        if (getText() != null) {
-          String[] paragraphs = getText().split("\n"); // Strings.split(getText(), '\n');
-          for (int i = 0; i < paragraphs.length; i++) {
-            if (paragraphs[i].length() == 0) {
-              paragraphs[i] = " ";
-            }
-            AttributedString as = new AttributedString(paragraphs[i]);
-            as.addAttribute(TextAttribute.FONT, font);
-            if (isUnderlined) {
-              as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_LOW_ONE_PIXEL);
-            }
-            int tabCount = paragraphs[i].split("\t").length - 1;
-            Rectangle2D.Double paragraphBounds =
-                appendParagraph(
-                    null,
-                    as.getIterator(),
-                    verticalPos,
-                    maxVerticalPos,
-                    leftMargin,
-                    rightMargin,
-                    tabStops,
-                    tabCount);
-            verticalPos = (float) (paragraphBounds.y + paragraphBounds.height);
-            textRect.add(paragraphBounds);
-          }
+      float wrapWidth = (float) maxWidth - 1;
+      if (0 < wrapWidth) {
+        Font font = getFont();
+        TextAreaLayout.Key key =
+            new TextAreaLayout.Key(
+                getText(),
+                font,
+                attr().get(FONT_UNDERLINE),
+                wrapWidth,
+                TextAreaLayout.createTabStops(font, getTabSize(), 0, getFontRenderContext()),
+                getFontRenderContext());
+        TextAreaLayout layout = cachedMeasureLayout;
+        if (layout == null || !layout.getKey().equals(key)) {
+          layout = TextAreaLayout.create(key);
+          cachedMeasureLayout = layout;
         }
+        textRect = layout.getBounds();
       }
     }
     return new Dimension2DDouble(
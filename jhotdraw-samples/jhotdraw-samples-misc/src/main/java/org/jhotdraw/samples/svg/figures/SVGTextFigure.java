@@ -53,7 +53,6 @@ public class SVGTextFigure extends SVGAttributedFigure implements TextHolderFigu
   private transient Shape cachedTextShape;
 
   private transient Rectangle2D.Double cachedBounds;
-  private transient Rectangle2D.Double cachedDrawingArea;
 
   public SVGTextFigure() {
     this("Text");
@@ -141,23 +140,20 @@ public class SVGTextFigure extends SVGAttributedFigure implements TextHolderFigu
   }
 
   @Override
-  public Rectangle2D.Double getDrawingArea(double scale) {
-    if (cachedDrawingArea == null) {
-      Rectangle2D rx = getTextShape().getBounds2D();
-      Rectangle2D.Double r =
-          (rx instanceof Rectangle2D.Double)
-              ? (Rectangle2D.Double) rx
-              : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
-      double g = SVGAttributeKeys.getPerpendicularHitGrowth(this, 1.0) + 1;
-      Geom.grow(r, g, g);
-      if (attr().get(TRANSFORM) == null) {
-        cachedDrawingArea = r;
-      } else {
-        cachedDrawingArea = new Rectangle2D.Double();
-        cachedDrawingArea.setRect(attr().get(TRANSFORM).createTransformedShape(r).getBounds2D());
-      }
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    Rectangle2D rx = getTextShape().getBounds2D();
+    Rectangle2D.Double r =
+        (rx instanceof Rectangle2D.Double)
+            ? (Rectangle2D.Double) rx
+            : new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
+    double g = SVGAttributeKeys.getPerpendicularHitGrowth(this, 1.0) + 1;
+    Geom.grow(r, g, g);
+    if (attr().get(TRANSFORM) == null) {
+      return r;
     }
-    return (Rectangle2D.Double) cachedDrawingArea.clone();
+    Rectangle2D.Double area = new Rectangle2D.Double();
+    area.setRect(attr().get(TRANSFORM).createTransformedShape(r).getBounds2D());
+    return area;
   }
 
   /** Checks if a Point2D.Double is inside the figure. */
@@ -213,6 +209,7 @@ public class SVGTextFigure extends SVGAttributedFigure implements TextHolderFigu
   public void setBounds(Point2D.Double anchor, Point2D.Double lead) {
     coordinates = new Point2D.Double[] {new Point2D.Double(anchor.x, anchor.y)};
     rotates = new double[] {0d};
+    invalidate();
   }
 
   /**
@@ -370,7 +367,6 @@ public class SVGTextFigure extends SVGAttributedFigure implements TextHolderFigu
     super.invalidate();
     cachedTextShape = null;
     cachedBounds = null;
-    cachedDrawingArea = null;
   }
 
   @Override
@@ -447,7 +443,6 @@ public class SVGTextFigure extends SVGAttributedFigure implements TextHolderFigu
     }
     that.rotates = this.rotates.clone();
     that.cachedBounds = null;
-    that.cachedDrawingArea = null;
     that.cachedTextShape = null;
     return that;
   }
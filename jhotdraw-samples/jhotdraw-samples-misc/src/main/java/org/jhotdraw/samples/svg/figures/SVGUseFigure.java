@@ -0,0 +1,217 @@
+/*
+ * @(#)SVGUseFigure.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.samples.svg.figures;
+
+import static org.jhotdraw.draw.AttributeKeys.TRANSFORM;
+import static org.jhotdraw.samples.svg.SVGAttributeKeys.*;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.util.*;
+import org.jhotdraw.draw.*;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.draw.handle.BoundsOutlineHandle;
+import org.jhotdraw.draw.handle.Handle;
+import org.jhotdraw.draw.handle.ResizeHandleKit;
+import org.jhotdraw.draw.handle.TransformHandleKit;
+
+/**
+ * An instance of a {@link SVGSymbol}, as created by the SVG "use" element.
+ *
+ * <p>The instance holds no geometry of its own. It draws the shared figure of the symbol with its
+ * {@code TRANSFORM} attribute. All its other attributes, except for {@code OPACITY} and the link
+ * attributes, override the attributes of the symbol.
+ */
+public class SVGUseFigure extends SVGAttributedFigure implements SVGFigure {
+
+  private static final long serialVersionUID = 1L;
+
+  private SVGSymbol symbol;
+
+  /**
+   * The figure of the symbol with the attributes of this instance. Volatile, because several
+   * threads may draw the instance at the same time.
+   */
+  private transient volatile Figure cachedVariant;
+
+  public SVGUseFigure(SVGSymbol symbol) {
+    this.symbol = symbol;
+    setConnectable(false);
+  }
+
+  public SVGSymbol getSymbol() {
+    return symbol;
+  }
+
+  /** Returns true, if the attribute belongs to the instance instead of overriding the symbol. */
+  private static boolean isInstanceAttribute(AttributeKey<?> key) {
+    return key == TRANSFORM || key == OPACITY || key == LINK || key == LINK_TARGET;
+  }
+
+  /** Returns the attributes of this instance, which override the attributes of the symbol. */
+  public Map<AttributeKey<?>, Object> getOverrides() {
+    HashMap<AttributeKey<?>, Object> overrides = new HashMap<AttributeKey<?>, Object>();
+    for (Map.Entry<AttributeKey<?>, Object> entry : attr().getAttributes().entrySet()) {
+      if (!isInstanceAttribute(entry.getKey())) {
+        overrides.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return overrides;
+  }
+
+  private Figure getVariant() {
+    Figure variant = cachedVariant;
+    if (variant == null) {
+      variant = symbol.getVariant(getOverrides());
+      cachedVariant = variant;
+    }
+    return variant;
+  }
+
+  // DRAWING
+  @Override
+  public void drawFigure(Graphics2D g) {
+    AffineTransform savedTransform = g.getTransform();
+    if (attr().get(TRANSFORM) != null) {
+      g.transform(attr().get(TRANSFORM));
+    }
+    getVariant().draw(g);
+    g.setTransform(savedTransform);
+  }
+
+  // SHAPE AND BOUNDS
+  @Override
+  public Rectangle2D.Double getBounds(double scale) {
+    return getCachedBounds(scale, this::computeBounds);
+  }
+
+  protected Rectangle2D.Double computeBounds(double scale) {
+    return transformBounds(getVariant().getBounds(scale));
+  }
+
+  @Override
+  public Rectangle2D.Double getDrawingArea(double scale) {
+    return getCachedDrawingArea(scale);
+  }
+
+  @Override
+  protected Rectangle2D.Double computeDrawingArea(double scale) {
+    return transformBounds(getVariant().getDrawingArea(scale));
+  }
+
+  private Rectangle2D.Double transformBounds(Rectangle2D.Double r) {
+    AffineTransform t = attr().get(TRANSFORM);
+    if (t == null) {
+      return r;
+    }
+    Rectangle2D rx = t.createTransformedShape(r).getBounds2D();
+    return new Rectangle2D.Double(rx.getX(), rx.getY(), rx.getWidth(), rx.getHeight());
+  }
+
+  /** Checks if a Point2D.Double is inside the figure. */
+  @Override
+  public boolean contains(Point2D.Double p, double scaleDenominator) {
+    Point2D.Double q = p;
+    AffineTransform t = attr().get(TRANSFORM);
+    if (t != null) {
+      try {
+        q = (Point2D.Double) t.inverseTransform(p, new Point2D.Double());
+      } catch (NoninvertibleTransformException ex) {
+        return false;
+      }
+    }
+    return getVariant().contains(q, scaleDenominator);
+  }
+
+  @Override
+  public void setBounds(Point2D.Double anchor, Point2D.Double lead) {
+    Rectangle2D.Double b = getBounds();
+    if (b.width <= 0 || b.height <= 0) {
+      return;
+    }
+    AffineTransform tx = new AffineTransform();
+    tx.translate(Math.min(anchor.x, lead.x), Math.min(anchor.y, lead.y));
+    tx.scale(
+        Math.max(0.1, Math.abs(lead.x - anchor.x)) / b.width,
+        Math.max(0.1, Math.abs(lead.y - anchor.y)) / b.height);
+    tx.translate(-b.x, -b.y);
+    transform(tx);
+  }
+
+  /**
+   * Transforms the figure.
+   *
+   * @param tx The transformation.
+   */
+  @Override
+  public void transform(AffineTransform tx) {
+    if (attr().get(TRANSFORM) == null) {
+      attr().set(TRANSFORM, (AffineTransform) tx.clone());
+    } else {
+      AffineTransform t = TRANSFORM.getClone(this);
+      t.preConcatenate(tx);
+      attr().set(TRANSFORM, t);
+    }
+  }
+
+  // ATTRIBUTES
+  @Override
+  public void restoreTransformTo(Object geometry) {
+    if (geometry == null) {
+      attr().set(TRANSFORM, null);
+    } else {
+      attr().set(TRANSFORM, (AffineTransform) ((AffineTransform) geometry).clone());
+    }
+  }
+
+  @Override
+  public Object getTransformRestoreData() {
+    return TRANSFORM.getClone(this);
+  }
+
+  @Override
+  protected <T> void fireAttributeChanged(AttributeKey<T> attribute, T oldValue, T newValue) {
+    if (!isInstanceAttribute(attribute)) {
+      cachedVariant = null;
+    }
+    super.fireAttributeChanged(attribute, oldValue, newValue);
+  }
+
+  // EDITING
+  @Override
+  public Collection<Handle> createHandles(int detailLevel) {
+    LinkedList<Handle> handles = new LinkedList<Handle>();
+    switch (detailLevel % 2) {
+      case -1: // Mouse hover handles
+        handles.add(new BoundsOutlineHandle(this, false, true));
+        break;
+      case 0:
+        ResizeHandleKit.addResizeHandles(this, handles);
+        handles.add(new LinkHandle(this));
+        break;
+      case 1:
+        TransformHandleKit.addTransformHandles(this, handles);
+        break;
+      default:
+        break;
+    }
+    return handles;
+  }
+
+  // CLONING
+  @Override
+  public SVGUseFigure clone() {
+    return (SVGUseFigure) super.clone();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    Figure prototype = symbol.getPrototype();
+    return prototype instanceof SVGFigure && ((SVGFigure) prototype).isEmpty();
+  }
+}
@@ -47,7 +47,7 @@ public class FontToolBar extends AbstractToolBar {
   public FontToolBar() {
     ResourceBundleUtil labels = ResourceBundleUtil.getBundle("org.jhotdraw.samples.svg.Labels");
     setName(labels.getString("font.toolbar"));
-    JFontChooser.loadAllFonts();
+    JFontChooser.loadFontCatalog();
     setDisclosureStateCount(3);
   }
 
@@ -25,8 +25,10 @@ import org.jhotdraw.samples.svg.figures.SVGGroupFigure;
 import org.jhotdraw.samples.svg.figures.SVGImageFigure;
 import org.jhotdraw.samples.svg.figures.SVGPathFigure;
 import org.jhotdraw.samples.svg.figures.SVGRectFigure;
+import org.jhotdraw.samples.svg.figures.SVGSymbol;
 import org.jhotdraw.samples.svg.figures.SVGTextAreaFigure;
 import org.jhotdraw.samples.svg.figures.SVGTextFigure;
+import org.jhotdraw.samples.svg.figures.SVGUseFigure;
 
 /** DefaultSVGFigureFactory. */
 public class DefaultSVGFigureFactory implements SVGFigureFactory {
@@ -138,6 +140,13 @@ public class DefaultSVGFigureFactory implements SVGFigureFactory {
     return figure;
   }
 
+  @Override
+  public Figure createUse(SVGSymbol symbol, Map<AttributeKey<?>, Object> a) {
+    SVGUseFigure figure = new SVGUseFigure(symbol);
+    figure.attr().setAttributes(a);
+    return figure;
+  }
+
   @Override
   public Figure createTextArea(
       double x,
@@ -14,6 +14,7 @@ import java.awt.datatransfer.*;
 import java.awt.geom.*;
 import java.io.*;
 import java.net.URI;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.*;
@@ -91,7 +92,13 @@ public class ImageMapOutputFormat implements OutputFormat {
 
   @Override
   public void write(OutputStream out, Drawing drawing) throws IOException {
-    write(out, drawing.getChildren());
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      write(out, drawing.getChildren());
+    } finally {
+      readLock.unlock();
+    }
   }
 
   /**
@@ -101,7 +108,13 @@ public class ImageMapOutputFormat implements OutputFormat {
   public void write(
       OutputStream out, Drawing drawing, AffineTransform drawingTransform, Dimension imageSize)
       throws IOException {
-    write(out, drawing.getChildren(), drawingTransform, imageSize);
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      write(out, drawing.getChildren(), drawingTransform, imageSize);
+    } finally {
+      readLock.unlock();
+    }
   }
 
   /**
@@ -190,6 +203,11 @@ public class ImageMapOutputFormat implements OutputFormat {
         new DataFlavor("text/html", "HTML Image Map"), buf.toByteArray());
   }
 
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {new DataFlavor("text/html", "HTML Image Map")};
+  }
+
   protected void writeElement(Element parent, Figure f) throws IOException {
     if (f instanceof SVGEllipseFigure) {
       writeEllipseElement(parent, (SVGEllipseFigure) f);
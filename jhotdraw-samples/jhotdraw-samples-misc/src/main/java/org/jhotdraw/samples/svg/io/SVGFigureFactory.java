@@ -17,6 +17,7 @@ import org.jhotdraw.draw.figure.CompositeFigure;
 import org.jhotdraw.draw.figure.Figure;
 import org.jhotdraw.geom.path.BezierPath;
 import org.jhotdraw.samples.svg.Gradient;
+import org.jhotdraw.samples.svg.figures.SVGSymbol;
 
 /**
  * Creates Figures for SVG elements.
@@ -90,6 +91,15 @@ public interface SVGFigureFactory {
       BufferedImage bufferedImage,
       Map<AttributeKey<?>, Object> attributes);
 
+  /**
+   * Creates a Figure from a use element.
+   *
+   * @param symbol The shared definition of the referenced element.
+   * @param attributes The transform and the opacity of the instance, and the attributes which
+   *     override the attributes of the symbol.
+   */
+  public Figure createUse(SVGSymbol symbol, Map<AttributeKey<?>, Object> attributes);
+
   public Gradient createLinearGradient(
       double x1,
       double y1,
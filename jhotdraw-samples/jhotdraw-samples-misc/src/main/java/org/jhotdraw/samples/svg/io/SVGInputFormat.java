@@ -41,10 +41,12 @@ import org.jhotdraw.io.StreamPosTokenizer;
 import org.jhotdraw.samples.svg.Gradient;
 import org.jhotdraw.samples.svg.SVGAttributeKeys.TextAnchor;
 import org.jhotdraw.samples.svg.figures.SVGFigure;
+import org.jhotdraw.samples.svg.figures.SVGSymbol;
 import org.jhotdraw.util.LocaleUtil;
 import org.jhotdraw.xml.css.CSSParser;
 import org.jhotdraw.xml.css.StyleManager;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -76,6 +78,9 @@ public class SVGInputFormat implements InputFormat {
   /** Maps to all drawing objects from the XML elements they were created from. */
   private HashMap<Element, Object> elementObjects;
 
+  /** Maps to the symbols which have been created from the XML elements referenced by "use". */
+  private HashMap<Element, SVGSymbol> symbols;
+
   /** Tokenizer for parsing SVG path expressions. */
   private StreamPosTokenizer toPathTokenizer;
 
@@ -184,6 +189,7 @@ public class SVGInputFormat implements InputFormat {
     long start;
     this.figures = new LinkedList<Figure>();
     DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
     DocumentBuilder builder;
     try {
       builder = factory.newDocumentBuilder();
@@ -192,7 +198,7 @@ public class SVGInputFormat implements InputFormat {
       throw new IOException(ex);
     }
     try {
-      document = (Element) builder.parse(in);
+      document = builder.parse(in).getDocumentElement();
     } catch (SAXException ex) {
       Logger.getLogger(SVGInputFormat.class.getName()).log(Level.SEVERE, null, ex);
       throw new IOException(ex);
@@ -200,26 +206,10 @@ public class SVGInputFormat implements InputFormat {
     // Search for the first 'svg' element in the XML document
     // in preorder sequence
     Element svg = document;
-    Stack<Element> stack = new Stack<Element>();
-    // LinkedList<Element> ll = new LinkedList<Element>();
-    // ll.add(document);
-    stack.push((Element) document.getFirstChild());
-    while (!stack.empty() && stack.peek().getNextSibling() != null) {
-      Element iter = stack.peek();
-      Element node = (Element) iter.getNextSibling();
-      stack.set(stack.indexOf(iter), node);
-      Element children = (Element) node.getFirstChild();
-      if (iter.getNextSibling() == null) {
-        stack.pop();
-      }
-      if (children != null && children.getNextSibling() != null) {
-        stack.push(children);
-      }
-      if (node.getLocalName() != null
-          && node.getLocalName().equals("svg")
-          && (node.getPrefix() == null || node.getPrefix().equals(SVG_NAMESPACE))) {
-        svg = node;
-        break;
+    if (!"svg".equals(svg.getLocalName())) {
+      NodeList list = document.getElementsByTagNameNS("*", "svg");
+      if (list.getLength() > 0) {
+        svg = (Element) list.item(0);
       }
     }
     if (svg.getLocalName() == null
@@ -248,11 +238,13 @@ public class SVGInputFormat implements InputFormat {
     // Get rid of all objects we don't need anymore to help garbage collector.
     identifiedElements.clear();
     elementObjects.clear();
+    symbols.clear();
     viewportStack.clear();
     styleManager.clear();
     document = null;
     identifiedElements = null;
     elementObjects = null;
+    symbols = null;
     viewportStack = null;
     styleManager = null;
   }
@@ -261,6 +253,7 @@ public class SVGInputFormat implements InputFormat {
     identifiedElements = new HashMap<String, Element>();
     identifyElements(root);
     elementObjects = new HashMap<Element, Object>();
+    symbols = new HashMap<Element, SVGSymbol>();
     viewportStack = new Stack<Viewport>();
     viewportStack.push(new Viewport());
     styleManager = new StyleManager();
@@ -292,9 +285,7 @@ public class SVGInputFormat implements InputFormat {
           }
         }
         styleManager.applyStylesTo(elem);
-        NodeList list = elem.getChildNodes();
-        for (int i = 0; i < list.getLength(); i++) {
-          Element child = (Element) list.item(i);
+        for (Element child : getChildElements(elem)) {
           flattenStyles(child);
         }
       }
@@ -379,24 +370,43 @@ public class SVGInputFormat implements InputFormat {
 
   private static final Logger LOG = Logger.getLogger(SVGInputFormat.class.getName());
 
+  /** The properties which are read by {@link #readFontAttributes}. */
+  private static final String[] FONT_PROPERTIES = {
+    "font-family", "font-size", "font-style", "font-variant", "font-weight", "text-decoration"
+  };
+
   /** Reads an SVG "defs" element. */
   private void readDefsElement(Element elem) throws IOException {
-    Element child = (Element) elem.getFirstChild();
-    while (child != null) {
-      Figure childFigure = readElement(child);
-      child = (Element) child.getNextSibling();
+    for (Element child : getChildElements(elem)) {
+      if (!symbols.containsKey(child)) {
+        // Definitions are not part of the drawing, but they can be referenced by "use"
+        Figure childFigure = readElement(child);
+        if (childFigure != null) {
+          symbols.put(child, new SVGSymbol(childFigure));
+        }
+      }
     }
   }
 
+  /** Returns the child elements of an element. Text and comment nodes are skipped. */
+  private static ArrayList<Element> getChildElements(Element elem) {
+    ArrayList<Element> children = new ArrayList<Element>();
+    NodeList list = elem.getChildNodes();
+    for (int i = 0; i < list.getLength(); i++) {
+      if (list.item(i) instanceof Element) {
+        children.add((Element) list.item(i));
+      }
+    }
+    return children;
+  }
+
   /** Reads an SVG "g" element. */
   private Figure readGElement(Element elem) throws IOException {
     HashMap<AttributeKey<?>, Object> a = new HashMap<AttributeKey<?>, Object>();
     readCoreAttributes(elem, a);
     readOpacityAttribute(elem, a);
     CompositeFigure g = factory.createG(a);
-    NodeList list = elem.getChildNodes();
-    for (int i = 0; i < list.getLength(); i++) {
-      Element child = (Element) list.item(i);
+    for (Element child : getChildElements(elem)) {
       Figure childFigure = readElement(child);
       // skip invisible elements
       if (readAttribute(child, "visibility", "visible").equals("visible")
@@ -423,9 +433,7 @@ public class SVGInputFormat implements InputFormat {
       href = readAttribute(elem, "href", null);
     }
     String target = readAttribute(elem, "target", null);
-    NodeList list = elem.getChildNodes();
-    for (int i = 0; i < list.getLength(); i++) {
-      Element child = (Element) list.item(i);
+    for (Element child : getChildElements(elem)) {
       Figure childFigure = readElement(child);
       // skip invisible elements
       if (readAttribute(child, "visibility", "visible").equals("visible")
@@ -498,9 +506,7 @@ public class SVGInputFormat implements InputFormat {
     viewportStack.push(viewport);
     readViewportAttributes(elem, viewportStack.firstElement().attributes);
     // Read the figures
-    NodeList list = elem.getChildNodes();
-    for (int i = 0; i < list.getLength(); i++) {
-      Element child = (Element) list.item(i);
+    for (Element child : getChildElements(elem)) {
       Figure childFigure = readElement(child);
       // skip invisible elements
       if (readAttribute(child, "visibility", "visible").equals("visible")
@@ -896,9 +902,7 @@ public class SVGInputFormat implements InputFormat {
 
   /** Evaluates an SVG "switch" element. */
   private Figure readSwitchElement(Element elem) throws IOException {
-    NodeList list = elem.getChildNodes();
-    for (int i = 0; i < list.getLength(); i++) {
-      Element child = (Element) list.item(i);
+    for (Element child : getChildElements(elem)) {
       String[] requiredFeatures =
           toWSOrCommaSeparatedArray(readAttribute(child, "requiredFeatures", ""));
       String[] requiredExtensions =
@@ -946,8 +950,10 @@ public class SVGInputFormat implements InputFormat {
     return null;
   }
 
-  /** Reads an SVG "use" element. */
-  @SuppressWarnings("unchecked")
+  /**
+   * Reads an SVG "use" element. The referenced element is read only once, and is shared by all
+   * "use" elements which reference it.
+   */
   private Figure readUseElement(Element elem) throws IOException {
     HashMap<AttributeKey<?>, Object> a = new HashMap<AttributeKey<?>, Object>();
     readCoreAttributes(elem, a);
@@ -955,26 +961,34 @@ public class SVGInputFormat implements InputFormat {
     readTransformAttribute(elem, a);
     readOpacityAttribute(elem, a2);
     readUseShapeAttributes(elem, a2);
-    readFontAttributes(elem, a2);
+    // The font defaults would override the font of the symbol in every instance
+    if (isFontSpecified(elem)) {
+      readFontAttributes(elem, a2);
+    }
     String href = readAttribute(elem, "xlink:href", null);
     if (href != null && href.startsWith("#")) {
       Element refElem = identifiedElements.get(href.substring(1));
       if (refElem == null) {
         LOG.warning("SVGInputFormat couldn't find href for <use> element:" + href);
       } else {
-        Figure obj = readElement(refElem);
-        if (obj != null) {
-          Figure figure = obj.clone();
-          for (Map.Entry<AttributeKey<?>, Object> entry : a2.entrySet()) {
-            figure.attr().set((AttributeKey<Object>) entry.getKey(), entry.getValue());
+        SVGSymbol symbol = symbols.get(refElem);
+        if (symbol == null) {
+          Figure obj = readElement(refElem);
+          if (obj != null) {
+            symbol = new SVGSymbol(obj);
+            symbols.put(refElem, symbol);
           }
+        }
+        if (symbol != null) {
           AffineTransform tx =
               (TRANSFORM.get(a) == null) ? new AffineTransform() : TRANSFORM.get(a);
           double x = toNumber(elem, readAttribute(elem, "x", "0"));
           double y = toNumber(elem, readAttribute(elem, "y", "0"));
           tx.translate(x, y);
-          figure.transform(tx);
-          return figure;
+          if (!tx.isIdentity()) {
+            TRANSFORM.put(a2, tx);
+          }
+          return factory.createUse(symbol, a2);
         }
       }
     }
@@ -997,7 +1011,7 @@ public class SVGInputFormat implements InputFormat {
       } else {
         return value;
       }
-    } else if (elem.getParentNode() != null
+    } else if (elem.getParentNode() instanceof Element
         && (elem.getParentNode().getPrefix() == null
             || elem.getParentNode().getPrefix().equals(SVG_NAMESPACE))) {
       return readInheritAttribute((Element) elem.getParentNode(), attributeName, defaultValue);
@@ -1025,7 +1039,7 @@ public class SVGInputFormat implements InputFormat {
         return readInheritColorAttribute(
             (Element) elem.getParentNode(), attributeName, defaultValue);
       }
-    } else if (elem.getParentNode() != null
+    } else if (elem.getParentNode() instanceof Element
         && (elem.getParentNode().getPrefix() == null
             || elem.getParentNode().getPrefix().equals(SVG_NAMESPACE))) {
       value =
@@ -1054,7 +1068,7 @@ public class SVGInputFormat implements InputFormat {
       value = elem.getAttributeNS(SVG_NAMESPACE, attributeName);
     } else if (elem.hasAttribute(attributeName)) {
       value = elem.getAttribute(attributeName);
-    } else if (elem.getParentNode() != null
+    } else if (elem.getParentNode() instanceof Element
         && (elem.getParentNode().getPrefix() == null
             || elem.getParentNode().getPrefix().equals(SVG_NAMESPACE))) {
       return readInheritFontSizeAttribute(
@@ -1082,6 +1096,19 @@ public class SVGInputFormat implements InputFormat {
     }
   }
 
+  /** Returns true, if the element or one of its ancestors specifies a font property. */
+  private boolean isFontSpecified(Element elem) {
+    for (Node node = elem; node instanceof Element; node = node.getParentNode()) {
+      Element e = (Element) node;
+      for (String name : FONT_PROPERTIES) {
+        if (e.hasAttributeNS(SVG_NAMESPACE, name) || e.hasAttribute(name)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /** Reads an attribute that is not inherited, unless its value is "inherit". */
   private String readAttribute(Element elem, String attributeName, String defaultValue) {
     if (elem.hasAttributeNS(SVG_NAMESPACE, attributeName)) {
@@ -1834,9 +1861,7 @@ public class SVGInputFormat implements InputFormat {
   private void identifyElements(Element elem) {
     identifiedElements.put(elem.getAttribute("id"), elem);
     identifiedElements.put(elem.getAttribute("xml:id"), elem);
-    NodeList list = elem.getChildNodes();
-    for (int i = 0; i < list.getLength(); i++) {
-      Element child = (Element) list.item(i);
+    for (Element child : getChildElements(elem)) {
       identifyElements(child);
     }
   }
@@ -16,6 +16,7 @@ import java.awt.geom.*;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.*;
@@ -48,10 +49,13 @@ import org.jhotdraw.samples.svg.figures.SVGGroupFigure;
 import org.jhotdraw.samples.svg.figures.SVGImageFigure;
 import org.jhotdraw.samples.svg.figures.SVGPathFigure;
 import org.jhotdraw.samples.svg.figures.SVGRectFigure;
+import org.jhotdraw.samples.svg.figures.SVGSymbol;
 import org.jhotdraw.samples.svg.figures.SVGTextAreaFigure;
 import org.jhotdraw.samples.svg.figures.SVGTextFigure;
+import org.jhotdraw.samples.svg.figures.SVGUseFigure;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 /** An output format for storing drawings as Scalable Vector Graphics SVG Tiny 1.2. */
 public class SVGOutputFormat implements OutputFormat {
@@ -71,6 +75,9 @@ public class SVGOutputFormat implements OutputFormat {
   /** Maps gradients to ID's. We use this, so that we need to store the same gradient only once. */
   private HashMap<Gradient, String> gradientToIDMap;
 
+  /** Maps symbols to ID's. We use this, so that we need to store the same symbol only once. */
+  private HashMap<SVGSymbol, String> symbolToIDMap;
+
   /** Set this to true for pretty printing. */
   private boolean isPrettyPrint;
 
@@ -92,6 +99,29 @@ public class SVGOutputFormat implements OutputFormat {
     STROKE_LINECAP.put(BasicStroke.CAP_SQUARE, "square");
   }
 
+  /**
+   * Maps the attribute keys, which a "use" element can override, to the name and the initial value
+   * of the SVG attribute.
+   */
+  private static final HashMap<AttributeKey<?>, String[]> USE_SHAPE_ATTRIBUTES;
+
+  static {
+    USE_SHAPE_ATTRIBUTES = new HashMap<AttributeKey<?>, String[]>();
+    USE_SHAPE_ATTRIBUTES.put(FILL_COLOR, new String[] {"fill", "#000"});
+    USE_SHAPE_ATTRIBUTES.put(FILL_GRADIENT, new String[] {"fill", "#000"});
+    USE_SHAPE_ATTRIBUTES.put(FILL_OPACITY, new String[] {"fill-opacity", "1"});
+    USE_SHAPE_ATTRIBUTES.put(WINDING_RULE, new String[] {"fill-rule", "nonzero"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_COLOR, new String[] {"stroke", "none"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_GRADIENT, new String[] {"stroke", "none"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_DASHES, new String[] {"stroke-dasharray", "none"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_DASH_PHASE, new String[] {"stroke-dashoffset", "0"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_CAP, new String[] {"stroke-linecap", "butt"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_JOIN, new String[] {"stroke-linejoin", "miter"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_MITER_LIMIT, new String[] {"stroke-miterlimit", "4"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_OPACITY, new String[] {"stroke-opacity", "1"});
+    USE_SHAPE_ATTRIBUTES.put(STROKE_WIDTH, new String[] {"stroke-width", "1"});
+  }
+
   /**
    * Set this variable to true if values should be written with float precision instead with double
    * precision. Float precision is less accurate then double precision, but it uses less storage
@@ -173,6 +203,8 @@ public class SVGOutputFormat implements OutputFormat {
       writeTextElement(parent, (SVGTextFigure) f);
     } else if (f instanceof SVGTextAreaFigure) {
       writeTextAreaElement(parent, (SVGTextAreaFigure) f);
+    } else if (f instanceof SVGUseFigure) {
+      writeUseElement(parent, (SVGUseFigure) f);
     } else {
       System.out.println("Unable to write: " + f);
     }
@@ -346,6 +378,59 @@ public class SVGOutputFormat implements OutputFormat {
     return elem;
   }
 
+  protected void writeUseElement(Element parent, SVGUseFigure f) throws IOException {
+    String id = writeSymbol(f.getSymbol());
+    if (id != null) {
+      parent.appendChild(createUse(document, id, f.attr().getAttributes()));
+    }
+  }
+
+  /**
+   * Writes the prototype of a symbol into the defs element, unless it has been written already.
+   *
+   * @return the ID of the symbol, or null if the prototype can not be written.
+   */
+  private String writeSymbol(SVGSymbol symbol) throws IOException {
+    String id = symbolToIDMap.get(symbol);
+    if (id == null) {
+      Node last = defs.getLastChild();
+      writeElement(defs, symbol.getPrototype());
+      if (defs.getLastChild() == last) {
+        return null;
+      }
+      Element symbolElem = (Element) defs.getLastChild();
+      id = getId(symbolElem);
+      symbolElem.setAttribute("id", id);
+      symbolToIDMap.put(symbol, id);
+    }
+    return id;
+  }
+
+  /**
+   * Creates a "use" element. Only the shape attributes which are set in the attributes map are
+   * written, because a "use" element overrides all shape attributes it specifies.
+   */
+  protected Element createUse(Element doc, String id, Map<AttributeKey<?>, Object> attributes)
+      throws IOException {
+    Element elem = doc.getOwnerDocument().createElement("use");
+    writeAttribute(elem, "xlink:href", "#" + id, "");
+    Element shape = doc.getOwnerDocument().createElement("use");
+    writeShapeAttributes(shape, attributes);
+    for (Map.Entry<AttributeKey<?>, String[]> entry : USE_SHAPE_ATTRIBUTES.entrySet()) {
+      if (attributes.containsKey(entry.getKey())) {
+        String name = entry.getValue()[0];
+        elem.setAttribute(
+            name, shape.hasAttribute(name) ? shape.getAttribute(name) : entry.getValue()[1]);
+      }
+    }
+    if (attributes.containsKey(FONT_FACE)) {
+      writeFontAttributes(elem, attributes);
+    }
+    writeOpacityAttribute(elem, attributes);
+    writeTransformAttribute(elem, attributes);
+    return elem;
+  }
+
   protected void writePathElement(Element parent, SVGPathFigure f) throws IOException {
     BezierPath[] beziers = new BezierPath[f.getChildCount()];
     for (int i = 0; i < beziers.length; i++) {
@@ -1336,20 +1421,25 @@ public class SVGOutputFormat implements OutputFormat {
     document.setAttribute("xmlns:xlink", "http://www.w3.org/1999/xlink");
     document.setAttribute("version", "1.2");
     document.setAttribute("baseProfile", "tiny");
-    writeViewportAttributes(document, drawing.attr().getAttributes());
-    initStorageContext(document);
-    defs = doc.createElement("defs");
-    document.appendChild(defs);
-    for (Figure f : figures) {
-      writeElement(document, f);
+    // The drawing must not change until the DOM has been built
+    Lock readLock = drawing.getReadWriteLock().readLock();
+    readLock.lock();
+    try {
+      writeViewportAttributes(document, drawing.attr().getAttributes());
+      initStorageContext(document);
+      defs = doc.createElement("defs");
+      document.appendChild(defs);
+      for (Figure f : figures) {
+        writeElement(document, f);
+      }
+    } finally {
+      readLock.unlock();
     }
-    // Write XML prolog
-    PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, "UTF-8"));
-    writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-    // Write XML content
+    // Write XML content. The transformer writes the XML prolog.
     Transformer t;
     try {
       t = TransformerFactory.newInstance().newTransformer();
+      t.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
       if (isPrettyPrint) {
         t.setOutputProperty(OutputKeys.INDENT, "yes");
       }
@@ -1357,13 +1447,12 @@ public class SVGOutputFormat implements OutputFormat {
     } catch (TransformerException ex) {
       Logger.getLogger(SVGOutputFormat.class.getName()).log(Level.SEVERE, null, ex);
     }
-    // Flush writer
-    writer.flush();
   }
 
   private void initStorageContext(Element root) {
     identifiedElements = new HashMap<Element, String>();
     gradientToIDMap = new HashMap<Gradient, String>();
+    symbolToIDMap = new HashMap<SVGSymbol, String>();
   }
 
   /** Gets a unique ID for the specified element. */
@@ -1385,4 +1474,9 @@ public class SVGOutputFormat implements OutputFormat {
     return new InputStreamTransferable(
         new DataFlavor(SVG_MIMETYPE, "Image SVG"), buf.toByteArray());
   }
+
+  @Override
+  public DataFlavor[] getTransferDataFlavors() {
+    return new DataFlavor[] {new DataFlavor(SVG_MIMETYPE, "Image SVG")};
+  }
 }
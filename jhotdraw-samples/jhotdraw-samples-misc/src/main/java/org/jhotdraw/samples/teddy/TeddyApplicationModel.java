@@ -15,6 +15,7 @@ import org.jhotdraw.api.app.MenuBuilder;
 import org.jhotdraw.api.app.View;
 import org.jhotdraw.app.DefaultApplicationModel;
 import org.jhotdraw.app.DefaultMenuBuilder;
+import org.jhotdraw.app.LazyActionMap;
 import org.jhotdraw.app.action.file.PrintFileAction;
 import org.jhotdraw.gui.JFileURIChooser;
 import org.jhotdraw.samples.teddy.action.FindAction;
@@ -36,12 +37,11 @@ public class TeddyApplicationModel extends DefaultApplicationModel {
 
   @Override
   public ActionMap createActionMap(Application a, View v) {
-    ActionMap m = super.createActionMap(a, v);
-    AbstractAction aa;
-    m.put(FindAction.ID, new FindAction(a, v));
-    m.put(ToggleLineWrapAction.ID, new ToggleLineWrapAction(a, v));
-    m.put(ToggleStatusBarAction.ID, new ToggleStatusBarAction(a, v));
-    m.put(ToggleLineNumbersAction.ID, new ToggleLineNumbersAction(a, v));
+    LazyActionMap m = (LazyActionMap) super.createActionMap(a, v);
+    m.putLazy(FindAction.ID, () -> new FindAction(a, v));
+    m.putLazy(ToggleLineWrapAction.ID, () -> new ToggleLineWrapAction(a, v));
+    m.putLazy(ToggleStatusBarAction.ID, () -> new ToggleStatusBarAction(a, v));
+    m.putLazy(ToggleLineNumbersAction.ID, () -> new ToggleLineNumbersAction(a, v));
     m.put(PrintFileAction.ID, null);
     return m;
   }
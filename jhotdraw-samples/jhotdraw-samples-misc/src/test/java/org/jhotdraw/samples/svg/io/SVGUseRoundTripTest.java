@@ -0,0 +1,94 @@
+/*
+ * @(#)SVGUseRoundTripTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.samples.svg.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.jhotdraw.draw.AttributeKeys;
+import org.jhotdraw.draw.DefaultDrawing;
+import org.jhotdraw.draw.Drawing;
+import org.jhotdraw.draw.figure.Figure;
+import org.jhotdraw.samples.svg.figures.SVGUseFigure;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class SVGUseRoundTripTest {
+
+  private static final String SVG =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<svg xmlns=\"http://www.w3.org/2000/svg\""
+          + " xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"200\" height=\"100\">\n"
+          + "  <defs>\n"
+          + "    <rect id=\"box\" x=\"0\" y=\"0\" width=\"10\" height=\"10\" fill=\"red\"/>\n"
+          + "  </defs>\n"
+          + "  <use xlink:href=\"#box\" transform=\"translate(10,10)\"/>\n"
+          + "  <use xlink:href=\"#box\" transform=\"translate(50,10)\" fill=\"blue\"/>\n"
+          + "  <use xlink:href=\"#box\" x=\"90\" y=\"10\"/>\n"
+          + "</svg>\n";
+
+  private static Drawing read(byte[] svg) throws Exception {
+    Drawing drawing = new DefaultDrawing();
+    new SVGInputFormat().read(new ByteArrayInputStream(svg), drawing, true);
+    return drawing;
+  }
+
+  private static byte[] write(Drawing drawing) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new SVGOutputFormat().write(out, drawing);
+    return out.toByteArray();
+  }
+
+  private static void assertInstancesOfOneSymbol(Drawing drawing) {
+    List<Figure> children = drawing.getChildren();
+    assertThat(children).hasSize(3).allMatch(f -> f instanceof SVGUseFigure);
+    SVGUseFigure first = (SVGUseFigure) children.get(0);
+    for (Figure f : children) {
+      assertThat(((SVGUseFigure) f).getSymbol()).isSameAs(first.getSymbol());
+    }
+    assertThat(first.getBounds()).isEqualTo(new Rectangle2D.Double(10, 10, 10, 10));
+    assertThat(children.get(2).getBounds().x).isEqualTo(90d);
+    assertThat(children.get(1).attr().get(AttributeKeys.FILL_COLOR)).isEqualTo(Color.BLUE);
+    assertThat(((SVGUseFigure) children.get(0)).getOverrides()).isEmpty();
+  }
+
+  @Test
+  public void testUseElementsSurviveRoundTrip() throws Exception {
+    Drawing drawing = read(SVG.getBytes(StandardCharsets.UTF_8));
+    assertInstancesOfOneSymbol(drawing);
+
+    byte[] written = write(drawing);
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    Element svg =
+        factory.newDocumentBuilder().parse(new ByteArrayInputStream(written)).getDocumentElement();
+    NodeList defs = svg.getElementsByTagNameNS("*", "defs");
+    assertThat(defs.getLength()).isEqualTo(1);
+    NodeList definitions = ((Element) defs.item(0)).getElementsByTagNameNS("*", "rect");
+    assertThat(definitions.getLength()).isEqualTo(1);
+    String id = ((Element) definitions.item(0)).getAttribute("id");
+    NodeList uses = svg.getElementsByTagNameNS("*", "use");
+    assertThat(uses.getLength()).isEqualTo(3);
+    for (int i = 0; i < uses.getLength(); i++) {
+      Element use = (Element) uses.item(i);
+      assertThat(use.getAttribute("xlink:href")).isEqualTo("#" + id);
+      assertThat(use.getAttribute("transform")).isNotEmpty();
+    }
+    assertThat(((Element) uses.item(0)).hasAttribute("fill")).isFalse();
+    assertThat(((Element) uses.item(1)).getAttribute("fill")).isEqualTo("#00f");
+
+    assertInstancesOfOneSymbol(read(written));
+  }
+}
@@ -62,14 +62,17 @@ public class BezierPath implements Shape, Serializable, Cloneable {
   /** Constant for having control points C1 and C2 in effect (in addition to C0). */
   public static final int C1C2_MASK = C1_MASK | C2_MASK;
 
-  /** We cache a Path2D.Double instance to speed up Shape operations. */
-  private transient Path2D.Double generalPath;
+  /**
+   * We cache a Path2D.Double instance to speed up Shape operations. The caches are volatile,
+   * because several threads may read the path at the same time, and compute them.
+   */
+  private transient volatile Path2D.Double generalPath;
 
   /** We cache a Rectangle2D.Double instance to speed up getBounds operations. */
-  private transient Rectangle2D.Double bounds;
+  private transient volatile Rectangle2D.Double bounds;
 
   /** We cache the index of the outermost node to speed up method indexOfOutermostNode(); */
-  private int outer = -1;
+  private volatile int outer = -1;
 
   /** If this value is set to true, closes the bezier path. */
   private boolean isClosed;
@@ -724,20 +727,22 @@ public class BezierPath implements Shape, Serializable, Cloneable {
 
   /** Return the index of the node that is the furthest away from the center */
   public int indexOfOutermostNode() {
-    if (outer == -1) {
+    int index = outer;
+    if (index == -1) {
       Point2D.Double ctr = getCenter();
-      outer = 0;
+      index = 0;
       double dist = 0;
       for (int i = 0, n = NODES.size(); i < n; i++) {
         Node cp = NODES.get(i);
         double d = Geom.length2(ctr.x, ctr.y, cp.x[0], cp.y[0]);
         if (d > dist) {
           dist = d;
-          outer = i;
+          index = i;
         }
       }
+      outer = index;
     }
-    return outer;
+    return index;
   }
 
   /**
@@ -13,6 +13,7 @@ import java.io.Serializable;
 import java.net.*;
 import java.text.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.*;
 
 /**
@@ -48,6 +49,10 @@ import javax.swing.*;
  *       ctrl, meta, alt, altGraph by properties which start with {@code accelerator.}. For example,
  *       shift is replaced by {@code accelerator.shift}.
  * </ul>
+ *
+ * <p><b>Caching</b><br>
+ * Resolved property values, icons and the labels of actions are shared by all instances with the
+ * same base name and locale. The cache is cleared when a property name modifier is changed.
  */
 public class ResourceBundleUtil implements Serializable {
 
@@ -59,6 +64,9 @@ public class ResourceBundleUtil implements Serializable {
   /** The wrapped resource bundle. */
   private transient ResourceBundle resource;
 
+  /** The resolved values of the wrapped resource bundle. */
+  private transient Resolved resolved;
+
   /** The locale. */
   private Locale locale;
 
@@ -77,6 +85,51 @@ public class ResourceBundleUtil implements Serializable {
    */
   private static HashMap<String, String[]> propertyNameModifiers = new HashMap<String, String[]>();
 
+  /** The resolved values of the resource bundles. The key is the base name and the locale. */
+  private static final ConcurrentHashMap<String, Resolved> RESOLVED_BUNDLES =
+      new ConcurrentHashMap<>();
+
+  /** The icons which have been loaded. */
+  private static final ConcurrentHashMap<URL, ImageIcon> ICONS = new ConcurrentHashMap<>();
+
+  /** Marks a property which is missing in the resolved values. */
+  private static final Object MISSING = new Object();
+
+  /** The values resolved from one resource bundle. */
+  private static class Resolved {
+
+    /** Maps property keys to their values with substituted placeholders, or to MISSING. */
+    final ConcurrentHashMap<String, Object> strings = new ConcurrentHashMap<>();
+
+    /** Maps an argument and a base class to the labels of an action. */
+    final ConcurrentHashMap<List<Object>, Labels> labels = new ConcurrentHashMap<>();
+
+    void clear() {
+      strings.clear();
+      labels.clear();
+    }
+  }
+
+  /** The immutable labels of an action, a button or a menu item. */
+  private static class Labels {
+
+    final String text;
+    final String toolTipText;
+    final KeyStroke accelerator;
+    final char mnemonic;
+    final ImageIcon smallIcon;
+    final ImageIcon largeIcon;
+
+    Labels(ResourceBundleUtil r, String argument, Class<?> baseClass) {
+      text = r.getTextProperty(argument);
+      toolTipText = r.getToolTipTextProperty(argument);
+      accelerator = r.getAcceleratorProperty(argument);
+      mnemonic = r.getMnemonicProperty(argument);
+      smallIcon = r.getSmallIconProperty(argument, baseClass);
+      largeIcon = r.getLargeIconProperty(argument, baseClass);
+    }
+  }
+
   static {
     String osName = System.getProperty("os.name").toLowerCase();
     String os;
@@ -95,6 +148,11 @@ public class ResourceBundleUtil implements Serializable {
     this.locale = locale;
     this.baseName = baseName;
     this.resource = ResourceBundle.getBundle(baseName, locale);
+    this.resolved = getResolved(baseName, locale);
+  }
+
+  private static Resolved getResolved(String baseName, Locale locale) {
+    return RESOLVED_BUNDLES.computeIfAbsent(baseName + "_" + locale, k -> new Resolved());
   }
 
   /**
@@ -136,6 +194,24 @@ public class ResourceBundleUtil implements Serializable {
    * @throws java.util.MissingResourceException
    */
   private String getStringRecursive(String key) throws MissingResourceException {
+    // The values are not computed inside of the map, because the computation is recursive
+    Object value = resolved.strings.get(key);
+    if (value == null) {
+      try {
+        value = resolveString(key);
+      } catch (MissingResourceException e) {
+        value = MISSING;
+      }
+      resolved.strings.put(key, value);
+    }
+    if (value == MISSING) {
+      throw new MissingResourceException("\"" + key + "\" not found in " + baseName, baseName, key);
+    }
+    return (String) value;
+  }
+
+  /** Gets a value from the resource bundle and substitutes its placeholders. */
+  private String resolveString(String key) throws MissingResourceException {
     String value = resource.getString(key);
     // Substitute placeholders in the value
     for (int p1 = value.indexOf("${"); p1 != -1; p1 = value.indexOf("${")) {
@@ -298,7 +374,7 @@ public class ResourceBundleUtil implements Serializable {
                 + rsrcName
                 + " not found.");
       }
-      return (url == null) ? null : new ImageIcon(url);
+      return (url == null) ? null : ICONS.computeIfAbsent(url, ImageIcon::new);
     } catch (MissingResourceException e) {
       if (isVerbose) {
         System.err.println(
@@ -456,16 +532,28 @@ public class ResourceBundleUtil implements Serializable {
     configureAction(action, argument, getBaseClass());
   }
 
+  /** Returns the labels for the specified argument, which are resolved once per locale. */
+  private Labels getLabels(String argument, Class<?> baseClass) {
+    List<Object> key = Arrays.asList(argument, baseClass);
+    Labels labels = resolved.labels.get(key);
+    if (labels == null) {
+      labels = new Labels(this, argument, baseClass);
+      resolved.labels.put(key, labels);
+    }
+    return labels;
+  }
+
   public void configureAction(Action action, String argument, Class<?> baseClass) {
-    action.putValue(Action.NAME, getTextProperty(argument));
-    String shortDescription = getToolTipTextProperty(argument);
+    Labels labels = getLabels(argument, baseClass);
+    action.putValue(Action.NAME, labels.text);
+    String shortDescription = labels.toolTipText;
     if (shortDescription != null && shortDescription.length() > 0) {
       action.putValue(Action.SHORT_DESCRIPTION, shortDescription);
     }
-    action.putValue(Action.ACCELERATOR_KEY, getAcceleratorProperty(argument));
-    action.putValue(Action.MNEMONIC_KEY, Integer.valueOf(getMnemonicProperty(argument)));
-    action.putValue(Action.SMALL_ICON, getSmallIconProperty(argument, baseClass));
-    action.putValue(Action.LARGE_ICON_KEY, getLargeIconProperty(argument, baseClass));
+    action.putValue(Action.ACCELERATOR_KEY, labels.accelerator);
+    action.putValue(Action.MNEMONIC_KEY, Integer.valueOf(labels.mnemonic));
+    action.putValue(Action.SMALL_ICON, labels.smallIcon);
+    action.putValue(Action.LARGE_ICON_KEY, labels.largeIcon);
   }
 
   public void configureButton(AbstractButton button, String argument) {
@@ -498,12 +586,13 @@ public class ResourceBundleUtil implements Serializable {
 
   /** Configures a menu item with a text, an accelerator, a mnemonic and a menu icon. */
   public void configureMenu(JMenuItem menu, String argument) {
-    menu.setText(getTextProperty(argument));
+    Labels labels = getLabels(argument, baseClass);
+    menu.setText(labels.text);
     if (!(menu instanceof JMenu)) {
-      menu.setAccelerator(getAcceleratorProperty(argument));
+      menu.setAccelerator(labels.accelerator);
     }
-    menu.setMnemonic(getMnemonicProperty(argument));
-    menu.setIcon(getLargeIconProperty(argument, baseClass));
+    menu.setMnemonic(labels.mnemonic);
+    menu.setIcon(labels.largeIcon);
   }
 
   public JMenuItem createMenuItem(Action a, String baseName) {
@@ -546,11 +635,20 @@ public class ResourceBundleUtil implements Serializable {
    */
   public static void putPropertyNameModifier(String name, String... fallbackChain) {
     propertyNameModifiers.put(name, fallbackChain);
+    clearResolvedValues();
   }
 
   /** Removes a property name modifier. */
   public static void removePropertyNameModifier(String name) {
     propertyNameModifiers.remove(name);
+    clearResolvedValues();
+  }
+
+  /** Clears the resolved values, because they depend on the property name modifiers. */
+  private static void clearResolvedValues() {
+    for (Resolved r : RESOLVED_BUNDLES.values()) {
+      r.clear();
+    }
   }
 
   /** Read object from ObjectInputStream and re-establish ResourceBundle. */
@@ -559,5 +657,6 @@ public class ResourceBundleUtil implements Serializable {
     in.defaultReadObject();
     // re-establish the "resource" variable
     this.resource = ResourceBundle.getBundle(baseName, locale);
+    this.resolved = getResolved(baseName, locale);
   }
 }
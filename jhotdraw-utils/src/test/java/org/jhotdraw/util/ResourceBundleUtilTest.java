@@ -0,0 +1,80 @@
+/*
+ * @(#)ResourceBundleUtilTest.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.event.ActionEvent;
+import java.util.Locale;
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ResourceBundleUtilTest {
+
+  private static final String BASE_NAME = "org.jhotdraw.util.TestLabels";
+
+  private final ResourceBundleUtil labels = new ResourceBundleUtil(BASE_NAME, Locale.ENGLISH);
+
+  @AfterEach
+  public void tearDown() {
+    ResourceBundleUtil.removePropertyNameModifier("lang");
+  }
+
+  private static Action createAction() {
+    return new AbstractAction() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public void actionPerformed(ActionEvent e) {}
+    };
+  }
+
+  @Test
+  public void testModifierChangeClearsResolvedValues() {
+    ResourceBundleUtil.putPropertyNameModifier("lang", "en", "default");
+    assertThat(labels.getString("greeting")).isEqualTo("Hello World");
+    // Another instance for the same bundle shares the resolved values
+    assertThat(new ResourceBundleUtil(BASE_NAME, Locale.ENGLISH).getString("greeting"))
+        .isEqualTo("Hello World");
+
+    ResourceBundleUtil.putPropertyNameModifier("lang", "fr", "default");
+    assertThat(labels.getString("greeting")).isEqualTo("Hello Nobody");
+
+    ResourceBundleUtil.putPropertyNameModifier("lang", "en", "default");
+    assertThat(labels.getString("greeting")).isEqualTo("Hello World");
+    ResourceBundleUtil.removePropertyNameModifier("lang");
+    assertThat(labels.getString("greeting")).isEqualTo("Hello Nobody");
+  }
+
+  @Test
+  public void testModifierChangeClearsActionLabels() {
+    ResourceBundleUtil.putPropertyNameModifier("lang", "en", "default");
+    Action action = createAction();
+    labels.configureAction(action, "open");
+    assertThat(action.getValue(Action.NAME)).isEqualTo("Open World");
+    assertThat(action.getValue(Action.SHORT_DESCRIPTION)).isEqualTo("Opens a file");
+
+    ResourceBundleUtil.putPropertyNameModifier("lang", "fr", "default");
+    action = createAction();
+    labels.configureAction(action, "open");
+    assertThat(action.getValue(Action.NAME)).isEqualTo("Open Nobody");
+  }
+
+  @Test
+  public void testMissingValuesAreReportedEachTime() {
+    for (int i = 0; i < 2; i++) {
+      assertThat(labels.getString("missing")).isEqualTo("missing");
+      assertThat(labels.getInteger("missing")).isEqualTo(-1);
+      // A value with a missing placeholder is missing as well
+      assertThat(labels.getString("broken")).isEqualTo("broken");
+    }
+    assertThat(labels.getString("name.en")).isEqualTo("World");
+  }
+}
@@ -8,11 +8,17 @@
 package org.jhotdraw.xml;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * {@code DefaultDOMFactory} can be used to serialize DOMStorable objects in a DOM with the use of a
@@ -23,6 +29,7 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
   private record ClassRegistration<T>(
       String tagName,
       Class<T> prototype,
+      Supplier<T> factory,
       BiConsumerWithIOException<T, DOMInput> read,
       BiConsumerWithIOException<T, DOMOutput> write) {}
 
@@ -37,15 +44,36 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
   @SuppressWarnings("rawtypes")
   private static final HashMap<String, Set<Enum>> VALUE_TO_ENUM = new HashMap<String, Set<Enum>>();
 
+  /**
+   * Maps an enum class to a table from values to enum constants. The tables are computed on first
+   * use from the enum constants and from VALUE_TO_ENUM.
+   */
+  @SuppressWarnings("rawtypes")
+  private static final Map<Class<?>, Map<String, Enum>> ENUM_VALUE_TABLES =
+      new ConcurrentHashMap<>();
+
   public DefaultDOMFactory() {}
 
-  /** register a dom tag processor */
+  /**
+   * register a dom tag processor. Instances of the prototype class are created with its public
+   * no-argument constructor, which is resolved once.
+   */
+  public <T> void register(
+      String tagName,
+      Class<T> prototype,
+      BiConsumerWithIOException<T, DOMInput> read,
+      BiConsumerWithIOException<T, DOMOutput> write) {
+    register(tagName, prototype, createConstructorSupplier(prototype), read, write);
+  }
+
+  /** register a dom tag processor, which creates instances with the specified supplier. */
   public <T> void register(
       String tagName,
       Class<T> prototype,
+      Supplier<T> factory,
       BiConsumerWithIOException<T, DOMInput> read,
       BiConsumerWithIOException<T, DOMOutput> write) {
-    final ClassRegistration reg = new ClassRegistration(tagName, prototype, read, write);
+    final ClassRegistration reg = new ClassRegistration(tagName, prototype, factory, read, write);
     // to avoid double hashmaps we register each registration twice, one for the key tagName and one
     // for the key className.
     REGISTRATION.put(tagName, reg);
@@ -67,6 +95,35 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
         (t, domOutput) -> ((DOMStorable) t).write(domOutput));
   }
 
+  /**
+   * Returns a supplier which invokes the public no-argument constructor of the specified class
+   * through a method handle. If the class has no such constructor, the supplier throws an
+   * IllegalArgumentException when it is used.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Supplier<T> createConstructorSupplier(Class<T> type) {
+    final MethodHandle constructor;
+    try {
+      constructor =
+          MethodHandles.publicLookup()
+              .findConstructor(type, MethodType.methodType(void.class))
+              .asType(MethodType.methodType(Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return () -> {
+        throw new IllegalArgumentException("Storable class not instantiable: " + type.getName(), e);
+      };
+    }
+    return () -> {
+      try {
+        return (T) constructor.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalArgumentException("could not create " + type.getName(), e);
+      }
+    };
+  }
+
   //  /** Adds a DOMStorable class to the DOMFactory. */
   //  public void addStorableClass(String name, Class<?> c) {
   //    NAME_TO_PROTOTYPE.put(name, c);
@@ -83,6 +140,7 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
   public void addEnumClass(String name, Class<?> c) {
     ENUM_TO_NAME.put(c, name);
     NAME_TO_ENUM.put(name, c);
+    ENUM_VALUE_TABLES.remove(c);
   }
 
   /** Adds an Enum value to the DOMFactory. */
@@ -97,6 +155,7 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
       VALUE_TO_ENUM.put(value, enums);
     }
     enums.add(e);
+    ENUM_VALUE_TABLES.remove(e.getDeclaringClass());
   }
 
   /** Creates a DOMStorable object and reads it in. */
@@ -107,14 +166,7 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
     if (reg == null) {
       throw new IllegalArgumentException("Storable name not known to factory: " + name);
     }
-    try {
-      return reg.prototype().getConstructor().newInstance();
-    } catch (Exception e) {
-      IllegalArgumentException error =
-          new IllegalArgumentException("Storable class not instantiable by factory: " + name);
-      error.initCause(e);
-      throw error;
-    }
+    return reg.factory().get();
   }
 
   @Override
@@ -137,12 +189,7 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
     ClassRegistration reg = REGISTRATION.get(tagName);
 
     if (reg != null) {
-      Object instance;
-      try {
-        instance = reg.prototype().getConstructor().newInstance();
-      } catch (Exception ex) {
-        throw new IllegalArgumentException("could not create class", ex);
-      }
+      Object instance = reg.factory().get();
       reg.read().accept(instance, in);
       return instance;
     }
@@ -170,9 +217,11 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
   @SuppressWarnings("rawtypes")
   @Override
   protected String getEnumName(Enum e) {
-    String name = ENUM_TO_NAME.get(e.getClass());
+    // Constants with a body are instances of a subclass of their enum class
+    String name = ENUM_TO_NAME.get(e.getDeclaringClass());
     if (name == null) {
-      throw new IllegalArgumentException("Enum class not known to factory:" + e.getClass());
+      throw new IllegalArgumentException(
+          "Enum class not known to factory:" + e.getDeclaringClass());
     }
     return name;
   }
@@ -180,7 +229,8 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
   @SuppressWarnings("rawtypes")
   @Override
   protected String getEnumValue(Enum e) {
-    return (ENUM_TO_VALUE.containsKey(e)) ? ENUM_TO_VALUE.get(e) : e.toString();
+    String value = ENUM_TO_VALUE.get(e);
+    return (value != null) ? value : e.toString();
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
@@ -190,16 +240,34 @@ public class DefaultDOMFactory extends JavaPrimitivesDOMFactory {
     if (enumClass == null) {
       throw new IllegalArgumentException("Enum name not known to factory:" + name);
     }
-    Set<Enum> enums = VALUE_TO_ENUM.get(value);
-    if (enums == null) {
-      return Enum.valueOf(enumClass, value);
+    Enum e =
+        ENUM_VALUE_TABLES
+            .computeIfAbsent(enumClass, DefaultDOMFactory::createEnumValueTable)
+            .get(value);
+    if (e == null) {
+      throw new IllegalArgumentException("Enum value not known to factory:" + value);
+    }
+    return e;
+  }
+
+  /**
+   * Creates a table from values to the constants of the specified enum class. A constant can be
+   * looked up by its name, and by the values which have been added with {@link #addEnum}.
+   */
+  @SuppressWarnings("rawtypes")
+  private static Map<String, Enum> createEnumValueTable(Class<?> enumClass) {
+    HashMap<String, Enum> table = new HashMap<>();
+    for (Object constant : enumClass.getEnumConstants()) {
+      table.put(((Enum) constant).name(), (Enum) constant);
     }
-    for (Enum e : enums) {
-      if (e.getClass() == enumClass) {
-        return e;
+    for (Map.Entry<String, Set<Enum>> entry : VALUE_TO_ENUM.entrySet()) {
+      for (Enum e : entry.getValue()) {
+        if (e.getDeclaringClass() == enumClass) {
+          table.put(entry.getKey(), e);
+        }
       }
     }
-    throw new IllegalArgumentException("Enum value not known to factory:" + value);
+    return table;
   }
 
   @FunctionalInterface
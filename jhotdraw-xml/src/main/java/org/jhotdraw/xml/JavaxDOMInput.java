@@ -40,25 +40,41 @@ public class JavaxDOMInput implements DOMInput {
   /** The factory used to create objects from XML tag names. */
   private DOMFactory factory;
 
-  protected static DocumentBuilder documentBuilder;
+  /**
+   * This field is no longer used.
+   *
+   * @deprecated The document builders are kept for each thread, see {@link #getBuilder}. A shared
+   *     document builder can not be used by several threads at the same time.
+   */
+  @Deprecated protected static DocumentBuilder documentBuilder;
+
+  /**
+   * Holds a document builder for each thread. Document builders are not thread safe, but creating
+   * one for each document is expensive.
+   */
+  private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS =
+      ThreadLocal.withInitial(JavaxDOMInput::createBuilder);
 
-  /** Lazily create the document builder and keep a reference to it for performance improvement. */
+  /** Returns the document builder of the current thread. */
   protected static DocumentBuilder getBuilder() throws IOException {
-    if (documentBuilder == null) {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      factory.setNamespaceAware(true);
-      factory.setValidating(false);
-      factory.setXIncludeAware(false);
-      try {
-        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        documentBuilder = factory.newDocumentBuilder();
-      } catch (Exception ex) {
-        InternalError error = new InternalError("Unable to create DocumentBuilder");
-        error.initCause(ex);
-        throw error;
-      }
+    DocumentBuilder builder = DOCUMENT_BUILDERS.get();
+    builder.reset();
+    return builder;
+  }
+
+  private static DocumentBuilder createBuilder() {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    factory.setValidating(false);
+    factory.setXIncludeAware(false);
+    try {
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      return factory.newDocumentBuilder();
+    } catch (Exception ex) {
+      InternalError error = new InternalError("Unable to create DocumentBuilder");
+      error.initCause(ex);
+      throw error;
     }
-    return documentBuilder;
   }
 
   public JavaxDOMInput(DOMFactory factory, InputStream in) throws IOException {
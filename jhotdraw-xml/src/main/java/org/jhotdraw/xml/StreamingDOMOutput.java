@@ -0,0 +1,366 @@
+/*
+ * @(#)StreamingDOMOutput.java
+ *
+ * Copyright (c) 1996-2010 The authors and contributors of JHotDraw.
+ * You may not use, copy or modify this file, except in compliance with the
+ * accompanying license terms.
+ */
+package org.jhotdraw.xml;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@code DOMOutput} which writes XML to a stream while the objects are being written, instead of
+ * building a DOM document in memory first.
+ *
+ * <p>The output is compatible with {@link JavaxDOMOutput}: objects get the same {@code id} and
+ * {@code ref} attributes, and the attributes of each element are written in alphabetical order,
+ * like the DOM serializer does.
+ *
+ * <p>Since an element is written as soon as its content starts, all attributes of an element must
+ * be added before its first child element, text or comment. The output must be completed with
+ * {@link #finish} or {@link #close}.
+ *
+ * <p>The {@code DOMOutput} methods which add elements and attributes do not throw {@code
+ * IOException}s. If writing fails, the error is kept and thrown by the next call to {@link
+ * #writeObject}, {@link #finish} or {@link #close}.
+ */
+public class StreamingDOMOutput implements DOMOutput, Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Writer out;
+  private final DOMFactory factory;
+  private String doctype;
+  private boolean isDocumentStarted;
+  private IOException error;
+
+  /** Maps objects which have been written to their id. */
+  private final HashMap<Object, String> objectids = new HashMap<>();
+
+  private HashMap<String, Object> prototypes;
+
+  /** The tag names of the open elements. */
+  private final ArrayList<String> openElements = new ArrayList<>();
+
+  /** The attributes of the current element, as long as its start tag has not been written. */
+  private final TreeMap<String, String> pendingAttributes = new TreeMap<>();
+
+  private boolean isStartTagPending;
+
+  /** Creates a new instance which writes UTF-8 encoded XML to the specified stream. */
+  public StreamingDOMOutput(DOMFactory factory, OutputStream out) {
+    this(factory, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  /** Creates a new instance which writes XML to the specified writer. */
+  public StreamingDOMOutput(DOMFactory factory, Writer out) {
+    this.factory = factory;
+    this.out = (out instanceof BufferedWriter) ? out : new BufferedWriter(out, BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new instance which writes UTF-8 encoded XML into the specified file.
+   *
+   * @param factory the factory
+   * @param file the file, an existing file is replaced
+   * @param gzip whether the XML is gzip compressed
+   */
+  public static StreamingDOMOutput open(DOMFactory factory, Path file, boolean gzip)
+      throws IOException {
+    OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+    if (gzip) {
+      stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+    }
+    return new StreamingDOMOutput(factory, stream);
+  }
+
+  @Override
+  public void setDoctype(String doctype) {
+    if (isDocumentStarted) {
+      throw new IllegalStateException("The doctype must be set before the document is started.");
+    }
+    this.doctype = doctype;
+  }
+
+  @Override
+  public void openElement(String tagName) {
+    startContent();
+    isStartTagPending = true;
+    openElements.add(tagName);
+  }
+
+  @Override
+  public void closeElement() {
+    if (openElements.isEmpty()) {
+      throw new IllegalStateException("There is no open element.");
+    }
+    String tagName = openElements.remove(openElements.size() - 1);
+    if (isStartTagPending) {
+      writeStartTag(tagName, true);
+    } else {
+      write("</");
+      write(tagName);
+      write(">");
+    }
+  }
+
+  @Override
+  public void addComment(String comment) {
+    startContent();
+    write("<!--");
+    write(comment);
+    write("-->");
+  }
+
+  @Override
+  public void addText(String text) {
+    startContent();
+    writeEscaped(text, false);
+  }
+
+  @Override
+  public void addAttribute(String name, String value) {
+    if (value != null) {
+      if (!isStartTagPending) {
+        throw new IllegalStateException(
+            "Attribute \"" + name + "\" must be added before the content of the element.");
+      }
+      pendingAttributes.put(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, String value, String defaultValue) {
+    if (!value.equals(defaultValue)) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, int value) {
+    addAttribute(name, Integer.toString(value));
+  }
+
+  @Override
+  public void addAttribute(String name, int value, int defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, boolean value) {
+    addAttribute(name, Boolean.toString(value));
+  }
+
+  @Override
+  public void addAttribute(String name, boolean value, boolean defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, float value) {
+    // Remove the awkard .0 at the end of each number
+    String str = Float.toString(value);
+    if (str.endsWith(".0")) {
+      str = str.substring(0, str.length() - 2);
+    }
+    addAttribute(name, str);
+  }
+
+  @Override
+  public void addAttribute(String name, float value, float defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void addAttribute(String name, double value) {
+    // Remove the awkard .0 at the end of each number
+    String str = Double.toString(value);
+    if (str.endsWith(".0")) {
+      str = str.substring(0, str.length() - 2);
+    }
+    addAttribute(name, str);
+  }
+
+  @Override
+  public void addAttribute(String name, double value, double defaultValue) {
+    if (value != defaultValue) {
+      addAttribute(name, value);
+    }
+  }
+
+  @Override
+  public void writeObject(Object o) throws IOException {
+    String tagName = factory.getName(o);
+    if (tagName == null) {
+      throw new IllegalArgumentException("no tag name for:" + o);
+    }
+    openElement(tagName);
+    String ref = objectids.get(o);
+    if (ref != null) {
+      addAttribute("ref", ref);
+    } else {
+      String id = Integer.toString(objectids.size(), 16);
+      objectids.put(o, id);
+      addAttribute("id", id);
+      factory.write(this, o);
+    }
+    closeElement();
+    checkError();
+  }
+
+  @Override
+  public Object getPrototype() {
+    if (prototypes == null) {
+      prototypes = new HashMap<>();
+    }
+    String tagName = openElements.get(openElements.size() - 1);
+    return prototypes.computeIfAbsent(tagName, factory::createPrototype);
+  }
+
+  /**
+   * Closes all open elements and flushes the output. The underlying stream is not closed.
+   *
+   * @throws IOException if writing has failed
+   */
+  public void finish() throws IOException {
+    while (!openElements.isEmpty()) {
+      closeElement();
+    }
+    if (error == null) {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        error = e;
+      }
+    }
+    checkError();
+  }
+
+  /** Completes the output with {@link #finish}, and closes the underlying stream. */
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void checkError() throws IOException {
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /** Writes the XML declaration, and the start tag of the current element, if necessary. */
+  private void startContent() {
+    if (!isDocumentStarted) {
+      isDocumentStarted = true;
+      write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+      if (doctype != null) {
+        write("<!DOCTYPE ");
+        write(doctype);
+        write(">\n");
+      }
+    }
+    if (isStartTagPending) {
+      writeStartTag(openElements.get(openElements.size() - 1), false);
+    }
+  }
+
+  private void writeStartTag(String tagName, boolean isEmpty) {
+    write("<");
+    write(tagName);
+    for (Map.Entry<String, String> attr : pendingAttributes.entrySet()) {
+      write(" ");
+      write(attr.getKey());
+      write("=\"");
+      writeEscaped(attr.getValue(), true);
+      write("\"");
+    }
+    write(isEmpty ? "/>" : ">");
+    pendingAttributes.clear();
+    isStartTagPending = false;
+  }
+
+  private void write(String str) {
+    if (error == null) {
+      try {
+        out.write(str);
+      } catch (IOException e) {
+        error = e;
+      }
+    }
+  }
+
+  /**
+   * Writes text with markup characters replaced by entities. In attribute values, line breaks and
+   * tabs are written as character references, so that they survive attribute value normalization.
+   */
+  private void writeEscaped(String str, boolean isAttribute) {
+    if (error != null) {
+      return;
+    }
+    try {
+      int start = 0;
+      for (int i = 0, n = str.length(); i < n; i++) {
+        String replacement;
+        switch (str.charAt(i)) {
+          case '&':
+            replacement = "&amp;";
+            break;
+          case '<':
+            replacement = "&lt;";
+            break;
+          case '>':
+            replacement = "&gt;";
+            break;
+          case '\r':
+            replacement = "&#13;";
+            break;
+          case '"':
+            replacement = isAttribute ? "&quot;" : null;
+            break;
+          case '\n':
+            replacement = isAttribute ? "&#10;" : null;
+            break;
+          case '\t':
+            replacement = isAttribute ? "&#9;" : null;
+            break;
+          default:
+            replacement = null;
+            break;
+        }
+        if (replacement != null) {
+          out.write(str, start, i - start);
+          out.write(replacement);
+          start = i + 1;
+        }
+      }
+      out.write(str, start, str.length() - start);
+    } catch (IOException e) {
+      error = e;
+    }
+  }
+}